@@ -34,6 +34,7 @@ import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.everrest.CheAsynchronousJobPool;
 import org.eclipse.che.plugin.maven.generator.archetype.ArchetypeGenerator;
 import org.eclipse.che.plugin.maven.generator.archetype.ArchetypeGeneratorModule;
+import org.eclipse.che.git.impl.jgit.JGitConnectionFactory;
 import org.eclipse.che.git.impl.nativegit.LocalGitUserResolver;
 import org.eclipse.che.git.impl.nativegit.NativeGitConnectionFactory;
 import org.eclipse.che.ide.ext.java.jdi.server.JavaDebuggerService;
@@ -47,6 +48,7 @@ import org.everrest.core.impl.async.AsynchronousJobService;
 import org.everrest.guice.ServiceBindingHelper;
 
 import javax.inject.Named;
+import javax.inject.Provider;
 import java.net.URI;
 
 /**
@@ -79,7 +81,6 @@ public class WsAgentModule extends AbstractModule {
         bind(GdbDebuggerService.class);
 
         bind(GitUserResolver.class).to(LocalGitUserResolver.class);
-        bind(GitConnectionFactory.class).to(NativeGitConnectionFactory.class);
 
         bind(AsynchronousJobPool.class).to(CheAsynchronousJobPool.class);
         bind(ServiceBindingHelper.bindingKey(AsynchronousJobService.class, "/async/{ws-id}")).to(AsynchronousJobService.class);
@@ -108,4 +109,23 @@ public class WsAgentModule extends AbstractModule {
     Pair<String, String>[] propagateEventsProvider(@Named("event.bus.url") String eventBusURL) {
         return new Pair[] {Pair.of(eventBusURL, "")};
     }
+
+    /**
+     * Selects implementation of git connection by property {@code git.connection.backend}: {@code native} runs git command for each
+     * operation, {@code jgit} reads repository in process and runs git only for operations that change repository.
+     */
+    @Provides
+    GitConnectionFactory gitConnectionFactoryProvider(@Named("git.connection.backend") String backend,
+                                                      Provider<NativeGitConnectionFactory> nativeGitConnectionFactory,
+                                                      Provider<JGitConnectionFactory> jgitConnectionFactory) {
+        switch (backend) {
+            case "native":
+                return nativeGitConnectionFactory.get();
+            case "jgit":
+                return jgitConnectionFactory.get();
+            default:
+                throw new IllegalArgumentException("Unsupported git connection backend '" + backend
+                                                   + "'. Must be either 'native' or 'jgit'.");
+        }
+    }
 }
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link EventSubscriber} which should receive events asynchronously. Events are put in the bounded queue of subscriber
+ * and delivered in the order of publishing by the executor of {@link EventService}, so slow subscriber doesn't block publisher.
+ * With policy {@link BackpressurePolicy#COALESCE_BY_KEY} event itself is used as key, i.e. equal events are coalesced, use
+ * {@link EventService#subscribe(EventSubscriber, DeliveryOptions)} for coalescing with custom key.
+ *
+ * @see EventService
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AsyncDelivery {
+    /** Max number of not delivered events. */
+    int queueCapacity() default DeliveryOptions.DEFAULT_QUEUE_CAPACITY;
+
+    /** What to do when queue is full. */
+    BackpressurePolicy policy() default BackpressurePolicy.BLOCK;
+}
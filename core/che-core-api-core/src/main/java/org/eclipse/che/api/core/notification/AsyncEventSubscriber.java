@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wrapper of {@link EventSubscriber} that delivers events asynchronously. Published events are put in bounded queue and
+ * delivered one by one by executor, so events are delivered in the order of publishing. Subscriber occupies thread of
+ * executor only while there are events in its queue and at most for {@link #MAX_EVENTS_PER_RUN} events in a row.
+ */
+class AsyncEventSubscriber implements EventSubscriber<Object> {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncEventSubscriber.class);
+
+    private static final int MAX_EVENTS_PER_RUN = 64;
+
+    private static class Pending {
+        final Object key;
+        final long   time;
+        Object event;
+
+        Pending(Object key, Object event) {
+            this.key = key;
+            this.event = event;
+            this.time = System.currentTimeMillis();
+        }
+    }
+
+    private final EventSubscriber<Object> delegate;
+    private final DeliveryOptions         options;
+    private final Executor                executor;
+    private final ArrayDeque<Pending>     queue;
+    private final Map<Object, Pending>    pendingByKey;
+    private final ReentrantLock           lock;
+    private final Condition               notFull;
+
+    private volatile Thread deliveryThread;
+
+    private boolean scheduled;
+    private boolean closed;
+    private long    delivered;
+    private long    dropped;
+    private long    coalesced;
+    private long    totalLatency;
+    private long    maxLatency;
+
+    @SuppressWarnings("unchecked")
+    AsyncEventSubscriber(EventSubscriber<?> delegate, DeliveryOptions options, Executor executor) {
+        this.delegate = (EventSubscriber<Object>)delegate;
+        this.options = options;
+        this.executor = executor;
+        queue = new ArrayDeque<>();
+        pendingByKey = options.getPolicy() == BackpressurePolicy.COALESCE_BY_KEY ? new HashMap<>() : null;
+        lock = new ReentrantLock();
+        notFull = lock.newCondition();
+    }
+
+    @Override
+    public void onEvent(Object event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            final Object key = pendingByKey == null ? null : options.getKey().apply(event);
+            if (pendingByKey != null) {
+                final Pending pending = pendingByKey.get(key);
+                if (pending != null) {
+                    pending.event = event;
+                    coalesced++;
+                    return;
+                }
+            }
+            if (queue.size() >= options.getQueueCapacity()) {
+                if (options.getPolicy() == BackpressurePolicy.BLOCK) {
+                    // Subscriber that publishes events for itself can't be blocked, it would never be unblocked.
+                    if (Thread.currentThread() != deliveryThread) {
+                        while (queue.size() >= options.getQueueCapacity() && !closed) {
+                            notFull.await();
+                        }
+                        if (closed) {
+                            return;
+                        }
+                    }
+                } else {
+                    final Pending oldest = queue.pollFirst();
+                    if (pendingByKey != null) {
+                        pendingByKey.remove(oldest.key);
+                    }
+                    dropped++;
+                }
+            }
+            final Pending pending = new Pending(key, event);
+            queue.addLast(pending);
+            if (pendingByKey != null) {
+                pendingByKey.put(key, pending);
+            }
+            if (!scheduled) {
+                schedule();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped++;
+            LOG.warn("Interrupted while waiting for free space in queue of {}, event {} is dropped", delegate, event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Must be called with acquired lock. */
+    private void schedule() {
+        try {
+            executor.execute(this::deliver);
+            scheduled = true;
+        } catch (RejectedExecutionException e) {
+            scheduled = false;
+            LOG.error("Unable deliver events to {}: {}", delegate, e.getMessage());
+        }
+    }
+
+    private void deliver() {
+        deliveryThread = Thread.currentThread();
+        try {
+            for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+                final Pending pending;
+                lock.lock();
+                try {
+                    pending = queue.pollFirst();
+                    if (pending == null) {
+                        return;
+                    }
+                    if (pendingByKey != null) {
+                        pendingByKey.remove(pending.key);
+                    }
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    LOG.debug("Deliver event {} to {}", pending.event, delegate);
+                    delegate.onEvent(pending.event);
+                } catch (RuntimeException e) {
+                    LOG.error(e.getMessage(), e);
+                }
+                final long latency = System.currentTimeMillis() - pending.time;
+                lock.lock();
+                try {
+                    delivered++;
+                    totalLatency += latency;
+                    maxLatency = Math.max(maxLatency, latency);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            deliveryThread = null;
+            // Release thread for other subscribers and continue later. Done in finally, so subscriber that throws Error
+            // isn't left marked as scheduled and doesn't stop receiving events.
+            lock.lock();
+            try {
+                if (queue.isEmpty() || closed) {
+                    scheduled = false;
+                } else {
+                    schedule();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Drops all not delivered events and stops accepting new events. */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            if (pendingByKey != null) {
+                pendingByKey.clear();
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    DeliveryMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new DeliveryMetrics(queue.size(), delivered, dropped, coalesced, delivered == 0 ? 0 : totalLatency / delivered, maxLatency);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncEventSubscriber{" + delegate + '}';
+    }
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Defines what happens when event is published but queue of asynchronous subscriber is full.
+ *
+ * @see AsyncDelivery
+ * @see DeliveryOptions
+ */
+public enum BackpressurePolicy {
+    /** Publisher is blocked until subscriber takes event from its queue. */
+    BLOCK,
+    /** The oldest not delivered event is dropped. */
+    DROP_OLDEST,
+    /**
+     * If not delivered event with the same key is in the queue then it is replaced with new event, position of event in the queue
+     * is not changed. If there is no such event and queue is full then the oldest event is dropped.
+     */
+    COALESCE_BY_KEY
+}
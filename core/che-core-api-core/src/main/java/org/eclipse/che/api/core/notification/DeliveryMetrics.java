@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Snapshot of statistic of asynchronous delivery of events to one subscriber.
+ *
+ * @see EventService#getDeliveryMetrics(EventSubscriber)
+ */
+public class DeliveryMetrics {
+    private final int  queueSize;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final long averageLatencyMillis;
+    private final long maxLatencyMillis;
+
+    DeliveryMetrics(int queueSize, long delivered, long dropped, long coalesced, long averageLatencyMillis, long maxLatencyMillis) {
+        this.queueSize = queueSize;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+        this.averageLatencyMillis = averageLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    /** Number of events that wait for delivery. */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /** Number of events delivered to subscriber. */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /** Number of events dropped because queue was full. */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /** Number of events replaced with newer events with the same key. */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /** Average time between publishing of event and end of its processing by subscriber. */
+    public long getAverageLatencyMillis() {
+        return averageLatencyMillis;
+    }
+
+    /** Max time between publishing of event and end of its processing by subscriber. */
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryMetrics{" +
+               "queueSize=" + queueSize +
+               ", delivered=" + delivered +
+               ", dropped=" + dropped +
+               ", coalesced=" + coalesced +
+               ", averageLatencyMillis=" + averageLatencyMillis +
+               ", maxLatencyMillis=" + maxLatencyMillis +
+               '}';
+    }
+}
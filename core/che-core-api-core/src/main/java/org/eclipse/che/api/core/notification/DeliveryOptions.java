@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Options of asynchronous delivery of events to subscriber. Usage example:
+ * <pre>
+ *     bus.subscribe(subscriber, DeliveryOptions.async()
+ *                                              .withQueueCapacity(100)
+ *                                              .withPolicy(BackpressurePolicy.COALESCE_BY_KEY)
+ *                                              .withKey(event -&gt; ((MyEvent)event).getPath()));
+ * </pre>
+ *
+ * @see EventService#subscribe(EventSubscriber, DeliveryOptions)
+ */
+public class DeliveryOptions {
+    static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /** Creates options of asynchronous delivery with default queue capacity and {@link BackpressurePolicy#BLOCK} policy. */
+    public static DeliveryOptions async() {
+        return new DeliveryOptions();
+    }
+
+    static DeliveryOptions of(AsyncDelivery annotation) {
+        return async().withQueueCapacity(annotation.queueCapacity()).withPolicy(annotation.policy());
+    }
+
+    private int                      queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private BackpressurePolicy       policy        = BackpressurePolicy.BLOCK;
+    private Function<Object, Object> key           = Function.identity();
+    private Executor                 executor;
+
+    private DeliveryOptions() {
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public DeliveryOptions withQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be greater than 0");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    public DeliveryOptions withPolicy(BackpressurePolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Null policy.");
+        }
+        this.policy = policy;
+        return this;
+    }
+
+    /** Function that returns key of event. Used only with {@link BackpressurePolicy#COALESCE_BY_KEY} policy. */
+    public Function<Object, Object> getKey() {
+        return key;
+    }
+
+    public DeliveryOptions withKey(Function<Object, Object> key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null key.");
+        }
+        this.key = key;
+        return this;
+    }
+
+    /** Executor for delivering events. If {@code null} then executor of {@link EventService} is used. */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public DeliveryOptions withExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+}
@@ -13,10 +13,12 @@ package org.eclipse.che.api.core.notification;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -27,6 +29,9 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -40,6 +45,10 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     });
  *     bus.publish(new MyEvent());
  * </pre>
+ * By default subscribers are called synchronously in the thread that publishes event. Subscriber that may be slow, e.g. sends
+ * events over network, should be subscribed for asynchronous delivery, either with annotation {@link AsyncDelivery} or with
+ * {@link #subscribe(EventSubscriber, DeliveryOptions)}. In this case events are put in the bounded queue of subscriber and delivered
+ * in the order of publishing by separate thread, see {@link BackpressurePolicy} for behaviour when queue is full.
  *
  * @author andrew00x
  */
@@ -53,10 +62,25 @@ public class EventService {
 
     private final LoadingCache<Class<?>, Set<Class<?>>>[]       typeCache;
     private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    private final ConcurrentMap<EventSubscriber<?>, AsyncEventSubscriber> asyncSubscribers;
+
+    private Executor        asyncExecutor;
+    private ExecutorService ownAsyncExecutor;
 
-    @SuppressWarnings("unchecked")
     public EventService() {
+        this(null);
+    }
+
+    /**
+     * @param asyncExecutor
+     *         executor for asynchronous delivery of events. If {@code null} then executor is created when the first asynchronous
+     *         subscriber is added
+     */
+    @SuppressWarnings("unchecked")
+    public EventService(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
         subscribersByEventType = new ConcurrentHashMap<>();
+        asyncSubscribers = new ConcurrentHashMap<>();
         typeCache = new LoadingCache[CACHE_NUM];
         for (int i = 0; i < CACHE_NUM; i++) {
             typeCache[i] = CacheBuilder.newBuilder().concurrencyLevel(SEG_SIZE).build(
@@ -113,28 +137,63 @@ public class EventService {
 
     /**
      * Subscribe event listener. The event to subscribe to is inferred by checking the generic type arguments of the
-     * given subscriber.
+     * given subscriber. If subscriber is annotated with {@link AsyncDelivery} then events are delivered asynchronously.
      *
      * @param subscriber
      *         event subscriber
      */
     public void subscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, getDeliveryOptions(subscriber));
     }
 
     /**
      * Subscribe to an event. The given subscriber will be called whenever an instance of the specified event is
-     * published.
+     * published. If subscriber is annotated with {@link AsyncDelivery} then events are delivered asynchronously.
      *
      * @param subscriber The subscriber to call when an event is published.
      * @param eventType The event to subscribe to.
      */
     public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, getDeliveryOptions(subscriber));
+    }
+
+    /**
+     * Subscribe event listener for asynchronous delivery of events. The event to subscribe to is inferred by checking the
+     * generic type arguments of the given subscriber.
+     *
+     * @param subscriber
+     *         event subscriber
+     * @param options
+     *         options of asynchronous delivery
+     */
+    public void subscribe(EventSubscriber<?> subscriber, DeliveryOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Null delivery options.");
+        }
+        doSubscribe(subscriber, getEventType(subscriber), options);
+    }
+
+    /**
+     * Subscribe to an event for asynchronous delivery.
+     *
+     * @param subscriber The subscriber to call when an event is published.
+     * @param eventType The event to subscribe to.
+     * @param options Options of asynchronous delivery.
+     */
+    public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType, DeliveryOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Null delivery options.");
+        }
+        doSubscribe(subscriber, eventType, options);
+    }
+
+    private DeliveryOptions getDeliveryOptions(EventSubscriber<?> subscriber) {
+        final AsyncDelivery asyncDelivery = subscriber.getClass().getAnnotation(AsyncDelivery.class);
+        return asyncDelivery == null ? null : DeliveryOptions.of(asyncDelivery);
     }
 
-    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
+    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType, DeliveryOptions options) {
         Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
         if (entries == null) {
             Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
@@ -143,7 +202,39 @@ public class EventService {
                 entries = newEntries;
             }
         }
-        entries.add(subscriber);
+        if (options == null) {
+            entries.add(subscriber);
+        } else {
+            final Executor executor = options.getExecutor() != null ? options.getExecutor() : getAsyncExecutor();
+            entries.add(asyncSubscribers.computeIfAbsent(subscriber, s -> new AsyncEventSubscriber(s, options, executor)));
+        }
+    }
+
+    private synchronized Executor getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            ownAsyncExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("EventService-%d")
+                                                                                        .setDaemon(true)
+                                                                                        .build());
+            asyncExecutor = ownAsyncExecutor;
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * Returns statistic of delivery of events to asynchronous subscriber or {@code null} if subscriber is not subscribed for
+     * asynchronous delivery.
+     */
+    public DeliveryMetrics getDeliveryMetrics(EventSubscriber<?> subscriber) {
+        final AsyncEventSubscriber asyncSubscriber = asyncSubscribers.get(subscriber);
+        return asyncSubscriber == null ? null : asyncSubscriber.getMetrics();
+    }
+
+    /** Stops executor for asynchronous delivery of events if it was created by this service. */
+    @PreDestroy
+    public synchronized void stop() {
+        if (ownAsyncExecutor != null) {
+            ownAsyncExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -156,11 +247,21 @@ public class EventService {
         final Class<?> eventType = getEventType(subscriber);
         final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
         if (entries != null && !entries.isEmpty()) {
+            final AsyncEventSubscriber asyncSubscriber = asyncSubscribers.get(subscriber);
+            // Subscriber may be subscribed for both synchronous and asynchronous delivery, remove both.
             boolean changed = entries.remove(subscriber);
+            if (asyncSubscriber != null) {
+                changed |= entries.remove(asyncSubscriber);
+            }
             if (changed) {
                 if (entries.isEmpty()) {
                     subscribersByEventType.remove(eventType);
                 }
+                if (asyncSubscriber != null
+                    && subscribersByEventType.values().stream().noneMatch(subscribers -> subscribers.contains(asyncSubscriber))) {
+                    asyncSubscribers.remove(subscriber);
+                    asyncSubscriber.close();
+                }
             }
         }
     }
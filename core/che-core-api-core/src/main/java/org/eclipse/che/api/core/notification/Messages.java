@@ -11,10 +11,14 @@
 package org.eclipse.che.api.core.notification;
 
 import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.dto.server.BinarySerializable;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.shared.DTO;
 import org.everrest.core.impl.provider.json.JsonGenerator;
 import org.everrest.core.impl.provider.json.JsonParser;
 import org.everrest.core.impl.provider.json.JsonValue;
 import org.everrest.core.impl.provider.json.JsonWriter;
+import org.everrest.core.impl.provider.json.ObjectValue;
 import org.everrest.core.impl.provider.json.ObjectBuilder;
 import org.everrest.core.impl.provider.json.StringValue;
 import org.everrest.websockets.message.ChannelBroadcastMessage;
@@ -22,9 +26,12 @@ import org.everrest.websockets.message.InputMessage;
 import org.everrest.websockets.message.RestInputMessage;
 import org.everrest.websockets.message.RestOutputMessage;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Base64;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.MediaType;
@@ -68,7 +75,16 @@ class Messages {
 
     private static String toJson(Object event) throws Exception {
         final String type = event.getClass().getName();
-        final JsonValue json = JsonGenerator.createJsonObject(event);
+        final JsonValue json;
+        if (event instanceof BinarySerializable) {
+            // DTOs that support binary format are sent as base64 encoded binary data since websocket messages are text
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DtoFactory.getInstance().toBinary(event, bytes);
+            json = new ObjectValue();
+            json.addElement("$binary", new StringValue(Base64.getEncoder().encodeToString(bytes.toByteArray())));
+        } else {
+            json = JsonGenerator.createJsonObject(event);
+        }
         json.addElement("$type", new StringValue(type));
         final Writer w = new StringWriter();
         json.writeTo(new JsonWriter(w));
@@ -87,7 +103,22 @@ class Messages {
         if (typeNode == null || (type = typeNode.getStringValue()) == null) {
             return null;
         }
-        return ObjectBuilder.createObject(Class.forName(type), node);
+        final Class<?> eventClass = Class.forName(type);
+        final JsonValue binaryNode = node.getElement("$binary");
+        if (binaryNode != null) {
+            final byte[] bytes = Base64.getDecoder().decode(binaryNode.getStringValue());
+            return DtoFactory.getInstance().createDtoFromBinary(new ByteArrayInputStream(bytes), getDtoInterface(eventClass));
+        }
+        return ObjectBuilder.createObject(eventClass, node);
+    }
+
+    private static Class<?> getDtoInterface(Class<?> implClass) {
+        for (Class<?> i : implClass.getInterfaces()) {
+            if (i.isAnnotationPresent(DTO.class)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unable to find DTO interface of " + implClass.getName());
     }
 
     private Messages() {
@@ -11,6 +11,8 @@
 package org.eclipse.che.api.core.rest;
 
 import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.dto.server.BinarySerializable;
+import org.eclipse.che.dto.server.DtoBinaryFormat;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.shared.DTO;
@@ -28,6 +30,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -43,6 +46,8 @@ import java.util.Set;
 
 /**
  * Implementation of {@link MessageBodyReader} and {@link MessageBodyWriter} needed for binding JSON content to and from Java Objects.
+ * DTOs that support {@link DtoBinaryFormat binary format} may be also read and written in binary form if client requests media type
+ * {@value DtoBinaryFormat#MEDIA_TYPE}.
  *
  * @author andrew00x
  * @see DTO
@@ -50,9 +55,11 @@ import java.util.Set;
  */
 @Singleton
 @Provider
-@Produces({MediaType.APPLICATION_JSON})
-@Consumes({MediaType.APPLICATION_JSON})
+@Produces({MediaType.APPLICATION_JSON, DtoBinaryFormat.MEDIA_TYPE})
+@Consumes({MediaType.APPLICATION_JSON, DtoBinaryFormat.MEDIA_TYPE})
 public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWriter<T> {
+    private static final MediaType BINARY_DTO_TYPE = MediaType.valueOf(DtoBinaryFormat.MEDIA_TYPE);
+
     private Set<Class> ignoredClasses;
     private final JsonEntityProvider delegate = new JsonEntityProvider<>();
 
@@ -64,6 +71,9 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
     @SuppressWarnings("unchecked")
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if (isBinary(mediaType)) {
+            return !ignoredClasses.contains(type) && isBinarySerializable(type, genericType);
+        }
         return !ignoredClasses.contains(type) &&
                (type.isAnnotationPresent(DTO.class) || delegate.isWriteable(type, genericType, annotations, mediaType));
     }
@@ -79,9 +89,32 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
                         MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
         // Add Cache-Control before start write body.
         httpHeaders.putSingle(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform");
-        if (t instanceof JsonSerializable) {
-            try (Writer w = new OutputStreamWriter(entityStream, Charset.forName("UTF-8"))) {
-                w.write(((JsonSerializable)t).toJson());
+        if (isBinary(mediaType)) {
+            DtoFactory.getInstance().toBinary(t, entityStream);
+        } else if (t instanceof JsonSerializable) {
+            // DTOs are written directly to the stream, without creating JSON string in memory.
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(entityStream, Charset.forName("UTF-8")))) {
+                ((JsonSerializable)t).toJson(w);
+            }
+        } else if (t instanceof List && getListElementDtoClass(type, genericType) != null) {
+            // Lists of DTOs are written element by element as well.
+            try (Writer w = new BufferedWriter(new OutputStreamWriter(entityStream, Charset.forName("UTF-8")))) {
+                w.write('[');
+                boolean first = true;
+                for (Object element : (List<?>)t) {
+                    if (!first) {
+                        w.write(',');
+                    }
+                    first = false;
+                    if (element == null) {
+                        w.write("null");
+                    } else if (element instanceof JsonSerializable) {
+                        ((JsonSerializable)element).toJson(w);
+                    } else {
+                        w.write(DtoFactory.getInstance().toJson(element));
+                    }
+                }
+                w.write(']');
             }
         } else {
             delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
@@ -91,6 +124,9 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
     @SuppressWarnings("unchecked")
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if (isBinary(mediaType)) {
+            return !ignoredClasses.contains(type) && isBinarySerializable(type, genericType);
+        }
         return !ignoredClasses.contains(type) &&
                (type.isAnnotationPresent(DTO.class) || delegate.isReadable(type, genericType, annotations, mediaType));
     }
@@ -99,6 +135,11 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
     @Override
     public T readFrom(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType,
                       MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException, WebApplicationException {
+        if (isBinary(mediaType)) {
+            final Class elementClass = getListElementDtoClass(type, genericType);
+            return elementClass == null ? DtoFactory.getInstance().createDtoFromBinary(entityStream, type)
+                                        : (T)DtoFactory.getInstance().createListDtoFromBinary(entityStream, elementClass);
+        }
         if (type.isAnnotationPresent(DTO.class)) {
             return DtoFactory.getInstance().createDtoFromJson(entityStream, type);
         } else if (type.isAssignableFrom(List.class) && genericType instanceof ParameterizedType) {
@@ -114,6 +155,32 @@ public class CheJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWrit
         return (T)delegate.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
     }
 
+    private static boolean isBinary(MediaType mediaType) {
+        return mediaType != null && BINARY_DTO_TYPE.isCompatible(mediaType) && !mediaType.isWildcardType();
+    }
+
+    private static boolean isBinarySerializable(Class<?> type, Type genericType) {
+        if (type.isAnnotationPresent(DTO.class)) {
+            return DtoFactory.getInstance().isBinarySerializable(type);
+        }
+        if (BinarySerializable.class.isAssignableFrom(type)) {
+            return true;
+        }
+        final Class<?> elementClass = getListElementDtoClass(type, genericType);
+        return elementClass != null && DtoFactory.getInstance().isBinarySerializable(elementClass);
+    }
+
+    /** Returns DTO interface if {@code type} is list of DTOs and {@code null} otherwise. */
+    private static Class<?> getListElementDtoClass(Class<?> type, Type genericType) {
+        if (List.class.isAssignableFrom(type) && genericType instanceof ParameterizedType) {
+            final Type elementType = ((ParameterizedType)genericType).getActualTypeArguments()[0];
+            if (elementType instanceof Class && ((Class)elementType).isAnnotationPresent(DTO.class)) {
+                return (Class<?>)elementType;
+            }
+        }
+        return null;
+    }
+
     /**
      * Get Set of classes that we never try to serialize or deserialize. Returned Set is mutable and new classes may be added in ignored
      * Set.
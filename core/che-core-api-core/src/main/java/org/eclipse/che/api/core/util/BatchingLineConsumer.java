@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Line consumer that collects lines to batches and writes each batch to the delegate as one multi-line string.
+ * Batch is written when it contains {@code maxBatchLines} lines or when {@code maxDelayMillis} passed after
+ * its first line, so chatty output produces few websocket messages and file flushes while delay of
+ * rare lines stays short.
+ *
+ * <p>Last {@code replayLines} lines are kept in memory, so clients which start to listen output
+ * after it was written may get them with {@link #getRecentLines()}.
+ */
+public class BatchingLineConsumer implements LineConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingLineConsumer.class);
+
+    private final LineConsumer             delegate;
+    private final int                      maxBatchLines;
+    private final long                     maxDelayMillis;
+    private final ScheduledExecutorService scheduler;
+    private final List<String>             batch;
+    private final String[]                 recentLines;
+
+    private int                recentStart;
+    private int                recentSize;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean            closed;
+    private long               lineCount;
+    private long               batchCount;
+    private long               droppedLineCount;
+
+    /**
+     * @param delegate
+     *         consumer which gets batches of lines
+     * @param maxBatchLines
+     *         max number of lines in one batch
+     * @param maxDelayMillis
+     *         max time in milliseconds for which line may be kept before it is written to delegate
+     * @param replayLines
+     *         number of last lines which are available with {@link #getRecentLines()}
+     * @param scheduler
+     *         executor which writes batches after delay
+     */
+    public BatchingLineConsumer(LineConsumer delegate,
+                                int maxBatchLines,
+                                long maxDelayMillis,
+                                int replayLines,
+                                ScheduledExecutorService scheduler) {
+        this.delegate = delegate;
+        this.maxBatchLines = maxBatchLines;
+        this.maxDelayMillis = maxDelayMillis;
+        this.scheduler = scheduler;
+        this.batch = new ArrayList<>(maxBatchLines);
+        this.recentLines = new String[replayLines];
+    }
+
+    @Override
+    public synchronized void writeLine(String line) throws IOException {
+        if (closed) {
+            throw new IOException("Line consumer is closed");
+        }
+        if (line == null) {
+            line = "";
+        }
+        lineCount++;
+        remember(line);
+        batch.add(line);
+        if (batch.size() >= maxBatchLines) {
+            flush();
+        } else if (scheduledFlush == null) {
+            try {
+                scheduledFlush = scheduler.schedule(this::flushDelayed, maxDelayMillis, MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // scheduler is stopped, don't keep lines
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes collected lines to delegate.
+     *
+     * @throws IOException
+     *         if delegate failed to write lines, such lines are counted as dropped
+     */
+    public synchronized void flush() throws IOException {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        final String lines = String.join("\n", batch);
+        final int size = batch.size();
+        batch.clear();
+        batchCount++;
+        try {
+            delegate.writeLine(lines);
+        } catch (IOException e) {
+            droppedLineCount += size;
+            throw e;
+        }
+    }
+
+    /** Returns copy of last written lines, the oldest line goes first. */
+    public synchronized List<String> getRecentLines() {
+        final List<String> result = new ArrayList<>(recentSize);
+        for (int i = 0; i < recentSize; i++) {
+            result.add(recentLines[(recentStart + i) % recentLines.length]);
+        }
+        return result;
+    }
+
+    /** Returns number of lines written to this consumer. */
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    /** Returns number of batches written to delegate. */
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    /** Returns number of lines which delegate failed to write. */
+    public synchronized long getDroppedLineCount() {
+        return droppedLineCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            delegate.close();
+            LOG.debug("Line consumer {} is closed, {} lines are written in {} batches, {} lines are dropped",
+                      delegate, lineCount, batchCount, droppedLineCount);
+        }
+    }
+
+    private synchronized void flushDelayed() {
+        try {
+            flush();
+        } catch (IOException e) {
+            LOG.warn(String.format("An error occurred while writing lines to the line consumer %s", delegate), e);
+        }
+    }
+
+    private void remember(String line) {
+        if (recentLines.length == 0) {
+            return;
+        }
+        if (recentSize < recentLines.length) {
+            recentLines[(recentStart + recentSize++) % recentLines.length] = line;
+        } else {
+            recentLines[recentStart] = line;
+            recentStart = (recentStart + 1) % recentLines.length;
+        }
+    }
+}
@@ -11,12 +11,17 @@
 package org.eclipse.che.api.core.notification;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author andrew00x
@@ -157,4 +162,150 @@ public class EventServiceTest {
         bus.publish(new Event());
         Assert.assertEquals(events.size(), 0);
     }
+
+    @AsyncDelivery(queueCapacity = 2, policy = BackpressurePolicy.DROP_OLDEST)
+    static class BlockedListener implements EventSubscriber<String> {
+        final List<String>   events = new CopyOnWriteArrayList<>();
+        final CountDownLatch gate   = new CountDownLatch(1);
+
+        @Override
+        public void onEvent(String event) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    public void testAsyncDeliveryPreservesOrder() throws Exception {
+        final List<Integer> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1000);
+        bus.subscribe((EventSubscriber<Integer>)event -> {
+            events.add(event);
+            done.countDown();
+        }, Integer.class, DeliveryOptions.async().withQueueCapacity(3));
+
+        for (int i = 0; i < 1000; i++) {
+            bus.publish(i);
+        }
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals((int)events.get(i), i);
+        }
+    }
+
+    @Test
+    public void testAsyncDeliveryDoesNotBlockPublisherWhenOldestEventsAreDropped() throws Exception {
+        BlockedListener listener = new BlockedListener();
+        bus.subscribe(listener);
+
+        for (int i = 0; i < 10; i++) {
+            bus.publish("event" + i);
+        }
+        // The first event might be already taken for delivery, at most two events wait in the queue.
+        DeliveryMetrics metrics = bus.getDeliveryMetrics(listener);
+        Assert.assertEquals(metrics.getQueueSize(), 2);
+        Assert.assertTrue(metrics.getDropped() >= 7);
+
+        listener.gate.countDown();
+        waitForEmptyQueue(listener);
+        Assert.assertEquals(listener.events.subList(listener.events.size() - 2, listener.events.size()),
+                            Arrays.asList("event8", "event9"));
+    }
+
+    @Test
+    public void testAsyncDeliveryCoalescesEventsByKey() throws Exception {
+        BlockedListener listener = new BlockedListener();
+        bus.subscribe(listener, DeliveryOptions.async()
+                                               .withPolicy(BackpressurePolicy.COALESCE_BY_KEY)
+                                               .withKey(event -> ((String)event).substring(0, 1)));
+
+        bus.publish("a1");
+        bus.publish("b1");
+        bus.publish("a2");
+        bus.publish("b2");
+        bus.publish("a3");
+
+        listener.gate.countDown();
+        waitForEmptyQueue(listener);
+        Assert.assertTrue(listener.events.contains("a3"));
+        Assert.assertTrue(listener.events.contains("b2"));
+        Assert.assertFalse(listener.events.contains("a2"));
+        Assert.assertFalse(listener.events.contains("b1"));
+        Assert.assertTrue(bus.getDeliveryMetrics(listener).getCoalesced() >= 2);
+    }
+
+    @Test
+    public void testUnsubscribeAsyncListener() throws Exception {
+        BlockedListener listener = new BlockedListener();
+        bus.subscribe(listener);
+        bus.unsubscribe(listener);
+
+        bus.publish("event");
+        listener.gate.countDown();
+
+        Assert.assertNull(bus.getDeliveryMetrics(listener));
+        Assert.assertTrue(listener.events.isEmpty());
+    }
+
+    @Test
+    public void testAsyncDeliveryContinuesAfterSubscriberThrowsError() throws Exception {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        bus.subscribe((EventSubscriber<String>)event -> {
+            if ("error".equals(event)) {
+                throw new AssertionError(event);
+            }
+            events.add(event);
+            done.countDown();
+        }, String.class, DeliveryOptions.async());
+
+        bus.publish("error");
+        Thread.sleep(50);
+        bus.publish("event");
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(events, Arrays.asList("event"));
+    }
+
+    @Test
+    public void testUnsubscribeListenerSubscribedForSynchronousAndAsynchronousDelivery() throws Exception {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final EventSubscriber<String> listener = new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                events.add(event);
+            }
+        };
+        bus.subscribe(listener);
+        bus.subscribe(listener, DeliveryOptions.async());
+        bus.unsubscribe(listener);
+
+        bus.publish("event");
+        Thread.sleep(50);
+
+        Assert.assertTrue(events.isEmpty());
+        Assert.assertNull(bus.getDeliveryMetrics(listener));
+    }
+
+    private void waitForEmptyQueue(EventSubscriber<?> subscriber) throws Exception {
+        final long deadline = System.currentTimeMillis() + 5000;
+        DeliveryMetrics metrics = bus.getDeliveryMetrics(subscriber);
+        while (metrics.getQueueSize() > 0 || metrics.getDelivered() + metrics.getDropped() + metrics.getCoalesced() == 0) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline, "Events are not delivered");
+            Thread.sleep(10);
+            metrics = bus.getDeliveryMetrics(subscriber);
+        }
+        // Last taken event might be still processed.
+        Thread.sleep(50);
+    }
 }
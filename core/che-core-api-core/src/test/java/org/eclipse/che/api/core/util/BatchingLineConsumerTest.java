@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BatchingLineConsumerTest {
+    private ScheduledExecutorService scheduler;
+    private List<String>             written;
+    private boolean                  failing;
+    private boolean                  closed;
+    private LineConsumer             delegate;
+
+    @BeforeMethod
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        written = new CopyOnWriteArrayList<>();
+        failing = false;
+        closed = false;
+        delegate = new LineConsumer() {
+            @Override
+            public void writeLine(String line) throws IOException {
+                if (failing) {
+                    throw new IOException("failed");
+                }
+                written.add(line);
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        };
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void writesBatchWhenItIsFull() throws Exception {
+        BatchingLineConsumer consumer = new BatchingLineConsumer(delegate, 3, 60000, 0, scheduler);
+
+        consumer.writeLine("a");
+        consumer.writeLine("b");
+        consumer.writeLine("c");
+        consumer.writeLine("d");
+
+        assertEquals(written, singletonList("a\nb\nc"));
+        assertEquals(consumer.getLineCount(), 4);
+        assertEquals(consumer.getBatchCount(), 1);
+    }
+
+    @Test
+    public void writesBatchAfterDelay() throws Exception {
+        BatchingLineConsumer consumer = new BatchingLineConsumer(delegate, 100, 50, 0, scheduler);
+
+        consumer.writeLine("a");
+        consumer.writeLine("b");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(written, singletonList("a\nb"));
+    }
+
+    @Test
+    public void writesRestOfLinesAndClosesDelegateOnClose() throws Exception {
+        BatchingLineConsumer consumer = new BatchingLineConsumer(delegate, 100, 60000, 0, scheduler);
+
+        consumer.writeLine("a");
+        consumer.writeLine(null);
+        consumer.close();
+
+        assertEquals(written, singletonList("a\n"));
+        assertTrue(closed);
+    }
+
+    @Test
+    public void keepsLastLines() throws Exception {
+        BatchingLineConsumer consumer = new BatchingLineConsumer(delegate, 2, 60000, 3, scheduler);
+
+        for (String line : asList("a", "b", "c", "d", "e")) {
+            consumer.writeLine(line);
+        }
+
+        assertEquals(consumer.getRecentLines(), asList("c", "d", "e"));
+    }
+
+    @Test
+    public void countsLinesWhichDelegateFailedToWrite() throws Exception {
+        BatchingLineConsumer consumer = new BatchingLineConsumer(delegate, 2, 60000, 0, scheduler);
+        failing = true;
+
+        consumer.writeLine("a");
+        try {
+            consumer.writeLine("b");
+        } catch (IOException ignored) {
+        }
+        failing = false;
+        consumer.writeLine("c");
+        consumer.flush();
+
+        assertEquals(consumer.getDroppedLineCount(), 2);
+        assertEquals(written, singletonList("c"));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void failsToWriteLineAfterClose() throws Exception {
+        BatchingLineConsumer consumer = new BatchingLineConsumer(delegate, 2, 60000, 0, scheduler);
+        consumer.close();
+
+        consumer.writeLine("a");
+    }
+}
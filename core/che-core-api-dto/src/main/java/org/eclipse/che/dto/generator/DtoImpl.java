@@ -407,6 +407,15 @@ abstract class DtoImpl {
         return sw.toString();
     }
 
+    /**
+     * Tests whether generated implementation of DTO supports compact binary format.
+     *
+     * @see org.eclipse.che.dto.server.DtoBinaryFormat
+     */
+    boolean isBinarySerializable() {
+        return false;
+    }
+
     /**
      * @return String representing the source definition for the DTO impl as an inner class.
      */
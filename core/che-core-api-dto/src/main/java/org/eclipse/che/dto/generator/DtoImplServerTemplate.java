@@ -11,6 +11,7 @@
 
 package org.eclipse.che.dto.generator;
 
+import org.eclipse.che.dto.server.BinarySerializable;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
@@ -41,6 +42,8 @@ public class DtoImplServerTemplate extends DtoImpl {
     private static final String JSON_MAP_IMPL     = JsonStringMapImpl.class.getCanonicalName();
     private static final String SERVER_DTO_MARKER = "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
 
+    private Boolean binarySerializable;
+
     DtoImplServerTemplate(DtoTemplate template, Class<?> superInterface) {
         super(template, superInterface);
     }
@@ -55,23 +58,18 @@ public class DtoImplServerTemplate extends DtoImpl {
         // Enumerate the getters and emit field names and getters + setters.
         emitFields(getters, builder);
         emitGettersAndSetters(getters, builder);
-        List<Method> inheritedGetters = getInheritedDtoGetters(dtoInterface);
-        List<Method> methods = new ArrayList<>();
-        methods.addAll(getters);
-        Set<String> getterNames = new HashSet<>();
-        for (Method getter : getters) {
-            getterNames.add(getter.getName());
-        }
-        for (Method getter : inheritedGetters) {
-            if (getterNames.add(getter.getName())) {
-                methods.add(getter);
-            }
-        }
+        List<Method> methods = getSerializableMethods(dtoInterface);
         // equals, hashCode, serialization and copy constructor
         emitEqualsAndHashCode(methods, builder);
         emitSerializer(methods, builder);
+        emitStreamingSerializer(methods, builder);
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
+        emitStreamingDeserializer(methods, builder);
+        if (isBinarySerializable()) {
+            emitBinarySerializer(methods, builder);
+            emitBinaryDeserializer(methods, builder);
+        }
         emitCopyConstructor(methods, builder);
         // Delegation DTO methods.
         emitDelegateMethods(builder);
@@ -93,7 +91,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         //     // Override method to return type B instead of A.
         //     B withProperty();
         // }
-        getterNames.clear();
+        Set<String> getterNames = new HashSet<>();
         for (Method getter : getters) {
             getterNames.add(getter.getName());
         }
@@ -113,6 +111,51 @@ public class DtoImplServerTemplate extends DtoImpl {
         return builder.toString();
     }
 
+    /** Returns getters of DTO and all its super DTOs, i.e. all properties that are serialized. */
+    private List<Method> getSerializableMethods(Class<?> dto) {
+        List<Method> getters = getDtoGetters(dto);
+        List<Method> methods = new ArrayList<>();
+        methods.addAll(getters);
+        Set<String> getterNames = new HashSet<>();
+        for (Method getter : getters) {
+            getterNames.add(getter.getName());
+        }
+        for (Method getter : getInheritedDtoGetters(dto)) {
+            if (getterNames.add(getter.getName())) {
+                methods.add(getter);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * DTO opts into binary format when all its getters are annotated with {@link SerializationIndex}.
+     *
+     * @throws DtoTemplate.MalformedDtoInterfaceException
+     *         if only some getters are annotated or indexes are not unique positive numbers
+     */
+    @Override
+    boolean isBinarySerializable() {
+        if (binarySerializable == null) {
+            final List<Method> methods = getSerializableMethods(getDtoInterface());
+            final Set<Integer> indexes = new HashSet<>();
+            for (Method method : methods) {
+                final SerializationIndex serializationIndex = method.getAnnotation(SerializationIndex.class);
+                if (serializationIndex != null && (serializationIndex.value() < 1 || !indexes.add(serializationIndex.value()))) {
+                    throw new DtoTemplate.MalformedDtoInterfaceException(
+                            "Serialization index of " + getDtoInterface().getCanonicalName() + "." + method.getName() +
+                            " must be unique positive number");
+                }
+            }
+            if (!indexes.isEmpty() && indexes.size() != methods.size()) {
+                throw new DtoTemplate.MalformedDtoInterfaceException(
+                        "All getters of " + getDtoInterface().getCanonicalName() + " must be annotated with @SerializationIndex");
+            }
+            binarySerializable = !indexes.isEmpty();
+        }
+        return binarySerializable;
+    }
+
     private void emitEqualsAndHashCode(List<Method> getters, StringBuilder builder) {
         builder.append("    @Override\n");
         builder.append("    public boolean equals(Object o) {\n");
@@ -301,8 +344,14 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("\n");
         builder.append("    @Override\n");
         builder.append("    public String toJson() {\n");
-        // The default toJson() creates its own JSON for internal printing, thus keeping JSONs values is safe
-        builder.append("      return gson.toJson(toJsonElementInt(false));\n");
+        builder.append("      java.io.StringWriter writer = new java.io.StringWriter();\n");
+        builder.append("      try {\n");
+        builder.append("        toJson(writer);\n");
+        builder.append("      } catch (IOException e) {\n");
+        // StringWriter never throws IOException
+        builder.append("        throw new IllegalStateException(e);\n");
+        builder.append("      }\n");
+        builder.append("      return writer.toString();\n");
         builder.append("    }\n");
         builder.append("\n");
         builder.append("    @Override\n");
@@ -451,6 +500,299 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
     }
 
+    /**
+     * Generates methods that write JSON directly to the stream without building of intermediate tree of JsonElements. Output is the
+     * same as output of {@code toJsonElement()} serialized with Gson. DTOs with compact JSON format are written through JsonElements.
+     */
+    private void emitStreamingSerializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    @Override\n");
+        builder.append("    public void toJson(java.io.Writer writer) throws IOException {\n");
+        builder.append("      JsonWriter jsonWriter = new JsonWriter(writer);\n");
+        builder.append("      jsonWriter.setLenient(true);\n");
+        builder.append("      jsonWriter.setSerializeNulls(false);\n");
+        builder.append("      writeJson(jsonWriter);\n");
+        builder.append("      jsonWriter.flush();\n");
+        builder.append("    }\n\n");
+        builder.append("    public void writeJson(JsonWriter jsonWriter) throws IOException {\n");
+        if (isCompactJson()) {
+            builder.append("      gson.toJson(toJsonElementInt(false), jsonWriter);\n");
+        } else {
+            builder.append("      jsonWriter.beginObject();\n");
+            for (Method getter : getters) {
+                emitStreamingSerializeFieldForMethod(getter, builder);
+            }
+            builder.append("      jsonWriter.endObject();\n");
+        }
+        builder.append("    }\n\n");
+    }
+
+    private void emitStreamingSerializeFieldForMethod(Method getter, StringBuilder builder) {
+        final String javaFieldName = "this." + getJavaFieldName(getter.getName());
+        final String jsonFieldName = getJsonFieldName(getter);
+        final List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+        final Class<?> rawClass = getRawClass(expandedTypes.get(0));
+        builder.append("\n");
+        if (isList(rawClass) || isMap(rawClass)) {
+            // Collections are never null, the same as in toJsonElement()
+            builder.append("      this.").append(getEnsureName(getJavaFieldName(getter.getName()))).append("();\n");
+            builder.append("      jsonWriter.name(").append(quoteStringLiteral(jsonFieldName)).append(");\n");
+            emitStreamingSerializerImpl(expandedTypes, 0, builder, javaFieldName, "      ");
+        } else if (rawClass.isPrimitive()) {
+            builder.append("      jsonWriter.name(").append(quoteStringLiteral(jsonFieldName)).append(");\n");
+            emitStreamingSerializerImpl(expandedTypes, 0, builder, javaFieldName, "      ");
+        } else {
+            // Skip null values, the same as Gson does for JsonNull properties of JsonObject
+            builder.append("      if (").append(javaFieldName).append(isAny(rawClass) ? " instanceof JsonElement" : " != null")
+                   .append(") {\n");
+            builder.append("        jsonWriter.name(").append(quoteStringLiteral(jsonFieldName)).append(");\n");
+            emitStreamingSerializerImpl(expandedTypes, 0, builder, javaFieldName, "        ");
+            builder.append("      }\n");
+        }
+    }
+
+    /**
+     * Produces code that writes value of variable with the given name to JsonWriter.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param inVar
+     *         the java variable that will be the input for serialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamingSerializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String inVar, String i) {
+        final Type type = expandedTypes.get(depth);
+        final Class<?> rawClass = getRawClass(type);
+        final String childInVar = (depth == 0 ? inVar.substring("this.".length()) : inVar) + "_";
+        if (isList(rawClass)) {
+            final String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+            builder.append(i).append("  jsonWriter.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  jsonWriter.beginArray();\n");
+            builder.append(i).append("  for (").append(childInTypeName).append(" ").append(childInVar).append(" : ").append(inVar)
+                   .append(") {\n");
+            emitStreamingSerializerImpl(expandedTypes, depth + 1, builder, childInVar, i + "    ");
+            builder.append(i).append("  }\n");
+            builder.append(i).append("  jsonWriter.endArray();\n");
+            builder.append(i).append("}\n");
+        } else if (isMap(rawClass)) {
+            final String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            final String entryVar = "entry" + depth;
+            builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+            builder.append(i).append("  jsonWriter.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  jsonWriter.beginObject();\n");
+            builder.append(i).append("  for (java.util.Map.Entry<String, ").append(childInTypeName).append("> ").append(entryVar)
+                   .append(" : ").append(inVar).append(".entrySet()) {\n");
+            builder.append(i).append("    ").append(childInTypeName).append(" ").append(childInVar).append(" = ").append(entryVar)
+                   .append(".getValue();\n");
+            builder.append(i).append("    jsonWriter.name(").append(entryVar).append(".getKey());\n");
+            emitStreamingSerializerImpl(expandedTypes, depth + 1, builder, childInVar, i + "    ");
+            builder.append(i).append("  }\n");
+            builder.append(i).append("  jsonWriter.endObject();\n");
+            builder.append(i).append("}\n");
+        } else if (rawClass.isEnum()) {
+            builder.append(i).append("jsonWriter.value(").append(inVar).append(" == null ? null : ").append(inVar)
+                   .append(".name());\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            emitStreamingSerializeDto(getImplNameForDto(rawClass), inVar, builder, i);
+        } else if (rawClass.equals(String.class)) {
+            builder.append(i).append("jsonWriter.value(").append(inVar).append(");\n");
+        } else if (rawClass == float.class) {
+            // Write float as Number to get the same output as Gson does, JsonWriter.value(double) extends precision of float value
+            builder.append(i).append("jsonWriter.value((Number)Float.valueOf(").append(inVar).append("));\n");
+        } else if (rawClass == boolean.class
+                   || rawClass == int.class
+                   || rawClass == long.class
+                   || rawClass == double.class
+                   || rawClass == short.class
+                   || rawClass == byte.class) {
+            builder.append(i).append("jsonWriter.value(").append(inVar).append(");\n");
+        } else if (rawClass == Boolean.class) {
+            builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+            builder.append(i).append("  jsonWriter.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  jsonWriter.value(").append(inVar).append(".booleanValue());\n");
+            builder.append(i).append("}\n");
+        } else if (rawClass == Integer.class
+                   || rawClass == Long.class
+                   || rawClass == Double.class
+                   || rawClass == Float.class
+                   || rawClass == Short.class
+                   || rawClass == Byte.class) {
+            builder.append(i).append("jsonWriter.value((Number)").append(inVar).append(");\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("if (").append(inVar).append(" instanceof JsonElement) {\n");
+            builder.append(i).append("  gson.toJson((JsonElement)").append(inVar).append(", jsonWriter);\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  jsonWriter.nullValue();\n");
+            builder.append(i).append("}\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                emitStreamingSerializeDto(dtoImplementation.getCanonicalName(), inVar, builder, i);
+            } else {
+                throw new IllegalArgumentException("Unable to generate server implementation for DTO interface " +
+                                                   getDtoInterface().getCanonicalName() + ". Type " + rawClass +
+                                                   " is not allowed to use in DTO interface.");
+            }
+        }
+    }
+
+    private void emitStreamingSerializeDto(String implName, String inVar, StringBuilder builder, String i) {
+        builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+        builder.append(i).append("  jsonWriter.nullValue();\n");
+        builder.append(i).append("} else {\n");
+        builder.append(i).append("  ((").append(implName).append(")").append(inVar).append(").writeJson(jsonWriter);\n");
+        builder.append(i).append("}\n");
+    }
+
+    /** Generates method that writes DTO in compact binary format, properties are keyed by {@link SerializationIndex}. */
+    private void emitBinarySerializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    @Override\n");
+        builder.append("    public void writeBinary(DtoBinaryOutput out) throws IOException {\n");
+        for (Method getter : getters) {
+            emitBinarySerializeFieldForMethod(getter, builder);
+        }
+        builder.append("      out.endObject();\n");
+        builder.append("    }\n\n");
+    }
+
+    private void emitBinarySerializeFieldForMethod(Method getter, StringBuilder builder) {
+        final String javaFieldName = "this." + getJavaFieldName(getter.getName());
+        final String index = String.valueOf(getter.getAnnotation(SerializationIndex.class).value());
+        final List<Type> expandedTypes = expandType(getter.getGenericReturnType());
+        final Class<?> rawClass = getRawClass(expandedTypes.get(0));
+        if (isList(rawClass) || isMap(rawClass)) {
+            builder.append("      this.").append(getEnsureName(getJavaFieldName(getter.getName()))).append("();\n");
+            emitBinarySerializerImpl(expandedTypes, 0, builder, javaFieldName, index, "      ");
+        } else if (rawClass.isPrimitive()) {
+            emitBinarySerializerImpl(expandedTypes, 0, builder, javaFieldName, index, "      ");
+        } else {
+            // Null properties are omitted
+            builder.append("      if (").append(javaFieldName).append(" != null) {\n");
+            emitBinarySerializerImpl(expandedTypes, 0, builder, javaFieldName, index, "        ");
+            builder.append("      }\n");
+        }
+    }
+
+    /**
+     * Produces code that writes value of variable with the given name in binary format.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param inVar
+     *         the java variable that will be the input for serialization
+     * @param index
+     *         serialization index of the value, zero for elements of collections
+     * @param i
+     *         indentation string
+     */
+    private void emitBinarySerializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String inVar, String index,
+                                          String i) {
+        final Type type = expandedTypes.get(depth);
+        final Class<?> rawClass = getRawClass(type);
+        final String childInVar = (depth == 0 ? inVar.substring("this.".length()) : inVar) + "_";
+        if (isList(rawClass) || isMap(rawClass)) {
+            final String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+            builder.append(i).append("  out.writeNull(").append(index).append(");\n");
+            builder.append(i).append("} else {\n");
+            if (isList(rawClass)) {
+                builder.append(i).append("  out.beginArray(").append(index).append(", ").append(inVar).append(".size());\n");
+                builder.append(i).append("  for (").append(childInTypeName).append(" ").append(childInVar).append(" : ").append(inVar)
+                       .append(") {\n");
+            } else {
+                final String entryVar = "entry" + depth;
+                builder.append(i).append("  out.beginMap(").append(index).append(", ").append(inVar).append(".size());\n");
+                builder.append(i).append("  for (java.util.Map.Entry<String, ").append(childInTypeName).append("> ").append(entryVar)
+                       .append(" : ").append(inVar).append(".entrySet()) {\n");
+                builder.append(i).append("    ").append(childInTypeName).append(" ").append(childInVar).append(" = ")
+                       .append(entryVar).append(".getValue();\n");
+                builder.append(i).append("    out.writeKey(").append(entryVar).append(".getKey());\n");
+            }
+            emitBinarySerializerImpl(expandedTypes, depth + 1, builder, childInVar, "0", i + "    ");
+            builder.append(i).append("  }\n");
+            builder.append(i).append("}\n");
+        } else if (rawClass.isEnum()) {
+            builder.append(i).append("out.writeEnum(").append(index).append(", ").append(inVar).append(");\n");
+        } else if (rawClass.equals(String.class)) {
+            builder.append(i).append("out.writeString(").append(index).append(", ").append(inVar).append(");\n");
+        } else if (rawClass == boolean.class) {
+            builder.append(i).append("out.writeBoolean(").append(index).append(", ").append(inVar).append(");\n");
+        } else if (rawClass == int.class || rawClass == long.class || rawClass == short.class || rawClass == byte.class) {
+            builder.append(i).append("out.writeLong(").append(index).append(", ").append(inVar).append(");\n");
+        } else if (rawClass == double.class) {
+            builder.append(i).append("out.writeDouble(").append(index).append(", ").append(inVar).append(");\n");
+        } else if (rawClass == float.class) {
+            builder.append(i).append("out.writeFloat(").append(index).append(", ").append(inVar).append(");\n");
+        } else if (rawClass == Boolean.class
+                   || rawClass == Integer.class
+                   || rawClass == Long.class
+                   || rawClass == Short.class
+                   || rawClass == Byte.class
+                   || rawClass == Double.class
+                   || rawClass == Float.class) {
+            final String method;
+            if (rawClass == Boolean.class) {
+                method = "out.writeBoolean(";
+            } else if (rawClass == Double.class) {
+                method = "out.writeDouble(";
+            } else if (rawClass == Float.class) {
+                method = "out.writeFloat(";
+            } else {
+                method = "out.writeLong(";
+            }
+            builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+            builder.append(i).append("  out.writeNull(").append(index).append(");\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(method).append(index).append(", ").append(inVar).append(");\n");
+            builder.append(i).append("}\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("out.writeJson(").append(index).append(", ").append(inVar).append(" instanceof JsonElement ? (JsonElement)")
+                   .append(inVar).append(" : null);\n");
+        } else {
+            final String implName;
+            if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+                implName = getImplNameForDto(rawClass);
+            } else {
+                final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+                implName = dtoImplementation == null ? null : dtoImplementation.getCanonicalName();
+            }
+            checkBinarySerializable(rawClass);
+            builder.append(i).append("if (").append(inVar).append(" == null) {\n");
+            builder.append(i).append("  out.writeNull(").append(index).append(");\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  out.beginObject(").append(index).append(");\n");
+            builder.append(i).append("  ((").append(implName).append(")").append(inVar).append(").writeBinary(out);\n");
+            builder.append(i).append("}\n");
+        }
+    }
+
+    /** Checks that type of property may be written in binary format, nested DTOs must support binary format as well. */
+    private void checkBinarySerializable(Class<?> type) {
+        if (getEnclosingTemplate().isDtoInterface(type)) {
+            for (DtoImpl dto : getEnclosingTemplate().getDtoInterfaces()) {
+                if (dto.getDtoInterface().equals(type) && dto.isBinarySerializable()) {
+                    return;
+                }
+            }
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(type);
+            if (dtoImplementation != null && BinarySerializable.class.isAssignableFrom(dtoImplementation)) {
+                return;
+            }
+        }
+        throw new DtoTemplate.MalformedDtoInterfaceException(
+                "Unable to generate binary serializer for DTO interface " + getDtoInterface().getCanonicalName() + ". Type " + type +
+                " does not support binary format, all its getters must be annotated with @SerializationIndex.");
+    }
+
     /** Generates a static factory method that creates a new instance based on a JsonElement. */
     private void emitDeserializer(List<Method> getters, StringBuilder builder) {
         // The default fromJsonElement(json) works in unsafe mode and clones the JSON's for 'any' properties
@@ -484,8 +826,19 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("      if (jsonString == null) {\n");
         builder.append("        return null;\n");
         builder.append("      }\n\n");
-        // The default fromJsonElement(json) creates its own JSON thus keeping parts of its as value is OK
-        builder.append("      return fromJsonElement(new JsonParser().parse(jsonString), false);\n");
+        builder.append("      JsonReader jsonReader = new JsonReader(new java.io.StringReader(jsonString));\n");
+        builder.append("      jsonReader.setLenient(true);\n");
+        builder.append("      try {\n");
+        builder.append("        try {\n");
+        builder.append("          jsonReader.peek();\n");
+        builder.append("        } catch (java.io.EOFException e) {\n");
+        // Empty string is parsed as JSON null
+        builder.append("          return null;\n");
+        builder.append("        }\n");
+        builder.append("        return readJson(jsonReader);\n");
+        builder.append("      } catch (IOException e) {\n");
+        builder.append("        throw new com.google.gson.JsonSyntaxException(e);\n");
+        builder.append("      }\n");
         builder.append("    }\n\n");
     }
 
@@ -605,6 +958,256 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
     }
     
+    /**
+     * Generates a static factory method that reads a new instance directly from the JsonReader without building of intermediate tree of
+     * JsonElements. Unknown properties are skipped. DTOs with compact JSON format are read through JsonElements.
+     */
+    private void emitStreamingDeserializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    public static ").append(getImplClassName()).append(" readJson(JsonReader jsonReader) throws IOException {\n");
+        builder.append("      if (jsonReader.peek() == JsonToken.NULL) {\n");
+        builder.append("        jsonReader.nextNull();\n");
+        builder.append("        return null;\n");
+        builder.append("      }\n");
+        if (isCompactJson()) {
+            builder.append("      return fromJsonElement(new JsonParser().parse(jsonReader), false);\n");
+        } else {
+            builder.append("\n");
+            builder.append("      ").append(getImplClassName()).append(" dto = new ").append(getImplClassName()).append("();\n");
+            builder.append("      jsonReader.beginObject();\n");
+            builder.append("      while (jsonReader.hasNext()) {\n");
+            builder.append("        switch (jsonReader.nextName()) {\n");
+            final Set<String> jsonFieldNames = new HashSet<>();
+            for (Method getter : getters) {
+                if (jsonFieldNames.add(getJsonFieldName(getter))) {
+                    emitStreamingDeserializeFieldForMethod(getter, builder);
+                }
+            }
+            builder.append("          default:\n");
+            builder.append("            jsonReader.skipValue();\n");
+            builder.append("        }\n");
+            builder.append("      }\n");
+            builder.append("      jsonReader.endObject();\n");
+            builder.append("\n      return dto;\n");
+        }
+        builder.append("    }\n\n");
+    }
+
+    private void emitStreamingDeserializeFieldForMethod(Method method, StringBuilder builder) {
+        final String fieldName = getFieldNameFromGetterName(method.getName());
+        final String fieldNameOut = fieldName + "Out";
+        final String baseIndentation = "            ";
+        builder.append("          case ").append(quoteStringLiteral(getJsonFieldName(method))).append(": {\n");
+        emitStreamingDeserializerImpl(expandType(method.getGenericReturnType()), 0, builder, fieldNameOut, baseIndentation);
+        builder.append("            dto.").append(getSetterName(fieldName)).append("(").append(fieldNameOut).append(");\n");
+        builder.append("            break;\n");
+        builder.append("          }\n");
+    }
+
+    /**
+     * Produces code that reads the type from JsonReader into variable with the given name.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param outVar
+     *         the java variable that will be the output of deserialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamingDeserializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String outVar, String i) {
+        final Type type = expandedTypes.get(depth);
+        final Class<?> rawClass = getRawClass(type);
+        final String childOutVar = outVar + "_";
+        if (isList(rawClass)) {
+            builder.append(i).append(getImplName(type, false)).append(" ").append(outVar).append(" = null;\n");
+            builder.append(i).append("if (jsonReader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  jsonReader.nextNull();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = new ").append(getImplName(type, true)).append("();\n");
+            builder.append(i).append("  jsonReader.beginArray();\n");
+            builder.append(i).append("  while (jsonReader.hasNext()) {\n");
+            emitStreamingDeserializerImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+            builder.append(i).append("    ").append(outVar).append(".add(").append(childOutVar).append(");\n");
+            builder.append(i).append("  }\n");
+            builder.append(i).append("  jsonReader.endArray();\n");
+            builder.append(i).append("}\n");
+        } else if (isMap(rawClass)) {
+            final String keyVar = "key" + depth;
+            builder.append(i).append(getImplName(type, false)).append(" ").append(outVar).append(" = null;\n");
+            builder.append(i).append("if (jsonReader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  jsonReader.nextNull();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = new ").append(getImplName(type, true)).append("();\n");
+            builder.append(i).append("  jsonReader.beginObject();\n");
+            builder.append(i).append("  while (jsonReader.hasNext()) {\n");
+            builder.append(i).append("    String ").append(keyVar).append(" = jsonReader.nextName();\n");
+            emitStreamingDeserializerImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+            builder.append(i).append("    ").append(outVar).append(".put(").append(keyVar).append(", ").append(childOutVar)
+                   .append(");\n");
+            builder.append(i).append("  }\n");
+            builder.append(i).append("  jsonReader.endObject();\n");
+            builder.append(i).append("}\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                   .append(getImplNameForDto(rawClass)).append(".readJson(jsonReader);\n");
+        } else if (rawClass.isPrimitive()) {
+            // JSON null is read as default value of primitive type.
+            final String defaultValue = rawClass == boolean.class ? "false" : rawClass == char.class ? "'\\0'" : "0";
+            builder.append(i).append(rawClass.getSimpleName()).append(" ").append(outVar).append(" = ").append(defaultValue)
+                   .append(";\n");
+            builder.append(i).append("if (jsonReader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  jsonReader.nextNull();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = ");
+            if (rawClass == boolean.class) {
+                builder.append("jsonReader.nextBoolean();\n");
+            } else if (rawClass == long.class) {
+                builder.append("jsonReader.nextLong();\n");
+            } else if (rawClass == double.class) {
+                builder.append("jsonReader.nextDouble();\n");
+            } else if (rawClass == float.class) {
+                builder.append("(float)jsonReader.nextDouble();\n");
+            } else if (rawClass == char.class) {
+                builder.append("jsonReader.nextString().charAt(0);\n");
+            } else if (rawClass == int.class) {
+                builder.append("jsonReader.nextInt();\n");
+            } else {
+                builder.append("(").append(rawClass.getSimpleName()).append(")jsonReader.nextInt();\n");
+            }
+            builder.append(i).append("}\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("JsonElement ").append(outVar).append(" = new JsonParser().parse(jsonReader);\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                       .append(dtoImplementation.getCanonicalName()).append(".readJson(jsonReader);\n");
+            } else {
+                // Use gson to handle all other types.
+                String rawClassName = rawClass.getName().replace('$', '.');
+                builder.append(i).append(rawClassName).append(" ").append(outVar).append(" = gson.fromJson(jsonReader, ")
+                       .append(rawClassName).append(".class);\n");
+            }
+        }
+    }
+
+    /**
+     * Generates a static factory method that reads properties of DTO in binary format until end of object. Header of object is read
+     * by caller. Unknown properties are skipped.
+     */
+    private void emitBinaryDeserializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    public static ").append(getImplClassName()).append(" readBinary(DtoBinaryInput in) throws IOException {\n");
+        builder.append("      ").append(getImplClassName()).append(" dto = new ").append(getImplClassName()).append("();\n");
+        builder.append("      for (int header = in.readHeader(); header != 0; header = in.readHeader()) {\n");
+        builder.append("        switch (DtoBinaryInput.fieldIndex(header)) {\n");
+        for (Method getter : getters) {
+            final String fieldName = getFieldNameFromGetterName(getter.getName());
+            final String fieldNameOut = fieldName + "Out";
+            builder.append("          case ").append(getter.getAnnotation(SerializationIndex.class).value()).append(": {\n");
+            emitBinaryDeserializerImpl(expandType(getter.getGenericReturnType()), 0, builder, "header", fieldNameOut, "            ");
+            builder.append("            dto.").append(getSetterName(fieldName)).append("(").append(fieldNameOut).append(");\n");
+            builder.append("            break;\n");
+            builder.append("          }\n");
+        }
+        builder.append("          default:\n");
+        builder.append("            in.skip(header);\n");
+        builder.append("        }\n");
+        builder.append("      }\n");
+        builder.append("      return dto;\n");
+        builder.append("    }\n\n");
+    }
+
+    /**
+     * Produces code that reads value in binary format into variable with the given name.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param headerVar
+     *         the java variable that contains header of value
+     * @param outVar
+     *         the java variable that will be the output of deserialization
+     * @param i
+     *         indentation string
+     */
+    private void emitBinaryDeserializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String headerVar, String outVar,
+                                            String i) {
+        final Type type = expandedTypes.get(depth);
+        final Class<?> rawClass = getRawClass(type);
+        final String childOutVar = outVar + "_";
+        final String childHeaderVar = outVar + "Header";
+        if (isList(rawClass) || isMap(rawClass)) {
+            final String sizeVar = outVar + "Size";
+            builder.append(i).append(getImplName(type, false)).append(" ").append(outVar).append(" = null;\n");
+            builder.append(i).append("int ").append(sizeVar).append(" = in.").append(isList(rawClass) ? "beginArray(" : "beginMap(")
+                   .append(headerVar).append(");\n");
+            builder.append(i).append("if (").append(sizeVar).append(" >= 0) {\n");
+            builder.append(i).append("  ").append(outVar).append(" = new ").append(getImplName(type, true)).append("();\n");
+            builder.append(i).append("  for (; ").append(sizeVar).append(" > 0; ").append(sizeVar).append("--) {\n");
+            final String keyVar = "key" + depth;
+            if (isMap(rawClass)) {
+                builder.append(i).append("    String ").append(keyVar).append(" = in.readKey();\n");
+            }
+            builder.append(i).append("    int ").append(childHeaderVar).append(" = in.readHeader();\n");
+            emitBinaryDeserializerImpl(expandedTypes, depth + 1, builder, childHeaderVar, childOutVar, i + "    ");
+            if (isList(rawClass)) {
+                builder.append(i).append("    ").append(outVar).append(".add(").append(childOutVar).append(");\n");
+            } else {
+                builder.append(i).append("    ").append(outVar).append(".put(").append(keyVar).append(", ").append(childOutVar)
+                       .append(");\n");
+            }
+            builder.append(i).append("  }\n");
+            builder.append(i).append("}\n");
+            return;
+        }
+        final String typeName = rawClass.isPrimitive() ? rawClass.getSimpleName() : getImplName(rawClass, false);
+        builder.append(i).append(typeName).append(" ").append(outVar).append(" = ");
+        if (rawClass.isEnum()) {
+            builder.append("in.readEnum(").append(headerVar).append(", ").append(getImplName(rawClass, false)).append(".class);\n");
+        } else if (rawClass.equals(String.class)) {
+            builder.append("in.readString(").append(headerVar).append(");\n");
+        } else if (rawClass.isPrimitive()) {
+            builder.append(binaryReadExpression(rawClass, headerVar)).append(";\n");
+        } else if (rawClass == Boolean.class
+                   || rawClass == Integer.class
+                   || rawClass == Long.class
+                   || rawClass == Short.class
+                   || rawClass == Byte.class
+                   || rawClass == Double.class
+                   || rawClass == Float.class) {
+            builder.append("in.isNull(").append(headerVar).append(") ? null : ")
+                   .append(binaryReadExpression(Primitives.unwrap(rawClass), headerVar)).append(";\n");
+        } else if (isAny(rawClass)) {
+            builder.append("in.readJson(").append(headerVar).append(");\n");
+        } else {
+            checkBinarySerializable(rawClass);
+            final String implName;
+            if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+                implName = getImplNameForDto(rawClass);
+            } else {
+                implName = getEnclosingTemplate().getDtoImplementation(rawClass).getCanonicalName();
+            }
+            builder.append("in.beginObject(").append(headerVar).append(") ? ").append(implName).append(".readBinary(in) : null;\n");
+        }
+    }
+
+    private static String binaryReadExpression(Class<?> primitive, String headerVar) {
+        if (primitive == boolean.class) {
+            return "in.readBoolean(" + headerVar + ")";
+        } else if (primitive == int.class) {
+            return "in.readInt(" + headerVar + ")";
+        } else if (primitive == long.class) {
+            return "in.readLong(" + headerVar + ")";
+        } else if (primitive == double.class) {
+            return "in.readDouble(" + headerVar + ")";
+        } else if (primitive == float.class) {
+            return "in.readFloat(" + headerVar + ")";
+        }
+        return "(" + primitive.getSimpleName() + ")in.readLong(" + headerVar + ")";
+    }
+
     /**
      * Append the expression that clones the given JsonElement variable into a new value. If the copyJons run-time
      * parameter is set to false, then the expression won't perform a clone but instead will reuse the variable by
@@ -644,6 +1247,9 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append(" implements ");
         builder.append(dtoInterface.getCanonicalName());
         builder.append(", JsonSerializable ");
+        if (isBinarySerializable()) {
+            builder.append(", BinarySerializable ");
+        }
         builder.append(" {\n\n");
         emitFactoryMethod(builder);
         emitDefaultConstructor(builder);
@@ -191,6 +191,9 @@ public class DtoTemplate {
         builder.append(packageName);
         builder.append(";\n\n");
         if ("server".equals(implType)) {
+            builder.append("import org.eclipse.che.dto.server.BinarySerializable;\n");
+            builder.append("import org.eclipse.che.dto.server.DtoBinaryInput;\n");
+            builder.append("import org.eclipse.che.dto.server.DtoBinaryOutput;\n");
             builder.append("import org.eclipse.che.dto.server.JsonSerializable;\n");
             builder.append("\n");
             builder.append("import com.google.gson.Gson;\n");
@@ -201,7 +204,11 @@ public class DtoTemplate {
             builder.append("import com.google.gson.JsonObject;\n");
             builder.append("import com.google.gson.JsonParser;\n");
             builder.append("import com.google.gson.JsonPrimitive;\n");
+            builder.append("import com.google.gson.stream.JsonReader;\n");
+            builder.append("import com.google.gson.stream.JsonToken;\n");
+            builder.append("import com.google.gson.stream.JsonWriter;\n");
             builder.append("\n");
+            builder.append("import java.io.IOException;\n");
             builder.append("import java.util.List;\n");
             builder.append("import java.util.Map;\n");
         }
@@ -248,6 +255,15 @@ public class DtoTemplate {
                 builder.append("        public ").append(dtoInterface).append(" fromJson(com.google.gson.JsonElement json) {\n")
                        .append("            return ").append(dto.getImplClassName()).append(".fromJsonElement(json);\n");
                 builder.append("        }\n\n");
+                builder.append("        public ").append(dtoInterface).append(" fromJson(JsonReader json) throws IOException {\n")
+                       .append("            return ").append(dto.getImplClassName()).append(".readJson(json);\n");
+                builder.append("        }\n\n");
+                if (dto.isBinarySerializable()) {
+                    builder.append("        public ").append(dtoInterface).append(" fromBinary(DtoBinaryInput in) throws IOException {\n")
+                           .append("            return in.beginObject(in.readHeader()) ? ").append(dto.getImplClassName())
+                           .append(".readBinary(in) : null;\n");
+                    builder.append("        }\n\n");
+                }
                 builder.append("        public ").append(dtoInterface).append(" clone(").append(dtoInterface).append(" origin) {\n")
                        .append("            return new ").append(dto.getImplClassName()).append("(origin);\n");
                 builder.append("        }\n");
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import java.io.IOException;
+
+/**
+ * An entity that may serialize itself in compact binary format.
+ *
+ * @see DtoBinaryFormat
+ */
+public interface BinarySerializable {
+    /**
+     * Writes properties of this object and terminates them with end marker. Header of object is written by caller with {@link
+     * DtoBinaryOutput#beginObject(int)}.
+     */
+    void writeBinary(DtoBinaryOutput out) throws IOException;
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+/**
+ * Compact binary format of DTOs. DTO opts into binary format when all its getters are annotated with {@link
+ * org.eclipse.che.dto.shared.SerializationIndex &#064SerializationIndex}, generated implementation of such DTO implements {@link
+ * BinarySerializable}.
+ * <p/>
+ * Every value is prefixed with header, header is variable length integer that contains kind of value in three low bits and
+ * serialization index of property in other bits. Elements of arrays and values of maps have zero index. Properties of object are
+ * terminated with zero header. Null properties are omitted and unknown properties are skipped while reading, so DTO may get new
+ * properties without breaking of compatibility.
+ * <ul>
+ * <li>integral numbers and booleans are zigzag encoded variable length integers</li>
+ * <li>floating point numbers are little-endian IEEE 754 values</li>
+ * <li>strings, enums and 'any' JSON properties are UTF-8 bytes prefixed with length</li>
+ * <li>arrays and maps are prefixed with number of elements, keys of map are written as strings without header</li>
+ * </ul>
+ */
+public final class DtoBinaryFormat {
+    /** Media type of DTOs serialized in binary format. */
+    public static final String MEDIA_TYPE = "application/x-che-dto";
+
+    static final int VARINT  = 0;
+    static final int FIXED64 = 1;
+    static final int STRING  = 2;
+    static final int OBJECT  = 3;
+    static final int ARRAY   = 4;
+    static final int FIXED32 = 5;
+    static final int NULL    = 6;
+    static final int MAP     = 7;
+
+    static final int KIND_BITS = 3;
+    static final int KIND_MASK = (1 << KIND_BITS) - 1;
+
+    /** Max length of string or number of elements in array or map that is accepted by reader. */
+    static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+    static int header(int index, int kind) {
+        return index << KIND_BITS | kind;
+    }
+
+    private DtoBinaryFormat() {
+    }
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.ARRAY;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.FIXED32;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.FIXED64;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.KIND_BITS;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.KIND_MASK;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.MAP;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.MAX_LENGTH;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.NULL;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.OBJECT;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.STRING;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.VARINT;
+
+/**
+ * Reads values in {@link DtoBinaryFormat binary format} of DTO. Every value is read in two steps: first header is read with {@link
+ * #readHeader()} and then value is read with method that corresponds to expected type of value. Values that are not expected, e.g.
+ * unknown properties of object, are skipped with {@link #skip(int)}.
+ */
+public final class DtoBinaryInput {
+    private static final int MAX_INITIAL_STRING_BUFFER = 64 * 1024;
+
+    /** Returns serialization index of property from header. */
+    public static int fieldIndex(int header) {
+        return header >>> KIND_BITS;
+    }
+
+    private final InputStream in;
+    private final byte[]      buffer;
+
+    private int position;
+    private int limit;
+
+    public DtoBinaryInput(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[8192];
+    }
+
+    /**
+     * Reads header of the next value. Zero header means end of properties of object.
+     *
+     * @throws EOFException
+     *         if there is no more data in the stream
+     */
+    public int readHeader() throws IOException {
+        final long header = readRawVarint();
+        if (header < 0 || header > Integer.MAX_VALUE) {
+            throw new IOException("Malformed header " + header);
+        }
+        return (int)header;
+    }
+
+    /** Tests whether header is header of null value. */
+    public boolean isNull(int header) {
+        return kind(header) == NULL;
+    }
+
+    /** Reads integral number. Null is read as zero. */
+    public long readLong(int header) throws IOException {
+        if (isNull(header)) {
+            return 0;
+        }
+        checkKind(header, VARINT);
+        final long value = readRawVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readInt(int header) throws IOException {
+        return (int)readLong(header);
+    }
+
+    public boolean readBoolean(int header) throws IOException {
+        return readLong(header) != 0;
+    }
+
+    /** Reads floating point number, integral number is accepted as well. Null is read as zero. */
+    public double readDouble(int header) throws IOException {
+        switch (kind(header)) {
+            case FIXED64:
+                return Double.longBitsToDouble(readRawFixed(8));
+            case FIXED32:
+                return Float.intBitsToFloat((int)readRawFixed(4));
+            default:
+                return readLong(header);
+        }
+    }
+
+    public float readFloat(int header) throws IOException {
+        return (float)readDouble(header);
+    }
+
+    public String readString(int header) throws IOException {
+        if (isNull(header)) {
+            return null;
+        }
+        checkKind(header, STRING);
+        return readRawString();
+    }
+
+    /** Reads name of enum constant. Returns {@code null} if there is no constant with such name in the {@code type}. */
+    public <E extends Enum<E>> E readEnum(int header, Class<E> type) throws IOException {
+        final String name = readString(header);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public JsonElement readJson(int header) throws IOException {
+        final String json = readString(header);
+        return json == null ? null : new JsonParser().parse(json);
+    }
+
+    /**
+     * Starts reading of object. Properties of object must be read until zero header.
+     *
+     * @return {@code false} if value is null
+     */
+    public boolean beginObject(int header) throws IOException {
+        if (isNull(header)) {
+            return false;
+        }
+        checkKind(header, OBJECT);
+        return true;
+    }
+
+    /**
+     * Starts reading of array.
+     *
+     * @return number of elements in array or {@code -1} if value is null
+     */
+    public int beginArray(int header) throws IOException {
+        if (isNull(header)) {
+            return -1;
+        }
+        checkKind(header, ARRAY);
+        return readRawLength();
+    }
+
+    /**
+     * Starts reading of map. Each entry of map must be read as key with {@link #readKey()} and value.
+     *
+     * @return number of entries in map or {@code -1} if value is null
+     */
+    public int beginMap(int header) throws IOException {
+        if (isNull(header)) {
+            return -1;
+        }
+        checkKind(header, MAP);
+        return readRawLength();
+    }
+
+    public String readKey() throws IOException {
+        return readRawString();
+    }
+
+    /** Skips value with specified header. */
+    public void skip(int header) throws IOException {
+        switch (kind(header)) {
+            case VARINT:
+                readRawVarint();
+                break;
+            case FIXED64:
+                skipRaw(8);
+                break;
+            case FIXED32:
+                skipRaw(4);
+                break;
+            case STRING:
+                skipRaw(readRawLength());
+                break;
+            case OBJECT:
+                for (int h = readHeader(); h != 0; h = readHeader()) {
+                    skip(h);
+                }
+                break;
+            case ARRAY:
+                for (int i = readRawLength(); i > 0; i--) {
+                    skip(readHeader());
+                }
+                break;
+            case MAP:
+                for (int i = readRawLength(); i > 0; i--) {
+                    skipRaw(readRawLength());
+                    skip(readHeader());
+                }
+                break;
+            case NULL:
+                break;
+        }
+    }
+
+    private static int kind(int header) {
+        return header & KIND_MASK;
+    }
+
+    private void checkKind(int header, int expected) throws IOException {
+        if (kind(header) != expected) {
+            throw new IOException(String.format("Unexpected kind of value %d for property %d, expected %d",
+                                                kind(header), fieldIndex(header), expected));
+        }
+    }
+
+    private int readRawLength() throws IOException {
+        final long length = readRawVarint();
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Malformed length " + length);
+        }
+        return (int)length;
+    }
+
+    private String readRawString() throws IOException {
+        final int length = readRawLength();
+        if (length <= limit - position) {
+            final String value = new String(buffer, position, length, UTF_8);
+            position += length;
+            return value;
+        }
+        // Length is read from the stream and may be up to MAX_LENGTH, so memory grows with bytes which are actually received
+        // rather than allocated for the declared length at once.
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.min(length, MAX_INITIAL_STRING_BUFFER));
+        int remaining = length;
+        while (remaining > 0) {
+            if (position == limit) {
+                fill();
+            }
+            final int n = Math.min(remaining, limit - position);
+            bytes.write(buffer, position, n);
+            position += n;
+            remaining -= n;
+        }
+        return bytes.toString(UTF_8.name());
+    }
+
+    private long readRawVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = readRawByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    private long readRawFixed(int bytes) throws IOException {
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value |= (long)readRawByte() << (i * 8);
+        }
+        return value;
+    }
+
+    private int readRawByte() throws IOException {
+        if (position == limit) {
+            fill();
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private void skipRaw(int bytes) throws IOException {
+        while (bytes > 0) {
+            if (position == limit) {
+                fill();
+            }
+            final int n = Math.min(bytes, limit - position);
+            position += n;
+            bytes -= n;
+        }
+    }
+
+    private void fill() throws IOException {
+        final int n = in.read(buffer, 0, buffer.length);
+        if (n < 0) {
+            throw new EOFException();
+        }
+        position = 0;
+        limit = n;
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.JsonElement;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.ARRAY;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.FIXED32;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.FIXED64;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.MAP;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.NULL;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.OBJECT;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.STRING;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.VARINT;
+import static org.eclipse.che.dto.server.DtoBinaryFormat.header;
+
+/**
+ * Writes values in {@link DtoBinaryFormat binary format} of DTO. Every method accepts serialization index of property, zero index must
+ * be used for elements of arrays and maps and for the root value. Output is buffered, {@link #flush()} must be called after writing.
+ */
+public final class DtoBinaryOutput implements Flushable {
+    private final OutputStream out;
+    private final byte[]       buffer;
+
+    private int position;
+
+    public DtoBinaryOutput(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[8192];
+    }
+
+    public void writeNull(int index) throws IOException {
+        writeRawVarint(header(index, NULL));
+    }
+
+    public void writeBoolean(int index, boolean value) throws IOException {
+        writeLong(index, value ? 1 : 0);
+    }
+
+    public void writeLong(int index, long value) throws IOException {
+        writeRawVarint(header(index, VARINT));
+        // zigzag encoding, small negative numbers take a few bytes as well as small positive numbers
+        writeRawVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void writeDouble(int index, double value) throws IOException {
+        writeRawVarint(header(index, FIXED64));
+        writeRawFixed(Double.doubleToRawLongBits(value), 8);
+    }
+
+    public void writeFloat(int index, float value) throws IOException {
+        writeRawVarint(header(index, FIXED32));
+        writeRawFixed(Float.floatToRawIntBits(value), 4);
+    }
+
+    /** Writes string or null if {@code value} is {@code null}. */
+    public void writeString(int index, String value) throws IOException {
+        if (value == null) {
+            writeNull(index);
+        } else {
+            writeRawVarint(header(index, STRING));
+            writeRawString(value);
+        }
+    }
+
+    /** Writes name of enum constant or null if {@code value} is {@code null}. */
+    public void writeEnum(int index, Enum<?> value) throws IOException {
+        writeString(index, value == null ? null : value.name());
+    }
+
+    /** Writes JSON value as string or null if {@code value} is {@code null}. */
+    public void writeJson(int index, JsonElement value) throws IOException {
+        writeString(index, value == null ? null : value.toString());
+    }
+
+    /** Starts object, properties of object must be finished with {@link #endObject()}. */
+    public void beginObject(int index) throws IOException {
+        writeRawVarint(header(index, OBJECT));
+    }
+
+    public void endObject() throws IOException {
+        writeRawVarint(0);
+    }
+
+    /** Starts array, exactly {@code size} elements must be written after that. */
+    public void beginArray(int index, int size) throws IOException {
+        writeRawVarint(header(index, ARRAY));
+        writeRawVarint(size);
+    }
+
+    /** Starts map, exactly {@code size} pairs of key and value must be written after that. */
+    public void beginMap(int index, int size) throws IOException {
+        writeRawVarint(header(index, MAP));
+        writeRawVarint(size);
+    }
+
+    /** Writes key of map entry, key is followed by value with zero index. */
+    public void writeKey(String key) throws IOException {
+        writeRawString(key);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void writeRawString(String value) throws IOException {
+        final byte[] bytes = value.getBytes(UTF_8);
+        writeRawVarint(bytes.length);
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeRawVarint(long value) throws IOException {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte)value;
+    }
+
+    private void writeRawFixed(long value, int bytes) throws IOException {
+        ensureCapacity(bytes);
+        for (int i = 0; i < bytes; i++) {
+            buffer[position++] = (byte)(value >>> (i * 8));
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
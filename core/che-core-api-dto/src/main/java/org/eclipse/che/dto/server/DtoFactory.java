@@ -17,16 +17,20 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 
 import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
 import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.JsonArray;
 import org.eclipse.che.dto.shared.JsonStringMap;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -193,14 +197,16 @@ public final class DtoFactory {
      *         if an i/o error occurs
      */
     public <T> T createDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = new BufferedReader(json);
-        String line;
-        while ((line = br.readLine()) != null) {
-            sb.append(line);
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        final JsonReader reader = newJsonReader(json);
+        try {
+            if (isEmpty(reader)) {
+                return null;
+            }
+            return dtoProvider.fromJson(reader);
+        } catch (MalformedJsonException | EOFException e) {
+            throw new JsonSyntaxException(e);
         }
-        return dtoProvider.fromJson(sb.toString());
     }
 
     /**
@@ -257,21 +263,21 @@ public final class DtoFactory {
      */
     public <T> JsonArray<T> createListDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list;
+        final JsonReader reader = newJsonReader(json);
         try {
-            list = gson.fromJson(json, listTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+            if (isEmpty(reader) || reader.peek() == JsonToken.NULL) {
+                return null;
             }
-            throw e;
-        }
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
+            final List<T> result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(dtoProvider.fromJson(reader));
+            }
+            reader.endArray();
+            return new JsonArrayImpl<>(result);
+        } catch (MalformedJsonException | EOFException e) {
+            throw new JsonSyntaxException(e);
         }
-        return new JsonArrayImpl<>(result);
     }
 
     /**
@@ -331,21 +337,21 @@ public final class DtoFactory {
     @SuppressWarnings("unchecked")
     public <T> JsonStringMap<T> createMapDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map;
+        final JsonReader reader = newJsonReader(json);
         try {
-            map = gson.fromJson(json, mapTypeCache.getUnchecked(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
+            if (isEmpty(reader) || reader.peek() == JsonToken.NULL) {
+                return null;
             }
-            throw e;
-        }
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
+            final Map<String, T> result = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                result.put(reader.nextName(), dtoProvider.fromJson(reader));
+            }
+            reader.endObject();
+            return new JsonStringMapImpl<>(result);
+        } catch (MalformedJsonException | EOFException e) {
+            throw new JsonSyntaxException(e);
         }
-        return new JsonStringMapImpl<>(result);
     }
 
     /**
@@ -367,6 +373,118 @@ public final class DtoFactory {
 
     //
 
+    /** Tests whether implementation of specified DTO interface supports compact binary format. */
+    public boolean isBinarySerializable(Class<?> dtoInterface) {
+        final DtoProvider<?> dtoProvider = dtoInterface2Providers.get(dtoInterface);
+        return dtoProvider != null && BinarySerializable.class.isAssignableFrom(dtoProvider.getImplClass());
+    }
+
+    /**
+     * Writes DTO or list of DTOs in compact binary format.
+     *
+     * @param entity
+     *         DTO object or list of DTO objects
+     * @param out
+     *         output stream, it is not closed by this method
+     * @throws IllegalArgumentException
+     *         if DTO doesn't support binary format
+     * @throws IOException
+     *         if an i/o error occurs
+     * @see DtoBinaryFormat
+     */
+    public void toBinary(Object entity, OutputStream out) throws IOException {
+        final DtoBinaryOutput output = new DtoBinaryOutput(out);
+        if (entity instanceof List) {
+            final List<?> list = (List<?>)entity;
+            output.beginArray(0, list.size());
+            for (Object dto : list) {
+                writeBinary(dto, output);
+            }
+        } else {
+            writeBinary(entity, output);
+        }
+        output.flush();
+    }
+
+    private void writeBinary(Object dto, DtoBinaryOutput output) throws IOException {
+        if (dto == null) {
+            output.writeNull(0);
+        } else if (dto instanceof BinarySerializable) {
+            output.beginObject(0);
+            ((BinarySerializable)dto).writeBinary(output);
+        } else {
+            throw new IllegalArgumentException("BinarySerializable instance required. ");
+        }
+    }
+
+    /**
+     * Creates new instance of class which implements specified DTO interface and initializes it with data in compact binary format.
+     *
+     * @param in
+     *         binary data, stream is read ahead so nothing else should be read from it after DTO
+     * @param dtoInterface
+     *         DTO interface
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface or it doesn't support binary format
+     * @throws IOException
+     *         if an i/o error occurs or data is malformed
+     */
+    public <T> T createDtoFromBinary(InputStream in, Class<T> dtoInterface) throws IOException {
+        return getBinaryDtoProvider(dtoInterface).fromBinary(new DtoBinaryInput(in));
+    }
+
+    /**
+     * Parses list of DTOs in compact binary format.
+     *
+     * @param in
+     *         binary data, stream is read ahead so nothing else should be read from it after list
+     * @param dtoInterface
+     *         DTO interface
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface or it doesn't support binary format
+     * @throws IOException
+     *         if an i/o error occurs or data is malformed
+     */
+    public <T> JsonArray<T> createListDtoFromBinary(InputStream in, Class<T> dtoInterface) throws IOException {
+        final DtoProvider<T> dtoProvider = getBinaryDtoProvider(dtoInterface);
+        final DtoBinaryInput input = new DtoBinaryInput(in);
+        int size = input.beginArray(input.readHeader());
+        if (size < 0) {
+            return null;
+        }
+        final List<T> result = new ArrayList<>();
+        for (; size > 0; size--) {
+            result.add(dtoProvider.fromBinary(input));
+        }
+        return new JsonArrayImpl<>(result);
+    }
+
+    private <T> DtoProvider<T> getBinaryDtoProvider(Class<T> dtoInterface) {
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        if (!BinarySerializable.class.isAssignableFrom(dtoProvider.getImplClass())) {
+            throw new IllegalArgumentException("DTO type " + dtoInterface + " doesn't support binary format");
+        }
+        return dtoProvider;
+    }
+
+    //
+
+    private static JsonReader newJsonReader(Reader json) {
+        final JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /** Tests whether reader has no data at all. Empty input is treated as JSON null, the same as Gson does. */
+    private static boolean isEmpty(JsonReader reader) throws IOException {
+        try {
+            reader.peek();
+            return false;
+        } catch (EOFException e) {
+            return true;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> DtoProvider<T> getDtoProvider(Class<T> dtoInterface) {
         DtoProvider<?> dtoProvider = dtoInterface2Providers.get(dtoInterface);
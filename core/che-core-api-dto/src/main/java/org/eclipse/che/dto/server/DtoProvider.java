@@ -11,6 +11,10 @@
 package org.eclipse.che.dto.server;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
 
 /**
  * Provides implementation of DTO interface.
@@ -24,6 +28,22 @@ public interface DtoProvider<DTO> {
 
     DTO fromJson(JsonElement json);
 
+    /** Reads DTO from the stream. By default the whole JSON value is parsed first and then converted to DTO. */
+    default DTO fromJson(JsonReader json) throws IOException {
+        return fromJson(new JsonParser().parse(json));
+    }
+
+    /**
+     * Reads DTO in compact binary format.
+     *
+     * @throws UnsupportedOperationException
+     *         if DTO doesn't support binary format
+     * @see DtoBinaryFormat
+     */
+    default DTO fromBinary(DtoBinaryInput in) throws IOException {
+        throw new UnsupportedOperationException("Binary format is not supported by " + getImplClass());
+    }
+
     DTO newInstance();
 
     DTO clone(DTO origin);
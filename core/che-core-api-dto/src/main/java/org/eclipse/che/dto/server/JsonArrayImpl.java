@@ -15,6 +15,8 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -154,6 +156,11 @@ public class JsonArrayImpl<T> implements JsonArray<T> {
         return gson.toJson(this);
     }
 
+    @Override
+    public void toJson(Writer writer) throws IOException {
+        gson.toJson(this, writer);
+    }
+
     @Override
     public JsonElement toJsonElement() {
         return gson.toJsonTree(this);
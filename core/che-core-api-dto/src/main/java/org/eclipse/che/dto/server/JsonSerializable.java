@@ -13,7 +13,9 @@
 // limitations under the License.
 package org.eclipse.che.dto.server;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 
 import com.google.gson.JsonElement;
 
@@ -25,4 +27,12 @@ public interface JsonSerializable extends Serializable {
 
     /** Serializes DTO to JSON object. */
     JsonElement toJsonElement();
+
+    /**
+     * Serializes DTO to JSON format and writes it to the specified writer. Generated DTOs write JSON directly to the writer without
+     * building of the intermediate JSON string.
+     */
+    default void toJson(Writer writer) throws IOException {
+        writer.write(toJson());
+    }
 }
\ No newline at end of file
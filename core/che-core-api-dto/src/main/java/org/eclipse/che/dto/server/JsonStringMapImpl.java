@@ -15,6 +15,8 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
@@ -101,6 +103,11 @@ public class JsonStringMapImpl<T> implements JsonStringMap<T> {
         return gson.toJson(this);
     }
 
+    @Override
+    public void toJson(Writer writer) throws IOException {
+        gson.toJson(this, writer);
+    }
+
     @Override
     public JsonElement toJsonElement() {
         return gson.toJsonTree(this);
@@ -10,32 +10,46 @@
  *******************************************************************************/
 package org.eclipse.che.dto;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 
+import org.eclipse.che.dto.definitions.BinaryDto;
 import org.eclipse.che.dto.definitions.ComplicatedDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy;
 import org.eclipse.che.dto.definitions.DtoWithAny;
 import org.eclipse.che.dto.definitions.DtoWithDelegate;
 import org.eclipse.che.dto.definitions.DtoWithFieldNames;
+import org.eclipse.che.dto.definitions.NestedBinaryDto;
 import org.eclipse.che.dto.definitions.SimpleDto;
 import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonSerializable;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -325,6 +339,178 @@ public class ServerDtoTest {
         assertEquals(complicatedDto.getArrayOfArrayOfEnum().get(0).get(2), ComplicatedDto.SimpleEnum.THREE);
     }
 
+    @Test
+    public void testStreamingSerializerWritesTheSameJsonAsJsonTree() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("Something \"quoted\" <tag>").withId(1);
+        Map<String, SimpleDto> mapDtos = new HashMap<>();
+        mapDtos.put("first", simpleDto);
+        mapDtos.put("second", null);
+        ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                  .withStrings(asList("a", null, "b"))
+                                                  .withMap(mapDtos)
+                                                  .withSimpleDtos(asList(simpleDto, null))
+                                                  .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE, null)));
+        DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class).withStuff(createTestValueForAny())
+                                          .withObjects(createListTestValueForAny());
+
+        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+        assertEquals(dtoFactory.toJson(complicatedDto), gson.toJson(dtoFactory.toJsonElement(complicatedDto)));
+        assertEquals(dtoFactory.toJson(dtoWithAny), gson.toJson(dtoFactory.toJsonElement(dtoWithAny)));
+        StringWriter writer = new StringWriter();
+        ((JsonSerializable)complicatedDto).toJson(writer);
+        assertEquals(writer.toString(), dtoFactory.toJson(complicatedDto));
+    }
+
+    @Test
+    public void testStreamingDeserializerReadsWhatSerializerWrites() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("Something").withId(1).withDefault("default");
+        ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                  .withStrings(asList("a", "b"))
+                                                  .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO)
+                                                  .withMap(singletonMap("first", simpleDto))
+                                                  .withSimpleDtos(asList(simpleDto))
+                                                  .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.ONE)));
+
+        ComplicatedDto result = dtoFactory.createDtoFromJson(new StringReader(dtoFactory.toJson(complicatedDto)), ComplicatedDto.class);
+
+        assertEquals(result, complicatedDto);
+    }
+
+    @Test
+    public void testStreamingDeserializerSkipsUnknownProperties() throws Exception {
+        String json = "{\"unknown\":{\"a\":[1,2,{\"b\":null}]},\"name\":\"Something\",\"id\":1,\"other\":[]}";
+
+        SimpleDto dto = dtoFactory.createDtoFromJson(new StringReader(json), SimpleDto.class);
+
+        assertEquals(dto.getName(), "Something");
+        assertEquals(dto.getId(), 1);
+    }
+
+    @Test
+    public void testStreamingDeserializerReadsNullAsDefaultValueOfPrimitive() throws Exception {
+        String json = "{\"name\":\"Something\",\"id\":null}";
+
+        SimpleDto dto = dtoFactory.createDtoFromJson(new StringReader(json), SimpleDto.class);
+
+        assertEquals(dto.getName(), "Something");
+        assertEquals(dto.getId(), 0);
+    }
+
+    @Test
+    public void testStreamingDeserializerReturnsNullForEmptyInput() throws Exception {
+        assertNull(dtoFactory.createDtoFromJson(new StringReader(""), SimpleDto.class));
+        assertNull(dtoFactory.createDtoFromJson("", SimpleDto.class));
+        assertNull(dtoFactory.createDtoFromJson(new StringReader("null"), SimpleDto.class));
+    }
+
+    @Test(expectedExceptions = JsonSyntaxException.class)
+    public void testStreamingDeserializerFailsOnTruncatedInput() throws Exception {
+        dtoFactory.createDtoFromJson(new StringReader("{\"name\":\"Something\",\"id\":"), SimpleDto.class);
+    }
+
+    @Test
+    public void testListDtoStreamingDeserializer() throws Exception {
+        SimpleDto dto1 = dtoFactory.createDto(SimpleDto.class).withName("Something 1").withId(1);
+        SimpleDto dto2 = dtoFactory.createDto(SimpleDto.class).withName("Something 2").withId(2);
+        String json = "[" + dtoFactory.toJson(dto1) + "," + dtoFactory.toJson(dto2) + "]";
+
+        org.eclipse.che.dto.shared.JsonArray<SimpleDto> result = dtoFactory.createListDtoFromJson(new StringReader(json), SimpleDto.class);
+
+        assertEquals(result, asList(dto1, dto2));
+    }
+
+    @Test
+    public void testBinarySerializerAndDeserializer() throws Exception {
+        Map<String, NestedBinaryDto> nestedMap = new HashMap<>();
+        nestedMap.put("first", dtoFactory.createDto(NestedBinaryDto.class).withName("first").withValue(-1));
+        nestedMap.put("second", null);
+        BinaryDto dto = dtoFactory.createDto(BinaryDto.class)
+                                  .withName("Something \u2713")
+                                  .withId(-100)
+                                  .withCount(Long.MAX_VALUE)
+                                  .withRatio(0.5)
+                                  .withEnabled(true)
+                                  .withSimpleEnum(ComplicatedDto.SimpleEnum.THREE)
+                                  .withStrings(asList("a", null, ""))
+                                  .withNestedMap(nestedMap)
+                                  .withMatrix(asList(asList("1", "2"), asList("3")))
+                                  .withNested(dtoFactory.createDto(NestedBinaryDto.class).withName("nested").withValue(7))
+                                  .withStuff(createTestValueForAny());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dtoFactory.toBinary(dto, out);
+        BinaryDto result = dtoFactory.createDtoFromBinary(new ByteArrayInputStream(out.toByteArray()), BinaryDto.class);
+
+        assertEquals(result, dto);
+        assertTrue(out.size() < dtoFactory.toJson(dto).length());
+    }
+
+    @Test
+    public void testBinaryDeserializerSkipsUnknownProperties() throws Exception {
+        BinaryDto dto = dtoFactory.createDto(BinaryDto.class)
+                                  .withName("Something")
+                                  .withId(1)
+                                  .withStrings(asList("a", "b"))
+                                  .withNestedMap(singletonMap("first", dtoFactory.createDto(NestedBinaryDto.class)))
+                                  .withNested(dtoFactory.createDto(NestedBinaryDto.class).withName("nested"))
+                                  .withStuff(createTestValueForAny());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoFactory.toBinary(dto, out);
+
+        NestedBinaryDto result = dtoFactory.createDtoFromBinary(new ByteArrayInputStream(out.toByteArray()), NestedBinaryDto.class);
+
+        assertEquals(result.getName(), "Something");
+        assertEquals(result.getValue(), 1);
+    }
+
+    @Test
+    public void testListDtoBinarySerializerAndDeserializer() throws Exception {
+        List<NestedBinaryDto> list = asList(dtoFactory.createDto(NestedBinaryDto.class).withName("first").withValue(1),
+                                            null,
+                                            dtoFactory.createDto(NestedBinaryDto.class).withName("second").withValue(2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dtoFactory.toBinary(list, out);
+
+        assertEquals(dtoFactory.createListDtoFromBinary(new ByteArrayInputStream(out.toByteArray()), NestedBinaryDto.class), list);
+    }
+
+    @Test
+    public void testBinaryDeserializerReadsStringLargerThanBuffer() throws Exception {
+        NestedBinaryDto dto = dtoFactory.createDto(NestedBinaryDto.class).withName(createLongString(100000)).withValue(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoFactory.toBinary(dto, out);
+
+        NestedBinaryDto result = dtoFactory.createDtoFromBinary(new ByteArrayInputStream(out.toByteArray()), NestedBinaryDto.class);
+
+        assertEquals(result, dto);
+    }
+
+    @Test(expectedExceptions = EOFException.class)
+    public void testBinaryDeserializerFailsWhenStringIsTruncated() throws Exception {
+        NestedBinaryDto dto = dtoFactory.createDto(NestedBinaryDto.class).withName(createLongString(100000));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dtoFactory.toBinary(dto, out);
+
+        dtoFactory.createDtoFromBinary(new ByteArrayInputStream(out.toByteArray(), 0, out.size() / 2), NestedBinaryDto.class);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBinaryFormatIsNotSupportedByDtoWithoutSerializationIndexes() throws Exception {
+        assertFalse(dtoFactory.isBinarySerializable(SimpleDto.class));
+        assertTrue(dtoFactory.isBinarySerializable(BinaryDto.class));
+
+        dtoFactory.toBinary(dtoFactory.createDto(SimpleDto.class), new ByteArrayOutputStream());
+    }
+
+    private static String createLongString(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(i % 100 == 0 ? '\u2713' : (char)('a' + i % 26));
+        }
+        return builder.toString();
+    }
+
     private void checkSimpleDto(SimpleDto dto, String expectedName, int expectedId, String expectedDefault) {
         assertEquals(dto.getName(), expectedName);
         assertEquals(dto.getId(), expectedId);
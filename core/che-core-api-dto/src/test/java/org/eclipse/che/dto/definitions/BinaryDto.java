@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.definitions;
+
+import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.dto.shared.SerializationIndex;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO that supports compact binary format.
+ */
+@DTO
+public interface BinaryDto {
+    @SerializationIndex(1)
+    String getName();
+
+    BinaryDto withName(String name);
+
+    @SerializationIndex(2)
+    int getId();
+
+    BinaryDto withId(int id);
+
+    @SerializationIndex(3)
+    Long getCount();
+
+    BinaryDto withCount(Long count);
+
+    @SerializationIndex(4)
+    double getRatio();
+
+    BinaryDto withRatio(double ratio);
+
+    @SerializationIndex(5)
+    boolean isEnabled();
+
+    BinaryDto withEnabled(boolean enabled);
+
+    @SerializationIndex(6)
+    ComplicatedDto.SimpleEnum getSimpleEnum();
+
+    BinaryDto withSimpleEnum(ComplicatedDto.SimpleEnum simpleEnum);
+
+    @SerializationIndex(7)
+    List<String> getStrings();
+
+    BinaryDto withStrings(List<String> strings);
+
+    @SerializationIndex(8)
+    Map<String, NestedBinaryDto> getNestedMap();
+
+    BinaryDto withNestedMap(Map<String, NestedBinaryDto> nestedMap);
+
+    @SerializationIndex(9)
+    List<List<String>> getMatrix();
+
+    BinaryDto withMatrix(List<List<String>> matrix);
+
+    @SerializationIndex(10)
+    NestedBinaryDto getNested();
+
+    BinaryDto withNested(NestedBinaryDto nested);
+
+    @SerializationIndex(11)
+    Object getStuff();
+
+    BinaryDto withStuff(Object stuff);
+}
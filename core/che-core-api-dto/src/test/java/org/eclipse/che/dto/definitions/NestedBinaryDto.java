@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.definitions;
+
+import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.dto.shared.SerializationIndex;
+
+/**
+ * DTO that supports compact binary format and has part of properties of {@link BinaryDto}.
+ */
+@DTO
+public interface NestedBinaryDto {
+    @SerializationIndex(1)
+    String getName();
+
+    NestedBinaryDto withName(String name);
+
+    @SerializationIndex(2)
+    int getValue();
+
+    NestedBinaryDto withValue(int value);
+}
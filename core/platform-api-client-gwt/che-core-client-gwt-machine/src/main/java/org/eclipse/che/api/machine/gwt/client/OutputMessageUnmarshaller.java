@@ -18,6 +18,7 @@ import org.eclipse.che.ide.websocket.rest.Unmarshallable;
 
 /**
  * Unmarshaller for websocket messages from machine.
+ * Payload contains one or several lines of output separated by {@code '\n'}.
  *
  * @author Artem Zatsarynnyi
  */
@@ -27,11 +28,21 @@ public class OutputMessageUnmarshaller implements Unmarshallable<String> {
     @Override
     public void unmarshal(Message message) {
         final JSONString jsonString = JSONParser.parseStrict(message.getBody()).isString();
-        payload = jsonString.stringValue();
-
-        if (payload.startsWith("[STDOUT]") || payload.startsWith("[STDERR]")) {
-            payload = payload.substring(9);
+        // server sends output in batches, one message may contain several lines
+        final String[] lines = jsonString.stringValue().split("\n", -1);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            final String line = lines[i];
+            if (line.startsWith("[STDOUT]") || line.startsWith("[STDERR]")) {
+                builder.append(line.substring(9));
+            } else {
+                builder.append(line);
+            }
         }
+        payload = builder.toString();
     }
 
     @Override
@@ -18,6 +18,7 @@ import java.io.InputStream;
 */
 public class ChunkedInputStream extends InputStream {
     private final InputStream input;
+    private final byte[]      oneByte = new byte[1];
     private StringBuilder chunkSizeBuf;
     private int           chunkSize;
     private int           chunkPos;
@@ -30,11 +31,10 @@ public class ChunkedInputStream extends InputStream {
 
     @Override
     public synchronized int read() throws IOException {
-        final byte[] b = new byte[1];
-        if (doRead(b, 0, 1) == -1) {
+        if (doRead(oneByte, 0, 1) == -1) {
             return -1;
         }
-        return b[0];
+        return oneByte[0] & 0xFF;
     }
 
     @Override
@@ -57,7 +57,7 @@ public class ChunkedInputStream extends InputStream {
             return 0;
         }
 
-        return doRead(b, 0, len);
+        return doRead(b, off, len);
     }
 
     @Override
@@ -65,6 +65,11 @@ public class ChunkedInputStream extends InputStream {
         return (chunkSize - chunkPos);
     }
 
+    /** Tests whether the last chunk is read. */
+    synchronized boolean isEof() {
+        return eof;
+    }
+
     private int doRead(byte[] b, int off, int len) throws IOException {
         if (eof) {
             return -1;
@@ -97,7 +102,10 @@ public class ChunkedInputStream extends InputStream {
                 eof = true;
             }
         }
-        final int n = input.read(b, 0, Math.min(len - off, chunkSize - chunkPos));
+        final int n = input.read(b, off, Math.min(len, chunkSize - chunkPos));
+        if (n == -1) {
+            throw new IOException("Unexpected end of file from docker API");
+        }
         chunkPos += n;
         if (chunkPos == chunkSize) {
             if ('\r' != input.read()) { // skip '\r'
@@ -30,8 +30,9 @@ public abstract class DockerConnection implements Closeable {
     private String    method;
     private String    path;
     private Entity<?> entity;
-    private StringBuilder         query   = new StringBuilder();
-    private List<Pair<String, ?>> headers = new LinkedList<>();
+    private StringBuilder           query   = new StringBuilder();
+    private List<Pair<String, ?>>   headers = new LinkedList<>();
+    private DockerConnectionMetrics metrics;
 
     public DockerConnection method(String method) {
         this.method = method;
@@ -92,7 +93,21 @@ public abstract class DockerConnection implements Closeable {
     }
 
     public DockerResponse request() throws IOException {
-        return request(method, path, query.toString(), headers, entity);
+        if (metrics == null) {
+            return request(method, path, query.toString(), headers, entity);
+        }
+        final long start = System.nanoTime();
+        final DockerResponse response = request(method, path, query.toString(), headers, entity);
+        // wait for status line, response body is read by caller
+        response.getStatus();
+        metrics.record(method, path, System.nanoTime() - start);
+        return response;
+    }
+
+    /** Sets collector of latency of requests, may be {@code null}. */
+    DockerConnection metrics(DockerConnectionMetrics metrics) {
+        this.metrics = metrics;
+        return this;
     }
 
     protected abstract DockerResponse request(String method,
@@ -16,19 +16,30 @@ import org.eclipse.che.plugin.docker.client.DockerCertificates;
 import org.eclipse.che.plugin.docker.client.DockerConnector;
 import org.eclipse.che.plugin.docker.client.DockerConnectorConfiguration;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
+import javax.inject.Singleton;
 import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Factory for connections to docker API.
  *
  * <p>Detects connection implementation by checking docker daemon URI.
  *
+ * <p>Connections are kept alive and reused between requests unless it is disabled with {@value #KEEP_ALIVE_PROPERTY}. Idle unix
+ * socket connections are pooled per docker daemon, tcp connections are reused by keep-alive cache of JDK.
+ *
  * @author Alexander Garagatyi
  */
+@Singleton
 public class DockerConnectionFactory {
     public static final String CONNECTION_TIMEOUT_MS_PROPERTY      = "docker.connection.tcp.connection_timeout_ms";
     public static final String CONNECTION_READ_TIMEOUT_MS_PROPERTY = "docker.connection.tcp.read_timeout_ms";
+    public static final String KEEP_ALIVE_PROPERTY                 = "docker.connection.keep_alive";
+    public static final String MAX_IDLE_CONNECTIONS_PROPERTY       = "docker.connection.max_idle_connections";
+    public static final String IDLE_TIMEOUT_MS_PROPERTY            = "docker.connection.idle_timeout_ms";
 
     @Inject(optional = true)
     @Named(CONNECTION_TIMEOUT_MS_PROPERTY)
@@ -38,18 +49,50 @@ public class DockerConnectionFactory {
     @Named(CONNECTION_READ_TIMEOUT_MS_PROPERTY)
     private int connectionReadTimeoutMs = 60000;
 
-    private final DockerCertificates dockerCertificates;
+    @Inject(optional = true)
+    @Named(KEEP_ALIVE_PROPERTY)
+    private boolean keepAlive = true;
+
+    @Inject(optional = true)
+    @Named(MAX_IDLE_CONNECTIONS_PROPERTY)
+    private int maxIdleConnections = 10;
+
+    @Inject(optional = true)
+    @Named(IDLE_TIMEOUT_MS_PROPERTY)
+    private long idleTimeoutMs = 30000;
+
+    private final DockerCertificates                              dockerCertificates;
+    private final DockerConnectionMetrics                         metrics;
+    private final ConcurrentMap<String, UnixSocketConnectionPool> unixSocketPools;
 
     @Inject
     public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
         this.dockerCertificates = connectorConfiguration.getDockerCertificates();
+        this.metrics = new DockerConnectionMetrics();
+        this.unixSocketPools = new ConcurrentHashMap<>();
     }
 
     public DockerConnection openConnection(URI dockerDaemonUri) {
+        final DockerConnection connection;
         if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
-            return new UnixSocketConnection(dockerDaemonUri.getPath());
+            connection = new UnixSocketConnection(unixSocketPools.computeIfAbsent(dockerDaemonUri.getPath(), this::createPool));
         } else {
-            return new TcpConnection(dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs);
+            connection = new TcpConnection(dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs, keepAlive);
         }
+        return connection.metrics(metrics);
+    }
+
+    /** Returns latency of requests to docker API. */
+    public DockerConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    @PreDestroy
+    void closeIdleConnections() {
+        unixSocketPools.values().forEach(UnixSocketConnectionPool::close);
+    }
+
+    private UnixSocketConnectionPool createPool(String dockerSocketPath) {
+        return new UnixSocketConnectionPool(dockerSocketPath, keepAlive ? maxIdleConnections : 0, idleTimeoutMs);
     }
 }
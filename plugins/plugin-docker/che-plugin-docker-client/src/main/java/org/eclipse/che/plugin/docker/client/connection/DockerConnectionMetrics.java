@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latency of requests to docker API per endpoint. Latency is time from start of request until status line and headers of
+ * response are received. Endpoints are identified by method and path where identifiers of containers, images, etc. are replaced with
+ * {@code {id}}, e.g. {@code GET /containers/{id}/json}.
+ */
+public class DockerConnectionMetrics {
+    /** Upper bounds of histogram buckets in milliseconds, the last bucket contains everything that is greater. */
+    static final long[] BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000};
+
+    private static final Set<String> STATIC_SEGMENTS = ImmutableSet.of("json", "create", "search", "load", "get", "prune");
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /** Records latency of request. */
+    public void record(String method, String path, long latencyNanos) {
+        histograms.computeIfAbsent(method + ' ' + endpointOf(path), k -> new LatencyHistogram()).record(latencyNanos);
+    }
+
+    /** Returns histograms of latency of requests mapped to endpoints. */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return new HashMap<>(histograms);
+    }
+
+    /**
+     * Replaces identifiers in path with {@code {id}}. Version prefix of docker API is removed, e.g. {@code /v1.20/images/eclipse/ubuntu/json}
+     * becomes {@code /images/{id}/json}.
+     */
+    static String endpointOf(String path) {
+        if (path == null) {
+            return "/";
+        }
+        final String[] segments = path.split("/");
+        int first = 0;
+        while (first < segments.length && (segments[first].isEmpty() || segments[first].matches("v\\d+(\\.\\d+)*"))) {
+            first++;
+        }
+        if (first == segments.length) {
+            return "/";
+        }
+        final StringBuilder endpoint = new StringBuilder().append('/').append(segments[first]);
+        final int last = segments.length - 1;
+        if (last == first) {
+            return endpoint.toString();
+        }
+        if (last == first + 1 && STATIC_SEGMENTS.contains(segments[last])) {
+            return endpoint.append('/').append(segments[last]).toString();
+        }
+        endpoint.append("/{id}");
+        if (last > first + 1) {
+            endpoint.append('/').append(segments[last]);
+        }
+        return endpoint.toString();
+    }
+
+    /** Histogram of latency of requests with fixed buckets, see {@link #getBucketBounds()}. */
+    public static class LatencyHistogram {
+        private final AtomicLongArray counts     = new AtomicLongArray(BUCKETS_MS.length + 1);
+        private final LongAdder       totalNanos = new LongAdder();
+
+        void record(long latencyNanos) {
+            final long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+            int bucket = 0;
+            while (bucket < BUCKETS_MS.length && latencyMs > BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            counts.incrementAndGet(bucket);
+            totalNanos.add(latencyNanos);
+        }
+
+        /** Upper bounds of buckets in milliseconds, there is one more bucket for latency that is greater than the last bound. */
+        public long[] getBucketBounds() {
+            return BUCKETS_MS.clone();
+        }
+
+        public long[] getCounts() {
+            final long[] result = new long[counts.length()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = counts.get(i);
+            }
+            return result;
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        public double getMeanMs() {
+            final long count = getCount();
+            return count == 0 ? 0 : totalNanos.sum() / (count * 1_000_000.0);
+        }
+
+        /**
+         * Returns upper bound of bucket that contains the specified percentile or {@code Long.MAX_VALUE} if it is in the last bucket.
+         *
+         * @param percentile
+         *         percentile in range (0, 100]
+         */
+        public long getPercentileMs(double percentile) {
+            final long[] snapshot = getCounts();
+            long count = 0;
+            for (long c : snapshot) {
+                count += c;
+            }
+            final long rank = (long)Math.ceil(count * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return BUCKETS_MS[i];
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.io.InputStream;
 public class LimitedInputStream extends InputStream {
     private final InputStream input;
     private final int         limit;
+    private final byte[]      oneByte = new byte[1];
 
     private int pos;
 
@@ -29,11 +30,10 @@ public class LimitedInputStream extends InputStream {
 
     @Override
     public synchronized int read() throws IOException {
-        final byte[] b = new byte[1];
-        if (doRead(b, 0, 1) == -1) {
+        if (doRead(oneByte, 0, 1) == -1) {
             return -1;
         }
-        return b[0];
+        return oneByte[0] & 0xFF;
     }
 
     @Override
@@ -56,14 +56,22 @@ public class LimitedInputStream extends InputStream {
             return 0;
         }
 
-        return doRead(b, 0, len);
+        return doRead(b, off, len);
+    }
+
+    /** Tests whether all bytes of this stream are read. */
+    synchronized boolean isEof() {
+        return pos >= limit;
     }
 
     private int doRead(byte[] b, int off, int len) throws IOException {
         if (pos >= limit) {
             return -1;
         }
-        int n = input.read(b, 0, Math.min(len - off, limit - pos));
+        int n = input.read(b, off, Math.min(len, limit - pos));
+        if (n == -1) {
+            throw new IOException("Unexpected end of file from docker API");
+        }
         pos += n;
         return n;
     }
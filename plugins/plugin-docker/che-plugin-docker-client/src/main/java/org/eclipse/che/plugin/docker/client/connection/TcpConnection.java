@@ -17,6 +17,7 @@ import org.eclipse.che.plugin.docker.client.DockerCertificates;
 
 import javax.net.ssl.HttpsURLConnection;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
@@ -32,10 +33,21 @@ public class TcpConnection extends DockerConnection {
     private final DockerCertificates certificates;
     private final int                connectionTimeout;
     private final int                readTimeout;
+    private final boolean            keepAlive;
 
     private HttpURLConnection connection;
+    private boolean           requested;
 
     public TcpConnection(URI baseUri, DockerCertificates certificates, int connectionTimeoutMs, int readTimeoutMs) {
+        this(baseUri, certificates, connectionTimeoutMs, readTimeoutMs, false);
+    }
+
+    /**
+     * @param keepAlive
+     *         if {@code true} connection is returned to the keep-alive cache of JDK after request, number of idle connections to each
+     *         docker daemon is limited with system property {@code http.maxConnections}
+     */
+    public TcpConnection(URI baseUri, DockerCertificates certificates, int connectionTimeoutMs, int readTimeoutMs, boolean keepAlive) {
         if ("https".equals(baseUri.getScheme())) {
             if (certificates == null) {
                 throw new IllegalArgumentException("Certificates are required for https connection.");
@@ -47,6 +59,7 @@ public class TcpConnection extends DockerConnection {
         this.certificates = certificates;
         this.connectionTimeout = connectionTimeoutMs;
         this.readTimeout = readTimeoutMs;
+        this.keepAlive = keepAlive;
     }
 
     @Override
@@ -62,8 +75,10 @@ public class TcpConnection extends DockerConnection {
             ((HttpsURLConnection)connection).setSSLSocketFactory(certificates.getSslContext().getSocketFactory());
         }
         connection.setRequestMethod(method);
-        // needed to fix bug https://github.com/docker/docker/issues/12845
-        connection.setRequestProperty("Connection", "close");
+        if (!keepAlive) {
+            // needed to fix bug https://github.com/docker/docker/issues/12845
+            connection.setRequestProperty("Connection", "close");
+        }
         for (Pair<String, ?> header : headers) {
             connection.setRequestProperty(header.first, String.valueOf(header.second));
         }
@@ -73,12 +88,25 @@ public class TcpConnection extends DockerConnection {
                 entity.writeTo(output);
             }
         }
+        requested = true;
         return new TcpDockerResponse(connection);
     }
 
     @Override
     public void close() {
         if (connection != null) {
+            if (keepAlive && requested) {
+                // closing of response stream instead of disconnecting lets JDK reuse connection if response is read completely
+                try {
+                    InputStream entityStream = connection.getErrorStream();
+                    if (entityStream == null) {
+                        entityStream = connection.getInputStream();
+                    }
+                    entityStream.close();
+                    return;
+                } catch (IOException ignored) {
+                }
+            }
             connection.disconnect();
         }
     }
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.CLibrary;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.che.plugin.docker.client.CLibrary.AF_UNIX;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_DONTWAIT;
+import static org.eclipse.che.plugin.docker.client.CLibrary.MSG_PEEK;
+import static org.eclipse.che.plugin.docker.client.CLibrary.SOCK_STREAM;
+import static org.eclipse.che.plugin.docker.client.CLibrary.SockAddrUn;
+import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
+
+/**
+ * Keeps idle keep-alive connections to the docker unix socket so that subsequent requests don't need to connect again.
+ *
+ * <p>Connection is returned to the pool only when response is completely read. Pool keeps at most {@code maxIdle} connections,
+ * connections that are idle longer than {@code idleTimeoutMs} are closed. Before reuse connection is checked that it isn't closed by
+ * docker daemon.
+ */
+class UnixSocketConnectionPool {
+    private final String            dockerSocketPath;
+    private final int               maxIdle;
+    private final long              idleTimeoutNanos;
+    private final Deque<IdleSocket> idle;
+
+    /**
+     * @param dockerSocketPath
+     *         path to the docker unix socket
+     * @param maxIdle
+     *         max number of idle connections, zero disables reuse of connections
+     * @param idleTimeoutMs
+     *         time after which idle connection is closed
+     */
+    UnixSocketConnectionPool(String dockerSocketPath, int maxIdle, long idleTimeoutMs) {
+        this.dockerSocketPath = dockerSocketPath;
+        this.maxIdle = maxIdle;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.idle = new ArrayDeque<>();
+    }
+
+    /** Returns idle connection if there is alive one or opens new connection. */
+    int acquire() throws IOException {
+        for (; ; ) {
+            final IdleSocket socket;
+            synchronized (this) {
+                evictExpired();
+                socket = idle.pollFirst();
+            }
+            if (socket == null) {
+                return connect();
+            }
+            if (isAlive(socket.fd)) {
+                return socket.fd;
+            }
+            getCLibrary().close(socket.fd);
+        }
+    }
+
+    /**
+     * Returns connection to the pool.
+     *
+     * @param reusable
+     *         {@code true} if response was read completely and connection may be used for the next request, otherwise connection is
+     *         closed
+     */
+    void release(int fd, boolean reusable) {
+        if (reusable) {
+            synchronized (this) {
+                evictExpired();
+                if (idle.size() < maxIdle) {
+                    idle.addFirst(new IdleSocket(fd, System.nanoTime()));
+                    return;
+                }
+            }
+        }
+        getCLibrary().close(fd);
+    }
+
+    synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /** Closes all idle connections. */
+    void close() {
+        synchronized (this) {
+            for (IdleSocket socket : idle) {
+                getCLibrary().close(socket.fd);
+            }
+            idle.clear();
+        }
+    }
+
+    // must be called under lock, most recently released connections are at the head of queue
+    private void evictExpired() {
+        final long now = System.nanoTime();
+        IdleSocket oldest;
+        while ((oldest = idle.peekLast()) != null && now - oldest.releaseTime > idleTimeoutNanos) {
+            idle.pollLast();
+            getCLibrary().close(oldest.fd);
+        }
+    }
+
+    private int connect() throws IOException {
+        final CLibrary cLib = getCLibrary();
+        int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
+        if (fd == -1) {
+            throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+        }
+        final SockAddrUn sockAddr = new SockAddrUn(dockerSocketPath);
+        int c = cLib.connect(fd, sockAddr, sockAddr.size());
+        if (c == -1) {
+            cLib.close(fd);
+            throw new ConnectException(String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+        }
+        return fd;
+    }
+
+    /**
+     * Idle connection must not have any data to read. Non-blocking peek returns zero if connection is closed by other side, data if
+     * something unexpected is sent and -1 (EAGAIN) for healthy connection.
+     */
+    private boolean isAlive(int fd) {
+        try {
+            return getCLibrary().recv(fd, new byte[1], 1, MSG_PEEK | MSG_DONTWAIT) < 0;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static class IdleSocket {
+        final int  fd;
+        final long releaseTime;
+
+        IdleSocket(int fd, long releaseTime) {
+            this.fd = fd;
+            this.releaseTime = releaseTime;
+        }
+    }
+}
@@ -143,6 +143,11 @@ public class UnixSocketDockerResponse implements DockerResponse {
             }
         }
         this.headersFields = headerFields.toArray(new String[headerFields.size()]);
+        final int status = getStatus();
+        if (status == 204 || status == 304) {
+            // responses without body
+            return data = EMPTY;
+        }
         final int contentLength = getContentLength();
         if (contentLength == 0) {
             return data = EMPTY;
@@ -152,4 +157,28 @@ public class UnixSocketDockerResponse implements DockerResponse {
         }
         return data = "chunked".equals(getHeader("Transfer-Encoding")) ? new ChunkedInputStream(rawData) : rawData;
     }
+
+    /**
+     * Reads rest of the response body if it is already received and tests whether connection may be used for the next request.
+     * Response that isn't read completely, e.g. stream of logs that is closed by client, makes connection not reusable since this
+     * method never waits for data from docker daemon.
+     */
+    synchronized boolean consume() throws IOException {
+        if (headersFields == null || "close".equalsIgnoreCase(getHeader("Connection"))) {
+            return false;
+        }
+        final byte[] buf = new byte[512];
+        while (!isBodyRead()) {
+            if (data == rawData || rawData.available() <= 0 || data.read(buf) == -1) {
+                break;
+            }
+        }
+        return isBodyRead();
+    }
+
+    private boolean isBodyRead() {
+        return data == EMPTY
+               || (data instanceof LimitedInputStream && ((LimitedInputStream)data).isEof())
+               || (data instanceof ChunkedInputStream && ((ChunkedInputStream)data).isEof());
+    }
 }
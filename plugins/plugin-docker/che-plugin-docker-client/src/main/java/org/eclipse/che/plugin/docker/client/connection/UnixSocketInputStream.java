@@ -24,6 +24,9 @@ import static org.eclipse.che.plugin.docker.client.CLibraryFactory.getCLibrary;
 public class UnixSocketInputStream extends InputStream {
     private final int fd;
     private final CLibrary cLib = getCLibrary();
+    private final byte[]   oneByte = new byte[1];
+
+    private byte[] offsetBuffer;
 
     UnixSocketInputStream(int fd) {
         this.fd = fd;
@@ -31,11 +34,10 @@ public class UnixSocketInputStream extends InputStream {
 
     @Override
     public int read() throws IOException {
-        final byte[] bytes = new byte[1];
-        if (read(bytes) == 0) {
+        if (read(oneByte, 0, 1) == -1) {
             return -1;
         }
-        return bytes[0];
+        return oneByte[0] & 0xFF;
     }
 
     @Override
@@ -54,6 +56,21 @@ public class UnixSocketInputStream extends InputStream {
         if (len == 0) {
             return 0;
         }
+        if (off == 0) {
+            return recv(b, len);
+        }
+        // recv always writes to the beginning of array, so read with an offset goes through the reusable buffer
+        if (offsetBuffer == null || offsetBuffer.length < len) {
+            offsetBuffer = new byte[Math.max(len, 8192)];
+        }
+        final int n = recv(offsetBuffer, len);
+        if (n > 0) {
+            System.arraycopy(offsetBuffer, 0, b, off, n);
+        }
+        return n;
+    }
+
+    private int recv(byte[] b, int len) throws IOException {
         int n;
         try {
             n = cLib.recv(fd, b, len, 0);
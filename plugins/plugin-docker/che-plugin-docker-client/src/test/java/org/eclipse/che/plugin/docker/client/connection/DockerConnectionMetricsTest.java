@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import org.eclipse.che.plugin.docker.client.connection.DockerConnectionMetrics.LatencyHistogram;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+
+public class DockerConnectionMetricsTest {
+
+    @DataProvider(name = "paths")
+    public Object[][] paths() {
+        return new Object[][]{
+                {"/info", "/info"},
+                {"/containers/json", "/containers/json"},
+                {"/containers/create", "/containers/create"},
+                {"/containers/0a1b2c/json", "/containers/{id}/json"},
+                {"/containers/0a1b2c", "/containers/{id}"},
+                {"/v1.20/exec/0a1b2c/start", "/exec/{id}/start"},
+                {"/images/eclipse/ubuntu_jdk8/json", "/images/{id}/json"},
+        };
+    }
+
+    @Test(dataProvider = "paths")
+    public void shouldReplaceIdentifiersInPath(String path, String endpoint) {
+        assertEquals(DockerConnectionMetrics.endpointOf(path), endpoint);
+    }
+
+    @Test
+    public void shouldCollectLatencyPerEndpoint() {
+        final DockerConnectionMetrics metrics = new DockerConnectionMetrics();
+
+        metrics.record("GET", "/containers/a/json", MILLISECONDS.toNanos(3));
+        metrics.record("GET", "/containers/b/json", MILLISECONDS.toNanos(40));
+        metrics.record("GET", "/containers/c/json", MILLISECONDS.toNanos(4));
+        metrics.record("POST", "/containers/c/start", MILLISECONDS.toNanos(60000));
+
+        final Map<String, LatencyHistogram> histograms = metrics.getHistograms();
+        assertEquals(histograms.size(), 2);
+        final LatencyHistogram inspect = histograms.get("GET /containers/{id}/json");
+        assertEquals(inspect.getCount(), 3);
+        assertEquals(inspect.getPercentileMs(50), 5);
+        assertEquals(inspect.getPercentileMs(100), 50);
+        assertEquals(histograms.get("POST /containers/{id}/start").getPercentileMs(99), Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.docker.client.connection;
+
+import com.google.common.io.ByteStreams;
+
+import org.testng.annotations.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class UnixSocketDockerResponseTest {
+
+    @Test
+    public void shouldReadResponseWithContentLength() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Content-Length: 5\r\n" +
+                                                           "\r\n" +
+                                                           "hello" +
+                                                           "HTTP/1.1 200 OK\r\n");
+
+        assertEquals(response.getStatus(), 200);
+        assertEquals(new String(ByteStreams.toByteArray(response.getInputStream()), UTF_8), "hello");
+        assertTrue(response.consume());
+    }
+
+    @Test
+    public void shouldReadChunkedResponse() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Transfer-Encoding: chunked\r\n" +
+                                                           "\r\n" +
+                                                           "5\r\nhello\r\n" +
+                                                           "6\r\n world\r\n" +
+                                                           "0\r\n\r\n");
+
+        assertEquals(new String(ByteStreams.toByteArray(response.getInputStream()), UTF_8), "hello world");
+        assertTrue(response.consume());
+    }
+
+    @Test
+    public void shouldReadIntoArrayWithOffset() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Transfer-Encoding: chunked\r\n" +
+                                                           "\r\n" +
+                                                           "5\r\nhello\r\n" +
+                                                           "0\r\n\r\n");
+        final byte[] buf = new byte[8];
+
+        final int n = response.getInputStream().read(buf, 3, 5);
+
+        assertEquals(n, 5);
+        assertEquals(new String(buf, 3, 5, UTF_8), "hello");
+    }
+
+    @Test
+    public void shouldConsumeReceivedRestOfBodySoConnectionMayBeReused() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Transfer-Encoding: chunked\r\n" +
+                                                           "\r\n" +
+                                                           "5\r\n{...}\r\n" +
+                                                           "0\r\n\r\n");
+        // client reads only JSON object and doesn't reach end of stream
+        final InputStream body = response.getInputStream();
+        assertEquals(body.read(new byte[5]), 5);
+
+        assertTrue(response.consume());
+    }
+
+    @Test
+    public void connectionShouldNotBeReusedIfBodyIsNotReceivedCompletely() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Content-Length: 100\r\n" +
+                                                           "\r\n" +
+                                                           "hello");
+        response.getInputStream();
+
+        assertFalse(response.consume());
+    }
+
+    @Test
+    public void connectionShouldNotBeReusedIfDaemonClosesIt() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 200 OK\r\n" +
+                                                           "Connection: close\r\n" +
+                                                           "Content-Length: 0\r\n" +
+                                                           "\r\n");
+        response.getInputStream();
+
+        assertFalse(response.consume());
+    }
+
+    @Test
+    public void responseWithoutContentShouldHaveEmptyBody() throws Exception {
+        final UnixSocketDockerResponse response = response("HTTP/1.1 204 No Content\r\n" +
+                                                           "\r\n");
+
+        assertEquals(response.getInputStream().read(), -1);
+        assertTrue(response.consume());
+    }
+
+    @Test
+    public void shouldReadBytesGreaterThan127() throws Exception {
+        final byte[] head = ("HTTP/1.1 200 OK\r\nContent-Length: 1\r\n\r\n").getBytes(UTF_8);
+        final byte[] raw = new byte[head.length + 1];
+        System.arraycopy(head, 0, raw, 0, head.length);
+        raw[head.length] = (byte)0xFF;
+        final UnixSocketDockerResponse response = new UnixSocketDockerResponse(new BufferedInputStream(new ByteArrayInputStream(raw)));
+
+        final InputStream body = response.getInputStream();
+
+        assertEquals(body.read(), 0xFF);
+        assertEquals(body.read(), -1);
+    }
+
+    private UnixSocketDockerResponse response(String raw) throws IOException {
+        return new UnixSocketDockerResponse(new BufferedInputStream(new ByteArrayInputStream(raw.getBytes(UTF_8))));
+    }
+}
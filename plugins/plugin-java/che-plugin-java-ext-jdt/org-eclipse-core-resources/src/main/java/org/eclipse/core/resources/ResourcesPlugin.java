@@ -192,6 +192,7 @@ public class ResourcesPlugin {
      */
     private static Workspace workspace = null;
     private static String          indexPath;
+    private static String          jarIndexStorePath;
     private static String          workspacePath;
     private static String          pluginId;
 
@@ -205,6 +206,15 @@ public class ResourcesPlugin {
         workspace = new Workspace(workspacePath, projectRegistry, projectManager);
     }
 
+    /**
+     * Sets directory of indexes of jars which is shared between workspaces, e.g. mounted volume.
+     * Indexes are not shared when it is empty.
+     */
+    @Inject(optional = true)
+    public void setJarIndexStorePath(@Named("che.jdt.shared.index.dir") String jarIndexStorePath) {
+        ResourcesPlugin.jarIndexStorePath = jarIndexStorePath;
+    }
+
     public static String getPathToWorkspace() {
         return workspacePath;
     }
@@ -213,6 +223,10 @@ public class ResourcesPlugin {
         return indexPath;
     }
 
+    public static String getJarIndexStorePath() {
+        return jarIndexStorePath;
+    }
+
     public static String getPluginId() {
         return pluginId;
     }
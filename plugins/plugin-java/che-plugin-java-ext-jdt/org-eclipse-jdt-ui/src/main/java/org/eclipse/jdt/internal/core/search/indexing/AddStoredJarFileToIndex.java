@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.internal.core.index.IndexLocation;
+
+/**
+ * Adds jar to index using index from {@link JarIndexStore} if there is one, otherwise indexes jar as usual.
+ *
+ * <p>Store is searched by checksum of jar content, so it is done by this job in the indexer thread
+ * rather than by thread which requests indexing of jar.
+ */
+public class AddStoredJarFileToIndex extends IndexRequest {
+
+    public AddStoredJarFileToIndex(IPath jarPath, IndexManager manager) {
+        super(jarPath, manager);
+    }
+
+    /**
+     * Equals to the job of the same type only like {@link AddJarFileToIndex} does, so the equality is symmetric,
+     * {@link IndexManager} checks whether jar is waiting to be indexed by either of those jobs.
+     */
+    public boolean equals(Object o) {
+        if (o instanceof AddStoredJarFileToIndex)
+            return this.containerPath.equals(((AddStoredJarFileToIndex)o).containerPath);
+        return false;
+    }
+
+    public int hashCode() {
+        return this.containerPath.hashCode();
+    }
+
+    /**
+     * State of index is updated by {@link AddJarFileToIndex} which is created when the job is executed.
+     */
+    public void ensureReadyToRun() {
+    }
+
+    public boolean execute(IProgressMonitor progressMonitor) {
+        if (this.isCancelled || progressMonitor != null && progressMonitor.isCanceled()) return true;
+
+        IndexLocation storedIndex = this.manager.findStoredIndex(this.containerPath);
+        // stored index is shared with other workspaces, so it is never updated
+        AddJarFileToIndex request = new AddJarFileToIndex(this.containerPath, storedIndex, this.manager, false);
+        request.ensureReadyToRun();
+        return request.execute(progressMonitor);
+    }
+
+    public String toString() {
+        return "indexing " + this.containerPath.toString() + " using shared store of jar indexes"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
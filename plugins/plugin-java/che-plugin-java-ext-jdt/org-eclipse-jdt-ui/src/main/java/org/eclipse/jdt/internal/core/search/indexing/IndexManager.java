@@ -91,12 +91,27 @@ public class IndexManager extends JobManager implements IIndexConstants {
     private SimpleLookupTable participantsContainers = null;
     private boolean           participantUpdated     = false;
     private String indexLocation;
+    // shared store of jar indexes, null if it isn't configured
+    private JarIndexStore jarIndexStore;
 
     public IndexManager(String indexLocation) {
+        this(indexLocation, null);
+    }
+
+    /**
+     * @param indexLocation
+     *         directory of indexes of this workspace
+     * @param jarIndexStoreLocation
+     *         directory of indexes of jars shared between workspaces, null or empty if indexes are not shared
+     */
+    public IndexManager(String indexLocation, String jarIndexStoreLocation) {
         this.indexLocation = indexLocation;
         indexNamesMapFile = new File(getSavedIndexesDirectory(), "indexNamesMap.txt");
         savedIndexNamesFile = new File(getSavedIndexesDirectory(), "savedIndexNames.txt");
         participantIndexNamesFile = new File(getSavedIndexesDirectory(), "participantsIndexNames.txt");
+        if (jarIndexStoreLocation != null && !jarIndexStoreLocation.isEmpty()) {
+            jarIndexStore = new JarIndexStore(new File(jarIndexStoreLocation));
+        }
     }
 
     public synchronized void aboutToUpdateIndex(IPath containerPath, Integer newIndexState) {
@@ -355,9 +370,13 @@ public class IndexManager extends JobManager implements IIndexConstants {
                     if (JobManager.VERBOSE)
                         Util.verbose("-> cannot reuse given index: " + indexLocation + " path: " +
                                      containerPathString); //$NON-NLS-1$ //$NON-NLS-2$
+                    if (jarIndexStore != null && indexLocation.getUrl() != null) {
+                        // given index may come from jar index store, it mustn't be found there again
+                        jarIndexStore.reject(indexLocation.getUrl());
+                    }
                     this.indexLocations.put(containerPath, null);
                     indexLocation = computeIndexLocation(containerPath);
-                    rebuildIndex(indexLocation, containerPath);
+                    rebuildIndex(indexLocation, containerPath, false);
                     return null;
                 }
             }
@@ -602,6 +621,12 @@ public class IndexManager extends JobManager implements IIndexConstants {
     public void indexLibrary(IPath path, IProject requestingProject, URL indexURL, final boolean updateIndex) {
         // requestingProject is no longer used to cancel jobs but leave it here just in case
         IndexLocation indexFile = null;
+        if (indexURL == null && jarIndexStore != null) {
+            // use index of the same jar which was built in another workspace, store is searched by indexing job
+            if (!isJarIndexingWaiting(path))
+                request(new AddStoredJarFileToIndex(path, this));
+            return;
+        }
         if (indexURL != null) {
             if (IS_MANAGING_PRODUCT_INDEXES_PROPERTY) {
                 indexFile = computeIndexLocation(path, indexURL);
@@ -625,10 +650,35 @@ public class IndexManager extends JobManager implements IIndexConstants {
 //        }
 
         // check if the same request is not already in the queue
-        if (!isJobWaiting(request))
+        if (!isJarIndexingWaiting(path))
             request(request);
     }
 
+    /**
+     * Checks whether jar is already waiting to be indexed by {@link AddJarFileToIndex} or {@link AddStoredJarFileToIndex}.
+     * Each of those jobs equals to the job of its own type only, so queue is checked for both of them.
+     */
+    private boolean isJarIndexingWaiting(IPath jarPath) {
+        return isJobWaiting(new AddStoredJarFileToIndex(jarPath, this)) || isJobWaiting(new AddJarFileToIndex(jarPath, null, this));
+    }
+
+    /**
+     * Finds index of jar in shared store of jar indexes, it is called by indexing job
+     * since checksum of jar is computed, so it isn't synchronized.
+     *
+     * @return location of stored index or null if store isn't configured or doesn't contain index of jar
+     */
+    IndexLocation findStoredIndex(IPath jarPath) {
+        if (jarIndexStore == null) return null;
+        URL storedIndexURL = jarIndexStore.find(jarPath.toFile());
+        if (storedIndexURL == null) return null;
+        if (JobManager.VERBOSE)
+            Util.verbose("-> reuse stored index: " + storedIndexURL + " path: " + jarPath); //$NON-NLS-1$ //$NON-NLS-2$
+        return IS_MANAGING_PRODUCT_INDEXES_PROPERTY
+               ? computeIndexLocation(jarPath, storedIndexURL)
+               : IndexLocation.createIndexLocation(storedIndexURL);
+    }
+
     synchronized boolean addIndex(IPath containerPath, IndexLocation indexFile) {
         getIndexStates().put(indexFile, REUSE_STATE);
         this.indexLocations.put(containerPath, indexFile);
@@ -709,9 +759,21 @@ public class IndexManager extends JobManager implements IIndexConstants {
     }
 
     private void rebuildIndex(IndexLocation indexLocation, IPath containerPath) {
+        rebuildIndex(indexLocation, containerPath, true);
+    }
+
+    private void rebuildIndex(IndexLocation indexLocation, IPath containerPath, boolean useJarIndexStore) {
         Object target = JavaModelManager.getTarget(containerPath, true);
         if (target == null) return;
 
+        if (useJarIndexStore && target instanceof File && jarIndexStore != null) {
+            if (JobManager.VERBOSE)
+                Util.verbose("-> request to rebuild index using stored index: " + indexLocation + " path: " + containerPath); //$NON-NLS-1$ //$NON-NLS-2$
+            if (!isJarIndexingWaiting(containerPath))
+                request(new AddStoredJarFileToIndex(containerPath, this));
+            return;
+        }
+
         if (JobManager.VERBOSE)
             Util.verbose("-> request to rebuild index: " + indexLocation + " path: " + containerPath); //$NON-NLS-1$ //$NON-NLS-2$
 
@@ -931,13 +993,14 @@ public class IndexManager extends JobManager implements IIndexConstants {
 
     public void saveIndex(Index index) throws IOException {
         // must have permission to write from the write monitor
-        if (index.hasChanged()) {
+        boolean changed = index.hasChanged();
+        if (changed) {
             if (JobManager.VERBOSE)
                 Util.verbose("-> saving index " + index.getIndexLocation()); //$NON-NLS-1$
             index.save();
         }
+        IPath containerPath = new Path(index.containerPath);
         synchronized (this) {
-            IPath containerPath = new Path(index.containerPath);
             if (this.jobEnd > this.jobStart) {
                 for (int i = this.jobEnd; i > this.jobStart; i--) { // skip the current job
                     IJob job = this.awaitingJobs[i];
@@ -948,6 +1011,13 @@ public class IndexManager extends JobManager implements IIndexConstants {
             IndexLocation indexLocation = computeIndexLocation(containerPath);
             updateIndexState(indexLocation, SAVED_STATE);
         }
+        // share newly built index of jar, write monitor is still held so index file isn't changed while it is copied
+        if (changed && jarIndexStore != null && index.getIndexFile() != null) {
+            File container = containerPath.toFile();
+            if (container.isFile()) {
+                jarIndexStore.publish(container, index.getIndexFile());
+            }
+        }
     }
 
     /**
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Store of indexes of jar files which is shared between workspaces, e.g. mounted volume.
+ *
+ * <p>Indexes are stored by checksum of jar content, so index which is built once for some jar is used for the same jar
+ * in all workspaces regardless of its location. Index found in store is used by {@link IndexManager} as pre-built
+ * index, it is only read and never changed. Index of jar which isn't found in store is built as usual and
+ * published to store after that, if store is writable. Stored index which can't be read is rejected,
+ * so jar is indexed in workspace instead of using that index again.
+ *
+ * <p>Checksum of jar is computed when index is searched or published, so the store should be used by indexing jobs
+ * rather than by threads which request indexing.
+ */
+public class JarIndexStore {
+    private static final Logger LOG = LoggerFactory.getLogger(JarIndexStore.class);
+
+    private static final String INDEX_SUFFIX = ".index";
+
+    /* directory of current index format, indexes of different versions of format are kept apart */
+    private final File                  dir;
+    private final Map<String, Checksum> checksums = new HashMap<>();
+    /* URLs of stored indexes which can't be read */
+    private final Set<String>           rejected  = new HashSet<>();
+
+    public JarIndexStore(File dir) {
+        this.dir = new File(dir, DiskIndex.SIGNATURE.replaceAll("[^A-Za-z0-9.]", "_"));
+    }
+
+    /**
+     * Finds stored index of given jar.
+     *
+     * @return URL of index or {@code null} if index of jar isn't stored yet
+     */
+    public URL find(File jar) {
+        if (!jar.isFile()) {
+            return null;
+        }
+        try {
+            final File index = new File(dir, checksum(jar) + INDEX_SUFFIX);
+            if (!index.isFile()) {
+                return null;
+            }
+            final URL url = index.toURI().toURL();
+            synchronized (rejected) {
+                return rejected.contains(url.toExternalForm()) ? null : url;
+            }
+        } catch (IOException e) {
+            LOG.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Rejects stored index which can't be read, so it isn't found anymore.
+     *
+     * @param index
+     *         URL of index returned by {@link #find(File)}
+     */
+    public void reject(URL index) {
+        synchronized (rejected) {
+            rejected.add(index.toExternalForm());
+        }
+    }
+
+    /**
+     * Publishes index of given jar to store, does nothing if store already contains index of jar or isn't writable.
+     *
+     * @param jar
+     *         indexed jar
+     * @param indexFile
+     *         complete index of jar, it must not be changed while it is published
+     */
+    public void publish(File jar, File indexFile) {
+        if (!jar.isFile() || !indexFile.isFile() || indexFile.getParentFile().equals(dir)) {
+            return;
+        }
+        Path tmp = null;
+        try {
+            final File index = new File(dir, checksum(jar) + INDEX_SUFFIX);
+            if (index.exists()) {
+                return;
+            }
+            Files.createDirectories(dir.toPath());
+            if (!Files.isWritable(dir.toPath())) {
+                return;
+            }
+            tmp = Files.createTempFile(dir.toPath(), index.getName(), ".tmp");
+            Files.copy(indexFile.toPath(), tmp, REPLACE_EXISTING);
+            Files.move(tmp, index.toPath(), ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.debug("Can't publish index of {} to shared store {}. {}", jar, dir, e.getMessage());
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private String checksum(File jar) throws IOException {
+        final String path = jar.getAbsolutePath();
+        final long length = jar.length();
+        final long lastModified = jar.lastModified();
+        synchronized (checksums) {
+            final Checksum checksum = checksums.get(path);
+            if (checksum != null && checksum.length == length && checksum.lastModified == lastModified) {
+                return checksum.value;
+            }
+        }
+        final String value = sha1(jar);
+        synchronized (checksums) {
+            checksums.put(path, new Checksum(length, lastModified, value));
+        }
+        return value;
+    }
+
+    private static String sha1(File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static class Checksum {
+        private final long   length;
+        private final long   lastModified;
+        private final String value;
+
+        private Checksum(long length, long lastModified, String value) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class JarIndexStoreTest {
+    private File          dir;
+    private File          jar;
+    private File          index;
+    private JarIndexStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("jar-index-store").toFile();
+        jar = write("workspace/lib.jar", "jar");
+        index = write("workspace/lib.index", "index");
+        store = new JarIndexStore(new File(dir, "store"));
+    }
+
+    @After
+    public void tearDown() {
+        IoUtil.deleteRecursive(dir);
+    }
+
+    @Test
+    public void findsPublishedIndexOfJarWithTheSameContent() throws Exception {
+        assertNull(store.find(jar));
+
+        store.publish(jar, index);
+
+        final URL stored = store.find(write("other/lib-copy.jar", "jar"));
+        assertNotNull(stored);
+        assertEquals("index", read(stored));
+        assertEquals(stored, new JarIndexStore(new File(dir, "store")).find(jar));
+    }
+
+    @Test
+    public void doesNotFindIndexOfChangedJar() throws Exception {
+        store.publish(jar, index);
+
+        write("workspace/lib.jar", "changed jar");
+
+        assertNull(store.find(jar));
+    }
+
+    @Test
+    public void doesNotReplacePublishedIndex() throws Exception {
+        store.publish(jar, index);
+
+        store.publish(jar, write("workspace/lib-rebuilt.index", "rebuilt index"));
+
+        assertEquals("index", read(store.find(jar)));
+    }
+
+    @Test
+    public void doesNotFindRejectedIndex() throws Exception {
+        store.publish(jar, index);
+        final URL stored = store.find(jar);
+
+        // index manager rejects stored index which can't be read and rebuilds index of jar in workspace
+        store.reject(stored);
+
+        assertNull(store.find(jar));
+        assertNotNull(new JarIndexStore(new File(dir, "store")).find(jar));
+    }
+
+    private File write(String path, String content) throws Exception {
+        final File file = new File(dir, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        return file;
+    }
+
+    private static String read(URL url) throws Exception {
+        return new String(Files.readAllBytes(Paths.get(url.toURI())), UTF_8);
+    }
+}
@@ -153,7 +153,9 @@ public class MachineManagerImpl implements MachineManager, WorkspaceStoppedHandl
         outputHandler = new SubscriptionHandler<String>(new OutputMessageUnmarshaller()) {
             @Override
             protected void onMessageReceived(String result) {
-                machineConsolePresenter.print(result);
+                for (String line : result.split("\n", -1)) {
+                    machineConsolePresenter.print(line);
+                }
             }
 
             @Override
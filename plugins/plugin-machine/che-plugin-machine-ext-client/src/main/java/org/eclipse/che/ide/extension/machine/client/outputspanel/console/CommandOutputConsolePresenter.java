@@ -117,7 +117,9 @@ public class CommandOutputConsolePresenter implements CommandOutputConsole, Outp
         outputHandler = new SubscriptionHandler<String>(new OutputMessageUnmarshaller()) {
             @Override
             protected void onMessageReceived(String result) {
-                view.print(result, result.endsWith("\r"));
+                for (String line : result.split("\n", -1)) {
+                    view.print(line, line.endsWith("\r"));
+                }
 
                 for (ConsoleOutputListener listener : outputListenes) {
                     listener.onConsoleOutput(CommandOutputConsolePresenter.this);
@@ -34,23 +34,36 @@ import java.util.List;
  */
 public abstract class MavenServerWrapper extends RmiObjectWrapper<MavenServer> {
     private static final Logger LOG = LoggerFactory.getLogger(MavenServerWrapper.class);
-    private MavenCustomization customization;
+    private MavenCustomization  customization;
+    /* workspace cache which is known by wrapped server, only changes of it are sent on next customization */
+    private MavenWorkspaceCache sentCache;
 
     @Override
     protected void wrappedCreated() throws RemoteException {
         super.wrappedCreated();
+        sentCache = null;
         if (customization != null) {
             customizeMaven();
         }
     }
 
     private void customizeMaven() throws RemoteException {
-        getOrCreateWrappedObject()
-                .setComponents(customization.cache,
-                               customization.failOnUnresolvedDependency,
-                               customization.mavenTerminal,
-                               customization.notifier,
-                               customization.alwaysUpdateSnapshot);
+        MavenServer server = getOrCreateWrappedObject();
+        MavenWorkspaceCache cache = customization.cache;
+        if (sentCache == null || cache == null) {
+            server.setComponents(cache,
+                                 customization.failOnUnresolvedDependency,
+                                 customization.mavenTerminal,
+                                 customization.notifier,
+                                 customization.alwaysUpdateSnapshot);
+        } else {
+            server.setComponents(cache.getChanges(sentCache),
+                                 customization.failOnUnresolvedDependency,
+                                 customization.mavenTerminal,
+                                 customization.notifier,
+                                 customization.alwaysUpdateSnapshot);
+        }
+        sentCache = cache != null ? cache.copy() : null;
     }
 
 
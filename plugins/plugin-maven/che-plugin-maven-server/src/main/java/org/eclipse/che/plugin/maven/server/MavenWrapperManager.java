@@ -13,24 +13,28 @@ package org.eclipse.che.plugin.maven.server;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Set;
 
 /**
  *
- * Manages and cache MavenServerWrapper instances
+ * Manages and cache MavenServerWrapper instances.
+ * Released wrappers are kept for reuse, so concurrent tasks get their own wrappers
+ * without creating of new maven server for each task.
  *
  * @author Evgen Vidolob
  */
 @Singleton
 public class MavenWrapperManager {
+    /* max number of released wrappers of each type which are kept for reuse */
+    private static final int MAX_IDLE_SERVERS = 8;
 
-
-    private final MavenServerManager    serverManager;
-    private final Map<ServerType, MavenServerWrapper> cache = new HashMap<>();
-    private final Set<MavenServerWrapper> usedServers = new HashSet<>();
+    private final MavenServerManager                         serverManager;
+    private final Map<ServerType, Deque<MavenServerWrapper>> idleServers = new EnumMap<>(ServerType.class);
+    private final Map<MavenServerWrapper, ServerType>        usedServers = new IdentityHashMap<>();
 
 
     @Inject
@@ -39,28 +43,34 @@ public class MavenWrapperManager {
     }
 
     public synchronized MavenServerWrapper getMavenServer(ServerType type) {
-        MavenServerWrapper wrapper = cache.get(type);
+        MavenServerWrapper wrapper = idleServers.computeIfAbsent(type, key -> new ArrayDeque<>()).poll();
         if (wrapper == null) {
             wrapper = serverManager.createMavenServer();
-            cache.put(type, wrapper);
-        }
-
-        if (usedServers.contains(wrapper)) {
-            //need to warn here
-            return serverManager.createMavenServer();
         }
 
-        usedServers.add(wrapper);
+        usedServers.put(wrapper, type);
         return wrapper;
     }
 
-    public synchronized void release(MavenServerWrapper wrapper) {
-        if (usedServers.contains(wrapper)) {
-            wrapper.reset();
-            usedServers.remove(wrapper);
-        } else {
+    public void release(MavenServerWrapper wrapper) {
+        final ServerType type;
+        synchronized (this) {
+            type = usedServers.remove(wrapper);
+        }
+        // reset and dispose are remote calls, so they are done without blocking of other callers
+        if (type == null) {
             wrapper.dispose();
+            return;
+        }
+        wrapper.reset();
+        synchronized (this) {
+            final Deque<MavenServerWrapper> idle = idleServers.get(type);
+            if (idle.size() < MAX_IDLE_SERVERS) {
+                idle.push(wrapper);
+                return;
+            }
         }
+        wrapper.dispose();
     }
 
     public enum ServerType {
@@ -17,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -31,24 +32,37 @@ public class MavenExecutorService {
     private static final Logger LOG = LoggerFactory.getLogger(MavenExecutorService.class);
 
     private final ExecutorService service;
+    private final ExecutorService workers;
 
     public MavenExecutorService() {
         ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Maven Executor - %d").build();
         service = Executors.newFixedThreadPool(1, threadFactory);
+        ThreadFactory workerThreadFactory = new ThreadFactoryBuilder().setNameFormat("Maven Worker - %d").setDaemon(true).build();
+        workers = Executors.newCachedThreadPool(workerThreadFactory);
     }
 
     public void submit(Runnable task) {
         service.execute(task);
     }
 
+    /**
+     * Returns executor for parts of task which are performed concurrently,
+     * e.g. resolving of independent modules, task limits number of its concurrent parts itself.
+     */
+    public Executor getWorkers() {
+        return workers;
+    }
+
     @PreDestroy
     public void shutdown() throws InterruptedException {
         // Tell threads to finish off.
         service.shutdown(); // Disable new tasks from being submitted
+        workers.shutdown();
         try {
             // Wait a while for existing tasks to terminate
             if (!service.awaitTermination(60, TimeUnit.SECONDS)) {
                 service.shutdownNow(); // Cancel currently executing tasks
+                workers.shutdownNow();
                 // Wait a while for tasks to respond to being cancelled
                 if (!service.awaitTermination(60, TimeUnit.SECONDS))
                     LOG.warn("Pool did not terminate");
@@ -56,6 +70,7 @@ public class MavenExecutorService {
         } catch (InterruptedException ie) {
             // (Re-)Cancel if current thread also interrupted
             service.shutdownNow();
+            workers.shutdownNow();
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
@@ -17,17 +17,21 @@ import com.google.inject.Singleton;
 import org.eclipse.che.plugin.maven.server.MavenServerManager;
 import org.eclipse.che.plugin.maven.server.MavenServerWrapper;
 import org.eclipse.che.plugin.maven.server.MavenWrapperManager;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProject;
 import org.eclipse.che.plugin.maven.server.core.project.MavenProjectModifications;
 import org.eclipse.che.maven.data.MavenArtifact;
 import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
 import org.eclipse.che.maven.data.MavenWorkspaceCache;
 import org.eclipse.che.maven.server.MavenTerminal;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
 
+import java.io.File;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -73,6 +77,8 @@ public class MavenProjectManager {
 
     private final MavenProjectListener dispatcher;
 
+    private MavenResolveCache resolveCache;
+
     @Inject
     public MavenProjectManager(MavenWrapperManager wrapperManager,
                                MavenServerManager serverManager,
@@ -104,6 +110,15 @@ public class MavenProjectManager {
                                                             });
     }
 
+    /**
+     * Sets persistent cache of resolving results, projects which were resolved before
+     * and are not changed since that are not resolved again.
+     */
+    @Inject(optional = true)
+    public void setResolveCache(MavenResolveCache resolveCache) {
+        this.resolveCache = resolveCache;
+    }
+
     public void addListener(MavenProjectListener listener) {
         listeners.add(listener);
     }
@@ -113,12 +128,29 @@ public class MavenProjectManager {
     }
 
     public void resolveMavenProject(IProject project, MavenProject mavenProject) {
+        File pom = mavenProject.getPomFile();
+        List<String> activeProfiles = mavenProject.getActiveProfiles();
+        List<String> inactiveProfiles = mavenProject.getInactiveProfiles();
+        if (resolveCache != null && pom != null) {
+            MavenModelReaderResult cached = resolveCache.get(pom, activeProfiles, inactiveProfiles, getWorkspaceKeys());
+            if (cached != null) {
+                dispatcher.projectResolved(mavenProject, mavenProject.setResolveResult(cached));
+                return;
+            }
+        }
+
         MavenServerWrapper mavenServer = wrapperManager.getMavenServer(MavenWrapperManager.ServerType.RESOLVE);
         try {
 
             mavenNotifier.setText("Resolving project: " + mavenProject.getName());
             mavenServer.customize(copyWorkspaceCache(), terminal, mavenNotifier, false, true);
-            MavenProjectModifications modifications = mavenProject.resolve(project, mavenServer, serverManager);
+            MavenModelReaderResult result = mavenProject.resolveModel(project, mavenServer, serverManager);
+            MavenProjectModifications modifications = mavenProject.setResolveResult(result);
+            if (resolveCache != null && pom != null) {
+                Set<MavenKey> externalKeys = new HashSet<>();
+                Map<MavenKey, File> workspacePoms = findWorkspacePoms(result.getMavenModel(), externalKeys);
+                resolveCache.put(pom, activeProfiles, inactiveProfiles, result, workspacePoms, externalKeys);
+            }
             dispatcher.projectResolved(mavenProject, modifications);
 
         } finally {
@@ -127,6 +159,48 @@ public class MavenProjectManager {
 
     }
 
+    private Set<MavenKey> getWorkspaceKeys() {
+        readLock.lock();
+        try {
+            return new HashSet<>(keyToProjectMap.keySet());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Finds poms of workspace projects which resolved model depends on: its parents and dependencies.
+     * Keys of parents and dependencies which are not workspace projects are added to {@code externalKeys}.
+     */
+    private Map<MavenKey, File> findWorkspacePoms(MavenModel model, Set<MavenKey> externalKeys) {
+        readLock.lock();
+        try {
+            Map<MavenKey, File> result = new HashMap<>();
+            MavenKey parentKey = model.getParent() != null ? model.getParent().getMavenKey() : null;
+            MavenProject parent;
+            while (parentKey != null && !result.containsKey(parentKey) && (parent = keyToProjectMap.get(parentKey)) != null) {
+                result.put(parentKey, parent.getPomFile());
+                parentKey = parent.getParentKey();
+            }
+            if (parentKey != null && !result.containsKey(parentKey)) {
+                externalKeys.add(parentKey);
+            }
+            for (MavenArtifact artifact : model.getDependencies()) {
+                MavenKey key = new MavenKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+                MavenProject dependency = keyToProjectMap.get(key);
+                if (dependency != null) {
+                    result.put(key, dependency.getPomFile());
+                } else {
+                    externalKeys.add(key);
+                }
+            }
+            result.values().removeIf(Objects::isNull);
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
 
     public void update(List<IProject> projects, boolean recursive) {
         if (projects.isEmpty()) {
@@ -458,6 +532,47 @@ public class MavenProjectManager {
         }
     }
 
+    /**
+     * Finds projects which should be resolved before each of given projects: the nearest ancestor module
+     * and projects it depends on, only given projects are taken into account.
+     *
+     * @param projects
+     *         projects to resolve
+     * @return map of each of given projects to projects which should be resolved before it
+     */
+    public Map<MavenProject, Set<MavenProject>> findResolveDependencies(Collection<MavenProject> projects) {
+        readLock.lock();
+        try {
+            Set<MavenProject> toResolve = new HashSet<>(projects);
+            Map<MavenKey, MavenProject> keyToProject = new HashMap<>();
+            projects.forEach(project -> keyToProject.put(project.getMavenKey(), project));
+
+            Map<MavenProject, Set<MavenProject>> result = new HashMap<>();
+            for (MavenProject project : projects) {
+                Set<MavenProject> dependencies = new HashSet<>();
+                MavenProject parent = moduleToParentMap.get(project);
+                while (parent != null && !toResolve.contains(parent)) {
+                    parent = moduleToParentMap.get(parent);
+                }
+                if (parent != null) {
+                    dependencies.add(parent);
+                }
+
+                for (MavenArtifact artifact : project.getDependencies()) {
+                    MavenProject dependency =
+                            keyToProject.get(new MavenKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion()));
+                    if (dependency != null && dependency != project) {
+                        dependencies.add(dependency);
+                    }
+                }
+                result.put(project, dependencies);
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     private boolean contains(Set<MavenKey> mavenKeys, String artifactId, String groupId, String version) {
         return mavenKeys.stream().filter(key -> Objects.equals(key.getArtifactId(), artifactId)
                                                 && Objects.equals(key.getGroupId(), groupId)
@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenProjectProblem;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * Persistent cache of results of maven project resolving, which survives restarts of workspace agent,
+ * so unchanged projects are not resolved by maven server again.
+ *
+ * <p>Result is stored by key which is computed from location and content of pom.xml, active and inactive
+ * profiles and maven settings. Result also remembers content of poms of workspace projects which it depends on
+ * (parents and dependencies), keys of parents and dependencies which were resolved outside of workspace and
+ * files of resolved artifacts, they are checked each time result is found, so result which is out of date,
+ * e.g. result which uses jar from local repository while workspace contains project with the same key,
+ * is removed instead of being used. Results with unresolved artifacts are not stored.
+ */
+@Singleton
+public class MavenResolveCache {
+    private static final Logger LOG = LoggerFactory.getLogger(MavenResolveCache.class);
+
+    /* results which were not used for this time are removed on start */
+    private static final long   MAX_UNUSED_TIME = TimeUnit.DAYS.toMillis(30);
+    private static final String RESULT_SUFFIX   = ".result";
+    private static final String TMP_SUFFIX      = ".tmp";
+
+    private final File dir;
+    private final File settings;
+
+    @Inject
+    public MavenResolveCache(@Named("che.workspace.metadata") String wsMetadata) {
+        this(Paths.get(System.getProperty("user.home"), wsMetadata, "maven", "resolve").toFile(),
+             new File(System.getProperty("user.home"), ".m2/settings.xml"));
+    }
+
+    /**
+     * @param dir
+     *         directory where results are stored
+     * @param settings
+     *         maven settings file, results are not used after it is changed
+     */
+    public MavenResolveCache(File dir, File settings) {
+        this.dir = dir;
+        this.settings = settings;
+        removeUnused();
+    }
+
+    /**
+     * Finds stored result of project resolving.
+     *
+     * @param pom
+     *         pom.xml of project
+     * @param activeProfiles
+     *         profiles which project is resolved with
+     * @param inactiveProfiles
+     *         profiles which project is resolved without
+     * @param workspaceKeys
+     *         keys of all maven projects of workspace
+     * @return stored result or {@code null} when there is no result or it is out of date
+     */
+    public MavenModelReaderResult get(File pom, List<String> activeProfiles, List<String> inactiveProfiles, Set<MavenKey> workspaceKeys) {
+        final File resultFile;
+        try {
+            resultFile = getResultFile(pom, activeProfiles, inactiveProfiles);
+        } catch (IOException e) {
+            LOG.debug(e.getMessage(), e);
+            return null;
+        }
+        if (!resultFile.isFile()) {
+            return null;
+        }
+
+        final CachedResult result;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(resultFile)))) {
+            result = (CachedResult)in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            LOG.warn("Can't read result of maven project resolving {}, it is removed. {}", resultFile, e.getMessage());
+            resultFile.delete();
+            return null;
+        }
+
+        if (!isUpToDate(result, workspaceKeys)) {
+            resultFile.delete();
+            return null;
+        }
+        resultFile.setLastModified(System.currentTimeMillis());
+        return new MavenModelReaderResult(result.model,
+                                          result.activeProfiles,
+                                          result.inactiveProfiles,
+                                          result.problems,
+                                          Collections.emptySet());
+    }
+
+    /**
+     * Stores result of project resolving, result with unresolved artifacts is ignored.
+     *
+     * @param pom
+     *         pom.xml of project
+     * @param activeProfiles
+     *         profiles which project was resolved with
+     * @param inactiveProfiles
+     *         profiles which project was resolved without
+     * @param result
+     *         result of resolving
+     * @param workspacePoms
+     *         poms of workspace projects which were used for resolving, e.g. parents and dependencies of project
+     * @param externalKeys
+     *         keys of parents and dependencies of project which were resolved outside of workspace, e.g. from local repository
+     */
+    public void put(File pom,
+                    List<String> activeProfiles,
+                    List<String> inactiveProfiles,
+                    MavenModelReaderResult result,
+                    Map<MavenKey, File> workspacePoms,
+                    Set<MavenKey> externalKeys) {
+        if (!result.getUnresolvedArtifacts().isEmpty()) {
+            return;
+        }
+        try {
+            final CachedResult cached = new CachedResult();
+            cached.model = result.getMavenModel();
+            cached.activeProfiles = copy(result.getActiveProfiles());
+            cached.inactiveProfiles = copy(result.getInactiveProfiles());
+            cached.problems = copy(result.getProblems());
+            for (File workspacePom : workspacePoms.values()) {
+                cached.workspacePoms.put(workspacePom.getAbsolutePath(), hash(workspacePom));
+            }
+            cached.externalKeys.addAll(externalKeys);
+            for (MavenArtifact artifact : cached.model.getDependencies()) {
+                final MavenKey key = new MavenKey(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+                if (artifact.getFile() != null && !workspacePoms.containsKey(key)) {
+                    cached.artifacts.add(artifact.getFile().getAbsolutePath());
+                }
+            }
+
+            final File resultFile = getResultFile(pom, activeProfiles, inactiveProfiles);
+            Files.createDirectories(dir.toPath());
+            final Path tmp = Files.createTempFile(dir.toPath(), resultFile.getName(), TMP_SUFFIX);
+            try {
+                try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeObject(cached);
+                }
+                Files.move(tmp, resultFile.toPath(), ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            LOG.warn("Can't store result of maven project resolving {}. {}", pom, e.getMessage());
+        }
+    }
+
+    private boolean isUpToDate(CachedResult result, Set<MavenKey> workspaceKeys) {
+        for (MavenKey externalKey : result.externalKeys) {
+            // project with this key is added to workspace, it replaces artifact which was used for resolving
+            if (workspaceKeys.contains(externalKey)) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, String> workspacePom : result.workspacePoms.entrySet()) {
+            final File file = new File(workspacePom.getKey());
+            try {
+                if (!file.isFile() || !workspacePom.getValue().equals(hash(file))) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        for (String artifact : result.artifacts) {
+            if (!new File(artifact).exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private File getResultFile(File pom, List<String> activeProfiles, List<String> inactiveProfiles) throws IOException {
+        final MessageDigest digest = newDigest();
+        // poms with the same content in different projects may be resolved differently, e.g. because of relative paths
+        digest.update(pom.getAbsolutePath().getBytes(UTF_8));
+        digest.update((byte)0);
+        update(digest, pom);
+        digest.update(String.valueOf(activeProfiles).getBytes(UTF_8));
+        digest.update((byte)0);
+        digest.update(String.valueOf(inactiveProfiles).getBytes(UTF_8));
+        digest.update((byte)0);
+        if (settings.isFile()) {
+            update(digest, settings);
+        }
+        digest.update(String.valueOf(System.getenv("M2_HOME")).getBytes(UTF_8));
+        return new File(dir, toHex(digest.digest()) + RESULT_SUFFIX);
+    }
+
+    private void removeUnused() {
+        final File[] files = dir.listFiles((d, name) -> name.endsWith(RESULT_SUFFIX) || name.endsWith(TMP_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        final long unusedSince = System.currentTimeMillis() - MAX_UNUSED_TIME;
+        for (File file : files) {
+            if (file.getName().endsWith(TMP_SUFFIX) || file.lastModified() < unusedSince) {
+                file.delete();
+            }
+        }
+    }
+
+    private static String hash(File file) throws IOException {
+        final MessageDigest digest = newDigest();
+        update(digest, file);
+        return toHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update((byte)0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static <T> ArrayList<T> copy(List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+
+    private static class CachedResult implements Serializable {
+        private static final long serialVersionUID = 2L;
+
+        private MavenModel                     model;
+        private ArrayList<String>              activeProfiles;
+        private ArrayList<String>              inactiveProfiles;
+        private ArrayList<MavenProjectProblem> problems;
+        /* absolute path of workspace pom to hash of its content */
+        private HashMap<String, String>        workspacePoms = new HashMap<>();
+        /* keys of parents and dependencies which were resolved outside of workspace */
+        private HashSet<MavenKey>              externalKeys  = new HashSet<>();
+        /* absolute paths of files of resolved artifacts */
+        private HashSet<String>                artifacts     = new HashSet<>();
+    }
+}
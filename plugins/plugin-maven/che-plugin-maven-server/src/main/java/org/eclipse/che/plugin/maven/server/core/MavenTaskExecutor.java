@@ -14,7 +14,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -50,6 +52,19 @@ public class MavenTaskExecutor {
         }
     }
 
+    /**
+     * Submits tasks which are performed concurrently in order of their dependencies.
+     * Tasks are queued as one task, see {@link MavenTaskGroup}.
+     *
+     * @param dependencies
+     *         map of each task to tasks it depends on
+     * @param parallelism
+     *         max number of tasks which are performed at the same time
+     */
+    public void submitTasks(Map<MavenProjectTask, Set<MavenProjectTask>> dependencies, int parallelism) {
+        submitTask(new MavenTaskGroup(dependencies, parallelism, service.getWorkers(), notifier));
+    }
+
     public void removeTask(MavenProjectTask task) {
         synchronized (queue) {
             queue.remove(task);
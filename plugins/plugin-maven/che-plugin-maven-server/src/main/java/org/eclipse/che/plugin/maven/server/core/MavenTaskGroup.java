@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+
+/**
+ * Group of {@link MavenProjectTask}s which are performed concurrently, e.g. resolving of modules of multi-module project.
+ * Task is started only after all tasks of group it depends on are performed, so group is performed
+ * in order of dependency graph while independent tasks run at the same time.
+ *
+ * <p>Whole group is performed as one task of {@link MavenTaskExecutor}, so groups and other tasks are still
+ * performed one by one. Progress of group is reported through {@link MavenProgressNotifier}.
+ */
+public class MavenTaskGroup implements MavenProjectTask {
+    private static final Logger LOG = LoggerFactory.getLogger(MavenTaskGroup.class);
+
+    private final Map<MavenProjectTask, Set<MavenProjectTask>> dependencies;
+    private final int                                          parallelism;
+    private final Executor                                     executor;
+    private final MavenProgressNotifier                        notifier;
+
+    /**
+     * @param dependencies
+     *         map of each task of group to tasks it depends on, dependencies which are not tasks of group are ignored
+     * @param parallelism
+     *         max number of tasks which are performed at the same time
+     * @param executor
+     *         executor which performs tasks
+     * @param notifier
+     *         notifier of progress of group
+     */
+    public MavenTaskGroup(Map<MavenProjectTask, Set<MavenProjectTask>> dependencies,
+                          int parallelism,
+                          Executor executor,
+                          MavenProgressNotifier notifier) {
+        this.dependencies = dependencies;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void perform() {
+        final Map<MavenProjectTask, Integer> waiting = new HashMap<>();
+        final Map<MavenProjectTask, List<MavenProjectTask>> dependents = new HashMap<>();
+        final Deque<MavenProjectTask> ready = new ArrayDeque<>();
+        for (Map.Entry<MavenProjectTask, Set<MavenProjectTask>> entry : dependencies.entrySet()) {
+            int count = 0;
+            for (MavenProjectTask dependency : entry.getValue()) {
+                if (dependency != entry.getKey() && dependencies.containsKey(dependency)) {
+                    dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.getKey());
+                    count++;
+                }
+            }
+            if (count == 0) {
+                ready.add(entry.getKey());
+            } else {
+                waiting.put(entry.getKey(), count);
+            }
+        }
+
+        final CompletionService<MavenProjectTask> completion = new ExecutorCompletionService<>(executor);
+        final int total = dependencies.size();
+        int running = 0;
+        int done = 0;
+        try {
+            while (done < total) {
+                if (notifier.isCanceled()) {
+                    ready.clear();
+                    waiting.clear();
+                } else if (ready.isEmpty() && running == 0 && !waiting.isEmpty()) {
+                    // tasks depend on each other, start any of them to break the cycle
+                    final MavenProjectTask task = waiting.keySet().iterator().next();
+                    LOG.warn("Maven tasks have cyclic dependencies, task {} is started before its dependencies", task);
+                    waiting.remove(task);
+                    ready.add(task);
+                }
+                while (running < parallelism && !ready.isEmpty()) {
+                    final MavenProjectTask task = ready.poll();
+                    completion.submit(() -> perform(task), task);
+                    running++;
+                }
+                if (running == 0) {
+                    return;
+                }
+
+                final MavenProjectTask finished = completion.take().get();
+                running--;
+                done++;
+                notifier.setPercent((double)done / (double)total);
+                for (MavenProjectTask dependent : dependents.getOrDefault(finished, Collections.emptyList())) {
+                    final Integer count = waiting.get(dependent);
+                    if (count != null) {
+                        if (count == 1) {
+                            waiting.remove(dependent);
+                            ready.add(dependent);
+                        } else {
+                            waiting.put(dependent, count - 1);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // never happens, errors of tasks are caught while they are performed
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    private static void perform(MavenProjectTask task) {
+        try {
+            task.perform();
+        } catch (Throwable throwable) {
+            LOG.error(throwable.getMessage(), throwable);
+        }
+    }
+}
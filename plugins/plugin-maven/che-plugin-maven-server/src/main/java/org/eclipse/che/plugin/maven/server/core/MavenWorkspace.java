@@ -12,6 +12,7 @@ package org.eclipse.che.plugin.maven.server.core;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -35,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +64,8 @@ public class MavenWorkspace {
 
     private Set<MavenProject> projectsToResolve = new CopyOnWriteArraySet<>();
 
+    private int resolveParallelism = 1;
+
 
     @Inject
     public MavenWorkspace(MavenProjectManager manager,
@@ -102,6 +106,19 @@ public class MavenWorkspace {
         });
     }
 
+    /**
+     * Sets max number of projects which are resolved at the same time, 1 means that projects are resolved one by one.
+     * Projects are resolved after their parents and other projects they depend on.
+     */
+    @Inject(optional = true)
+    public void setResolveParallelism(@Named("che.maven.resolve.parallelism") int resolveParallelism) {
+        if (resolveParallelism < 1) {
+            throw new IllegalArgumentException("Number of concurrently resolved maven projects must be positive, but it is " +
+                                               resolveParallelism);
+        }
+        this.resolveParallelism = resolveParallelism;
+    }
+
     private void addResolveProjects(List<MavenProject> needResolve) {
         projectsToResolve.addAll(needResolve);
     }
@@ -139,16 +156,34 @@ public class MavenWorkspace {
         Set<MavenProject> needResolve = new HashSet<>(projectsToResolve);
         projectsToResolve.clear();
 
-        for (MavenProject mavenProject : needResolve) {
+        if (resolveParallelism > 1 && needResolve.size() > 1) {
+            Map<MavenProject, MavenProjectTask> tasks = new HashMap<>();
+            needResolve.forEach(mavenProject -> tasks.put(mavenProject, createResolveTask(mavenProject)));
+
+            Map<MavenProjectTask, Set<MavenProjectTask>> dependencies = new HashMap<>();
+            manager.findResolveDependencies(needResolve)
+                   .forEach((project, projectDependencies) -> {
+                       Set<MavenProjectTask> taskDependencies = new HashSet<>();
+                       projectDependencies.forEach(dependency -> taskDependencies.add(tasks.get(dependency)));
+                       dependencies.put(tasks.get(project), taskDependencies);
+                   });
+            resolveExecutor.submitTasks(dependencies, resolveParallelism);
+            return;
+        }
 
-            resolveExecutor.submitTask(new MavenProjectResolveTask(mavenProject, manager, () -> {
-                addSourcesFromBuildHelperPlugin(mavenProject);
-                classpathManager.updateClasspath(mavenProject);
-            }));
+        for (MavenProject mavenProject : needResolve) {
+            resolveExecutor.submitTask(createResolveTask(mavenProject));
         }
 
     }
 
+    private MavenProjectTask createResolveTask(MavenProject mavenProject) {
+        return new MavenProjectResolveTask(mavenProject, manager, () -> {
+            addSourcesFromBuildHelperPlugin(mavenProject);
+            classpathManager.updateClasspath(mavenProject);
+        });
+    }
+
     private void updateJavaProject(MavenProject project) {
         IJavaProject javaProject = JavaCore.create(project.getProject());
         try {
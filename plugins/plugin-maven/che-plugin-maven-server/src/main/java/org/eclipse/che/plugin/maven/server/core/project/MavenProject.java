@@ -151,6 +151,14 @@ public class MavenProject {
         return info.dependencies;
     }
 
+    public List<String> getActiveProfiles() {
+        return info.activeProfiles;
+    }
+
+    public List<String> getInactiveProfiles() {
+        return info.inactiveProfiles;
+    }
+
     /**
      * Invoke maven to build project model.
      * @param project to resolve
@@ -158,11 +166,25 @@ public class MavenProject {
      * @return the modification types that applied to this project
      */
     public MavenProjectModifications resolve(IProject project, MavenServerWrapper mavenServer, MavenServerManager serverManager) {
-        MavenModelReader reader = new MavenModelReader();
+        return setResolveResult(resolveModel(project, mavenServer, serverManager));
+    }
 
-        MavenModelReaderResult modelReaderResult =
-                reader.resolveMavenProject(getPom(project), mavenServer, info.activeProfiles, info.inactiveProfiles, serverManager);
+    /**
+     * Invoke maven to build project model without applying it to this project.
+     * @param project to resolve
+     * @param mavenServer the maven server
+     * @return result of resolving, which may be applied with {@link #setResolveResult(MavenModelReaderResult)}
+     */
+    public MavenModelReaderResult resolveModel(IProject project, MavenServerWrapper mavenServer, MavenServerManager serverManager) {
+        MavenModelReader reader = new MavenModelReader();
+        return reader.resolveMavenProject(getPom(project), mavenServer, info.activeProfiles, info.inactiveProfiles, serverManager);
+    }
 
+    /**
+     * Applies result of resolving to this project.
+     * @return the modification types that applied to this project
+     */
+    public MavenProjectModifications setResolveResult(MavenModelReaderResult modelReaderResult) {
         return setModel(modelReaderResult, modelReaderResult.getProblems().isEmpty(), false);
     }
 
@@ -17,6 +17,7 @@ import com.google.inject.name.Named;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.project.server.notification.ProjectItemModifiedEvent;
+import org.eclipse.che.api.project.server.notification.ProjectItemsModifiedEvent;
 import org.eclipse.che.commons.schedule.executor.ThreadPullLauncher;
 import org.eclipse.che.plugin.maven.server.core.EclipseWorkspaceProvider;
 import org.eclipse.che.plugin.maven.server.core.MavenWorkspace;
@@ -60,17 +61,27 @@ public class PomChangeListener {
         eventService.subscribe(new EventSubscriber<ProjectItemModifiedEvent>() {
             @Override
             public void onEvent(ProjectItemModifiedEvent event) {
-                String eventPath = event.getPath();
-                if (!event.isFolder() && eventPath.endsWith("pom.xml")) {
-                    //TODO update only pom file that in root of project
-//                    if(event.getProject().equals(eventPath.substring(0, eventPath.lastIndexOf("pom.xml") - 1))) {
-                    if (pomIsValid(eventPath)) {
-                        projectToUpdate.add(new Path(eventPath).removeLastSegments(1).toOSString());
-                    }
-//                    }
-                }
+                handleEvent(event);
             }
         });
+        eventService.subscribe(new EventSubscriber<ProjectItemsModifiedEvent>() {
+            @Override
+            public void onEvent(ProjectItemsModifiedEvent event) {
+                event.getEvents().forEach(PomChangeListener.this::handleEvent);
+            }
+        });
+    }
+
+    private void handleEvent(ProjectItemModifiedEvent event) {
+        String eventPath = event.getPath();
+        if (!event.isFolder() && eventPath.endsWith("pom.xml")) {
+            //TODO update only pom file that in root of project
+//            if(event.getProject().equals(eventPath.substring(0, eventPath.lastIndexOf("pom.xml") - 1))) {
+            if (pomIsValid(eventPath)) {
+                projectToUpdate.add(new Path(eventPath).removeLastSegments(1).toOSString());
+            }
+//            }
+        }
     }
 
     private boolean pomIsValid(String path) {
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.maven.data.MavenArtifact;
+import org.eclipse.che.maven.data.MavenKey;
+import org.eclipse.che.maven.data.MavenModel;
+import org.eclipse.che.maven.data.MavenWorkspaceCache;
+import org.eclipse.che.plugin.maven.server.core.project.MavenModelReaderResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class MavenResolveCacheTest {
+    private static final List<String> PROFILES = asList("first", "second");
+
+    private File              dir;
+    private File              pom;
+    private File              settings;
+    private File              jar;
+    private MavenResolveCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("resolve-cache").toFile();
+        pom = write("pom.xml", "<project/>");
+        settings = write("settings.xml", "<settings/>");
+        jar = write("dependency.jar", "jar");
+        cache = new MavenResolveCache(new File(dir, "cache"), settings);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(dir);
+    }
+
+    @Test
+    public void returnsStoredResult() throws Exception {
+        cache.put(pom, PROFILES, emptyList(), result(artifact("dependency", jar)), emptyMap(), emptySet());
+
+        final MavenModelReaderResult stored = cache.get(pom, PROFILES, emptyList(), emptySet());
+
+        assertNotNull(stored);
+        assertEquals(stored.getMavenModel().getMavenKey(), new MavenKey("group", "project", "1.0"));
+        assertEquals(stored.getMavenModel().getDependencies().get(0).getFile(), jar);
+        assertEquals(stored.getActiveProfiles(), PROFILES);
+        assertTrue(stored.getUnresolvedArtifacts().isEmpty());
+        assertNotNull(new MavenResolveCache(new File(dir, "cache"), settings).get(pom, PROFILES, emptyList(), emptySet()));
+    }
+
+    @Test
+    public void doesNotReturnResultWhenPomProfilesOrSettingsAreChanged() throws Exception {
+        cache.put(pom, PROFILES, emptyList(), result(artifact("dependency", jar)), emptyMap(), emptySet());
+
+        assertNull(cache.get(pom, emptyList(), PROFILES, emptySet()));
+        write("settings.xml", "<settings><offline>true</offline></settings>");
+        assertNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+        write("settings.xml", "<settings/>");
+        write("pom.xml", "<project><packaging>jar</packaging></project>");
+        assertNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+        write("pom.xml", "<project/>");
+        assertNotNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+    }
+
+    @Test
+    public void doesNotReturnResultWhenWorkspacePomIsChanged() throws Exception {
+        final File modulePom = write("module.xml", "<project/>");
+        final MavenKey moduleKey = new MavenKey("group", "module", "1.0");
+        cache.put(pom, PROFILES, emptyList(), result(artifact("module", modulePom)), singletonMap(moduleKey, modulePom), emptySet());
+        assertNotNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+
+        write("module.xml", "<project><version>2.0</version></project>");
+
+        assertNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+        write("module.xml", "<project/>");
+        assertNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+    }
+
+    @Test
+    public void doesNotReturnResultWhenArtifactIsRemoved() throws Exception {
+        cache.put(pom, PROFILES, emptyList(), result(artifact("dependency", jar)), emptyMap(), emptySet());
+
+        assertTrue(jar.delete());
+
+        assertNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+    }
+
+    @Test
+    public void doesNotReturnResultOfPomWithTheSameContentInOtherLocation() throws Exception {
+        cache.put(pom, PROFILES, emptyList(), result(artifact("dependency", jar)), emptyMap(), emptySet());
+        final File otherPom = write("other.xml", "<project/>");
+
+        assertNull(cache.get(otherPom, PROFILES, emptyList(), emptySet()));
+        assertNotNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+    }
+
+    @Test
+    public void doesNotReturnResultWhenExternalDependencyAppearsInWorkspace() throws Exception {
+        final MavenKey dependencyKey = new MavenKey("group", "dependency", "1.0");
+        cache.put(pom, PROFILES, emptyList(), result(artifact("dependency", jar)), emptyMap(), singleton(dependencyKey));
+        assertNotNull(cache.get(pom, PROFILES, emptyList(), singleton(new MavenKey("group", "project", "1.0"))));
+
+        assertNull(cache.get(pom, PROFILES, emptyList(), singleton(dependencyKey)));
+    }
+
+    @Test
+    public void doesNotStoreResultWithUnresolvedArtifacts() throws Exception {
+        final MavenModel model = result(artifact("dependency", jar)).getMavenModel();
+        cache.put(pom,
+                  PROFILES,
+                  emptyList(),
+                  new MavenModelReaderResult(model, PROFILES, emptyList(), emptyList(), singleton(new MavenKey("group", "missed", "1.0"))),
+                  emptyMap(),
+                  emptySet());
+
+        assertNull(cache.get(pom, PROFILES, emptyList(), emptySet()));
+    }
+
+    @Test
+    public void workspaceCacheChangesTurnPreviousCacheIntoCurrentOne() throws Exception {
+        final MavenKey module = new MavenKey("group", "module", "1.0");
+        final MavenKey removed = new MavenKey("group", "removed", "1.0");
+        final MavenWorkspaceCache previous = new MavenWorkspaceCache();
+        previous.put(module, new File("module/pom.xml"));
+        previous.put(removed, new File("removed/pom.xml"));
+        final MavenWorkspaceCache current = previous.copy();
+        current.invalidate(removed);
+        current.put(module, new File("module/pom.xml"), new File("module/target/classes"));
+
+        final MavenWorkspaceCache.Changes changes = current.getChanges(previous);
+        final MavenWorkspaceCache applied = previous.copy();
+        applied.apply(changes);
+
+        assertFalse(changes.isEmpty());
+        assertTrue(current.getChanges(current.copy()).isEmpty());
+        assertEquals(applied.getAllKeys(), current.getAllKeys());
+        assertNull(applied.findEntry(removed));
+        assertEquals(applied.findEntry(module).getFile("jar"), new File("module/target/classes"));
+    }
+
+    private File write(String name, String content) throws Exception {
+        final File file = new File(dir, name);
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        return file;
+    }
+
+    private static MavenArtifact artifact(String artifactId, File file) {
+        return new MavenArtifact("group", artifactId, "1.0", "1.0", "jar", null, "compile", false, "jar", file, null, true, false);
+    }
+
+    private static MavenModelReaderResult result(MavenArtifact dependency) {
+        final MavenModel model = new MavenModel();
+        model.setMavenKey(new MavenKey("group", "project", "1.0"));
+        model.setDependencies(Collections.singletonList(dependency));
+        return new MavenModelReaderResult(model, PROFILES, emptyList(), emptyList(), Collections.emptySet());
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.plugin.maven.server.core;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class MavenTaskGroupTest {
+    private ExecutorService       executor;
+    private List<Double>          percents;
+    private MavenProgressNotifier notifier;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        percents = new CopyOnWriteArrayList<>();
+        notifier = new MavenProgressNotifier() {
+            @Override
+            public void setText(String text) {
+            }
+
+            @Override
+            public void setPercent(double percent) {
+                percents.add(percent);
+            }
+
+            @Override
+            public void setPercentUndefined(boolean undefined) {
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return false;
+            }
+
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void performsTasksAfterTheirDependencies() throws Exception {
+        List<String> performed = new CopyOnWriteArrayList<>();
+        MavenProjectTask parent = () -> performed.add("parent");
+        MavenProjectTask module = () -> performed.add("module");
+        MavenProjectTask dependentModule = () -> performed.add("dependentModule");
+        Map<MavenProjectTask, Set<MavenProjectTask>> dependencies = new LinkedHashMap<>();
+        dependencies.put(dependentModule, new HashSet<>(asList(parent, module)));
+        dependencies.put(module, Collections.singleton(parent));
+        dependencies.put(parent, Collections.emptySet());
+
+        new MavenTaskGroup(dependencies, 4, executor, notifier).perform();
+
+        assertEquals(performed, asList("parent", "module", "dependentModule"));
+        assertEquals(percents.get(percents.size() - 1), 1.0);
+    }
+
+    @Test(timeOut = 10000)
+    public void performsIndependentTasksConcurrently() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        AtomicInteger performed = new AtomicInteger();
+        Map<MavenProjectTask, Set<MavenProjectTask>> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            dependencies.put(() -> {
+                allStarted.countDown();
+                try {
+                    if (allStarted.await(5, TimeUnit.SECONDS)) {
+                        performed.incrementAndGet();
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }, Collections.emptySet());
+        }
+
+        new MavenTaskGroup(dependencies, 3, executor, notifier).perform();
+
+        assertEquals(performed.get(), 3);
+    }
+
+    @Test
+    public void doesNotPerformMoreTasksThanParallelismAtTheSameTime() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<MavenProjectTask, Set<MavenProjectTask>> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            dependencies.put(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException ignored) {
+                }
+                running.decrementAndGet();
+            }, Collections.emptySet());
+        }
+
+        new MavenTaskGroup(dependencies, 2, executor, notifier).perform();
+
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(percents.size(), 8);
+    }
+
+    @Test
+    public void performsTasksWithCyclicDependencies() throws Exception {
+        List<String> performed = new CopyOnWriteArrayList<>();
+        MavenProjectTask first = () -> performed.add("first");
+        MavenProjectTask second = () -> performed.add("second");
+        MavenProjectTask failing = () -> {
+            throw new IllegalStateException("failed");
+        };
+        Map<MavenProjectTask, Set<MavenProjectTask>> dependencies = new LinkedHashMap<>();
+        dependencies.put(first, Collections.singleton(second));
+        dependencies.put(second, new HashSet<>(asList(first, failing)));
+        dependencies.put(failing, Collections.emptySet());
+
+        new MavenTaskGroup(dependencies, 2, executor, notifier).perform();
+
+        assertEquals(new HashSet<>(performed), new HashSet<>(asList("first", "second")));
+    }
+}
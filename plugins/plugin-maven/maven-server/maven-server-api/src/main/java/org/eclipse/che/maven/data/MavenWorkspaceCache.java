@@ -13,7 +13,9 @@ package org.eclipse.che.maven.data;
 import java.io.File;
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -67,6 +69,45 @@ public class MavenWorkspaceCache implements Serializable {
         return copy;
     }
 
+    /**
+     * Returns changes which turn {@code previous} cache into this one, so cache which is already
+     * known by maven server may be updated without sending of whole cache.
+     */
+    public Changes getChanges(MavenWorkspaceCache previous) {
+        Changes changes = new Changes();
+        for (Map.Entry<MavenKey, Entry> entry : cache.entrySet()) {
+            if (!entry.getValue().equals(previous.cache.get(entry.getKey()))) {
+                changes.updated.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (MavenKey key : previous.cache.keySet()) {
+            if (!cache.containsKey(key)) {
+                changes.removed.add(key);
+            }
+        }
+        return changes;
+    }
+
+    /** Applies changes received with {@link #getChanges(MavenWorkspaceCache)}. */
+    public void apply(Changes changes) {
+        cache.keySet().removeAll(changes.removed);
+        cache.putAll(changes.updated);
+    }
+
+    /**
+     * Difference between two states of cache.
+     */
+    public static class Changes implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<MavenKey, Entry> updated = new HashMap<MavenKey, Entry>();
+        private final Set<MavenKey>        removed = new HashSet<MavenKey>();
+
+        public boolean isEmpty() {
+            return updated.isEmpty() && removed.isEmpty();
+        }
+    }
+
     public static class Entry implements Serializable {
         private static final long serialVersionUID = 1L;
 
@@ -91,5 +132,20 @@ public class MavenWorkspaceCache implements Serializable {
         public MavenKey getKey(){
             return key;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Entry entry = (Entry)o;
+            return Objects.equals(key, entry.key) &&
+                   Objects.equals(file, entry.file) &&
+                   Objects.equals(output, entry.output);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, file, output);
+        }
     }
 }
@@ -30,6 +30,16 @@ public interface MavenServer extends Remote {
                        MavenServerProgressNotifier notifier,
                        boolean alwaysUpdateSnapshot) throws RemoteException;
 
+    /**
+     * Same as {@link #setComponents(MavenWorkspaceCache, boolean, MavenTerminal, MavenServerProgressNotifier, boolean)}
+     * but updates workspace cache which was set before with given changes, so whole cache isn't sent on each call.
+     */
+    void setComponents(MavenWorkspaceCache.Changes cacheChanges,
+                       boolean failOnUnresolvedDependency,
+                       MavenTerminal mavenTerminal,
+                       MavenServerProgressNotifier notifier,
+                       boolean alwaysUpdateSnapshot) throws RemoteException;
+
     String getEffectivePom(File pom, List<String> activeProfiles, List<String> inactiveProfiles) throws RemoteException;
 
     MavenServerResult resolveProject(File pom, List<String> activeProfiles, List<String> inactiveProfiles) throws RemoteException;
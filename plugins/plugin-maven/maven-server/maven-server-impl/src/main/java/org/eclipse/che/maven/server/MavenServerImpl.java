@@ -364,6 +364,17 @@ public class MavenServerImpl extends MavenRmiObject implements MavenServer {
         mavenProgressNotifier = new MavenServerProgressNotifierImpl(notifier);
     }
 
+    @Override
+    public void setComponents(MavenWorkspaceCache.Changes cacheChanges,
+                              boolean failOnUnresolvedDependency,
+                              MavenTerminal mavenTerminal,
+                              MavenServerProgressNotifier notifier,
+                              boolean alwaysUpdateSnapshot) throws RemoteException {
+        MavenWorkspaceCache cache = workspaceCache != null ? workspaceCache : new MavenWorkspaceCache();
+        cache.apply(cacheChanges);
+        setComponents(cache, failOnUnresolvedDependency, mavenTerminal, notifier, alwaysUpdateSnapshot);
+    }
+
     @Override
     public String getEffectivePom(File pom, List<String> activeProfiles, List<String> inactiveProfiles)
             throws RemoteException {
@@ -35,6 +35,20 @@ public interface LogRequest extends GitRequest {
     
     void setRevisionRangeSince(String revisionRangeSince);
     void setRevisionRangeUntil(String revisionRangeUntil);	
+
+    /** @return number of the newest commits to skip before starting to show commits, 0 to start from the newest commit */
+    int getSkip();
+
+    void setSkip(int skip);
+
+    LogRequest withSkip(int skip);
+
+    /** @return max number of commits to show, 0 to show all commits */
+    int getMaxCount();
+
+    void setMaxCount(int maxCount);
+
+    LogRequest withMaxCount(int maxCount);
     // private List<String> fileFilter;
     // private boolean noRenames = true;
     // private int renameLimit;
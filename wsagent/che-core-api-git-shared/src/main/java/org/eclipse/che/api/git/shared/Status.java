@@ -11,20 +11,28 @@
 package org.eclipse.che.api.git.shared;
 
 import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.dto.shared.SerializationIndex;
 
 import java.util.List;
 
-/** @author Dmitriy Vyshinskiy */
+/**
+ * Status of git repository. Getters are annotated with {@link SerializationIndex} so status may be sent in compact binary form.
+ *
+ * @author Dmitriy Vyshinskiy
+ */
 @DTO
 public interface Status {
+    @SerializationIndex(1)
     boolean isClean();
 
     void setClean(boolean isClean);
 
+    @SerializationIndex(2)
     StatusFormat getFormat();
 
     void setFormat(StatusFormat format);
 
+    @SerializationIndex(3)
     String getBranchName();
 
     void setBranchName(String branchName);
@@ -32,6 +40,7 @@ public interface Status {
     /**
      * New files that are staged in index.
      */
+    @SerializationIndex(4)
     List<String> getAdded();
 
     void setAdded(List<String> added);
@@ -39,6 +48,7 @@ public interface Status {
     /**
      * New files that are not staged in index.
      */
+    @SerializationIndex(5)
     List<String> getUntracked();
 
     void setUntracked(List<String> untracked);
@@ -46,6 +56,7 @@ public interface Status {
     /**
      * Modified files that are staged in index.
      */
+    @SerializationIndex(6)
     List<String> getChanged();
 
     void setChanged(List<String> changed);
@@ -53,6 +64,7 @@ public interface Status {
     /**
      * Modified files that are not staged in index.
      */
+    @SerializationIndex(7)
     List<String> getModified();
 
     void setModified(List<String> modified);
@@ -60,6 +72,7 @@ public interface Status {
     /**
      * Deleted files that are staged in index.
      */
+    @SerializationIndex(8)
     List<String> getRemoved();
 
     void setRemoved(List<String> removed);
@@ -67,6 +80,7 @@ public interface Status {
     /**
      * Deleted files that are not staged in index.
      */
+    @SerializationIndex(9)
     List<String> getMissing();
 
     void setMissing(List<String> missing);
@@ -75,6 +89,7 @@ public interface Status {
      * Folders that contain only untracked files.
      * @see #getUntracked()
      */
+    @SerializationIndex(10)
     List<String> getUntrackedFolders();
 
     void setUntrackedFolders(List<String> untrackedFolders);
@@ -82,10 +97,12 @@ public interface Status {
     /**
      * Files that have conflicts.
      */
+    @SerializationIndex(11)
     List<String> getConflicting();
 
     void setConflicting(List<String> added);
     
+    @SerializationIndex(12)
     String getRepositoryState();
     
     void setRepositoryState(String repositoryState);
@@ -15,4 +15,9 @@ package org.eclipse.che.api.git;
  * @author andrew00x
  */
 public abstract class DiffPage implements InfoPage {
+    /**
+     * Prefix of the last line of difference which is written while git produces it and git fails after part of difference is already
+     * sent to client, message of failure follows the prefix.
+     */
+    public static final String TRUNCATED_MARKER = "### difference is truncated: ";
 }
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.git;
+
+import org.eclipse.che.api.git.shared.Remote;
+import org.eclipse.che.api.git.shared.RemoteListRequest;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationHandler;
+import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.eclipse.che.dto.server.DtoFactory.cloneDto;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Keeps state of git repositories in memory so that attributes of git projects and status of repository don't require running git
+ * every time they are requested.
+ *
+ * <p>Cached state is invalidated by file watcher. Changes of {@code .git/HEAD}, {@code .git/refs}, {@code .git/packed-refs} and
+ * {@code .git/config} invalidate the whole state of repository, changes of {@code .git/index} and of files in working tree invalidate
+ * only status. Invalidated state is loaded again in background by at most {@link #REFRESH_THREADS} threads. If state is requested
+ * before background refresh is done it is loaded in the caller thread. State of repository is dropped when folder of repository is
+ * deleted.
+ */
+@Singleton
+public class GitRepositoryStateCache {
+    private static final Logger LOG = LoggerFactory.getLogger(GitRepositoryStateCache.class);
+
+    static final int REFRESH_THREADS = 2;
+
+    private static final String GIT_DIR        = File.separator + ".git";
+    private static final String GIT_DIR_PREFIX = GIT_DIR + File.separator;
+    private static final String REFS_PREFIX    = "refs" + File.separator;
+
+    private final GitConnectionFactory                   gitConnectionFactory;
+    private final FileWatcherNotificationHandler         fileWatcherNotificationHandler;
+    private final ConcurrentMap<String, RepositoryState> states;
+    private final Set<String>                            pendingRefresh;
+    private final FileWatcherNotificationListener        fileWatcherListener;
+    private final ExecutorService                        executor;
+
+    @Inject
+    public GitRepositoryStateCache(GitConnectionFactory gitConnectionFactory,
+                                   FileWatcherNotificationHandler fileWatcherNotificationHandler) {
+        this.gitConnectionFactory = gitConnectionFactory;
+        this.fileWatcherNotificationHandler = fileWatcherNotificationHandler;
+        this.states = new ConcurrentHashMap<>();
+        this.pendingRefresh = ConcurrentHashMap.newKeySet();
+        this.executor = Executors.newFixedThreadPool(REFRESH_THREADS, r -> {
+            final Thread thread = new Thread(r, "GitRepositoryStateRefresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fileWatcherListener = new FileWatcherNotificationListener(VirtualFileFilter.ACCEPT_ALL) {
+            @Override
+            public void onFileWatcherEvent(VirtualFile virtualFile, FileWatcherEventType eventType) {
+                final File ioFile = virtualFile.toIoFile();
+                if (ioFile != null) {
+                    if (eventType == FileWatcherEventType.DELETED) {
+                        onFileDeleted(ioFile.getAbsolutePath());
+                    }
+                    onFileChanged(ioFile.getAbsolutePath());
+                }
+            }
+        };
+    }
+
+    @PostConstruct
+    void start() {
+        fileWatcherNotificationHandler.addNotificationListener(fileWatcherListener);
+    }
+
+    @PreDestroy
+    void stop() {
+        fileWatcherNotificationHandler.removeNotificationListener(fileWatcherListener);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Checks whether the folder is inside work tree of git repository.
+     *
+     * @param path
+     *         absolute path of folder
+     */
+    public boolean isInsideWorkTree(String path) throws GitException {
+        return getHead(path).insideWorkTree;
+    }
+
+    /** Returns name of current branch of repository or {@code null} if folder isn't inside work tree of git repository. */
+    public String getBranchName(String path) throws GitException {
+        return getHead(path).branchName;
+    }
+
+    /** Returns URLs of remotes of repository, empty list if folder isn't inside work tree of git repository. */
+    public List<String> getRemoteUrls(String path) throws GitException {
+        return getHead(path).remoteUrls;
+    }
+
+    /**
+     * Returns status of repository in specified format. Status is loaded only if it wasn't loaded before or if repository is changed since
+     * last loading. Returned status is a copy of cached one, so caller may change it.
+     */
+    public Status getStatus(String path, StatusFormat format) throws GitException {
+        return cloneDto(getStatus(getState(path), format));
+    }
+
+    /**
+     * Invalidates whole cached state of repository, state is loaded again when it is requested next time. Should be called by operations
+     * that change repository so that subsequent requests don't get stale state before file watcher notices changes.
+     */
+    public void invalidate(String path) {
+        invalidate(path, false);
+    }
+
+    private void invalidate(String path, boolean refresh) {
+        final RepositoryState state = states.get(path);
+        if (state != null) {
+            state.headGeneration.incrementAndGet();
+            state.statusGeneration.incrementAndGet();
+            if (refresh) {
+                scheduleRefresh(path);
+            }
+        }
+    }
+
+    private void invalidateStatus(String path) {
+        final RepositoryState state = states.get(path);
+        if (state != null) {
+            state.statusGeneration.incrementAndGet();
+            scheduleRefresh(path);
+        }
+    }
+
+    /** Invalidates cached state of repository that contains changed file and refreshes it in background. */
+    void onFileChanged(String path) {
+        final int gitDir = path.indexOf(GIT_DIR_PREFIX);
+        if (gitDir >= 0) {
+            final String repository = path.substring(0, gitDir);
+            final String name = path.substring(gitDir + GIT_DIR_PREFIX.length());
+            if ("index".equals(name)) {
+                invalidateStatus(repository);
+            } else if ("HEAD".equals(name) || "packed-refs".equals(name) || "config".equals(name)
+                       || "refs".equals(name) || name.startsWith(REFS_PREFIX)) {
+                invalidate(repository, true);
+            }
+        } else if (path.endsWith(GIT_DIR)) {
+            invalidate(path.substring(0, path.length() - GIT_DIR.length()), true);
+        } else {
+            for (String repository : states.keySet()) {
+                if (path.startsWith(repository + File.separator)) {
+                    invalidateStatus(repository);
+                }
+            }
+        }
+    }
+
+    /** Drops cached state of repositories which are inside deleted folder. */
+    void onFileDeleted(String path) {
+        states.keySet().removeIf(repository -> repository.equals(path) || repository.startsWith(path + File.separator));
+    }
+
+    private RepositoryState getState(String path) {
+        return states.computeIfAbsent(path, RepositoryState::new);
+    }
+
+    private Head getHead(String path) throws GitException {
+        final RepositoryState state = getState(path);
+        final Snapshot<Head> snapshot = state.head;
+        if (snapshot != null && snapshot.generation == state.headGeneration.get()) {
+            return snapshot.value;
+        }
+        return load(state);
+    }
+
+    private Status getStatus(RepositoryState state, StatusFormat format) throws GitException {
+        final Snapshot<Status> snapshot = state.statuses.get(format);
+        if (snapshot != null && snapshot.generation == state.statusGeneration.get()) {
+            return snapshot.value;
+        }
+        final long generation = state.statusGeneration.get();
+        final Status status;
+        try (GitConnection gitConnection = gitConnectionFactory.getConnection(state.path)) {
+            status = gitConnection.status(format);
+        }
+        state.statuses.put(format, new Snapshot<>(generation, status));
+        return status;
+    }
+
+    private Head load(RepositoryState state) throws GitException {
+        final long headGeneration = state.headGeneration.get();
+        final long statusGeneration = state.statusGeneration.get();
+        final Head head;
+        try (GitConnection gitConnection = gitConnectionFactory.getConnection(state.path)) {
+            if (gitConnection.isInsideWorkTree()) {
+                final Status status = gitConnection.status(StatusFormat.LONG);
+                final List<String> remoteUrls = gitConnection.remoteList(newDto(RemoteListRequest.class))
+                                                             .stream()
+                                                             .map(Remote::getUrl)
+                                                             .collect(Collectors.toList());
+                state.statuses.put(StatusFormat.LONG, new Snapshot<>(statusGeneration, status));
+                head = new Head(true, status.getBranchName(), remoteUrls);
+            } else {
+                head = new Head(false, null, Collections.emptyList());
+            }
+        }
+        state.head = new Snapshot<>(headGeneration, head);
+        return head;
+    }
+
+    private void scheduleRefresh(String path) {
+        if (!pendingRefresh.add(path)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                pendingRefresh.remove(path);
+                final RepositoryState state = states.get(path);
+                if (state == null) {
+                    return;
+                }
+                try {
+                    final Snapshot<Head> head = state.head;
+                    if (head == null || head.generation != state.headGeneration.get()) {
+                        load(state);
+                    } else if (head.value.insideWorkTree) {
+                        getStatus(state, StatusFormat.LONG);
+                    }
+                } catch (GitException e) {
+                    LOG.debug("Unable to refresh state of git repository {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRefresh.remove(path);
+        }
+    }
+
+    private static class RepositoryState {
+        final String                                        path;
+        final AtomicLong                                    headGeneration;
+        final AtomicLong                                    statusGeneration;
+        final ConcurrentMap<StatusFormat, Snapshot<Status>> statuses;
+
+        volatile Snapshot<Head> head;
+
+        RepositoryState(String path) {
+            this.path = path;
+            this.headGeneration = new AtomicLong();
+            this.statusGeneration = new AtomicLong();
+            this.statuses = new ConcurrentHashMap<>();
+        }
+    }
+
+    /** Value that is valid while generation of repository state is not changed. */
+    private static class Snapshot<T> {
+        final long generation;
+        final T    value;
+
+        Snapshot(long generation, T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    private static class Head {
+        final boolean      insideWorkTree;
+        final String       branchName;
+        final List<String> remoteUrls;
+
+        Head(boolean insideWorkTree, String branchName, List<String> remoteUrls) {
+            this.insideWorkTree = insideWorkTree;
+            this.branchName = branchName;
+            this.remoteUrls = Collections.unmodifiableList(remoteUrls);
+        }
+    }
+}
@@ -11,6 +11,7 @@
 package org.eclipse.che.api.git;
 
 import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.git.shared.AddRequest;
 import org.eclipse.che.api.git.shared.Branch;
@@ -55,12 +56,14 @@ import org.eclipse.che.api.project.server.FolderEntry;
 import org.eclipse.che.api.project.server.ProjectRegistry;
 import org.eclipse.che.api.project.server.RegisteredProject;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
+import org.eclipse.che.dto.server.DtoBinaryFormat;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -92,6 +95,9 @@ public class GitService {
     @Inject
     private GitUrlResolver gitUrlResolver;
 
+    @Inject
+    private GitRepositoryStateCache gitRepositoryStateCache;
+
     @PathParam("ws-id")
     private String workspace;
 
@@ -104,6 +110,8 @@ public class GitService {
     public void add(AddRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.add(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -113,6 +121,8 @@ public class GitService {
     public void checkout(CheckoutRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.checkout(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -123,6 +133,8 @@ public class GitService {
     public Branch branchCreate(BranchCreateRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.branchCreate(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -132,6 +144,8 @@ public class GitService {
     public void branchDelete(BranchDeleteRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.branchDelete(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -141,6 +155,8 @@ public class GitService {
                              @QueryParam("newName") String newName) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.branchRename(oldName, newName);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -184,6 +200,8 @@ public class GitService {
     public Revision commit(CommitRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.commit(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -197,6 +215,30 @@ public class GitService {
         }
     }
 
+    /**
+     * Streams difference to the response while it is computed, so huge differences aren't kept in memory. Parameters have the same meaning
+     * as fields of {@link DiffRequest}.
+     */
+    @Path("diff")
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    public InfoPage diff(@QueryParam("commitA") String commitA,
+                         @QueryParam("commitB") String commitB,
+                         @QueryParam("cached") boolean cached,
+                         @DefaultValue("RAW") @QueryParam("type") DiffRequest.DiffType type,
+                         @QueryParam("noRenames") boolean noRenames,
+                         @QueryParam("renameLimit") int renameLimit,
+                         @QueryParam("fileFilter") List<String> fileFilter) throws ApiException {
+        return diff(DtoFactory.getInstance().createDto(DiffRequest.class)
+                              .withCommitA(commitA)
+                              .withCommitB(commitB)
+                              .withCached(cached)
+                              .withType(type)
+                              .withNoRenames(noRenames)
+                              .withRenameLimit(renameLimit)
+                              .withFileFilter(fileFilter.isEmpty() ? null : fileFilter));
+    }
+
     /**
      * Show file content from specified revision or branch.
      *
@@ -222,6 +264,8 @@ public class GitService {
     public void fetch(FetchRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.fetch(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -232,6 +276,8 @@ public class GitService {
         request.setWorkingDir(getAbsoluteProjectPath(projectPath));
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.init(request);
+        } finally {
+            invalidateRepositoryState();
         }
         projectRegistry.setProjectType(projectPath, GitProjectType.TYPE_ID, true);
     }
@@ -246,6 +292,31 @@ public class GitService {
         }
     }
 
+    /**
+     * Returns one page of commit logs. Filtering by files and paging are done by git, so only requested commits are read.
+     *
+     * @param skip
+     *         number of the newest commits to skip, i.e. number of commits on previous pages
+     * @param maxCount
+     *         max number of commits on the page, page that contains fewer commits is the last one
+     * @param fileFilter
+     *         show only commits that change specified files
+     */
+    @Path("log")
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN})
+    public LogPage log(@QueryParam("skip") int skip,
+                       @DefaultValue("100") @QueryParam("maxCount") int maxCount,
+                       @QueryParam("fileFilter") List<String> fileFilter) throws ApiException {
+        if (skip < 0 || maxCount <= 0) {
+            throw new BadRequestException("Parameter skip must not be negative and parameter maxCount must be positive");
+        }
+        return log(DtoFactory.getInstance().createDto(LogRequest.class)
+                             .withSkip(skip)
+                             .withMaxCount(maxCount)
+                             .withFileFilter(fileFilter.isEmpty() ? null : fileFilter));
+    }
+
     @Path("merge")
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
@@ -253,6 +324,8 @@ public class GitService {
     public MergeResult merge(MergeRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.merge(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -263,6 +336,8 @@ public class GitService {
     public RebaseResponse rebase(RebaseRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.rebase(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -272,6 +347,8 @@ public class GitService {
     public void mv(MoveRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.mv(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -281,6 +358,8 @@ public class GitService {
     public PullResponse pull(PullRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.pull(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -290,6 +369,8 @@ public class GitService {
     public PushResponse push(PushRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.push(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -299,6 +380,8 @@ public class GitService {
     public void remoteAdd(RemoteAddRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.remoteAdd(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -307,6 +390,8 @@ public class GitService {
     public void remoteDelete(@PathParam("name") String name) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.remoteDelete(name);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -327,6 +412,8 @@ public class GitService {
     public void remoteUpdate(RemoteUpdateRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.remoteUpdate(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -336,6 +423,8 @@ public class GitService {
     public void reset(ResetRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.reset(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -345,16 +434,16 @@ public class GitService {
     public void rm(RmRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.rm(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
     @Path("status")
     @POST
-    @Produces({MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN, DtoBinaryFormat.MEDIA_TYPE})
     public Status status(@QueryParam("format") StatusFormat format) throws ApiException {
-        try (GitConnection gitConnection = getGitConnection()) {
-            return gitConnection.status(format);
-        }
+        return gitRepositoryStateCache.getStatus(getAbsoluteProjectPath(projectPath), format);
     }
 
     @Path("tag-create")
@@ -362,11 +451,10 @@ public class GitService {
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Tag tagCreate(TagCreateRequest request) throws ApiException {
-        GitConnection gitConnection = getGitConnection();
-        try {
+        try (GitConnection gitConnection = getGitConnection()) {
             return gitConnection.tagCreate(request);
         } finally {
-            gitConnection.close();
+            invalidateRepositoryState();
         }
     }
 
@@ -376,6 +464,8 @@ public class GitService {
     public void tagDelete(TagDeleteRequest request) throws ApiException {
         try (GitConnection gitConnection = getGitConnection()) {
             gitConnection.tagDelete(request);
+        } finally {
+            invalidateRepositoryState();
         }
     }
 
@@ -437,10 +527,12 @@ public class GitService {
         final RegisteredProject project = projectRegistry.getProject(projectPath);
         if (project.getBaseFolder().getChildFolder(".git") != null) {
             try (GitConnection gitConnection = getGitConnection()) {
+                final LogRequest lastCommit = DtoFactory.getInstance().createDto(LogRequest.class).withMaxCount(1);
                 return DtoFactory.getInstance().createDto(SourceStorageDto.class)
                                  .withType("git")
                                  .withLocation(gitUrlResolver.resolve(uriInfo.getBaseUri(), getAbsoluteProjectPath(projectPath)))
-                                 .withParameters(Collections.singletonMap("commitId", gitConnection.log(null).getCommits().get(0).getId()));
+                                 .withParameters(Collections.singletonMap("commitId",
+                                                                          gitConnection.log(lastCommit).getCommits().get(0).getId()));
 
             }
         } else {
@@ -462,6 +554,7 @@ public class GitService {
         final RegisteredProject project = projectRegistry.getProject(projectPath);
         final FolderEntry gitFolder = project.getBaseFolder().getChildFolder(".git");
         gitFolder.getVirtualFile().delete();
+        gitRepositoryStateCache.invalidate(getAbsoluteProjectPath(projectPath));
         projectRegistry.removeProjectType(projectPath, GitProjectType.TYPE_ID);
     }
 
@@ -473,4 +566,12 @@ public class GitService {
     private GitConnection getGitConnection() throws ApiException {
         return gitConnectionFactory.getConnection(getAbsoluteProjectPath(projectPath));
     }
+
+    /**
+     * Invalidates cached state of repository, should be called when operation that changes repository is done so that the next request of
+     * status doesn't wait for file watcher to notice changes.
+     */
+    private void invalidateRepositoryState() throws ApiException {
+        gitRepositoryStateCache.invalidate(getAbsoluteProjectPath(projectPath));
+    }
 }
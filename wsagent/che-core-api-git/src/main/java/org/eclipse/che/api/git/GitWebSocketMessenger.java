@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.git;
 
+import org.eclipse.che.api.core.notification.AsyncDelivery;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.git.shared.GitCheckoutEvent;
@@ -29,6 +30,7 @@ import javax.inject.Singleton;
  * @author Anton Korneta.
  */
 @Singleton
+@AsyncDelivery
 public class GitWebSocketMessenger implements EventSubscriber<GitCheckoutEvent> {
     private static final Logger LOG = LoggerFactory.getLogger(GitWebSocketMessenger.class);
     private static final String CHANNEL = "git:checkout:%s:%s";
@@ -11,6 +11,8 @@
 package org.eclipse.che.api.git;
 
 
+import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.rest.ApiExceptionMapper;
 import org.eclipse.che.api.git.InfoPage;
 
 import javax.inject.Singleton;
@@ -64,6 +66,15 @@ public final class StatusPageWriter implements MessageBodyWriter<InfoPage> {
                         MediaType mediaType,
                         MultivaluedMap<String, Object> httpHeaders,
                         OutputStream entityStream) throws IOException, WebApplicationException {
-        infoPage.writeTo(entityStream);
+        try {
+            infoPage.writeTo(entityStream);
+        } catch (IOException e) {
+            // page that is computed while it is written reports failure of git this way, respond with error if response isn't sent yet
+            if (e.getCause() instanceof ApiException) {
+                final ApiException cause = (ApiException)e.getCause();
+                throw new WebApplicationException(cause, new ApiExceptionMapper().toResponse(cause));
+            }
+            throw e;
+        }
     }
 }
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.git;
+
+import org.eclipse.che.api.core.util.LineConsumerFactory;
+import org.eclipse.che.api.git.shared.Remote;
+import org.eclipse.che.api.git.shared.RemoteListRequest;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.api.vfs.impl.file.FileWatcherNotificationHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.File;
+import java.util.Collections;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link GitRepositoryStateCache}.
+ */
+public class GitRepositoryStateCacheTest {
+    private static final String REPOSITORY = File.separator + "projects" + File.separator + "repo";
+
+    @Mock
+    private GitConnectionFactory           gitConnectionFactory;
+    @Mock
+    private FileWatcherNotificationHandler fileWatcherNotificationHandler;
+    @Mock
+    private GitConnection                  gitConnection;
+    @Mock
+    private Remote                         remote;
+
+    private Status                  status;
+    private GitRepositoryStateCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        status = newDto(Status.class);
+        status.setFormat(StatusFormat.LONG);
+        status.setBranchName("master");
+        when(gitConnectionFactory.getConnection(any(File.class), any(LineConsumerFactory.class))).thenReturn(gitConnection);
+        when(gitConnection.isInsideWorkTree()).thenReturn(true);
+        when(gitConnection.status(StatusFormat.LONG)).thenReturn(status);
+        when(gitConnection.remoteList(any(RemoteListRequest.class))).thenReturn(Collections.singletonList(remote));
+        when(remote.getUrl()).thenReturn("https://github.com/eclipse/che.git");
+
+        cache = new GitRepositoryStateCache(gitConnectionFactory, fileWatcherNotificationHandler);
+        cache.start();
+    }
+
+    @After
+    public void tearDown() {
+        cache.stop();
+    }
+
+    @Test
+    public void shouldLoadStateOfRepositoryOnce() throws Exception {
+        assertTrue(cache.isInsideWorkTree(REPOSITORY));
+        assertEquals(cache.getBranchName(REPOSITORY), "master");
+        assertEquals(cache.getRemoteUrls(REPOSITORY), Collections.singletonList("https://github.com/eclipse/che.git"));
+        assertEquals(cache.getStatus(REPOSITORY, StatusFormat.LONG), status);
+
+        verify(gitConnection).isInsideWorkTree();
+        verify(gitConnection).status(StatusFormat.LONG);
+        verify(gitConnection).remoteList(any(RemoteListRequest.class));
+    }
+
+    @Test
+    public void shouldNotLoadStatusAndRemotesOfFolderOutsideOfWorkTree() throws Exception {
+        when(gitConnection.isInsideWorkTree()).thenReturn(false);
+
+        assertFalse(cache.isInsideWorkTree(REPOSITORY));
+        assertFalse(cache.isInsideWorkTree(REPOSITORY));
+        assertTrue(cache.getRemoteUrls(REPOSITORY).isEmpty());
+
+        verify(gitConnection).isInsideWorkTree();
+        verify(gitConnection, times(0)).status(any(StatusFormat.class));
+        verify(gitConnection, times(0)).remoteList(any(RemoteListRequest.class));
+    }
+
+    @Test
+    public void shouldRefreshWholeStateWhenHeadIsChanged() throws Exception {
+        cache.getBranchName(REPOSITORY);
+        status.setBranchName("feature");
+
+        cache.onFileChanged(REPOSITORY + File.separator + ".git" + File.separator + "HEAD");
+
+        verify(gitConnection, timeout(2000).times(2)).remoteList(any(RemoteListRequest.class));
+        assertEquals(cache.getBranchName(REPOSITORY), "feature");
+        verify(gitConnection, times(2)).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldRefreshWholeStateWhenRefIsChanged() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileChanged(REPOSITORY + File.separator + ".git" + File.separator + "refs" + File.separator + "heads"
+                            + File.separator + "master");
+
+        verify(gitConnection, timeout(2000).times(2)).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldRefreshOnlyStatusWhenIndexIsChanged() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileChanged(REPOSITORY + File.separator + ".git" + File.separator + "index");
+
+        verify(gitConnection, timeout(2000).times(2)).status(StatusFormat.LONG);
+        assertEquals(cache.getStatus(REPOSITORY, StatusFormat.LONG), status);
+        verify(gitConnection, times(2)).status(StatusFormat.LONG);
+        verify(gitConnection).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldRefreshOnlyStatusWhenFileOfWorkTreeIsChanged() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileChanged(REPOSITORY + File.separator + "src" + File.separator + "Main.java");
+
+        verify(gitConnection, timeout(2000).times(2)).status(StatusFormat.LONG);
+        verify(gitConnection).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldIgnoreChangesOfOtherFiles() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileChanged(REPOSITORY + File.separator + ".git" + File.separator + "objects" + File.separator + "ab");
+        cache.onFileChanged(REPOSITORY + "-copy" + File.separator + "Main.java");
+        cache.getBranchName(REPOSITORY);
+        cache.getStatus(REPOSITORY, StatusFormat.LONG);
+
+        verify(gitConnection).isInsideWorkTree();
+        verify(gitConnection).status(StatusFormat.LONG);
+    }
+
+    @Test
+    public void shouldReloadStateAfterExplicitInvalidation() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.invalidate(REPOSITORY);
+        cache.getBranchName(REPOSITORY);
+
+        verify(gitConnection, times(2)).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldCacheStatusInEachFormatSeparately() throws Exception {
+        final Status shortStatus = newDto(Status.class);
+        shortStatus.setFormat(StatusFormat.SHORT);
+        when(gitConnection.status(StatusFormat.SHORT)).thenReturn(shortStatus);
+
+        assertEquals(cache.getStatus(REPOSITORY, StatusFormat.SHORT), shortStatus);
+        assertEquals(cache.getStatus(REPOSITORY, StatusFormat.SHORT), shortStatus);
+        assertEquals(cache.getStatus(REPOSITORY, StatusFormat.LONG), status);
+
+        verify(gitConnection).status(StatusFormat.SHORT);
+        verify(gitConnection).status(StatusFormat.LONG);
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedStatus() throws Exception {
+        cache.getStatus(REPOSITORY, StatusFormat.LONG).setBranchName("changed");
+
+        assertEquals(cache.getStatus(REPOSITORY, StatusFormat.LONG).getBranchName(), "master");
+        verify(gitConnection).status(StatusFormat.LONG);
+    }
+
+    @Test
+    public void shouldDropStateOfRepositoryWhenItsFolderIsDeleted() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileDeleted(REPOSITORY);
+        cache.getBranchName(REPOSITORY);
+
+        verify(gitConnection, times(2)).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldDropStateOfRepositoryWhenParentFolderIsDeleted() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileDeleted(File.separator + "projects");
+        cache.getBranchName(REPOSITORY);
+
+        verify(gitConnection, times(2)).isInsideWorkTree();
+    }
+
+    @Test
+    public void shouldKeepStateWhenOtherFolderIsDeleted() throws Exception {
+        cache.getBranchName(REPOSITORY);
+
+        cache.onFileDeleted(File.separator + "projects" + File.separator + "re");
+        cache.getBranchName(REPOSITORY);
+
+        verify(gitConnection).isInsideWorkTree();
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Operation with file or folder that is applied as part of batch.
+ */
+@DTO
+public interface FileOperation {
+    enum Type {
+        /** Create file with {@link #getContent() content}, missing parent folders are created. */
+        CREATE,
+        /** Replace content of existing file. */
+        UPDATE,
+        /** Move item to {@link #getTo() new parent}, optionally with {@link #getName() new name}. */
+        MOVE,
+        /** Delete item. */
+        DELETE
+    }
+
+    Type getType();
+
+    void setType(Type type);
+
+    FileOperation withType(Type type);
+
+    /** Path of item which is created, updated, moved or deleted. */
+    String getPath();
+
+    void setPath(String path);
+
+    FileOperation withPath(String path);
+
+    /** Content of created or updated file. */
+    @Nullable
+    String getContent();
+
+    void setContent(String content);
+
+    FileOperation withContent(String content);
+
+    /** Path of new parent of moved item. */
+    @Nullable
+    String getTo();
+
+    void setTo(String to);
+
+    FileOperation withTo(String to);
+
+    /** New name of moved item, name isn't changed if {@code null}. */
+    @Nullable
+    String getName();
+
+    void setName(String name);
+
+    FileOperation withName(String name);
+
+    /** Overwrite existing item at destination of move. */
+    boolean isOverwrite();
+
+    void setOverwrite(boolean overwrite);
+
+    FileOperation withOverwrite(boolean overwrite);
+}
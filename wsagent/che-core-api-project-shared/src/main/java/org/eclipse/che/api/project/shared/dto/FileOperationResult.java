@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Result of {@link FileOperation} applied as part of batch.
+ */
+@DTO
+public interface FileOperationResult {
+    enum Status {
+        DONE,
+        FAILED,
+        /** Operation isn't applied because one of the previous operations failed. */
+        SKIPPED
+    }
+
+    Status getStatus();
+
+    void setStatus(Status status);
+
+    FileOperationResult withStatus(Status status);
+
+    /** Path of item after operation is applied. */
+    String getPath();
+
+    void setPath(String path);
+
+    FileOperationResult withPath(String path);
+
+    /** Reason of failure. */
+    @Nullable
+    String getMessage();
+
+    void setMessage(String message);
+
+    FileOperationResult withMessage(String message);
+}
@@ -85,4 +85,11 @@ public interface ItemReference extends Hyperlinks {
     ProjectConfigDto getProjectConfig();
 
     void setProjectConfig(ProjectConfigDto config);
+
+    /** Matches of search pattern in content of file. Set only for items found by search with content pattern. */
+    List<SearchMatch> getMatches();
+
+    void setMatches(List<SearchMatch> matches);
+
+    ItemReference withMatches(List<SearchMatch> matches);
 }
@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Match of search pattern in content of file, see {@link ItemReference#getMatches()}.
+ */
+@DTO
+public interface SearchMatch {
+    /** Number of line, starting from 1, where match begins. */
+    int getLineNumber();
+
+    void setLineNumber(int lineNumber);
+
+    SearchMatch withLineNumber(int lineNumber);
+
+    /** Offset, in characters from the beginning of file, of the first character of match. */
+    int getStartOffset();
+
+    void setStartOffset(int startOffset);
+
+    SearchMatch withStartOffset(int startOffset);
+
+    /** Offset, in characters from the beginning of file, of the character after the last character of match. */
+    int getEndOffset();
+
+    void setEndOffset(int endOffset);
+
+    SearchMatch withEndOffset(int endOffset);
+}
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import org.eclipse.che.api.core.model.machine.MachineStatus;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.machine.shared.dto.CommandDto;
+import org.eclipse.che.api.machine.shared.dto.DtoServerImpls.MachineDtoImpl;
+import org.eclipse.che.api.machine.shared.dto.LimitsDto;
+import org.eclipse.che.api.machine.shared.dto.MachineConfigDto;
+import org.eclipse.che.api.machine.shared.dto.MachineDto;
+import org.eclipse.che.api.machine.shared.dto.MachineRuntimeInfoDto;
+import org.eclipse.che.api.machine.shared.dto.MachineSourceDto;
+import org.eclipse.che.api.machine.shared.dto.ServerConfDto;
+import org.eclipse.che.api.machine.shared.dto.ServerDto;
+import org.eclipse.che.api.project.server.dto.DtoServerImpls.ItemReferenceImpl;
+import org.eclipse.che.api.workspace.server.dto.DtoServerImpls.WorkspaceDtoImpl;
+import org.eclipse.che.api.workspace.shared.dto.EnvironmentDto;
+import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.RecipeDto;
+import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceConfigDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceDto;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceRuntimeDto;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonSerializable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Compares JSON serialization of workspace, machine and item reference DTOs through the {@link JsonElement} tree
+ * with streaming serialization generated for server DTOs.
+ *
+ * <p>Benchmark isn't run by default build, run it with:
+ * <pre>
+ * mvn test -Dtest=DtoJsonBenchmark -Ddto.benchmark=true [-Ddto.benchmark.iterations=10000]
+ * </pre>
+ */
+public class DtoJsonBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(DtoJsonBenchmark.class);
+
+    private static final int MACHINES = 5;
+    private static final int PROJECTS = 10;
+    private static final int ITEMS    = 100;
+
+    private final DtoFactory dtoFactory = DtoFactory.getInstance();
+    private final Gson       gson       = new GsonBuilder().disableHtmlEscaping().create();
+
+    private int iterations;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        if (!Boolean.getBoolean("dto.benchmark")) {
+            throw new SkipException("Property dto.benchmark is not set");
+        }
+        iterations = Integer.getInteger("dto.benchmark.iterations", 10000);
+    }
+
+    @Test
+    public void workspace() throws Exception {
+        compare(createWorkspace(), WorkspaceDto.class, WorkspaceDtoImpl::fromJsonElement);
+    }
+
+    @Test
+    public void machine() throws Exception {
+        compare(createMachine(0), MachineDto.class, MachineDtoImpl::fromJsonElement);
+    }
+
+    @Test
+    public void itemReferences() throws Exception {
+        final List<ItemReference> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(createItem(i));
+        }
+        // project service returns children of folder as list
+        final String json = writeStreaming(items);
+        assertEquals(json, writeTree(items));
+        assertEquals(new ArrayList<>(dtoFactory.createListDtoFromJson(new StringReader(json), ItemReference.class)), items);
+
+        final long treeWrite = time(() -> writeTree(items));
+        final long streamingWrite = time(() -> writeStreaming(items));
+        final long treeRead = time(() -> {
+            final List<ItemReference> result = new ArrayList<>(ITEMS);
+            for (JsonElement element : new JsonParser().parse(new StringReader(json)).getAsJsonArray()) {
+                result.add(ItemReferenceImpl.fromJsonElement(element));
+            }
+        });
+        final long streamingRead = time(() -> dtoFactory.createListDtoFromJson(new StringReader(json), ItemReference.class));
+        LOG.info("{} x list of {} ItemReference ({} chars): write tree {} ms, streaming {} ms; read tree {} ms, streaming {} ms",
+                 iterations, ITEMS, json.length(), treeWrite, streamingWrite, treeRead, streamingRead);
+    }
+
+    private <T> void compare(T dto, Class<T> dtoInterface, Function<JsonElement, T> treeReader) throws Exception {
+        final String json = dtoFactory.toJson(dto);
+        assertEquals(json, gson.toJson(dtoFactory.toJsonElement(dto)));
+        assertEquals(dtoFactory.createDtoFromJson(new StringReader(json), dtoInterface), dto);
+        assertEquals(treeReader.apply(new JsonParser().parse(json)), dto);
+
+        final long treeWrite = time(() -> gson.toJson(dtoFactory.toJsonElement(dto), new StringWriter()));
+        final long streamingWrite = time(() -> ((JsonSerializable)dto).toJson(new StringWriter()));
+        final long treeRead = time(() -> treeReader.apply(new JsonParser().parse(new StringReader(json))));
+        final long streamingRead = time(() -> dtoFactory.createDtoFromJson(new StringReader(json), dtoInterface));
+        LOG.info("{} x {} ({} chars): write tree {} ms, streaming {} ms; read tree {} ms, streaming {} ms",
+                 iterations, dtoInterface.getSimpleName(), json.length(), treeWrite, streamingWrite, treeRead, streamingRead);
+    }
+
+    /** Writes list of DTOs through {@link JsonArray} of elements of DTOs. */
+    private String writeTree(List<ItemReference> items) {
+        final JsonArray array = new JsonArray();
+        for (ItemReference item : items) {
+            array.add(dtoFactory.toJsonElement(item));
+        }
+        final StringWriter writer = new StringWriter();
+        gson.toJson(array, writer);
+        return writer.toString();
+    }
+
+    /** Writes list of DTOs element by element the same way as {@code CheJsonProvider} does. */
+    private static String writeStreaming(List<ItemReference> items) throws IOException {
+        final StringWriter writer = new StringWriter();
+        writer.write('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            ((JsonSerializable)items.get(i)).toJson(writer);
+        }
+        writer.write(']');
+        return writer.toString();
+    }
+
+    private static WorkspaceDto createWorkspace() {
+        final List<MachineDto> machines = new ArrayList<>(MACHINES);
+        final List<MachineConfigDto> machineConfigs = new ArrayList<>(MACHINES);
+        for (int i = 0; i < MACHINES; i++) {
+            final MachineDto machine = createMachine(i);
+            machines.add(machine);
+            machineConfigs.add(machine.getConfig());
+        }
+        final List<ProjectConfigDto> projects = new ArrayList<>(PROJECTS);
+        final List<CommandDto> commands = new ArrayList<>(PROJECTS);
+        for (int i = 0; i < PROJECTS; i++) {
+            final Map<String, List<String>> attributes = new HashMap<>();
+            attributes.put("language", singletonList("java"));
+            attributes.put("maven.source.folder", asList("src/main/java", "src/main/resources"));
+            projects.add(newDto(ProjectConfigDto.class).withName("project" + i)
+                                                       .withPath("/project" + i)
+                                                       .withDescription("benchmark project \"" + i + '"')
+                                                       .withType("maven")
+                                                       .withMixins(asList("git", "pullrequest"))
+                                                       .withAttributes(attributes)
+                                                       .withSource(newDto(SourceStorageDto.class)
+                                                                           .withType("git")
+                                                                           .withLocation("https://github.com/codenvy/project" + i + ".git"))
+                                                       .withLinks(createLinks("/project/project" + i)));
+            commands.add(newDto(CommandDto.class).withName("build project" + i)
+                                                 .withType("mvn")
+                                                 .withCommandLine("mvn -f ${current.project.path} clean install")
+                                                 .withAttributes(singletonMap("previewUrl", "http://localhost:8080/project" + i)));
+        }
+        return newDto(WorkspaceDto.class).withId("workspace123")
+                                         .withNamespace("user123")
+                                         .withStatus(WorkspaceStatus.RUNNING)
+                                         .withAttributes(singletonMap("stackId", "java-default"))
+                                         .withConfig(newDto(WorkspaceConfigDto.class)
+                                                             .withName("benchmark")
+                                                             .withDescription("benchmark workspace")
+                                                             .withDefaultEnv("default")
+                                                             .withCommands(commands)
+                                                             .withProjects(projects)
+                                                             .withEnvironments(singletonList(newDto(EnvironmentDto.class)
+                                                                                                     .withName("default")
+                                                                                                     .withRecipe(newDto(RecipeDto.class)
+                                                                                                                         .withType("dockerfile")
+                                                                                                                         .withScript("FROM codenvy/ubuntu_jdk8"))
+                                                                                                     .withMachineConfigs(machineConfigs))))
+                                         .withRuntime(newDto(WorkspaceRuntimeDto.class).withActiveEnv("default")
+                                                                                       .withRootFolder("/projects")
+                                                                                       .withDevMachine(machines.get(0))
+                                                                                       .withMachines(machines))
+                                         .withLinks(createLinks("/workspace/workspace123"));
+    }
+
+    private static MachineDto createMachine(int index) {
+        final Map<String, ServerDto> servers = new HashMap<>();
+        final List<ServerConfDto> serverConfs = new ArrayList<>();
+        for (String port : asList("4401/tcp", "4403/tcp", "8080/tcp", "8000/tcp", "22/tcp")) {
+            servers.put(port, newDto(ServerDto.class).withRef("server" + port)
+                                                     .withProtocol("http")
+                                                     .withAddress("192.168.0.1:3" + port.substring(0, 4))
+                                                     .withUrl("http://192.168.0.1:3" + port.substring(0, 4) + "/api")
+                                                     .withPath("/api"));
+            serverConfs.add(newDto(ServerConfDto.class).withRef("server" + port).withPort(port).withProtocol("http"));
+        }
+        final Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            properties.put("config.property" + i, "value of property " + i);
+        }
+        return newDto(MachineDto.class).withId("machine" + index)
+                                       .withWorkspaceId("workspace123")
+                                       .withEnvName("default")
+                                       .withOwner("user123")
+                                       .withStatus(MachineStatus.RUNNING)
+                                       .withConfig(newDto(MachineConfigDto.class)
+                                                           .withName("machine" + index)
+                                                           .withType("docker")
+                                                           .withDev(index == 0)
+                                                           .withSource(newDto(MachineSourceDto.class)
+                                                                               .withType("dockerfile")
+                                                                               .withLocation("http://localhost:8080/api/recipe/recipe" + index))
+                                                           .withLimits(newDto(LimitsDto.class).withRam(2048))
+                                                           .withServers(serverConfs)
+                                                           .withEnvVariables(singletonMap("CHE_LOCAL_CONF_DIR", "/mnt/che/conf")))
+                                       .withRuntime(newDto(MachineRuntimeInfoDto.class)
+                                                            .withEnvVariables(singletonMap("JAVA_HOME", "/opt/jdk1.8.0_45"))
+                                                            .withProperties(properties)
+                                                            .withServers(servers))
+                                       .withLinks(createLinks("/machine/machine" + index));
+    }
+
+    private static ItemReference createItem(int index) {
+        return newDto(ItemReference.class).withName("File" + index + ".java")
+                                          .withType("file")
+                                          .withProject("/project")
+                                          .withPath("/project/src/main/java/org/example/File" + index + ".java")
+                                          .withModified(1460000000000L + index)
+                                          .withContentLength(1024 + index)
+                                          .withAttributes(singletonMap("vcs.status", "modified"))
+                                          .withLinks(createLinks("/project/file/project/src/main/java/org/example/File" + index + ".java"));
+    }
+
+    private static List<Link> createLinks(String path) {
+        final List<Link> links = new ArrayList<>();
+        for (String rel : asList("self", "update", "delete", "get content")) {
+            links.add(newDto(Link.class).withRel(rel)
+                                        .withHref("http://localhost:8080/api" + path + '/' + rel.replace(' ', '-'))
+                                        .withMethod("GET")
+                                        .withProduces("application/json"));
+        }
+        return links;
+    }
+
+    /** Runs action configured number of times after warm up run, returns time of runs. */
+    private long time(Action action) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+}
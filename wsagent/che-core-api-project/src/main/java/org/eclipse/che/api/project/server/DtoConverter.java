@@ -19,7 +19,9 @@ import org.eclipse.che.api.project.shared.dto.AttributeDto;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.ProjectImporterDescriptor;
 import org.eclipse.che.api.project.shared.dto.ProjectTypeDto;
+import org.eclipse.che.api.project.shared.dto.SearchMatch;
 import org.eclipse.che.api.project.shared.dto.ValueDto;
+import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.api.workspace.shared.dto.ProjectConfigDto;
 import org.eclipse.che.api.workspace.shared.dto.ProjectProblemDto;
 import org.eclipse.che.api.workspace.shared.dto.SourceStorageDto;
@@ -94,6 +96,24 @@ public class DtoConverter {
                                           .withModified(folder.getModified());
     }
 
+    /** Converts {@link SearchResultEntry.Match} to {@link SearchMatch}. */
+    public static SearchMatch asDto(SearchResultEntry.Match match) {
+        return newDto(SearchMatch.class).withLineNumber(match.getLineNumber())
+                                        .withStartOffset(match.getStartOffset())
+                                        .withEndOffset(match.getEndOffset());
+    }
+
+    /**
+     * Converts {@link VirtualFileEntry} to {@link ItemReference} that contains only name, path and type of item. Unlike {@code asDto}
+     * methods it doesn't compute attributes of item.
+     */
+    public static ItemReference asBriefDto(VirtualFileEntry entry) {
+        final String type = entry.isFile() ? "file" : entry.isProject() ? "project" : "folder";
+        return newDto(ItemReference.class).withName(entry.getName())
+                                          .withPath(entry.getPath().toString())
+                                          .withType(type);
+    }
+
     /**
      * The method tries to provide as much as possible information about project. If get error then save information about error
      * with 'problems' field in ProjectConfigDto.
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+
+/**
+ * Builds response with content of file that supports conditional requests ({@code If-None-Match}, {@code If-Modified-Since}) and
+ * single byte range requests ({@code Range}, {@code If-Range}). Entity tag is computed from modification date and length of file, so
+ * content of file isn't read to check whether client has actual copy of it.
+ *
+ * <p>Content of local files is copied with {@link FileChannel#transferTo} or, if servlet container supports it, is sent by container
+ * itself with sendfile. In tail mode content is streamed while file grows, it is useful for logs that are still written.
+ */
+class FileContentResponse {
+    static final String SENDFILE_SUPPORT_ATTR  = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR    = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR      = "org.apache.tomcat.sendfile.end";
+
+    static final int PARTIAL_CONTENT                 = 206;
+    static final int REQUESTED_RANGE_NOT_SATISFIABLE = 416;
+
+    /** Tail mode stops when file doesn't grow during this time. */
+    static final long TAIL_IDLE_TIMEOUT_MS  = 30_000;
+    static final long TAIL_POLL_INTERVAL_MS = 500;
+
+    private static final String BYTES_UNIT = "bytes";
+
+    private final VirtualFile virtualFile;
+    private final String      mediaType;
+
+    FileContentResponse(VirtualFile virtualFile, String mediaType) {
+        this.virtualFile = virtualFile;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Builds response with whole content of file or with range of bytes requested by {@code Range} header.
+     *
+     * @param request
+     *         request to evaluate preconditions
+     * @param headers
+     *         headers of request
+     * @param servletRequest
+     *         servlet request to check support of sendfile, may be {@code null}
+     */
+    Response.ResponseBuilder build(Request request, HttpHeaders headers, HttpServletRequest servletRequest)
+            throws ServerException, ForbiddenException {
+        final long length = virtualFile.getLength();
+        final Date lastModified = new Date(virtualFile.getLastModificationDate());
+        final EntityTag entityTag = entityTag(virtualFile);
+
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag);
+        }
+
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+        final String range = headers.getHeaderString("Range");
+        final String ifRange = headers.getHeaderString("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(entityTag.toString()))) {
+            final long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                return Response.status(REQUESTED_RANGE_NOT_SATISFIABLE)
+                               .header("Content-Range", BYTES_UNIT + " */" + length);
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                partial = true;
+            }
+        }
+
+        final long count = end - start + 1;
+        final Response.ResponseBuilder builder = Response.status(partial ? PARTIAL_CONTENT : Response.Status.OK.getStatusCode())
+                                                         .type(mediaType)
+                                                         .tag(entityTag)
+                                                         .lastModified(lastModified)
+                                                         .header("Accept-Ranges", BYTES_UNIT)
+                                                         .header(HttpHeaders.CONTENT_LENGTH, Long.toString(count));
+        if (partial) {
+            builder.header("Content-Range", BYTES_UNIT + ' ' + start + '-' + end + '/' + length);
+        }
+
+        final File ioFile = virtualFile.toIoFile();
+        if (ioFile != null && isSendfileSupported(servletRequest)) {
+            // container sends content of file itself after request is processed
+            servletRequest.setAttribute(SENDFILE_FILENAME_ATTR, ioFile.getAbsolutePath());
+            servletRequest.setAttribute(SENDFILE_START_ATTR, start);
+            servletRequest.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return builder;
+        }
+        return builder.entity(ioFile != null ? transferFile(ioFile, start, count) : copyContent(start, count));
+    }
+
+    /**
+     * Builds response that streams content of file starting from {@code offset} and then streams bytes appended to the file until it
+     * doesn't grow during {@link #TAIL_IDLE_TIMEOUT_MS}. Response doesn't have length, so it is sent in chunks.
+     *
+     * @param offset
+     *         position to start from, negative value is counted from the end of file
+     */
+    Response.ResponseBuilder tail(long offset) throws ServerException, ForbiddenException {
+        final File ioFile = virtualFile.toIoFile();
+        if (ioFile == null) {
+            throw new ForbiddenException("Tail mode is supported only for files of local file system");
+        }
+        final long length = virtualFile.getLength();
+        final long start = offset < 0 ? Math.max(0, length + offset) : Math.min(offset, length);
+        final StreamingOutput output = out -> {
+            try (FileChannel channel = FileChannel.open(ioFile.toPath(), StandardOpenOption.READ)) {
+                final WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                long lastGrowth = System.currentTimeMillis();
+                while (true) {
+                    final long size = channel.size();
+                    if (size < position) {
+                        // file is truncated, e.g. log is rotated
+                        position = 0;
+                    }
+                    if (size > position) {
+                        position += channel.transferTo(position, size - position, target);
+                        out.flush();
+                        lastGrowth = System.currentTimeMillis();
+                    } else if (System.currentTimeMillis() - lastGrowth > TAIL_IDLE_TIMEOUT_MS) {
+                        break;
+                    } else {
+                        try {
+                            Thread.sleep(TAIL_POLL_INTERVAL_MS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+            }
+        };
+        return Response.ok(output, mediaType).header("Cache-Control", "no-cache");
+    }
+
+    /** Entity tag computed from modification date and length of file. */
+    static EntityTag entityTag(VirtualFile virtualFile) throws ServerException {
+        return new EntityTag(Long.toHexString(virtualFile.getLastModificationDate()) + '-' + Long.toHexString(virtualFile.getLength()));
+    }
+
+    /**
+     * Parses single byte range, e.g. {@code bytes=0-499}, {@code bytes=500-} or {@code bytes=-500}.
+     *
+     * @return array with first and last positions of range, empty array if range should be ignored, e.g. it has unknown units, is
+     * malformed or contains multiple ranges, or {@code null} if range is not satisfiable
+     */
+    static long[] parseRange(String range, long length) {
+        if (!range.startsWith(BYTES_UNIT + '=')) {
+            return new long[0];
+        }
+        final String spec = range.substring(BYTES_UNIT.length() + 1).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        final long first;
+        final long last;
+        try {
+            if (dash == 0) {
+                final long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                first = Math.max(0, length - suffix);
+                last = length - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                last = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+        if (first < 0 || first > last) {
+            return first >= length ? null : new long[0];
+        }
+        return new long[]{first, last};
+    }
+
+    private static boolean isSendfileSupported(HttpServletRequest servletRequest) {
+        return servletRequest != null && Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORT_ATTR));
+    }
+
+    private static StreamingOutput transferFile(File file, long start, long count) {
+        return out -> {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                final WritableByteChannel target = Channels.newChannel(out);
+                long position = start;
+                final long end = start + count;
+                while (position < end) {
+                    final long transferred = channel.transferTo(position, end - position, target);
+                    if (transferred <= 0) {
+                        // file is truncated while it is sent
+                        break;
+                    }
+                    position += transferred;
+                }
+            }
+        };
+    }
+
+    private StreamingOutput copyContent(long start, long count) throws ServerException, ForbiddenException {
+        final InputStream content = virtualFile.getContent();
+        return out -> {
+            try (InputStream in = content) {
+                ByteStreams.skipFully(in, start);
+                ByteStreams.copy(ByteStreams.limit(in, count), out);
+            }
+        };
+    }
+}
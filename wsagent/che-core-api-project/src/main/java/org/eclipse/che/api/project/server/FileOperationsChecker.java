@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.project.shared.dto.FileOperation;
+import org.eclipse.che.api.vfs.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks preconditions of batch of file operations before any of them is applied, so batch that would fail in the middle because of
+ * invalid operation is rejected without changes. Each operation is checked against the state of items after all preceding operations of
+ * the batch, e.g. file created by batch may be updated by the next operation of the same batch.
+ *
+ * <p>Items touched by operations must be locked while batch is checked and applied, see {@link ProjectManager#acquireLocks}.
+ */
+class FileOperationsChecker {
+    private enum Kind {
+        NONE, FILE, FOLDER
+    }
+
+    private final ProjectManager      projectManager;
+    private final List<FileOperation> checked;
+
+    FileOperationsChecker(ProjectManager projectManager) {
+        this.projectManager = projectManager;
+        this.checked = new ArrayList<>();
+    }
+
+    /**
+     * Checks that operation may be applied after operations that are checked before.
+     *
+     * @throws NotFoundException
+     *         if item which operation requires doesn't exist
+     * @throws ConflictException
+     *         if item which operation creates already exists
+     * @throws ForbiddenException
+     *         if operation isn't allowed for item, e.g. folder is moved into itself
+     */
+    void check(FileOperation operation) throws ApiException {
+        final Path path = pathOf(operation.getPath());
+        switch (operation.getType()) {
+            case CREATE:
+                for (Path parent = path.getParent(); !parent.isRoot(); parent = parent.getParent()) {
+                    final Kind kind = kindOf(parent);
+                    if (kind == Kind.FILE) {
+                        throw new ConflictException(String.format("Unable create file '%s'. Item '%s' is a file", path, parent));
+                    } else if (kind == Kind.FOLDER) {
+                        break;
+                    }
+                }
+                if (kindOf(path) != Kind.NONE) {
+                    throw new ConflictException(String.format("Item '%s' already exists", path));
+                }
+                break;
+            case UPDATE:
+                final Kind kind = kindOf(path);
+                if (kind == Kind.NONE) {
+                    throw new NotFoundException("File not found for " + path);
+                } else if (kind == Kind.FOLDER) {
+                    throw new NotFoundException(String.format("Item '%s' isn't a file. ", path));
+                }
+                break;
+            case MOVE:
+                final Kind source = kindOf(path);
+                if (source == Kind.NONE) {
+                    throw new NotFoundException("Item not found " + path);
+                }
+                final Path target = targetOf(operation);
+                final Path newParent = target.getParent();
+                final Kind parentKind = kindOf(newParent);
+                if (parentKind == Kind.NONE) {
+                    throw new NotFoundException("New parent not found " + newParent);
+                } else if (parentKind == Kind.FILE) {
+                    throw new ForbiddenException("Unable move. Item specified as parent is not a folder");
+                }
+                if (newParent.equals(path) || target.equals(path) || (source == Kind.FOLDER && newParent.isChild(path))) {
+                    throw new ForbiddenException(String.format("Unable move item '%s' to '%s'. Item may not have itself as parent",
+                                                               path, newParent));
+                }
+                if (!operation.isOverwrite() && kindOf(target) != Kind.NONE) {
+                    throw new ConflictException(String.format("Item '%s' already exists", target));
+                }
+                if (!isInsideProject(target)) {
+                    throw new NotFoundException("Parent project not found " + target);
+                }
+                break;
+            case DELETE:
+                if (kindOf(path) == Kind.NONE) {
+                    throw new NotFoundException("Item not found " + path);
+                }
+                break;
+        }
+        checked.add(operation);
+    }
+
+    private Kind kindOf(Path path) throws ServerException, NotFoundException {
+        return kindOf(path, checked.size());
+    }
+
+    /** Gets kind of item after the first {@code applied} checked operations. */
+    private Kind kindOf(Path path, int applied) throws ServerException, NotFoundException {
+        if (applied == 0) {
+            final VirtualFileEntry entry = projectManager.asVirtualFileEntry(path.toString());
+            return entry == null ? Kind.NONE : entry.isFile() ? Kind.FILE : Kind.FOLDER;
+        }
+        final FileOperation operation = checked.get(applied - 1);
+        final Path operationPath = pathOf(operation.getPath());
+        switch (operation.getType()) {
+            case CREATE:
+                if (path.equals(operationPath)) {
+                    return Kind.FILE;
+                }
+                final Kind kind = kindOf(path, applied - 1);
+                // missing parents are created as folders
+                return kind == Kind.NONE && operationPath.isChild(path) ? Kind.FOLDER : kind;
+            case MOVE:
+                final Path target = targetOf(operation);
+                if (path.equals(target)) {
+                    return kindOf(operationPath, applied - 1);
+                } else if (path.isChild(target)) {
+                    return kindOf(operationPath.newPath(path.subPath(target)), applied - 1);
+                }
+                if (path.equals(operationPath) || path.isChild(operationPath)) {
+                    return Kind.NONE;
+                }
+                return kindOf(path, applied - 1);
+            case DELETE:
+                if (path.equals(operationPath) || path.isChild(operationPath)) {
+                    return Kind.NONE;
+                }
+                return kindOf(path, applied - 1);
+            default:
+                return kindOf(path, applied - 1);
+        }
+    }
+
+    private boolean isInsideProject(Path path) throws ServerException {
+        for (RegisteredProject project : projectManager.getProjects()) {
+            final Path projectPath = Path.of(project.getPath());
+            if (path.equals(projectPath) || path.isChild(projectPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Gets path of item after MOVE operation. */
+    private static Path targetOf(FileOperation operation) {
+        final Path path = pathOf(operation.getPath());
+        final Path newParent = operation.getTo() == null ? path.getParent() : pathOf(operation.getTo());
+        return newParent.newPath(operation.getName() == null ? path.getName() : operation.getName());
+    }
+
+    private static Path pathOf(String path) {
+        return Path.of(ProjectRegistry.absolutizePath(path));
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Keeps sorted children of folders of local file system. Listing of folder is valid while modification date of folder is the same as
+ * it was when the folder was listed, in addition, listings are invalidated by events of file watcher.
+ * <p/>
+ * Folders that aren't backed by local file system are listed every time, since their modification date may be not updated when
+ * children are added or removed.
+ * <p/>
+ * The same instance is used by {@link ProjectRegistry} for listing of {@link FolderEntry} children and by {@link ProjectManager}
+ * for invalidating of listings on file watcher events.
+ */
+@Singleton
+public class FolderChildrenCache {
+    /** Max summary number of children that are kept in cache. */
+    static final long MAX_CACHED_CHILDREN             = 200_000;
+    /** Listings of folders that are modified recently aren't cached, some file systems keep modification date with seconds precision. */
+    static final long MODIFICATION_DATE_RESOLUTION_MS = 2000;
+
+    private final Cache<File, Listing> listings;
+
+    @Inject
+    public FolderChildrenCache() {
+        this(MAX_CACHED_CHILDREN);
+    }
+
+    FolderChildrenCache(long maxCachedChildren) {
+        listings = CacheBuilder.newBuilder()
+                               .maximumWeight(maxCachedChildren)
+                               .weigher((File folder, Listing listing) -> listing.children.size() + 1)
+                               .build();
+    }
+
+    /** Gets children of folder in the same order as {@link VirtualFile#getChildren()} returns them. */
+    List<VirtualFile> getChildren(VirtualFile folder) throws ServerException {
+        final File ioFolder = folder.toIoFile();
+        if (ioFolder == null) {
+            return folder.getChildren();
+        }
+        // read modification date before listing, so changes made while folder is listed make listing out of date
+        final long modified = folder.getLastModificationDate();
+        Listing listing = listings.getIfPresent(ioFolder);
+        if (listing == null || listing.modified != modified) {
+            listing = new Listing(modified, unmodifiableList(folder.getChildren()));
+            if (System.currentTimeMillis() - modified > MODIFICATION_DATE_RESOLUTION_MS) {
+                listings.put(ioFolder, listing);
+            } else {
+                // folder may be changed again without change of its modification date
+                listings.invalidate(ioFolder);
+            }
+        }
+        return listing.children;
+    }
+
+    /** Removes cached listing of folder. */
+    void invalidate(File folder) {
+        listings.invalidate(folder);
+    }
+
+    private static class Listing {
+        final long              modified;
+        final List<VirtualFile> children;
+
+        Listing(long modified, List<VirtualFile> children) {
+            this.modified = modified;
+            this.children = children;
+        }
+    }
+}
@@ -33,6 +33,8 @@ public class FolderEntry extends VirtualFileEntry {
     private static final VirtualFileFilter FILES_FILTER       = VirtualFile::isFile;
     private static final VirtualFileFilter FILE_FOLDER_FILTER = file -> (file.isFile() || file.isFolder());
 
+    private final FolderChildrenCache childrenCache;
+
     /**
      * Project's folder
      *
@@ -40,10 +42,17 @@ public class FolderEntry extends VirtualFileEntry {
      */
     public FolderEntry(VirtualFile virtualFile) {
         super(virtualFile);
+        this.childrenCache = null;
     }
 
     public FolderEntry(VirtualFile virtualFile, ProjectRegistry registry) throws ServerException {
+        this(virtualFile, registry, registry == null ? null : registry.getChildrenCache());
+    }
+
+    /** Children of folder are listed with {@code childrenCache}, or every time if it is {@code null}. */
+    FolderEntry(VirtualFile virtualFile, ProjectRegistry registry, FolderChildrenCache childrenCache) throws ServerException {
         super(virtualFile, registry);
+        this.childrenCache = childrenCache;
     }
 
     /**
@@ -64,7 +73,7 @@ public class FolderEntry extends VirtualFileEntry {
         if (child.isFile()) {
             return new FileEntry(child, projectRegistry);
         } else {
-            return new FolderEntry(child, projectRegistry);
+            return new FolderEntry(child, projectRegistry, childrenCache);
         }
     }
 
@@ -83,7 +92,7 @@ public class FolderEntry extends VirtualFileEntry {
         if (child == null || child.isFile()) {
             return null;
         } else {
-            return new FolderEntry(child, projectRegistry);
+            return new FolderEntry(child, projectRegistry, childrenCache);
         }
     }
 
@@ -104,10 +113,11 @@ public class FolderEntry extends VirtualFileEntry {
      *         if an error occurs
      */
     public List<FileEntry> getChildFiles() throws ServerException {
-        List<VirtualFile> vfChildren = getVirtualFile().getChildren(FILES_FILTER);
         final List<FileEntry> children = new ArrayList<>();
-        for (VirtualFile c : vfChildren) {
-            children.add(new FileEntry(c, projectRegistry));
+        for (VirtualFile c : listChildren()) {
+            if (FILES_FILTER.accept(c)) {
+                children.add(new FileEntry(c, projectRegistry));
+            }
         }
         return children;
     }
@@ -119,10 +129,11 @@ public class FolderEntry extends VirtualFileEntry {
      *         if an error occurs
      */
     public List<FolderEntry> getChildFolders() throws ServerException {
-        List<VirtualFile> vfChildren = getVirtualFile().getChildren(FOLDER_FILTER);
         final List<FolderEntry> children = new ArrayList<>();
-        for (VirtualFile c : vfChildren) {
-            children.add(new FolderEntry(c, projectRegistry));
+        for (VirtualFile c : listChildren()) {
+            if (FOLDER_FILTER.accept(c)) {
+                children.add(new FolderEntry(c, projectRegistry, childrenCache));
+            }
         }
         return children;
     }
@@ -139,19 +150,68 @@ public class FolderEntry extends VirtualFileEntry {
     }
 
     public List<VirtualFileEntry> getChildren(VirtualFileFilter filter) throws ServerException {
-        final List<VirtualFile> vfChildren = getVirtualFile().getChildren(filter);
+        return getChildren(filter, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets page of children of this folder. Children are sorted in the same order as {@link #getChildren()} returns them: folders
+     * first, then files, each group by name. Position in this order is identified by {@link #sortKey(VirtualFileEntry) sort key} of
+     * child, so paging isn't broken when children are added or removed between requests.
+     *
+     * @param filter
+     *         only children that match to this filter are returned
+     * @param afterKey
+     *         sort key of the last child of previous page, page starts from the first child if {@code null}
+     * @param maxItems
+     *         max number of children in page
+     * @throws ServerException
+     *         if an error occurs
+     */
+    public List<VirtualFileEntry> getChildren(VirtualFileFilter filter, String afterKey, int maxItems) throws ServerException {
+        final List<VirtualFile> vfChildren = listChildren();
+
+        int from = 0;
+        if (afterKey != null) {
+            int to = vfChildren.size();
+            while (from < to) {
+                final int middle = (from + to) >>> 1;
+                final VirtualFile vf = vfChildren.get(middle);
+                if (sortKey(vf.isFolder(), vf.getName()).compareTo(afterKey) <= 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+        }
 
         final List<VirtualFileEntry> children = new ArrayList<>();
-        for (VirtualFile vf : vfChildren) {
+        for (int i = from; i < vfChildren.size() && children.size() < maxItems; i++) {
+            final VirtualFile vf = vfChildren.get(i);
+            if (!filter.accept(vf)) {
+                continue;
+            }
             if (vf.isFile()) {
                 children.add(new FileEntry(vf, projectRegistry));
             } else {
-                children.add(new FolderEntry(vf, projectRegistry));
+                children.add(new FolderEntry(vf, projectRegistry, childrenCache));
             }
         }
         return children;
     }
 
+    /**
+     * Gets key which orders children in the same way as {@link VirtualFile#compareTo(Object)} does.
+     *
+     * @see #getChildren(VirtualFileFilter, String, int)
+     */
+    public static String sortKey(VirtualFileEntry child) {
+        return sortKey(child.isFolder(), child.getName());
+    }
+
+    private static String sortKey(boolean folder, String name) {
+        return (folder ? '0' : '1') + name;
+    }
+
     /**
      * Creates new file in this folder.
      *
@@ -212,7 +272,11 @@ public class FolderEntry extends VirtualFileEntry {
      *         if other error occurs
      */
     public FolderEntry createFolder(String name) throws ConflictException, ServerException, ForbiddenException {
-        return new FolderEntry(getVirtualFile().createFolder(name), projectRegistry);
+        return new FolderEntry(getVirtualFile().createFolder(name), projectRegistry, childrenCache);
+    }
+
+    private List<VirtualFile> listChildren() throws ServerException {
+        return childrenCache == null ? getVirtualFile().getChildren() : childrenCache.getChildren(getVirtualFile());
     }
 
     private boolean isRoot(VirtualFile virtualFile) {
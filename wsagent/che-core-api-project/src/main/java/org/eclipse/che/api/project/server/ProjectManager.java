@@ -37,6 +37,7 @@ import org.eclipse.che.api.project.server.type.ValueStorageException;
 import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
 import org.eclipse.che.api.project.shared.dto.event.VfsWatchEvent;
 import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.PathLockFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
@@ -54,12 +55,15 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.PathMatcher;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -72,6 +76,9 @@ import java.util.concurrent.Executors;
 public final class ProjectManager {
     private static final Logger LOG = LoggerFactory.getLogger(ProjectManager.class);
 
+    /** Max time to wait for lock of item, in milliseconds. */
+    private static final long WAIT_FOR_LOCK_TIMEOUT = 60000;
+
     private final VirtualFileSystem              vfs;
     private final EventService                   eventService;
     private final ProjectTypeRegistry            projectTypeRegistry;
@@ -80,6 +87,7 @@ public final class ProjectManager {
     private final ProjectImporterRegistry        importers;
     private final FileTreeWatcher                fileWatcher;
     private final FileWatcherNotificationHandler fileWatchNotifier;
+    private final FolderChildrenCache            childrenCache;
     private final ExecutorService                executor;
 
     @Inject
@@ -90,7 +98,8 @@ public final class ProjectManager {
                           ProjectHandlerRegistry handlers,
                           ProjectImporterRegistry importers,
                           FileWatcherNotificationHandler fileWatcherNotificationHandler,
-                          FileTreeWatcher fileTreeWatcher) throws ServerException {
+                          FileTreeWatcher fileTreeWatcher,
+                          FolderChildrenCache childrenCache) throws ServerException {
         this.vfs = vfsProvider.getVirtualFileSystem();
         this.eventService = eventService;
         this.projectTypeRegistry = projectTypeRegistry;
@@ -99,6 +108,7 @@ public final class ProjectManager {
         this.importers = importers;
         this.fileWatchNotifier = fileWatcherNotificationHandler;
         this.fileWatcher = fileTreeWatcher;
+        this.childrenCache = childrenCache;
         executor = Executors.newFixedThreadPool(1 + Runtime.getRuntime().availableProcessors(),
                                                 new ThreadFactoryBuilder().setNameFormat("ProjectService-IndexingThread-")
                                                                           .setDaemon(true).build());
@@ -114,6 +124,11 @@ public final class ProjectManager {
                                                .withPath(virtualFile.getPath().toString())
                                                .withFile(virtualFile.isFile())
                                                .withType(eventType));
+                final File ioFile = virtualFile.toIoFile();
+                if (ioFile != null && eventType != FileWatcherEventType.MODIFIED) {
+                    childrenCache.invalidate(ioFile.getParentFile());
+                    childrenCache.invalidate(ioFile);
+                }
             }
         };
         fileWatchNotifier.addNotificationListener(defaultListener);
@@ -484,6 +499,41 @@ public final class ProjectManager {
         return move;
     }
 
+    /**
+     * Gets exclusive locks for all items in order of their paths, so callers that lock overlapping sets of items can't deadlock each
+     * other. Parent is always locked before its descendants. Locks must be released with {@link #releaseLocks(List)}.
+     *
+     * @param paths
+     *         paths of items to lock, items may not exist
+     * @return acquired locks
+     * @throws ServerException
+     *         if any lock can't be acquired in time, in this case no locks are kept
+     */
+    List<PathLockFactory.PathLock> acquireLocks(Collection<String> paths) throws ServerException {
+        final TreeSet<String> sorted = new TreeSet<>();
+        for (String path : paths) {
+            sorted.add(ProjectRegistry.absolutizePath(path));
+        }
+        final PathLockFactory lockFactory = vfs.getPathLockFactory();
+        final List<PathLockFactory.PathLock> locks = new ArrayList<>(sorted.size());
+        try {
+            for (String path : sorted) {
+                locks.add(lockFactory.getLock(Path.of(path), true).acquire(WAIT_FOR_LOCK_TIMEOUT));
+            }
+        } catch (RuntimeException e) {
+            releaseLocks(locks);
+            throw new ServerException(e.getMessage(), e);
+        }
+        return locks;
+    }
+
+    /** Releases locks obtained with {@link #acquireLocks(Collection)}, in reverse order. */
+    void releaseLocks(List<PathLockFactory.PathLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).release();
+        }
+    }
+
     FolderEntry asFolder(String path) throws NotFoundException, ServerException {
         final VirtualFileEntry entry = asVirtualFileEntry(path);
         if (entry == null) {
@@ -52,6 +52,7 @@ public class ProjectRegistry {
     private final VirtualFileSystem              vfs;
     private final ProjectTypeRegistry            projectTypeRegistry;
     private final ProjectHandlerRegistry         handlers;
+    private final FolderChildrenCache            childrenCache;
     private final FolderEntry                    root;
 
     private boolean initialized;
@@ -60,13 +61,15 @@ public class ProjectRegistry {
     public ProjectRegistry(WorkspaceHolder workspaceHolder,
                            VirtualFileSystemProvider vfsProvider,
                            ProjectTypeRegistry projectTypeRegistry,
-                           ProjectHandlerRegistry handlers) throws ServerException {
+                           ProjectHandlerRegistry handlers,
+                           FolderChildrenCache childrenCache) throws ServerException {
         this.projects = new ConcurrentHashMap<>();
         this.workspaceHolder = workspaceHolder;
         this.vfs = vfsProvider.getVirtualFileSystem();
         this.projectTypeRegistry = projectTypeRegistry;
         this.handlers = handlers;
-        this.root = new FolderEntry(vfs.getRoot());
+        this.childrenCache = childrenCache;
+        this.root = new FolderEntry(vfs.getRoot(), null, childrenCache);
     }
 
     @PostConstruct
@@ -95,6 +98,11 @@ public class ProjectRegistry {
         }
     }
 
+    /** Returns cache of children of folders which is used by {@link FolderEntry folder entries} of this registry. */
+    FolderChildrenCache getChildrenCache() {
+        return childrenCache;
+    }
+
     /**
      * @return id of workspace this project belongs to
      */
@@ -18,6 +18,7 @@ import io.swagger.annotations.ApiResponses;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.tika.Tika;
+import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -31,13 +32,20 @@ import org.eclipse.che.api.core.rest.annotations.Description;
 import org.eclipse.che.api.core.rest.annotations.GenerateLink;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
 import org.eclipse.che.api.project.server.notification.ProjectItemModifiedEvent;
+import org.eclipse.che.api.project.server.notification.ProjectItemsModifiedEvent;
 import org.eclipse.che.api.project.server.type.ProjectTypeResolution;
+import org.eclipse.che.api.project.shared.dto.ChildrenPage;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
+import org.eclipse.che.api.project.shared.dto.FileOperation;
+import org.eclipse.che.api.project.shared.dto.FileOperationResult;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
+import org.eclipse.che.api.vfs.PathLockFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.api.vfs.VirtualFileFilter;
+import org.eclipse.che.api.vfs.search.ContentPattern;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
 import org.eclipse.che.api.vfs.search.SearchResultEntry;
@@ -52,6 +60,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -63,27 +72,40 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static javax.ws.rs.HttpMethod.DELETE;
 import static javax.ws.rs.HttpMethod.GET;
 import static javax.ws.rs.HttpMethod.PUT;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+import static org.eclipse.che.api.project.server.DtoConverter.asBriefDto;
 import static org.eclipse.che.api.project.server.DtoConverter.asDto;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_CHILDREN;
 import static org.eclipse.che.api.project.shared.Constants.LINK_REL_CREATE_PROJECT;
@@ -108,6 +130,9 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
 @Path("/project/{ws-id}")
 @Singleton
 public class ProjectService extends Service {
+    /** Header of search response which contains cursor for retrieving next page of search result. */
+    public static final String NEXT_PAGE_CURSOR_HEADER = "X-Next-Page-Cursor";
+
     private static final Logger LOG  = LoggerFactory.getLogger(ProjectService.class);
     private static final Tika   TIKA = new Tika();
 
@@ -460,19 +485,34 @@ public class ProjectService extends Service {
     }
 
     @ApiOperation(value = "Get file content",
-                  notes = "Get file content by its name")
+                  notes = "Get file content by its name. Supports conditional requests and single byte range requests. In tail mode " +
+                          "content is streamed while file grows, until it doesn't change during 30 seconds")
     @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 206, message = "Partial content"),
+                   @ApiResponse(code = 304, message = "Not modified"),
                    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
                    @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 416, message = "Requested range not satisfiable"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
     @GET
     @Path("/file/{path:.*}")
     public Response getFile(@ApiParam(value = "Workspace ID", required = true)
                             @PathParam("ws-id") String workspace,
                             @ApiParam(value = "Path to a file", required = true)
-                            @PathParam("path") String path) throws IOException, NotFoundException, ForbiddenException, ServerException {
+                            @PathParam("path") String path,
+                            @ApiParam(value = "Stream content while file grows")
+                            @DefaultValue("false") @QueryParam("tail") boolean tail,
+                            @ApiParam(value = "Position to start tail from, negative value is counted from the end of file")
+                            @DefaultValue("0") @QueryParam("offset") long offset,
+                            @Context Request request,
+                            @Context HttpHeaders headers,
+                            @Context HttpServletRequest servletRequest) throws NotFoundException, ForbiddenException, ServerException {
         final FileEntry file = projectManager.asFile(path);
-        return Response.ok().entity(file.getInputStream()).type(TIKA.detect(file.getName())).build();
+        if (file == null) {
+            throw new NotFoundException("File not found " + path);
+        }
+        final FileContentResponse content = new FileContentResponse(file.getVirtualFile(), TIKA.detect(file.getName()));
+        return (tail ? content.tail(offset) : content.build(request, headers, servletRequest)).build();
     }
 
     @PUT
@@ -602,6 +642,166 @@ public class ProjectService extends Service {
         return Response.created(location).build();
     }
 
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Apply batch of file operations",
+                  notes = "Apply create, update, move and delete operations in order. All affected items are locked and all operations " +
+                          "are checked before the first operation is applied, so invalid operation fails the batch without changes. One " +
+                          "notification is sent about all changes. If operation fails while it is applied, e.g. because of I/O error, " +
+                          "the following operations are skipped and changes made by operations that are already done are kept.")
+    @ApiResponses({@ApiResponse(code = 200, message = ""),
+                   @ApiResponse(code = 400, message = "Invalid operation"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public List<FileOperationResult> applyBatch(@ApiParam("Workspace ID") @PathParam("ws-id") String workspace,
+                                                @ApiParam(value = "Operations to apply", required = true)
+                                                List<FileOperation> operations) throws BadRequestException, ServerException {
+        if (operations == null || operations.isEmpty()) {
+            throw new BadRequestException("Operations are required");
+        }
+        final List<String> lockPaths = new ArrayList<>();
+        for (FileOperation operation : operations) {
+            lockPaths.addAll(getLockPaths(operation));
+        }
+
+        final List<FileOperationResult> results = new ArrayList<>(operations.size());
+        final List<ProjectItemModifiedEvent> events = new ArrayList<>();
+        final List<PathLockFactory.PathLock> locks = projectManager.acquireLocks(lockPaths);
+        try {
+            // preconditions of all operations are checked under locks, so invalid operation doesn't stop batch in the middle
+            final FileOperationsChecker checker = new FileOperationsChecker(projectManager);
+            int invalid = -1;
+            String error = null;
+            for (int i = 0; i < operations.size() && invalid < 0; i++) {
+                try {
+                    checker.check(operations.get(i));
+                } catch (ApiException e) {
+                    invalid = i;
+                    error = e.getMessage();
+                }
+            }
+            boolean failed = invalid >= 0;
+            for (int i = 0; i < operations.size(); i++) {
+                final FileOperation operation = operations.get(i);
+                final FileOperationResult result = newDto(FileOperationResult.class).withPath(operation.getPath());
+                if (i == invalid) {
+                    result.withStatus(FileOperationResult.Status.FAILED).setMessage(error);
+                } else if (failed) {
+                    result.setStatus(FileOperationResult.Status.SKIPPED);
+                } else {
+                    try {
+                        applyOperation(workspace, operation, events);
+                        result.setStatus(FileOperationResult.Status.DONE);
+                    } catch (ApiException e) {
+                        failed = true;
+                        result.withStatus(FileOperationResult.Status.FAILED).setMessage(e.getMessage());
+                    }
+                }
+                results.add(result);
+            }
+        } finally {
+            projectManager.releaseLocks(locks);
+            if (!events.isEmpty()) {
+                eventService.publish(new ProjectItemsModifiedEvent(workspace, events));
+            }
+        }
+        return results;
+    }
+
+    /** Checks operation and gets paths of items which must be locked while operation is applied. */
+    private List<String> getLockPaths(FileOperation operation) throws BadRequestException {
+        if (operation.getType() == null) {
+            throw new BadRequestException("Operation type is required");
+        }
+        if (isNullOrEmpty(operation.getPath())) {
+            throw new BadRequestException("Path is required for " + operation.getType() + " operation");
+        }
+        final org.eclipse.che.api.vfs.Path path = org.eclipse.che.api.vfs.Path.of(ProjectRegistry.absolutizePath(operation.getPath()));
+        if (path.isRoot()) {
+            throw new BadRequestException("Can't apply " + operation.getType() + " operation to root folder");
+        }
+        switch (operation.getType()) {
+            case CREATE:
+                return Collections.singletonList(path.getParent().toString());
+            case MOVE:
+                if (operation.getTo() == null && operation.getName() == null) {
+                    throw new BadRequestException("New parent or name is required for MOVE operation of " + path);
+                }
+                return Arrays.asList(path.toString(), operation.getTo() == null ? path.getParent().toString() : operation.getTo());
+            default:
+                return Collections.singletonList(path.toString());
+        }
+    }
+
+    private void applyOperation(String workspace, FileOperation operation, List<ProjectItemModifiedEvent> events) throws ApiException {
+        final String path = ProjectRegistry.absolutizePath(operation.getPath());
+        switch (operation.getType()) {
+            case CREATE: {
+                final org.eclipse.che.api.vfs.Path parentPath = org.eclipse.che.api.vfs.Path.of(path).getParent();
+                FolderEntry parent = projectManager.asFolder(parentPath.toString());
+                if (parent == null) {
+                    parent = projectManager.getProjectsRoot().createFolder(String.join("/", parentPath.elements()));
+                    events.add(new ProjectItemModifiedEvent(ProjectItemModifiedEvent.EventType.CREATED,
+                                                            workspace,
+                                                            parent.getProject(),
+                                                            parent.getPath().toString(),
+                                                            true));
+                }
+                final FileEntry newFile = parent.createFile(org.eclipse.che.api.vfs.Path.of(path).getName(), getContent(operation));
+                events.add(new ProjectItemModifiedEvent(ProjectItemModifiedEvent.EventType.CREATED,
+                                                        workspace,
+                                                        newFile.getProject(),
+                                                        newFile.getPath().toString(),
+                                                        false));
+                break;
+            }
+            case UPDATE: {
+                final FileEntry file = projectManager.asFile(path);
+                if (file == null) {
+                    throw new NotFoundException("File not found for " + path);
+                }
+                file.updateContent(getContent(operation));
+                events.add(new ProjectItemModifiedEvent(ProjectItemModifiedEvent.EventType.UPDATED,
+                                                        workspace,
+                                                        file.getProject(),
+                                                        file.getPath().toString(),
+                                                        false));
+                break;
+            }
+            case MOVE: {
+                final VirtualFileEntry entry = projectManager.asVirtualFileEntry(path);
+                if (entry == null) {
+                    throw new NotFoundException("Item not found " + path);
+                }
+                final String newName = operation.getName() == null ? entry.getName() : operation.getName();
+                final VirtualFileEntry move = projectManager.moveTo(path, operation.getTo(), newName, operation.isOverwrite());
+                events.add(new ProjectItemModifiedEvent(ProjectItemModifiedEvent.EventType.MOVED,
+                                                        workspace,
+                                                        move.getProject(),
+                                                        move.getPath().toString(),
+                                                        move.isFolder(),
+                                                        path));
+                break;
+            }
+            case DELETE: {
+                final VirtualFileEntry entry = projectManager.asVirtualFileEntry(path);
+                if (entry == null) {
+                    throw new NotFoundException("Item not found " + path);
+                }
+                final String project = entry.getProject();
+                final boolean folder = entry.isFolder();
+                projectManager.delete(path);
+                events.add(new ProjectItemModifiedEvent(ProjectItemModifiedEvent.EventType.DELETED, workspace, project, path, folder));
+                break;
+            }
+        }
+    }
+
+    private byte[] getContent(FileOperation operation) {
+        return operation.getContent() == null ? new byte[0] : operation.getContent().getBytes(StandardCharsets.UTF_8);
+    }
+
     @POST
     @Path("/upload/zipproject/{path:.*}")
     @Consumes({MediaType.MULTIPART_FORM_DATA})
@@ -737,7 +937,10 @@ public class ProjectService extends Service {
     public Response exportFile(@ApiParam(value = "Workspace ID", required = true)
                                @PathParam("ws-id") String workspace,
                                @ApiParam(value = "Path to resource to be imported")
-                               @PathParam("path") String path) throws NotFoundException, ForbiddenException, ServerException {
+                               @PathParam("path") String path,
+                               @Context Request request,
+                               @Context HttpHeaders headers,
+                               @Context HttpServletRequest servletRequest) throws NotFoundException, ForbiddenException, ServerException {
 
         final FileEntry file = projectManager.asFile(path);
 
@@ -747,11 +950,10 @@ public class ProjectService extends Service {
 
         final VirtualFile virtualFile = file.getVirtualFile();
 
-        return Response.ok(virtualFile.getContent(), TIKA.detect(virtualFile.getName()))
-                       .lastModified(new Date(virtualFile.getLastModificationDate()))
-                       .header(HttpHeaders.CONTENT_LENGTH, Long.toString(virtualFile.getLength()))
-                       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
-                       .build();
+        return new FileContentResponse(virtualFile, TIKA.detect(virtualFile.getName()))
+                .build(request, headers, servletRequest)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + virtualFile.getName() + '"')
+                .build();
     }
 
     @GET
@@ -790,6 +992,61 @@ public class ProjectService extends Service {
         return result;
     }
 
+    @GET
+    @Path("/children-page/{parent:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get page of children items",
+                  notes = "Request page of children items of folder. Continuation token of response is used to request the next page",
+                  response = ChildrenPage.class)
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 400, message = "Invalid continuation token or max number of items"),
+                   @ApiResponse(code = 403, message = "User not authorized to call this operation"),
+                   @ApiResponse(code = 404, message = "Not found"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public ChildrenPage getChildrenPage(@ApiParam(value = "Workspace ID", required = true)
+                                        @PathParam("ws-id") String workspace,
+                                        @ApiParam(value = "Path to a folder", required = true)
+                                        @PathParam("parent") String path,
+                                        @ApiParam(value = "Continuation token of previous page")
+                                        @QueryParam("token") String token,
+                                        @ApiParam(value = "Max number of items in page")
+                                        @DefaultValue("500") @QueryParam("maxItems") int maxItems,
+                                        @ApiParam(value = "Get only names, paths and types of items, without links and attributes")
+                                        @DefaultValue("false") @QueryParam("brief") boolean brief) throws NotFoundException,
+                                                                                                          ForbiddenException,
+                                                                                                          ServerException,
+                                                                                                          BadRequestException {
+        if (maxItems <= 0) {
+            throw new BadRequestException("Max number of items must be positive");
+        }
+
+        final FolderEntry folder = projectManager.asFolder(path);
+
+        if (folder == null) {
+            throw new NotFoundException("Parent not found for " + path);
+        }
+
+        final List<VirtualFileEntry> children = folder.getChildren(VirtualFileFilter.ACCEPT_ALL,
+                                                                   token == null ? null : decodeContinuationToken(token),
+                                                                   maxItems);
+        final List<ItemReference> items = new ArrayList<>(children.size());
+        for (VirtualFileEntry child : children) {
+            if (brief) {
+                items.add(asBriefDto(child));
+            } else if (child.isFile()) {
+                items.add(injectFileLinks(asDto((FileEntry)child), workspace));
+            } else {
+                items.add(injectFolderLinks(asDto((FolderEntry)child), workspace));
+            }
+        }
+
+        final ChildrenPage page = newDto(ChildrenPage.class).withItems(items);
+        if (children.size() == maxItems) {
+            page.setContinuationToken(encodeContinuationToken(FolderEntry.sortKey(children.get(children.size() - 1))));
+        }
+        return page;
+    }
+
     @GET
     @Path("/tree/{parent:.*}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -853,11 +1110,12 @@ public class ProjectService extends Service {
                   response = ItemReference.class,
                   responseContainer = "List")
     @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 400, message = "Invalid search cursor or pattern"),
                    @ApiResponse(code = 403, message = "User not authorized to call this operation"),
                    @ApiResponse(code = 404, message = "Not found"),
                    @ApiResponse(code = 409, message = "Conflict error"),
                    @ApiResponse(code = 500, message = "Internal Server Error")})
-    public List<ItemReference> search(@ApiParam(value = "Workspace ID", required = true)
+    public Response search(@ApiParam(value = "Workspace ID", required = true)
                                       @PathParam("ws-id") String workspace,
                                       @ApiParam(value = "Path to resource, i.e. where to search?", required = true)
                                       @PathParam("path") String path,
@@ -865,19 +1123,27 @@ public class ProjectService extends Service {
                                       @QueryParam("name") String name,
                                       @ApiParam(value = "Search keywords")
                                       @QueryParam("text") String text,
+                                      @ApiParam(value = "Substring or regular expression for searching in content of files")
+                                      @QueryParam("pattern") String pattern,
+                                      @ApiParam(value = "If true then pattern is regular expression")
+                                      @QueryParam("regex") boolean regex,
                                       @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
                                       @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
                                       @ApiParam(value = "Skip count")
-                                      @QueryParam("skipCount") int skipCount) throws NotFoundException,
-                                                                                     ForbiddenException,
-                                                                                     ConflictException,
-                                                                                     ServerException {
+                                      @QueryParam("skipCount") int skipCount,
+                                      @ApiParam(value = "Position in search result returned in header " + NEXT_PAGE_CURSOR_HEADER +
+                                                        " of response to previous request, if set then skip count is ignored")
+                                      @QueryParam("cursor") String cursor) throws NotFoundException,
+                                                                                  ForbiddenException,
+                                                                                  ConflictException,
+                                                                                  BadRequestException,
+                                                                                  ServerException {
         final Searcher searcher;
         try {
             searcher = projectManager.getSearcher();
         } catch (NotFoundException e) {
             LOG.warn(e.getLocalizedMessage());
-            return Collections.emptyList();
+            return Response.ok(new GenericEntity<List<ItemReference>>(Collections.emptyList()) {}).build();
         }
 
         if (skipCount < 0) {
@@ -887,11 +1153,21 @@ public class ProjectService extends Service {
         final QueryExpression expr = new QueryExpression()
                 .setPath(path.startsWith("/") ? path : ('/' + path))
                 .setName(name)
-                .setText(text);
-
-        final SearchResult result = searcher.search(expr);
+                .setText(text)
+                .setPattern(pattern)
+                .setRegex(regex)
+                .setSkipCount(skipCount)
+                .setMaxItems(maxItems)
+                .setCursor(cursor);
+
+        final SearchResult result;
+        try {
+            result = searcher.search(expr);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
 
-        if (skipCount > 0) {
+        if (skipCount > 0 && cursor == null) {
             if (skipCount > result.getTotalHits()) {
                 throw new ConflictException(
                         String.format("'skipCount' parameter: %d is greater then total number of items in result: %d.",
@@ -899,20 +1175,130 @@ public class ProjectService extends Service {
             }
         }
 
-        final int length = maxItems > 0 ? Math.min(result.getTotalHits(), maxItems) : result.getTotalHits();
-        final List<ItemReference> items = new ArrayList<>(length);
+        final List<SearchResultEntry> entries = result.getResults();
+        final List<ItemReference> items = new ArrayList<>(entries.size());
         final FolderEntry root = projectManager.getProjectsRoot();
 
-        List<SearchResultEntry> entries = result.getResults();
-        for (int i = skipCount; i < length; i++) {
-            final VirtualFileEntry child = root.getChild(entries.get(i).getFilePath());
+        for (SearchResultEntry entry : entries) {
+            final VirtualFileEntry child = root.getChild(entry.getFilePath());
 
             if (child != null && child.isFile()) {
-                items.add(injectFileLinks(asDto((FileEntry)child), workspace));
+                items.add(asSearchItem((FileEntry)child, entry, workspace));
             }
         }
 
-        return items;
+        final Response.ResponseBuilder response = Response.ok(new GenericEntity<List<ItemReference>>(items) {});
+        if (result.getNextPageCursor().isPresent()) {
+            response.header(NEXT_PAGE_CURSOR_HEADER, result.getNextPageCursor().get());
+        }
+        return response.build();
+    }
+
+    @GET
+    @Path("/search-stream/{path:.*}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Search for resources and stream result",
+                  notes = "Same as search but items are written to the response as soon as they are found and number of items is " +
+                          "not limited by size of one page of search result",
+                  response = ItemReference.class,
+                  responseContainer = "List")
+    @ApiResponses({@ApiResponse(code = 200, message = "OK"),
+                   @ApiResponse(code = 400, message = "Invalid search pattern"),
+                   @ApiResponse(code = 409, message = "Conflict error"),
+                   @ApiResponse(code = 500, message = "Internal Server Error")})
+    public StreamingOutput searchStream(@ApiParam(value = "Workspace ID", required = true)
+                                        @PathParam("ws-id") String workspace,
+                                        @ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                                        @PathParam("path") String path,
+                                        @ApiParam(value = "Resource name")
+                                        @QueryParam("name") String name,
+                                        @ApiParam(value = "Search keywords")
+                                        @QueryParam("text") String text,
+                                        @ApiParam(value = "Substring or regular expression for searching in content of files")
+                                        @QueryParam("pattern") String pattern,
+                                        @ApiParam(value = "If true then pattern is regular expression")
+                                        @QueryParam("regex") boolean regex,
+                                        @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
+                                        @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                                        @ApiParam(value = "Skip count")
+                                        @QueryParam("skipCount") int skipCount) throws ConflictException,
+                                                                                       BadRequestException,
+                                                                                       ServerException {
+        if (skipCount < 0) {
+            throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
+        }
+
+        final QueryExpression expr = new QueryExpression()
+                .setPath(path.startsWith("/") ? path : ('/' + path))
+                .setName(name)
+                .setText(text)
+                .setPattern(pattern)
+                .setRegex(regex)
+                .setSkipCount(skipCount)
+                .setMaxItems(maxItems);
+
+        if (pattern != null) {
+            // Check pattern before anything is written to the response, so invalid pattern may be reported with proper status.
+            try {
+                if (regex) {
+                    ContentPattern.regex(pattern);
+                } else {
+                    ContentPattern.literal(pattern);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+        }
+
+        // Resolve searcher before anything is written to the response, so failure may be reported with proper status.
+        final Searcher searcher;
+        try {
+            searcher = projectManager.getSearcher();
+        } catch (NotFoundException e) {
+            LOG.warn(e.getLocalizedMessage());
+            return output -> output.write("[]".getBytes(StandardCharsets.UTF_8));
+        }
+        final FolderEntry root = projectManager.getProjectsRoot();
+
+        return output -> {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write('[');
+            try {
+                final boolean[] first = {true};
+                searcher.search(expr, entry -> {
+                    try {
+                        final VirtualFileEntry child = root.getChild(entry.getFilePath());
+                        if (child != null && child.isFile()) {
+                            if (!first[0]) {
+                                writer.write(',');
+                            }
+                            first[0] = false;
+                            writer.write(DtoFactory.getInstance().toJson(asSearchItem((FileEntry)child, entry, workspace)));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (ServerException e) {
+                        LOG.warn(e.getLocalizedMessage());
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client is gone, nothing can be written any more.
+                throw e.getCause();
+            } catch (ServerException | RuntimeException e) {
+                // Status of response is already sent, finish array of items found so far to keep response valid.
+                LOG.error(e.getMessage(), e);
+            }
+            writer.write(']');
+            writer.flush();
+        };
+    }
+
+    private ItemReference asSearchItem(FileEntry file, SearchResultEntry entry, String workspace) throws ServerException {
+        final ItemReference item = injectFileLinks(asDto(file), workspace);
+        if (!entry.getMatches().isEmpty()) {
+            item.setMatches(entry.getMatches().stream().map(DtoConverter::asDto).collect(Collectors.toList()));
+        }
+        return item;
     }
 
     private void logProjectCreatedEvent(@NotNull String projectName, @NotNull String projectType) {
@@ -943,6 +1329,18 @@ public class ProjectService extends Service {
         return virtualFile;
     }
 
+    private static String encodeContinuationToken(String sortKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sortKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeContinuationToken(String token) throws BadRequestException {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid continuation token " + token);
+        }
+    }
+
     private List<TreeElement> getTree(FolderEntry folder,
                                       String workspace,
                                       int depth,
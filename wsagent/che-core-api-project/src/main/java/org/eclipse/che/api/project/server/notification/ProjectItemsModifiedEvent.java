@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server.notification;
+
+import org.eclipse.che.api.core.notification.EventOrigin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesced notification about items that are modified by one batch of operations, events are kept in order of operations.
+ */
+@EventOrigin("project")
+public class ProjectItemsModifiedEvent {
+    private String                         workspace;
+    private List<ProjectItemModifiedEvent> events;
+
+    public ProjectItemsModifiedEvent(String workspace, List<ProjectItemModifiedEvent> events) {
+        this.workspace = workspace;
+        this.events = events;
+    }
+
+    public ProjectItemsModifiedEvent() {
+    }
+
+    public String getWorkspace() {
+        return workspace;
+    }
+
+    public void setWorkspace(String workspace) {
+        this.workspace = workspace;
+    }
+
+    public List<ProjectItemModifiedEvent> getEvents() {
+        if (events == null) {
+            events = new ArrayList<>();
+        }
+        return events;
+    }
+
+    public void setEvents(List<ProjectItemModifiedEvent> events) {
+        this.events = events;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectItemsModifiedEvent{" +
+               "workspace='" + workspace + '\'' +
+               ", events=" + events +
+               '}';
+    }
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.api.project.server.notification;
 
+import org.eclipse.che.api.core.notification.AsyncDelivery;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.project.shared.dto.event.VfsWatchEvent;
@@ -28,6 +29,7 @@ import javax.inject.Inject;
  * Subscribes on VFS Watcher events and broadcasts them with websockets
  * @author gazarenkov
  */
+@AsyncDelivery
 public class VfsWatchBroadcaster implements EventSubscriber<VfsWatchEvent> {
 
     private static final Logger LOG = LoggerFactory.getLogger(VfsWatchBroadcaster.class);
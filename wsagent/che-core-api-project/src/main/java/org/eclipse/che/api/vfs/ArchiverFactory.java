@@ -10,13 +10,18 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class ArchiverFactory {
+    /** Pool that compresses content of files for all zip archivers. */
+    private static final ForkJoinPool COMPRESS_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     public Archiver createArchiver(VirtualFile folder, String archiveType) {
         if (archiveType == null) {
             throw new IllegalArgumentException("Archive type might not be null");
         }
         if ("zip".equals(archiveType.toLowerCase())) {
-            return new ZipArchiver(folder);
+            return new ParallelZipArchiver(folder, COMPRESS_POOL);
         } else if ("tar".equals(archiveType.toLowerCase())) {
             return new TarArchiver(folder);
         }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Persistent cache of hash sums of files. Hash sum of file is valid while size and modification date of file are the same as they were
+ * when hash sum was counted. One cache keeps hash sums counted with one hash function.
+ * <p/>
+ * Cache is loaded from storage file when it is used first time and written back with {@link #flush()}.
+ */
+public class HashSumsCache {
+    private static final Logger LOG = LoggerFactory.getLogger(HashSumsCache.class);
+
+    /** Hash sums of files that are modified recently aren't cached, some file systems keep modification date with seconds precision. */
+    static final long MODIFICATION_DATE_RESOLUTION_MS = 2000;
+
+    private static final int VERSION = 1;
+
+    private final File storage;
+
+    private volatile Map<String, Entry> entries;
+    private volatile boolean            modified;
+
+    public HashSumsCache(File storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Gets cached hash sum of file.
+     *
+     * @return hash sum of file or {@code null} if there is no hash sum for file with specified size and modification date
+     */
+    public String get(String path, long size, long modificationDate) {
+        final Entry entry = getEntries().get(path);
+        if (entry != null && entry.size == size && entry.modificationDate == modificationDate) {
+            return entry.hash;
+        }
+        return null;
+    }
+
+    /** Caches hash sum of file. */
+    public void put(String path, long size, long modificationDate, String hash) {
+        if (System.currentTimeMillis() - modificationDate > MODIFICATION_DATE_RESOLUTION_MS) {
+            getEntries().put(path, new Entry(size, modificationDate, hash));
+        } else {
+            // file may be changed again without change of its modification date
+            getEntries().remove(path);
+        }
+        modified = true;
+    }
+
+    /** Removes hash sums of files that are located in {@code folder} but aren't contained in {@code existedPaths}. */
+    public void retain(Path folder, Set<String> existedPaths) {
+        final String prefix = folder.isRoot() ? "/" : folder.toString() + '/';
+        if (getEntries().keySet().removeIf(path -> path.startsWith(prefix) && !existedPaths.contains(path))) {
+            modified = true;
+        }
+    }
+
+    /** Writes cached hash sums to storage file if they were changed since the last flush. */
+    public synchronized void flush() {
+        if (!modified) {
+            return;
+        }
+        modified = false;
+        final File parent = storage.getParentFile();
+        if (!(parent.exists() || parent.mkdirs())) {
+            LOG.error("Unable create directory {}", parent);
+            return;
+        }
+        final File tmp = new File(parent, storage.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            final Map<String, Entry> snapshot = getEntries();
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> e : snapshot.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue().size);
+                out.writeLong(e.getValue().modificationDate);
+                out.writeUTF(e.getValue().hash);
+            }
+        } catch (IOException e) {
+            LOG.error(String.format("Unable write hash sums to %s", tmp), e);
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), storage.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.error(String.format("Unable write hash sums to %s", storage), e);
+        }
+    }
+
+    private Map<String, Entry> getEntries() {
+        Map<String, Entry> myEntries = entries;
+        if (myEntries == null) {
+            synchronized (this) {
+                myEntries = entries;
+                if (myEntries == null) {
+                    entries = myEntries = load();
+                }
+            }
+        }
+        return myEntries;
+    }
+
+    private Map<String, Entry> load() {
+        final Map<String, Entry> loaded = new ConcurrentHashMap<>();
+        if (storage.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(storage)))) {
+                if (in.readInt() == VERSION) {
+                    for (int i = in.readInt(); i > 0; i--) {
+                        final String path = in.readUTF();
+                        final long size = in.readLong();
+                        final long modificationDate = in.readLong();
+                        loaded.put(path, new Entry(size, modificationDate, in.readUTF()));
+                    }
+                }
+            } catch (IOException e) {
+                // cache is rebuilt when hash sums are counted next time
+                LOG.warn(String.format("Unable read hash sums from %s", storage), e);
+                loaded.clear();
+            }
+        }
+        return loaded;
+    }
+
+    private static class Entry {
+        final long   size;
+        final long   modificationDate;
+        final String hash;
+
+        Entry(long size, long modificationDate, String hash) {
+            this.size = size;
+            this.modificationDate = modificationDate;
+            this.hash = hash;
+        }
+    }
+}
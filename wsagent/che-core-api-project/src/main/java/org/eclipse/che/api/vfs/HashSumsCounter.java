@@ -18,27 +18,66 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.commons.lang.Pair;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.hash.Funnels.asOutputStream;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
 
 /**
  * Traverses recursively all files in folder given in constructor and calculates hash sum for each file.
  * Algorithm specified by {@code hashFunction} is used for calculating hash sum.
+ * <p/>
+ * If fork-join pool is given in constructor, files are hashed by the pool while folder is traversed. Content of files that are backed by
+ * local file system is read through memory mapped regions. If cache is given in constructor, hash sums of files that aren't changed since
+ * the previous counting are taken from cache.
  */
 public class HashSumsCounter implements VirtualFileVisitor {
-    private final VirtualFile                folder;
-    private final HashFunction               hashFunction;
-    private final List<Pair<String, String>> hashSums;
+    /** Local files that are smaller than this are read as streams, mapping of small file costs more than reading it. */
+    static final long MIN_MAPPED_FILE_SIZE   = 64 * 1024;
+    /** Max size of region of file that is mapped at once. */
+    static final long MAX_MAPPED_REGION_SIZE = 64 * 1024 * 1024;
 
+    private static final long WAIT_FOR_FILE_LOCK_TIMEOUT = 60000;
+    private static final int  BUFFER_SIZE                = 8192;
+
+    private final VirtualFile                              folder;
+    private final HashFunction                             hashFunction;
+    private final ForkJoinPool                             pool;
+    private final HashSumsCache                            cache;
+    private final List<Pair<String, String>>               hashSums;
+    private final List<Pair<ForkJoinTask<String>, String>> pendingHashSums;
+    private final Set<String>                              visitedPaths;
 
     public HashSumsCounter(VirtualFile folder, HashFunction hashFunction) {
+        this(folder, hashFunction, null, null);
+    }
+
+    /**
+     * @param pool
+     *         pool that hashes files, if {@code null} files are hashed by the calling thread
+     * @param cache
+     *         cache of hash sums, must be used with the same {@code hashFunction} only, may be {@code null}
+     */
+    public HashSumsCounter(VirtualFile folder, HashFunction hashFunction, ForkJoinPool pool, HashSumsCache cache) {
         this.folder = folder;
         this.hashFunction = hashFunction;
+        this.pool = pool;
+        this.cache = cache;
         hashSums = newArrayList();
+        pendingHashSums = newArrayList();
+        visitedPaths = new HashSet<>();
     }
 
     /**
@@ -50,27 +89,105 @@ public class HashSumsCounter implements VirtualFileVisitor {
      * </pre>
      */
     public List<Pair<String, String>> countHashSums() throws ServerException {
-        folder.accept(this);
+        try {
+            folder.accept(this);
+            for (Pair<ForkJoinTask<String>, String> pending : pendingHashSums) {
+                hashSums.add(Pair.of(join(pending.first), pending.second));
+            }
+        } finally {
+            for (Pair<ForkJoinTask<String>, String> pending : pendingHashSums) {
+                pending.first.cancel(true);
+            }
+            pendingHashSums.clear();
+        }
+        if (cache != null) {
+            cache.retain(folder.getPath(), visitedPaths);
+        }
         return hashSums;
     }
 
     @Override
     public void visit(VirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFile()) {
+            final String relativePath = virtualFile.getPath().subPath(folder.getPath()).toString();
+            if (cache != null) {
+                visitedPaths.add(virtualFile.getPath().toString());
+            }
+            if (pool == null) {
+                hashSums.add(Pair.of(countHashSum(virtualFile), relativePath));
+            } else {
+                pendingHashSums.add(Pair.of(pool.submit(() -> countHashSum(virtualFile)), relativePath));
+            }
+        } else {
+            for (VirtualFile child : virtualFile.getChildren()) {
+                child.accept(this);
+            }
+        }
+    }
+
+    private String countHashSum(VirtualFile virtualFile) throws ServerException {
+        if (cache == null) {
+            return hash(virtualFile);
+        }
+        final String path = virtualFile.getPath().toString();
+        final long length = virtualFile.getLength();
+        final long modificationDate = virtualFile.getLastModificationDate();
+        String hash = cache.get(path, length, modificationDate);
+        if (hash == null) {
+            hash = hash(virtualFile);
+            cache.put(path, length, modificationDate, hash);
+        }
+        return hash;
+    }
+
+    private String hash(VirtualFile virtualFile) throws ServerException {
+        final Hasher hasher = hashFunction.newHasher();
+        final File ioFile = virtualFile.toIoFile();
+        if (ioFile != null && ioFile.length() >= MIN_MAPPED_FILE_SIZE) {
+            // file must not be changed by virtual file system while it is mapped, get the same lock as reading of file content gets
+            final PathLockFactory.PathLock lock = virtualFile.getFileSystem().getPathLockFactory()
+                                                             .getLock(virtualFile.getPath(), false)
+                                                             .acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
+            try (FileChannel channel = FileChannel.open(ioFile.toPath(), READ)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                final long size = channel.size();
+                for (long position = 0; position < size; position += MAX_MAPPED_REGION_SIZE) {
+                    final MappedByteBuffer region = channel.map(READ_ONLY, position, Math.min(MAX_MAPPED_REGION_SIZE, size - position));
+                    while (region.hasRemaining()) {
+                        final int length = Math.min(buffer.length, region.remaining());
+                        region.get(buffer, 0, length);
+                        hasher.putBytes(buffer, 0, length);
+                    }
+                }
+            } catch (IOException e) {
+                throw new ServerException(e);
+            } finally {
+                lock.release();
+            }
+        } else {
             try (InputStream in = virtualFile.getContent()) {
-                final Hasher hasher = hashFunction.newHasher();
                 ByteStreams.copy(in, asOutputStream(hasher));
-                final String hexHash = hasher.hash().toString();
-                hashSums.add(Pair.of(hexHash, virtualFile.getPath().subPath(folder.getPath()).toString()));
             } catch (IOException e) {
                 throw new ServerException(e);
             } catch (ForbiddenException e) {
                 throw new ServerException(e.getServiceError());
             }
-        } else {
-            for (VirtualFile child : virtualFile.getChildren()) {
-                child.accept(this);
+        }
+        return hasher.hash().toString();
+    }
+
+    private String join(ForkJoinTask<String> hashTask) throws ServerException {
+        try {
+            return hashTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Counting of hash sums is interrupted");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
             }
+            throw new ServerException(cause.getMessage(), cause);
         }
     }
 }
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import com.google.common.io.ByteStreams;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Zip archiver that deflates content of files on fork-join pool. Entries are written in the same order as {@link ZipArchiver} writes
+ * them: while the writing thread copies already compressed entries to the output, the following entries are compressed by the pool.
+ * <p/>
+ * Compressed content of files is kept in memory until it is written, so amount of data that is compressed ahead of the writing thread
+ * is limited, and files that are bigger than {@link #MAX_PARALLEL_ENTRY_SIZE} are compressed by the writing thread itself.
+ */
+public class ParallelZipArchiver extends ZipArchiver {
+    /** Files that are bigger than this are compressed by the writing thread. */
+    static final long MAX_PARALLEL_ENTRY_SIZE = 4 * 1024 * 1024;
+    /** Max summary size of files that are compressed ahead of the writing thread. */
+    static final long MAX_PENDING_BYTES       = 64 * 1024 * 1024;
+    /** Max number of entries that are waiting for the writing thread. */
+    static final int  MAX_PENDING_ENTRIES     = 1024;
+
+    private final ForkJoinPool pool;
+    private final long         maxParallelEntrySize;
+    private final long         maxPendingBytes;
+
+    public ParallelZipArchiver(VirtualFile folder, ForkJoinPool pool) {
+        this(folder, pool, MAX_PARALLEL_ENTRY_SIZE, MAX_PENDING_BYTES);
+    }
+
+    ParallelZipArchiver(VirtualFile folder, ForkJoinPool pool, long maxParallelEntrySize, long maxPendingBytes) {
+        super(folder);
+        this.pool = pool;
+        this.maxParallelEntrySize = maxParallelEntrySize;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    @Override
+    public void compress(OutputStream zipOutput, VirtualFileFilter filter) throws IOException, ServerException {
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(zipOutput)) {
+            final PendingEntries pendingEntries = new PendingEntries(zipOutputStream);
+            try {
+                folder.accept(new VirtualFileVisitor() {
+                    @Override
+                    public void visit(VirtualFile visitedVirtualFile) throws ServerException {
+                        if (filter.accept(visitedVirtualFile)) {
+                            if (!visitedVirtualFile.equals(folder)) {
+                                pendingEntries.add(visitedVirtualFile);
+                            }
+                            if (visitedVirtualFile.isFolder()) {
+                                for (VirtualFile child : visitedVirtualFile.getChildren()) {
+                                    child.accept(this);
+                                }
+                            }
+                        }
+                    }
+                });
+                pendingEntries.writeAll();
+            } finally {
+                pendingEntries.cancel();
+            }
+        }
+    }
+
+    private static DeflatedContent deflate(VirtualFile virtualFile) throws ServerException {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final CRC32 crc = new CRC32();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (InputStream content = new CheckedInputStream(virtualFile.getContent(), crc)) {
+            final DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(compressed, deflater);
+            final long size = ByteStreams.copy(content, deflaterOutput);
+            deflaterOutput.finish();
+            return new DeflatedContent(compressed.toByteArray(), crc.getValue(), size);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static class DeflatedContent {
+        final byte[] data;
+        final long   crc;
+        final long   size;
+
+        DeflatedContent(byte[] data, long crc, long size) {
+            this.data = data;
+            this.crc = crc;
+            this.size = size;
+        }
+    }
+
+    /** Entry of archive that waits for the writing thread. */
+    private static class PendingEntry {
+        final VirtualFile                     virtualFile;
+        final long                            length;
+        /** Task that compresses content of file or {@code null} if entry is written without help of pool. */
+        final ForkJoinTask<DeflatedContent> deflateTask;
+
+        PendingEntry(VirtualFile virtualFile, long length, ForkJoinTask<DeflatedContent> deflateTask) {
+            this.virtualFile = virtualFile;
+            this.length = length;
+            this.deflateTask = deflateTask;
+        }
+    }
+
+    private class PendingEntries {
+        final ZipArchiveOutputStream zipOutputStream;
+        final Deque<PendingEntry>    entries;
+
+        long pendingBytes;
+
+        PendingEntries(ZipArchiveOutputStream zipOutputStream) {
+            this.zipOutputStream = zipOutputStream;
+            this.entries = new ArrayDeque<>();
+        }
+
+        void add(VirtualFile virtualFile) throws ServerException {
+            final long length = virtualFile.isFile() ? virtualFile.getLength() : 0;
+            final boolean parallel = virtualFile.isFile() && length <= maxParallelEntrySize;
+            while (!entries.isEmpty() && (entries.size() >= MAX_PENDING_ENTRIES || (parallel && pendingBytes + length > maxPendingBytes))) {
+                writeNext();
+            }
+            if (parallel) {
+                entries.add(new PendingEntry(virtualFile, length, pool.submit(() -> deflate(virtualFile))));
+                pendingBytes += length;
+            } else {
+                entries.add(new PendingEntry(virtualFile, length, null));
+            }
+        }
+
+        void writeAll() throws ServerException {
+            while (!entries.isEmpty()) {
+                writeNext();
+            }
+        }
+
+        void cancel() {
+            for (PendingEntry entry : entries) {
+                if (entry.deflateTask != null) {
+                    entry.deflateTask.cancel(true);
+                }
+            }
+            entries.clear();
+        }
+
+        private void writeNext() throws ServerException {
+            final PendingEntry entry = entries.poll();
+            final VirtualFile virtualFile = entry.virtualFile;
+            try {
+                final ZipArchiveEntry zipEntry = new ZipArchiveEntry(getZipEntryName(virtualFile));
+                if (virtualFile.isFolder()) {
+                    zipEntry.setTime(0);
+                    zipOutputStream.putArchiveEntry(zipEntry);
+                    zipOutputStream.closeArchiveEntry();
+                } else if (entry.deflateTask == null) {
+                    zipEntry.setSize(entry.length);
+                    zipEntry.setTime(virtualFile.getLastModificationDate());
+                    zipOutputStream.putArchiveEntry(zipEntry);
+                    try (InputStream content = virtualFile.getContent()) {
+                        ByteStreams.copy(content, zipOutputStream);
+                    }
+                    zipOutputStream.closeArchiveEntry();
+                } else {
+                    final DeflatedContent deflated = join(entry.deflateTask);
+                    pendingBytes -= entry.length;
+                    zipEntry.setMethod(ZipEntry.DEFLATED);
+                    zipEntry.setSize(deflated.size);
+                    zipEntry.setCompressedSize(deflated.data.length);
+                    zipEntry.setCrc(deflated.crc);
+                    zipEntry.setTime(virtualFile.getLastModificationDate());
+                    zipOutputStream.addRawArchiveEntry(zipEntry, new ByteArrayInputStream(deflated.data));
+                }
+            } catch (ForbiddenException e) {
+                throw new ServerException(e.getServiceError());
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        }
+
+        private DeflatedContent join(ForkJoinTask<DeflatedContent> deflateTask) throws ServerException {
+            try {
+                return deflateTask.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServerException("Compression of folder is interrupted");
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof ServerException) {
+                    throw (ServerException)cause;
+                }
+                throw new ServerException(cause.getMessage(), cause);
+            }
+        }
+    }
+}
@@ -10,9 +10,25 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * Advisory file locks. It does not prevent access to the file from other programs.
  * <p/>
+ * Locks are hierarchical: exclusive lock of folder prevents any locks of its descendants by other threads and vice versa.
+ * State of locks is kept in nodes, one node per locked path or per parent of locked path. Parents of locked path keep
+ * "intent" marks, so conflict with locked descendant is detected without scanning of all existed locks. Nodes are
+ * distributed over the set of stripes, each stripe guarded with own lock, so acquiring lock for path needs to lock only
+ * stripes of the path and its parents. Thread that can't get lock waits until state of the node that blocks it is changed.
+ * <p/>
  * Usage:
  * <pre>
  *      PathLockFactory lockFactory = ...
@@ -35,10 +51,14 @@ package org.eclipse.che.api.vfs;
  */
 public final class PathLockFactory {
     private static final int MAX_RECURSIVE_LOCKS = (1 << 10) - 1;
+    private static final int DEFAULT_STRIPES     = 64;
+
     /** Max number of threads allowed to access file. */
-    private final int maxThreads;
-    // Tail of the "lock table".
-    private final Node tail = new Node(null, 0, null);
+    private final int      maxThreads;
+    /** Max number of threads which may have shared lock of the same path, exclusive lock takes all permits of path. */
+    private final int      maxSharedLocks;
+    private final Stripe[] stripes;
+    private final int      stripeMask;
 
     /**
      * @param maxThreads
@@ -46,149 +66,377 @@ public final class PathLockFactory {
      *         avoid blocking threads that need to obtain NOT exclusive lock.
      */
     public PathLockFactory(int maxThreads) {
-        if (maxThreads < 1) {
+        this(maxThreads, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param maxThreads
+     *         the max number of threads are allowed to access one file
+     * @param stripes
+     *         number of stripes of the lock table, it is rounded up to the nearest power of two
+     */
+    public PathLockFactory(int maxThreads, int stripes) {
+        if (maxThreads < 1 || stripes < 1) {
             throw new IllegalArgumentException();
         }
         this.maxThreads = maxThreads;
+        // the first shared lock takes one permit and the next ones need more than one left
+        this.maxSharedLocks = Math.max(maxThreads - 1, 1);
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
     }
 
     public PathLock getLock(Path path, boolean exclusive) {
-        return new PathLock(path, exclusive ? maxThreads : 1);
+        return new PathLock(path, exclusive);
     }
 
-    private synchronized void acquire(Path path, int permits) {
-        while (!tryAcquire(path, permits)) {
+    /**
+     * Acquires lock, waits without timeout if {@code timed} is {@code false}.
+     *
+     * @throws IllegalArgumentException
+     *         if lock must be waited for and {@code timeoutMilliseconds} is negative
+     */
+    private void acquire(Path path, boolean exclusive, boolean timed, long timeoutMilliseconds) {
+        final Thread current = Thread.currentThread();
+        final Path[] chain = chainOf(path);
+        final int[] stripeIndexes = stripeIndexesOf(chain);
+        final long endTime = timed ? System.currentTimeMillis() + timeoutMilliseconds : 0;
+        Node waitingOn = null;
+        for (; ; ) {
+            lockStripes(stripeIndexes);
             try {
-                wait();
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
+                if (waitingOn != null) {
+                    stopWaiting(waitingOn, current);
+                    waitingOn = null;
+                }
+                final Node blocker = tryAcquire(chain, exclusive, current);
+                if (blocker == null) {
+                    return;
+                }
+                if (timed && timeoutMilliseconds < 0) {
+                    throw new IllegalArgumentException("timeout value is negative");
+                }
+                blocker.waiters.add(current);
+                waitingOn = blocker;
+            } finally {
+                unlockStripes(stripeIndexes);
             }
-        }
-    }
 
-    private synchronized void acquire(Path path, int permits, long timeoutMilliseconds) {
-        final long endTime = System.currentTimeMillis() + timeoutMilliseconds;
-        long waitTime = timeoutMilliseconds;
-        while (!tryAcquire(path, permits)) {
-            try {
-                wait(waitTime);
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
+            if (!timed) {
+                LockSupport.park(this);
+            } else {
+                final long waitTime = endTime - System.currentTimeMillis();
+                if (waitTime > 0) {
+                    LockSupport.parkNanos(this, MILLISECONDS.toNanos(waitTime));
+                }
             }
-            long now = System.currentTimeMillis();
-            if (now >= endTime) {
+            if (Thread.interrupted()) {
+                cancelWaiting(stripeIndexes, waitingOn, current);
+                throw new RuntimeException(new InterruptedException());
+            }
+            if (timed && System.currentTimeMillis() >= endTime) {
+                cancelWaiting(stripeIndexes, waitingOn, current);
                 throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
             }
-            waitTime = endTime - now;
         }
     }
 
-    private synchronized void release(Path path, int permits) {
-        Node node = tail;
-        while (node != null) {
-            Node prev = node.prev;
-            if (prev == null) {
-                break;
+    /**
+     * Tries to get lock for the last path of the chain. Must be called when stripes of all paths in chain are locked.
+     *
+     * @return {@code null} if lock is acquired or node that prevents getting lock
+     */
+    private Node tryAcquire(Path[] chain, boolean exclusive, Thread current) {
+        final Path path = chain[chain.length - 1];
+        final Node target = getNode(path);
+        final Holder own = target == null ? null : target.holders.get(current);
+        if (own != null && own.holds > 0) {
+            // Current thread already has direct lock for this path
+            if (own.holds > MAX_RECURSIVE_LOCKS) {
+                throw new Error("Max number of recursive locks exceeded. ");
             }
-            if (prev.path.equals(path)) {
-                if (prev.threadDeep == 1) {
-                    // If last recursive lock.
-                    prev.permits += permits;
-                    if (prev.permits >= maxThreads) {
-                        // remove
-                        node.prev = prev.prev;
-                        prev.prev = null;
-                    }
-                } else {
-                    --prev.threadDeep;
+            ++own.holds;
+            return null;
+        }
+        // Parents of the path must not be locked by other threads in conflicting mode.
+        for (int i = 0; i < chain.length - 1; i++) {
+            final Node parent = getNode(chain[i]);
+            if (parent != null) {
+                final Holder parentHolder = parent.holders.get(current);
+                if (parent.exclusive - exclusiveOf(parentHolder) > 0
+                    || (exclusive && parent.shared - sharedOf(parentHolder) > 0)) {
+                    return parent;
                 }
             }
-            node = node.prev;
         }
-        notifyAll();
-        //System.err.printf(">>>>> release: %s : %d%n", path, permits);
+        if (target != null) {
+            // Current thread has no direct lock for this path, see above, so all direct locks are obtained by other threads.
+            if (target.exclusive > 0 || (exclusive ? target.shared > 0 : target.shared >= maxSharedLocks)) {
+                return target;
+            }
+            // Descendants of the path must not be locked by other threads in conflicting mode.
+            if (target.intentExclusive - intentExclusiveOf(own) > 0
+                || (exclusive && target.intentShared - intentSharedOf(own) > 0)) {
+                return target;
+            }
+        }
+
+        final Node node = getOrCreateNode(path);
+        final Holder holder = node.holderOf(current);
+        holder.holds = 1;
+        holder.exclusive = exclusive;
+        if (exclusive) {
+            ++node.exclusive;
+        } else {
+            ++node.shared;
+        }
+        for (int i = 0; i < chain.length - 1; i++) {
+            final Node parent = getOrCreateNode(chain[i]);
+            final Holder parentHolder = parent.holderOf(current);
+            if (exclusive) {
+                ++parentHolder.intentExclusive;
+                ++parent.intentExclusive;
+            } else {
+                ++parentHolder.intentShared;
+                ++parent.intentShared;
+            }
+        }
+        return null;
     }
 
-    private boolean tryAcquire(Path path, int permits) {
-        //System.err.printf(">>>>> acquire: %s : %d%n", path, permits);
-        Node node = tail.prev;
+    private void release(Path path) {
         final Thread current = Thread.currentThread();
-        while (node != null) {
-            if (node.path.equals(path)) {
-                if (node.threadId == current.getId()) {
-                    // Current thread already has direct lock for this path
-                    if (node.threadDeep > MAX_RECURSIVE_LOCKS) {
-                        throw new Error("Max number of recursive locks exceeded. ");
-                    }
-                    ++node.threadDeep;
-                    return true;
-                }
-                if (node.permits > permits) {
-                    // Lock already exists and current thread is not owner of this lock,
-                    // but lock is not exclusive and we can "share" it for other thread.
-                    node.permits -= permits; // decrement number of allowed concurrent threads
-                    return true;
-                }
-                // Lock is exclusive or max number of allowed concurrent thread is reached.
-                return false;
-            } else if ((node.path.isChild(path) || path.isChild(node.path)) && node.permits <= permits) {
-                // Found some path which already has lock that prevents us to get required permits.
-                // There is two possibilities:
-                // 1. Parent of the path we try to lock already locked
-                // 2. Child of the path we try to lock already locked
-                // Need to check is such lock obtained by current thread or not.
-                // If such lock obtained by other thread stop here immediately there is no reasons to continue.
-                if (node.threadId != current.getId()) {
-                    return false;
+        final Path[] chain = chainOf(path);
+        final int[] stripeIndexes = stripeIndexesOf(chain);
+        lockStripes(stripeIndexes);
+        try {
+            final Node node = getNode(path);
+            final Holder holder = node == null ? null : node.holders.get(current);
+            if (holder == null || holder.holds == 0) {
+                return;
+            }
+            if (--holder.holds > 0) {
+                // Not last recursive lock, nothing changed for other threads.
+                return;
+            }
+            // Mode of the lock is defined by the first acquired lock, recursive locks inherit it.
+            final boolean exclusive = holder.exclusive;
+            if (exclusive) {
+                --node.exclusive;
+            } else {
+                --node.shared;
+            }
+            node.removeHolderIfUnused(current, holder);
+            for (int i = 0; i < chain.length - 1; i++) {
+                final Node parent = getNode(chain[i]);
+                final Holder parentHolder = parent.holders.get(current);
+                if (exclusive) {
+                    --parentHolder.intentExclusive;
+                    --parent.intentExclusive;
+                } else {
+                    --parentHolder.intentShared;
+                    --parent.intentShared;
                 }
+                parent.removeHolderIfUnused(current, parentHolder);
+                parent.signalWaiters();
+                removeNodeIfUnused(parent);
             }
-            node = node.prev;
+            node.signalWaiters();
+            removeNodeIfUnused(node);
+        } finally {
+            unlockStripes(stripeIndexes);
+        }
+    }
+
+    private void cancelWaiting(int[] stripeIndexes, Node waitingOn, Thread current) {
+        lockStripes(stripeIndexes);
+        try {
+            stopWaiting(waitingOn, current);
+        } finally {
+            unlockStripes(stripeIndexes);
         }
-        // If we are here there is no lock for path yet.
-        tail.prev = new Node(path, maxThreads - permits, tail.prev);
-        return true;
     }
 
-    public synchronized void checkClean() {
-        assert tail.prev == null;
+    private void stopWaiting(Node waitingOn, Thread current) {
+        waitingOn.waiters.remove(current);
+        removeNodeIfUnused(waitingOn);
+    }
+
+    private Node getNode(Path path) {
+        return stripeOf(path).nodes.get(path);
+    }
+
+    private Node getOrCreateNode(Path path) {
+        final Map<Path, Node> nodes = stripeOf(path).nodes;
+        Node node = nodes.get(path);
+        if (node == null) {
+            nodes.put(path, node = new Node(path));
+        }
+        return node;
+    }
+
+    private void removeNodeIfUnused(Node node) {
+        if (node.holders.isEmpty() && node.waiters.isEmpty()) {
+            stripeOf(node.path).nodes.remove(node.path);
+        }
+    }
+
+    private Stripe stripeOf(Path path) {
+        return stripes[stripeIndexOf(path)];
+    }
+
+    private int stripeIndexOf(Path path) {
+        final int h = path.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /** Returns sorted indexes of stripes of all paths in chain. Stripes are always locked in this order to avoid deadlocks. */
+    private int[] stripeIndexesOf(Path[] chain) {
+        final int[] indexes = new int[chain.length];
+        for (int i = 0; i < chain.length; i++) {
+            indexes[i] = stripeIndexOf(chain[i]);
+        }
+        Arrays.sort(indexes);
+        int unique = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                indexes[unique++] = indexes[i];
+            }
+        }
+        return unique == indexes.length ? indexes : Arrays.copyOf(indexes, unique);
+    }
+
+    private void lockStripes(int[] stripeIndexes) {
+        for (int index : stripeIndexes) {
+            stripes[index].lock.lock();
+        }
+    }
+
+    private void unlockStripes(int[] stripeIndexes) {
+        for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].lock.unlock();
+        }
+    }
+
+    /** Returns path and all its parents. The top-most parent is the first element of array and the path itself is the last. */
+    private static Path[] chainOf(Path path) {
+        final List<Path> chain = new ArrayList<>(path.length() + 1);
+        for (Path p = path; p != null; p = p.getParent()) {
+            chain.add(p);
+        }
+        final Path[] result = new Path[chain.size()];
+        for (int i = 0, size = chain.size(); i < size; i++) {
+            result[i] = chain.get(size - 1 - i);
+        }
+        return result;
+    }
+
+    private static int exclusiveOf(Holder holder) {
+        return holder != null && holder.holds > 0 && holder.exclusive ? 1 : 0;
+    }
+
+    private static int sharedOf(Holder holder) {
+        return holder != null && holder.holds > 0 && !holder.exclusive ? 1 : 0;
+    }
+
+    private static int intentExclusiveOf(Holder holder) {
+        return holder == null ? 0 : holder.intentExclusive;
+    }
+
+    private static int intentSharedOf(Holder holder) {
+        return holder == null ? 0 : holder.intentShared;
+    }
+
+    public void checkClean() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                assert stripe.nodes.isEmpty();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
     }
 
    /* =============================================== */
 
+    private static class Stripe {
+        final ReentrantLock   lock  = new ReentrantLock();
+        final Map<Path, Node> nodes = new HashMap<>();
+    }
+
     private static class Node {
-        final Path path;
-        final long threadId = Thread.currentThread().getId();
-        int  permits;
-        int  threadDeep;
-        Node prev;
+        final Path                 path;
+        final Map<Thread, Holder>  holders = new HashMap<>(4);
+        final List<Thread>         waiters = new ArrayList<>(2);
+        /** Number of threads that have shared lock of this path. */
+        int shared;
+        /** Number of threads that have exclusive lock of this path, may be 0 or 1. */
+        int exclusive;
+        /** Number of shared locks of descendants of this path. */
+        int intentShared;
+        /** Number of exclusive locks of descendants of this path. */
+        int intentExclusive;
 
-        Node(Path path, int permits, Node prev) {
+        Node(Path path) {
             this.path = path;
-            this.permits = permits;
-            this.prev = prev;
-            threadDeep = 1;
+        }
+
+        Holder holderOf(Thread thread) {
+            Holder holder = holders.get(thread);
+            if (holder == null) {
+                holders.put(thread, holder = new Holder());
+            }
+            return holder;
+        }
+
+        void removeHolderIfUnused(Thread thread, Holder holder) {
+            if (holder.holds == 0 && holder.intentShared == 0 && holder.intentExclusive == 0) {
+                holders.remove(thread);
+            }
+        }
+
+        void signalWaiters() {
+            for (Thread waiter : waiters) {
+                LockSupport.unpark(waiter);
+            }
         }
 
         @Override
         public String toString() {
             return "Node{" +
                    "path=" + path +
-                   ", threadId=" + threadId +
-                   ", permits=" + permits +
-                   ", prev=" + prev +
+                   ", shared=" + shared +
+                   ", exclusive=" + exclusive +
+                   ", intentShared=" + intentShared +
+                   ", intentExclusive=" + intentExclusive +
+                   ", waiters=" + waiters.size() +
                    '}';
         }
     }
 
+    /** State of locks of one thread for one path. */
+    private static class Holder {
+        int     holds;
+        boolean exclusive;
+        int     intentShared;
+        int     intentExclusive;
+    }
+
     public final class PathLock {
-        private final Path path;
-        private final int  permits;
+        private final Path    path;
+        private final boolean exclusive;
 
-        private PathLock(Path path, int permits) {
+        private PathLock(Path path, boolean exclusive) {
             this.path = path;
-            this.permits = permits;
+            this.exclusive = exclusive;
         }
 
         /**
@@ -197,7 +445,7 @@ public final class PathLockFactory {
          * @return this PathLock instance
          */
         public PathLock acquire() {
-            PathLockFactory.this.acquire(path, permits);
+            PathLockFactory.this.acquire(path, exclusive, false, 0);
             return this;
         }
 
@@ -210,20 +458,22 @@ public final class PathLockFactory {
          * @return this PathLock instance
          * @throws RuntimeException
          *         if waiting timeout reached
+         * @throws IllegalArgumentException
+         *         if permit isn't available at once and timeout is negative
          */
         public PathLock acquire(long timeoutMilliseconds) {
-            PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            PathLockFactory.this.acquire(path, exclusive, true, timeoutMilliseconds);
             return this;
         }
 
         /** Release file permit. */
         public void release() {
-            PathLockFactory.this.release(path, permits);
+            PathLockFactory.this.release(path);
         }
 
         /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
         public boolean isExclusive() {
-            return permits == PathLockFactory.this.maxThreads;
+            return exclusive;
         }
     }
 }
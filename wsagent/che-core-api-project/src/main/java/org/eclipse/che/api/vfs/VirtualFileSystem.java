@@ -33,6 +33,9 @@ public interface VirtualFileSystem {
      */
     SearcherProvider getSearcherProvider();
 
+    /** Gets advisory locks for items of this file system. Locks are reentrant and hierarchical, see {@link PathLockFactory}. */
+    PathLockFactory getPathLockFactory();
+
     /** Release used resources, e.g. clear caches, searcher index, etc */
     void close() throws ServerException;
 
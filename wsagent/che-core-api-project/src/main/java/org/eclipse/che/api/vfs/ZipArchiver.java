@@ -12,11 +12,12 @@ package org.eclipse.che.api.vfs;
 
 import com.google.common.io.ByteStreams;
 
+import org.apache.commons.io.input.CountingInputStream;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.util.NotClosableInputStream;
-import org.eclipse.che.api.vfs.util.ZipContent;
+import org.eclipse.che.api.vfs.util.ZipBombDetectingInputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -56,7 +57,7 @@ public class ZipArchiver extends Archiver {
         }
     }
 
-    private String getZipEntryName(VirtualFile virtualFile) {
+    protected String getZipEntryName(VirtualFile virtualFile) {
         Path zipPath = virtualFile.getPath().subPath(folder.getPath());
         if (virtualFile.isFolder()) {
             return zipPath.toString() + '/';
@@ -87,8 +88,10 @@ public class ZipArchiver extends Archiver {
     @Override
     public void extract(InputStream zipInput, boolean overwrite, int stripNumber)
             throws IOException, ForbiddenException, ConflictException, ServerException {
-        try (ZipInputStream zip = new ZipInputStream(ZipContent.of(zipInput).getContent())) {
-            InputStream notClosableInputStream = new NotClosableInputStream(zip);
+        // content is extracted directly from the input, compression ratio is checked while entries are read
+        final CountingInputStream compressedDataCounter = new CountingInputStream(zipInput);
+        try (ZipInputStream zip = new ZipInputStream(compressedDataCounter)) {
+            InputStream notClosableInputStream = new NotClosableInputStream(new ZipBombDetectingInputStream(zip, compressedDataCounter));
             ZipEntry zipEntry;
             while ((zipEntry = zip.getNextEntry()) != null) {
                 VirtualFile extractFolder = folder;
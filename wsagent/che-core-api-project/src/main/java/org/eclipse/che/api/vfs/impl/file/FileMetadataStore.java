@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.api.vfs.Path;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Storage of locks and properties of items of {@link LocalVirtualFileSystem}. Implementation must be thread-safe, but it isn't required
+ * to guard item against concurrent changes of its metadata, {@link LocalVirtualFileSystem} locks path of item before accessing metadata.
+ *
+ * @see FilesMetadataStore
+ * @see JournalMetadataStore
+ */
+interface FileMetadataStore {
+    /**
+     * Gets lock of file.
+     *
+     * @return lock of file or {@code null} if file isn't locked
+     */
+    FileLock getLock(Path path) throws IOException;
+
+    /** Saves lock of file. */
+    void putLock(Path path, FileLock lock) throws IOException;
+
+    /** Removes lock of file. Does nothing if file isn't locked. */
+    void removeLock(Path path) throws IOException;
+
+    /**
+     * Gets properties of item.
+     *
+     * @return unmodifiable properties of item or empty map if item doesn't have properties
+     */
+    Map<String, String> getProperties(Path path) throws IOException;
+
+    /** Saves properties of item, empty map removes all properties of item. */
+    void putProperties(Path path, Map<String, String> properties) throws IOException;
+
+    /** Copies properties of item and its descendants to new location. Locks aren't copied. Called before content of item is copied. */
+    void copy(Path source, Path destination) throws IOException;
+
+    /** Removes locks and properties of item and its descendants. Called before item is deleted. */
+    void delete(Path path) throws IOException;
+
+    /** Writes pending changes and releases resources. */
+    void close() throws IOException;
+}
@@ -23,72 +23,95 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
-import java.nio.file.WatchEvent;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static java.nio.file.FileVisitResult.CONTINUE;
-import static java.nio.file.Files.getLastModifiedTime;
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
-import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
-import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
 import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
 
+/**
+ * Watches file tree and notifies {@link FileWatcherNotificationHandler} about created, modified and deleted items.
+ * <p/>
+ * Native notifications are received from {@link FileWatcherBackend}. Watcher keeps compact snapshot of each watched directory
+ * and, when backend reports changes in directory, compares new snapshot with previous one. Changed directories are collected
+ * and processed in batches: batch is processed when there are no new changes during {@link #EVENT_PROCESS_TIMEOUT_MS} or
+ * when the oldest change waits longer than {@link #MAX_EVENT_DELAY_MS}. Events of one batch are coalesced by path, e.g.
+ * created and then deleted file produces no events at all. If backend loses events, watched sub-directories of the
+ * overflowed directory are rescanned, but not more than {@link #MAX_DIRECTORIES_PER_BATCH} directories per batch.
+ */
 @Singleton
 public class FileTreeWatcher {
     private static final Logger LOG = LoggerFactory.getLogger(FileTreeWatcher.class);
 
-    private static final long EVENT_PROCESS_TIMEOUT_SEC = 2;
+    static final long EVENT_PROCESS_TIMEOUT_MS  = 2000;
+    static final long MAX_EVENT_DELAY_MS        = 5000;
+    static final int  MAX_DIRECTORIES_PER_BATCH = 1000;
+    /** Statistics of watcher are logged not more often than once per this period and only when events are fired. */
+    static final long STATS_LOG_PERIOD_MS       = 60000;
 
     private final File                           watchRoot;
     private final Path                           watchRootPath;
-    private final Map<Path, WatchedDirectory>    watchedDirectories;
+    private final Map<Path, DirectorySnapshot>   watchedDirectories;
     private final List<PathMatcher>              excludePatterns;
     private final FileWatcherNotificationHandler fileWatcherNotificationHandler;
+    private final FileWatcherBackend             backend;
     private final ExecutorService                executor;
     private final AtomicBoolean                  running;
-    private       WatchService                   watchService;
-    private       WatchEvent.Modifier[]          watchEventModifiers;
+    private final AtomicLong                     eventsCounter;
+    private final AtomicLong                     snapshotsSize;
+    private       long                           eventRateStartTime;
+    private       long                           eventRateStartCount;
+    private       long                           statsLogTime;
+    private volatile double                      eventsPerSecond;
+
+    public FileTreeWatcher(File watchRoot, Set<PathMatcher> excludePatterns, FileWatcherNotificationHandler fileWatcherNotificationHandler) {
+        this(watchRoot, excludePatterns, fileWatcherNotificationHandler, new JdkFileWatcherBackend());
+    }
 
     @Inject
     public FileTreeWatcher(@Named("che.user.workspaces.storage") File watchRoot,
                            @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
-                           FileWatcherNotificationHandler fileWatcherNotificationHandler) {
-        watchEventModifiers = new WatchEvent.Modifier[0];
+                           FileWatcherNotificationHandler fileWatcherNotificationHandler,
+                           FileWatcherBackend backend) {
         this.watchRoot = toCanonicalFile(watchRoot);
         this.watchRootPath = this.watchRoot.toPath();
         this.excludePatterns = newArrayList(excludePatterns);
         this.fileWatcherNotificationHandler = fileWatcherNotificationHandler;
+        this.backend = backend;
 
         ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat("FileTreeWatcher-%d").build();
         executor = Executors.newSingleThreadExecutor(threadFactory);
         running = new AtomicBoolean();
         watchedDirectories = newHashMap();
+        eventsCounter = new AtomicLong();
+        snapshotsSize = new AtomicLong();
     }
 
     private static File toCanonicalFile(File file) {
@@ -100,31 +123,14 @@ public class FileTreeWatcher {
     }
 
     public void startup() throws IOException {
-        watchService = FileSystems.getDefault().newWatchService();
-        if (isPollingWatchService(watchService)) {
-            watchEventModifiers = new WatchEvent.Modifier[]{createSensitivityWatchEventModifier()};
-        }
+        backend.start();
         running.set(true);
         walkTreeAndSetupWatches(watchRootPath);
+        eventRateStartTime = System.currentTimeMillis();
         executor.execute(new WatchEventTask());
         fileWatcherNotificationHandler.started(watchRoot);
     }
 
-    private boolean isPollingWatchService(WatchService watchService) {
-        return "sun.nio.fs.PollingWatchService".equals(watchService.getClass().getName());
-    }
-
-    private WatchEvent.Modifier createSensitivityWatchEventModifier() {
-        try {
-            Class<?> aModifierEnum = Class.forName("com.sun.nio.file.SensitivityWatchEventModifier");
-            Object[] sensitivityEnumConstants = aModifierEnum.getEnumConstants();
-            return (WatchEvent.Modifier)sensitivityEnumConstants[0];
-        } catch (Exception e) {
-            LOG.warn("Can't create 'com.sun.nio.file.SensitivityWatchEventModifier'", e);
-        }
-        return null;
-    }
-
     public void shutdown() {
         boolean interrupted = false;
         executor.shutdown();
@@ -140,14 +146,14 @@ public class FileTreeWatcher {
             executor.shutdownNow();
         }
 
-        try {
-            walkTreeAndRemoveWatches(watchRootPath);
-        } catch (IOException e) {
-            LOG.warn(e.getMessage());
+        for (Path directory : watchedDirectories.keySet()) {
+            backend.cancel(directory);
         }
+        watchedDirectories.clear();
+        snapshotsSize.set(0);
 
         try {
-            watchService.close();
+            backend.close();
         } catch (IOException e) {
             LOG.warn(e.getMessage());
         }
@@ -165,6 +171,21 @@ public class FileTreeWatcher {
         this.excludePatterns.remove(exclude);
     }
 
+    /** Returns total number of events sent to {@link FileWatcherNotificationHandler} since startup. */
+    public long getEventsCount() {
+        return eventsCounter.get();
+    }
+
+    /** Returns rate of events sent to {@link FileWatcherNotificationHandler} measured over the last batches. */
+    public double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    /** Returns estimated amount of memory, in bytes, used by snapshots of watched directories. */
+    public long getSnapshotsMemoryUsage() {
+        return snapshotsSize.get();
+    }
+
     private void walkTreeAndSetupWatches(Path root) throws IOException {
         Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
             @Override
@@ -187,29 +208,29 @@ public class FileTreeWatcher {
         return true;
     }
 
-    private void walkTreeAndRemoveWatches(Path root) throws IOException {
+    /** Walks newly created directory, starts watching it and all its sub-directories and adds CREATED event for each item. */
+    private void walkTreeSetupWatchesAndAddCreatedEvents(Path root, EventBatch batch) throws IOException {
         Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                cancelDirectoryWatcher(dir);
+                // Watch must be set up before directory is read by walker, otherwise we may miss items created in between.
+                if (shouldNotify(watchRootPath.relativize(dir))) {
+                    setupDirectoryWatcher(dir);
+                }
+                if (!dir.equals(root)) {
+                    batch.add(CREATED, dir, true);
+                }
                 return CONTINUE;
             }
-        });
-    }
 
-    private void walkTreeAndFireCreatedEvents(Path root) throws IOException {
-        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
             @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                if (!dir.equals(root)) {
-                    fireWatchEvent(CREATED, dir, true);
-                }
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                batch.add(CREATED, file, false);
                 return CONTINUE;
             }
 
             @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                fireWatchEvent(CREATED, file, false);
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
                 return CONTINUE;
             }
         });
@@ -217,48 +238,72 @@ public class FileTreeWatcher {
 
     private void setupDirectoryWatcher(Path directory) throws IOException {
         if (watchedDirectories.get(directory) == null) {
-            WatchKey watchKey = directory.register(watchService,
-                                                   new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY, OVERFLOW},
-                                                   watchEventModifiers);
-            WatchedDirectory watchedDirectory = new WatchedDirectory(directory, watchKey);
-            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
-                for (Path entry : entries) {
-                    watchedDirectory
-                            .addItem(new DirectoryItem(entry.getFileName(), Files.isDirectory(entry), getLastModifiedInMillis(entry)));
+            backend.register(directory);
+            putSnapshot(directory, DirectorySnapshot.of(directory));
+        }
+    }
+
+    private void putSnapshot(Path directory, DirectorySnapshot snapshot) {
+        DirectorySnapshot previous = watchedDirectories.put(directory, snapshot);
+        snapshotsSize.addAndGet(snapshot.estimatedSize() - (previous == null ? 0 : previous.estimatedSize()));
+    }
+
+    /** Stops watching directory and all its watched sub-directories. */
+    private void cancelDirectoryWatcher(Path directory) {
+        DirectorySnapshot snapshot = watchedDirectories.remove(directory);
+        backend.cancel(directory);
+        if (snapshot != null) {
+            snapshotsSize.addAndGet(-snapshot.estimatedSize());
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.isDirectory(i)) {
+                    cancelDirectoryWatcher(directory.resolve(snapshot.getName(i)));
                 }
             }
-            watchedDirectories.put(directory, watchedDirectory);
         }
     }
 
-    private void cancelDirectoryWatcher(Path path) {
-        WatchedDirectory watchedDirectory = watchedDirectories.remove(path);
-        if (watchedDirectory != null) {
-            watchedDirectory.getWatchKey().cancel();
+    /** Adds all watched sub-directories of directory to the set of directories that should be rescanned. */
+    private void addSubDirectories(Path directory, Set<Path> pendingDirectories) {
+        DirectorySnapshot snapshot = watchedDirectories.get(directory);
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.isDirectory(i)) {
+                    Path subDirectory = directory.resolve(snapshot.getName(i));
+                    pendingDirectories.add(subDirectory);
+                    addSubDirectories(subDirectory, pendingDirectories);
+                }
+            }
         }
     }
 
     private class WatchEventTask implements Runnable {
-        final Set<PendingEvent> pendingEvents = newLinkedHashSet();
+        final Set<Path> pendingDirectories = newLinkedHashSet();
+        long firstPendingTime;
 
         @Override
         public void run() {
             while (running.get()) {
                 try {
-                    WatchKey watchKey;
-                    if (pendingEvents.isEmpty()) {
-                        watchKey = watchService.take();
+                    FileWatcherBackend.DirectoryChange change;
+                    if (pendingDirectories.isEmpty()) {
+                        change = backend.take();
                     } else {
-                        watchKey = watchService.poll(EVENT_PROCESS_TIMEOUT_SEC, SECONDS);
-                        if (watchKey == null) {
-                            processPendingEvents(pendingEvents);
-                            pendingEvents.clear();
+                        long waitTime = Math.min(EVENT_PROCESS_TIMEOUT_MS, firstPendingTime + MAX_EVENT_DELAY_MS - System.currentTimeMillis());
+                        change = waitTime > 0 ? backend.poll(waitTime, MILLISECONDS) : null;
+                        if (change == null) {
+                            processPendingDirectories(pendingDirectories);
+                            // Not processed directories left if batch limit is reached, process them without delay.
+                            firstPendingTime = 0;
                         }
                     }
-                    if (watchKey != null) {
-                        pendingEvents.add(new PendingEvent((Path)watchKey.watchable()));
-                        watchKey.pollEvents();
-                        watchKey.reset();
+                    if (change != null) {
+                        if (pendingDirectories.isEmpty()) {
+                            firstPendingTime = System.currentTimeMillis();
+                        }
+                        pendingDirectories.add(change.getDirectory());
+                        if (change.isOverflow()) {
+                            addSubDirectories(change.getDirectory(), pendingDirectories);
+                        }
                     }
                 } catch (InterruptedException | ClosedWatchServiceException e) {
                     running.set(false);
@@ -270,176 +315,266 @@ public class FileTreeWatcher {
         }
     }
 
-    private void processPendingEvents(Collection<PendingEvent> pendingEvents) throws IOException {
-        for (PendingEvent pendingEvent : pendingEvents) {
-            Path eventDirectoryPath = pendingEvent.getPath();
-            WatchedDirectory watchedDirectory = watchedDirectories.get(eventDirectoryPath);
-            if (Files.exists(eventDirectoryPath)) {
-                final int hitCounter = watchedDirectory.incrementHitCounter();
-                try (DirectoryStream<Path> entries = Files.newDirectoryStream(eventDirectoryPath)) {
-                    for (Path fsItem : entries) {
-                        DirectoryItem directoryItem = watchedDirectory.getItem(fsItem.getFileName());
-                        if (directoryItem == null) {
-                            try {
-                                boolean directory = Files.isDirectory(fsItem);
-                                directoryItem = new DirectoryItem(fsItem.getFileName(), directory, getLastModifiedInMillis(fsItem));
-                                watchedDirectory.addItem(directoryItem);
-                                fireWatchEvent(CREATED, fsItem, directoryItem.isDirectory());
-                                if (directory) {
-                                    walkTreeAndFireCreatedEvents(fsItem);
-                                    setupDirectoryWatcher(fsItem);
-                                }
-                            } catch (IOException ignored) {
-                            }
-                        } else {
-                            long lastModified;
-                            try {
-                                lastModified = getLastModifiedInMillis(fsItem);
-                            } catch (IOException ignored) {
-                                continue;
-                            }
-                            if (lastModified != directoryItem.getLastModified() && Files.isRegularFile(fsItem)) {
-                                fireWatchEvent(MODIFIED, fsItem, false);
-                            }
-                            directoryItem.touch(lastModified);
-                            directoryItem.updateHitCounter(hitCounter);
-                        }
-                    }
-                }
-
-                for (Iterator<DirectoryItem> iterator = watchedDirectory.getItems().iterator(); iterator.hasNext(); ) {
-                    DirectoryItem directoryItem = iterator.next();
-                    if (hitCounter != directoryItem.getHitCount()) {
-                        iterator.remove();
-                        fireWatchEvent(DELETED, eventDirectoryPath.resolve(directoryItem.getName()), directoryItem.isDirectory());
-                    }
-                }
-            } else {
-                for (DirectoryItem directoryItem : watchedDirectory.getItems()) {
-                    fireWatchEvent(DELETED, eventDirectoryPath.resolve(directoryItem.getName()), directoryItem.isDirectory());
-                }
-                watchedDirectories.remove(eventDirectoryPath);
+    private void processPendingDirectories(Set<Path> pendingDirectories) {
+        final EventBatch batch = new EventBatch();
+        int processed = 0;
+        for (Iterator<Path> iterator = pendingDirectories.iterator(); iterator.hasNext() && processed < MAX_DIRECTORIES_PER_BATCH; ) {
+            Path directory = iterator.next();
+            iterator.remove();
+            processed++;
+            try {
+                processDirectory(directory, batch);
+            } catch (IOException e) {
+                LOG.warn("Unable process changes in directory {}. {}", directory, e.getMessage());
             }
         }
+        fireWatchEvents(batch);
     }
 
-    private void fireWatchEvent(FileWatcherEventType eventType, Path eventPath, boolean isDirectory) {
-        Path relativePath = watchRootPath.relativize(eventPath);
-        if (shouldNotify(relativePath)) {
-            fileWatcherNotificationHandler.handleFileWatcherEvent(eventType, watchRoot, relativePath.toString(), isDirectory);
+    private void processDirectory(Path directory, EventBatch batch) throws IOException {
+        DirectorySnapshot snapshot = watchedDirectories.get(directory);
+        if (snapshot == null) {
+            // Directory is removed from the watched set together with its parent.
+            return;
         }
-    }
-
-    private long getLastModifiedInMillis(Path path) throws IOException {
-        return getLastModifiedTime(path, NOFOLLOW_LINKS).toMillis();
-    }
-
-    static class PendingEvent {
-        final Path path;
-
-        PendingEvent(Path path) {
-            this.path = path;
+        if (!Files.isDirectory(directory, NOFOLLOW_LINKS)) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                batch.add(DELETED, directory.resolve(snapshot.getName(i)), snapshot.isDirectory(i));
+            }
+            cancelDirectoryWatcher(directory);
+            return;
         }
-
-        Path getPath() {
-            return path;
+        DirectorySnapshot newSnapshot;
+        try {
+            newSnapshot = DirectorySnapshot.of(directory);
+        } catch (NoSuchFileException e) {
+            newSnapshot = DirectorySnapshot.EMPTY;
         }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
+        if (newSnapshot.sameAs(snapshot)) {
+            return;
+        }
+        putSnapshot(directory, newSnapshot);
+
+        int i = 0;
+        int j = 0;
+        while (i < snapshot.size() || j < newSnapshot.size()) {
+            int cmp;
+            if (i == snapshot.size()) {
+                cmp = 1;
+            } else if (j == newSnapshot.size()) {
+                cmp = -1;
+            } else {
+                cmp = snapshot.getName(i).compareTo(newSnapshot.getName(j));
             }
-            if (o instanceof PendingEvent) {
-                PendingEvent other = (PendingEvent)o;
-                return Objects.equals(path, other.path);
+            if (cmp < 0) {
+                itemDeleted(directory.resolve(snapshot.getName(i)), snapshot.isDirectory(i), batch);
+                i++;
+            } else if (cmp > 0) {
+                itemCreated(directory.resolve(newSnapshot.getName(j)), newSnapshot.isDirectory(j), batch);
+                j++;
+            } else {
+                Path item = directory.resolve(newSnapshot.getName(j));
+                if (snapshot.isDirectory(i) != newSnapshot.isDirectory(j)) {
+                    itemDeleted(item, snapshot.isDirectory(i), batch);
+                    itemCreated(item, newSnapshot.isDirectory(j), batch);
+                } else if (!newSnapshot.isDirectory(j) && snapshot.getLastModified(i) != newSnapshot.getLastModified(j)) {
+                    batch.add(MODIFIED, item, false);
+                }
+                i++;
+                j++;
             }
-            return false;
         }
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hashCode(path);
+    private void itemCreated(Path item, boolean directory, EventBatch batch) throws IOException {
+        batch.add(CREATED, item, directory);
+        if (directory) {
+            walkTreeSetupWatchesAndAddCreatedEvents(item, batch);
         }
     }
 
-    static class WatchedDirectory {
-        final Path                path;
-        final WatchKey            watchKey;
-        final List<DirectoryItem> items;
-        int hitCounter;
-
-        WatchedDirectory(Path path, WatchKey watchKey) {
-            this.path = path;
-            this.watchKey = watchKey;
-            items = newArrayList();
+    private void itemDeleted(Path item, boolean directory, EventBatch batch) {
+        batch.add(DELETED, item, directory);
+        if (directory) {
+            cancelDirectoryWatcher(item);
         }
+    }
 
-        WatchKey getWatchKey() {
-            return watchKey;
+    private void fireWatchEvents(EventBatch batch) {
+        int fired = 0;
+        for (Map.Entry<EventBatch.Item, FileWatcherEventType> entry : batch.events.entrySet()) {
+            EventBatch.Item item = entry.getKey();
+            Path relativePath = watchRootPath.relativize(item.path);
+            if (shouldNotify(relativePath)) {
+                fileWatcherNotificationHandler.handleFileWatcherEvent(entry.getValue(), watchRoot, relativePath.toString(), item.directory);
+                fired++;
+            }
         }
-
-        Path getPath() {
-            return path;
+        long total = eventsCounter.addAndGet(fired);
+        long now = System.currentTimeMillis();
+        if (now - eventRateStartTime >= 1000) {
+            eventsPerSecond = (total - eventRateStartCount) * 1000.0 / (now - eventRateStartTime);
+            eventRateStartTime = now;
+            eventRateStartCount = total;
+        }
+        if (fired > 0 && now - statsLogTime >= STATS_LOG_PERIOD_MS) {
+            statsLogTime = now;
+            LOG.info("Watching {} directories of {}: {} events since startup, {} events per second, snapshots use {} bytes",
+                     watchedDirectories.size(), watchRoot, total, String.format("%.1f", eventsPerSecond), getSnapshotsMemoryUsage());
         }
+    }
 
-        DirectoryItem getItem(Path name) {
-            for (DirectoryItem item : items) {
-                if (item.getName().equals(name)) {
-                    return item;
+    /**
+     * Events of one batch, coalesced by path and type of item. Order of events is kept. File and directory with the same path
+     * are different items, so if file is replaced with directory both DELETED and CREATED events are kept.
+     */
+    static class EventBatch {
+        final Map<Item, FileWatcherEventType> events = new LinkedHashMap<>();
+
+        void add(FileWatcherEventType type, Path path, boolean directory) {
+            final Item item = new Item(path, directory);
+            final FileWatcherEventType previous = events.get(item);
+            if (previous == null) {
+                events.put(item, type);
+            } else if (previous == CREATED) {
+                if (type == DELETED) {
+                    // Item appeared and disappeared, nobody has seen it.
+                    events.remove(item);
                 }
+                // CREATED + MODIFIED is still CREATED
+            } else if (previous == DELETED) {
+                if (type == CREATED) {
+                    events.remove(item);
+                    events.put(item, directory ? CREATED : MODIFIED);
+                }
+            } else if (type == DELETED) {
+                // MODIFIED + DELETED is DELETED
+                events.put(item, DELETED);
             }
-            return null;
         }
 
-        void addItem(DirectoryItem item) {
-            item.updateHitCounter(this.hitCounter);
-            items.add(item);
-        }
+        static class Item {
+            final Path    path;
+            final boolean directory;
 
-        List<DirectoryItem> getItems() {
-            return items;
-        }
+            Item(Path path, boolean directory) {
+                this.path = path;
+                this.directory = directory;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) {
+                    return true;
+                }
+                if (o instanceof Item) {
+                    Item other = (Item)o;
+                    return directory == other.directory && path.equals(other.path);
+                }
+                return false;
+            }
 
-        int incrementHitCounter() {
-            return ++hitCounter;
+            @Override
+            public int hashCode() {
+                return 31 * path.hashCode() + (directory ? 1 : 0);
+            }
         }
     }
 
-    static class DirectoryItem {
-        final Path    name;
-        final boolean directory;
-        long lastModified;
-        int  hitCounter;
-
-        DirectoryItem(Path name, boolean directory, long lastModified) {
-            this.name = name;
-            this.directory = directory;
+    /**
+     * Compact snapshot of directory content. Names of items are kept sorted in array, modification time in array of primitives
+     * and type of items in bit set, so there is no object per item except of name. Hash of the whole snapshot allows quick
+     * check that directory is not changed.
+     */
+    static class DirectorySnapshot {
+        static final DirectorySnapshot EMPTY = new DirectorySnapshot(new String[0], new long[0], new BitSet(0));
+
+        private final String[] names;
+        private final long[]   lastModified;
+        private final BitSet   directories;
+        private final long     hash;
+
+        DirectorySnapshot(String[] names, long[] lastModified, BitSet directories) {
+            this.names = names;
             this.lastModified = lastModified;
+            this.directories = directories;
+            long h = names.length;
+            for (int i = 0; i < names.length; i++) {
+                h = h * 0x9E3779B97F4A7C15L + names[i].hashCode();
+                h = h * 0x9E3779B97F4A7C15L + lastModified[i];
+                h = h * 0x9E3779B97F4A7C15L + (directories.get(i) ? 1 : 0);
+            }
+            this.hash = h;
         }
 
-        long getLastModified() {
-            return lastModified;
+        static DirectorySnapshot of(Path directory) throws IOException {
+            final List<String> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    entries.add(entry.getFileName().toString());
+                }
+            }
+            if (entries.isEmpty()) {
+                return EMPTY;
+            }
+            Collections.sort(entries);
+            String[] names = new String[entries.size()];
+            long[] lastModified = new long[entries.size()];
+            BitSet directories = new BitSet(entries.size());
+            int size = 0;
+            for (String name : entries) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(directory.resolve(name), BasicFileAttributes.class, NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    // Removed after directory is read, will be reported with next change in this directory if any.
+                    continue;
+                }
+                names[size] = name;
+                lastModified[size] = attributes.lastModifiedTime().toMillis();
+                if (attributes.isDirectory()) {
+                    directories.set(size);
+                }
+                size++;
+            }
+            if (size < names.length) {
+                names = Arrays.copyOf(names, size);
+                lastModified = Arrays.copyOf(lastModified, size);
+            }
+            return new DirectorySnapshot(names, lastModified, directories);
         }
 
-        Path getName() {
-            return name;
+        int size() {
+            return names.length;
         }
 
-        boolean isDirectory() {
-            return directory;
+        String getName(int index) {
+            return names[index];
         }
 
-        void touch(long lastModified) {
-            this.lastModified = lastModified;
+        long getLastModified(int index) {
+            return lastModified[index];
         }
 
-        int getHitCount() {
-            return hitCounter;
+        boolean isDirectory(int index) {
+            return directories.get(index);
         }
 
-        void updateHitCounter(int hitCounter) {
-            this.hitCounter = hitCounter;
+        boolean sameAs(DirectorySnapshot other) {
+            // hash only allows to skip comparison of different snapshots quickly, equal hashes may collide
+            return hash == other.hash
+                   && Arrays.equals(names, other.names)
+                   && Arrays.equals(lastModified, other.lastModified)
+                   && directories.equals(other.directories);
+        }
+
+        /** Estimated size of this snapshot in bytes. */
+        long estimatedSize() {
+            long size = 64 + 16L * names.length + directories.size() / 8;
+            for (String name : names) {
+                size += 40 + 2L * name.length();
+            }
+            return size;
         }
     }
 }
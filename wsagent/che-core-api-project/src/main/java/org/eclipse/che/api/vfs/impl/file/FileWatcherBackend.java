@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of native file system notifications for {@link FileTreeWatcher}. Backend watches registered directories (not
+ * recursively) and reports directories which content might be changed. {@link FileTreeWatcher} is responsible for finding
+ * out what exactly is changed in directory and for notifying {@link FileWatcherNotificationHandler}.
+ * <p/>
+ * Methods {@link #take()} and {@link #poll(long, TimeUnit)} throw {@link ClosedWatchServiceException} if backend is closed.
+ *
+ * @see JdkFileWatcherBackend
+ */
+public interface FileWatcherBackend extends Closeable {
+    /** Prepares backend for watching. Must be called once before any other method. */
+    void start() throws IOException;
+
+    /** Starts watching of the specified directory. Does nothing if directory is already watched. */
+    void register(Path directory) throws IOException;
+
+    /** Stops watching of the specified directory. Does nothing if directory is not watched. */
+    void cancel(Path directory);
+
+    /** Waits for next change. */
+    DirectoryChange take() throws InterruptedException;
+
+    /** Waits for next change not longer than specified timeout. Returns {@code null} if timeout is reached. */
+    DirectoryChange poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /** Notification about changes in the content of watched directory. */
+    class DirectoryChange {
+        private final Path    directory;
+        private final boolean overflow;
+
+        public DirectoryChange(Path directory, boolean overflow) {
+            this.directory = directory;
+            this.overflow = overflow;
+        }
+
+        /** Returns watched directory which content is changed. */
+        public Path getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Returns {@code true} if some events are lost by the backend. In this case not only directory itself but also its
+         * sub-directories might be changed.
+         */
+        public boolean isOverflow() {
+            return overflow;
+        }
+    }
+}
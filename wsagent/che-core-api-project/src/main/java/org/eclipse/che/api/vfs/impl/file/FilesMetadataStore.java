@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Keeps metadata of each item in separate files next to the item: lock in {@code .vfs/locks/<name>_lock} and properties in
+ * {@code .vfs/props/<name>_props}. Metadata files of descendants of folder are copied and deleted together with content of folder.
+ */
+class FilesMetadataStore implements FileMetadataStore {
+    static final String FILE_LOCKS_DIR         = LocalVirtualFileSystem.VFS_SERVICE_DIR + File.separatorChar + "locks";
+    static final String LOCK_FILE_SUFFIX       = "_lock";
+    static final String FILE_PROPERTIES_DIR    = LocalVirtualFileSystem.VFS_SERVICE_DIR + File.separatorChar + "props";
+    static final String PROPERTIES_FILE_SUFFIX = "_props";
+
+    private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
+
+    private class LockTokenCacheLoader extends CacheLoader<Path, FileLock> {
+        @Override
+        public FileLock load(Path path) throws Exception {
+            final File lockIoFile = getFileLockIoFile(path);
+            if (lockIoFile.exists()) {
+                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)))) {
+                    return locksSerializer.read(dis);
+                }
+            }
+            return NO_LOCK;
+        }
+    }
+
+    private class FilePropertiesCacheLoader extends CacheLoader<Path, Map<String, String>> {
+        @Override
+        public Map<String, String> load(Path path) throws Exception {
+            final File metadataIoFile = getMetadataIoFile(path);
+            if (metadataIoFile.exists()) {
+                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)))) {
+                    return ImmutableMap.copyOf(metadataSerializer.read(dis));
+                }
+            }
+            return emptyMap();
+        }
+    }
+
+    private final File                                    ioRoot;
+    private final FileLockSerializer                      locksSerializer;
+    private final LoadingCache<Path, FileLock>            lockTokensCache;
+    private final FileMetadataSerializer                  metadataSerializer;
+    private final LoadingCache<Path, Map<String, String>> metadataCache;
+
+    FilesMetadataStore(File ioRoot) {
+        this.ioRoot = ioRoot;
+
+        locksSerializer = new FileLockSerializer();
+        lockTokensCache = CacheBuilder.newBuilder()
+                                      .concurrencyLevel(8)
+                                      .maximumSize(256)
+                                      .expireAfterAccess(10, MINUTES)
+                                      .build(new LockTokenCacheLoader());
+
+        metadataSerializer = new FileMetadataSerializer();
+        metadataCache = CacheBuilder.newBuilder()
+                                    .concurrencyLevel(8)
+                                    .maximumSize(256)
+                                    .expireAfterAccess(10, MINUTES)
+                                    .build(new FilePropertiesCacheLoader());
+    }
+
+    @Override
+    public FileLock getLock(Path path) throws IOException {
+        final FileLock lock = get(lockTokensCache, path);
+        return lock == NO_LOCK ? null : lock;
+    }
+
+    @Override
+    public void putLock(Path path, FileLock lock) throws IOException {
+        final File fileLockIoFile = getFileLockIoFile(path);
+        fileLockIoFile.getParentFile().mkdirs();
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileLockIoFile)))) {
+            locksSerializer.write(dos, lock);
+        }
+        lockTokensCache.put(path, lock);
+    }
+
+    @Override
+    public void removeLock(Path path) throws IOException {
+        deleteIfExists(getFileLockIoFile(path));
+        lockTokensCache.put(path, NO_LOCK);
+    }
+
+    @Override
+    public Map<String, String> getProperties(Path path) throws IOException {
+        return get(metadataCache, path);
+    }
+
+    @Override
+    public void putProperties(Path path, Map<String, String> properties) throws IOException {
+        final File metadataIoFile = getMetadataIoFile(path);
+        if (properties.isEmpty()) {
+            deleteIfExists(metadataIoFile);
+        } else {
+            metadataIoFile.getParentFile().mkdirs();
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataIoFile)))) {
+                metadataSerializer.write(dos, properties);
+            }
+        }
+        metadataCache.put(path, ImmutableMap.copyOf(properties));
+    }
+
+    @Override
+    public void copy(Path source, Path destination) throws IOException {
+        // metadata of descendants is copied with content of folder
+        invalidate(destination);
+        final File sourceMetadataFile = getMetadataIoFile(source);
+        if (sourceMetadataFile.exists()) {
+            IoUtil.copy(sourceMetadataFile, getMetadataIoFile(destination), null);
+        }
+    }
+
+    @Override
+    public void delete(Path path) throws IOException {
+        // metadata of descendants is deleted with content of folder
+        invalidate(path);
+        deleteIfExists(getFileLockIoFile(path));
+        deleteIfExists(getMetadataIoFile(path));
+    }
+
+    @Override
+    public void close() {
+        lockTokensCache.invalidateAll();
+        metadataCache.invalidateAll();
+    }
+
+    /** Removes cached metadata of item and its descendants. */
+    private void invalidate(Path path) {
+        lockTokensCache.asMap().keySet().removeIf(cached -> cached.equals(path) || cached.isChild(path));
+        metadataCache.asMap().keySet().removeIf(cached -> cached.equals(path) || cached.isChild(path));
+    }
+
+    private <T> T get(LoadingCache<Path, T> cache, Path path) throws IOException {
+        try {
+            return cache.get(path);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private void deleteIfExists(File file) throws IOException {
+        if (!file.delete() && file.exists()) {
+            throw new IOException(String.format("Unable delete metadata file %s", file));
+        }
+    }
+
+    private File getFileLockIoFile(Path virtualFilePath) {
+        return getServiceIoFile(virtualFilePath, FILE_LOCKS_DIR, virtualFilePath.getName() + LOCK_FILE_SUFFIX);
+    }
+
+    private File getMetadataIoFile(Path virtualFilePath) {
+        return getServiceIoFile(virtualFilePath, FILE_PROPERTIES_DIR, virtualFilePath.getName() + PROPERTIES_FILE_SUFFIX);
+    }
+
+    private File getServiceIoFile(Path virtualFilePath, String serviceDir, String fileName) {
+        final Path metadataFilePath;
+        if (virtualFilePath.isRoot()) {
+            metadataFilePath = virtualFilePath.newPath(serviceDir, fileName);
+        } else {
+            metadataFilePath = virtualFilePath.getParent().newPath(serviceDir, fileName);
+        }
+        return new File(ioRoot, metadataFilePath.join(File.separatorChar));
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Implementation of {@link FileWatcherBackend} based on the {@link WatchService} of default file system. On Linux it uses
+ * inotify, one watch descriptor per watched directory. On systems that don't have native support {@code WatchService}
+ * falls back to polling, in this case the highest sensitivity is requested.
+ */
+public class JdkFileWatcherBackend implements FileWatcherBackend {
+    private static final Logger LOG = LoggerFactory.getLogger(JdkFileWatcherBackend.class);
+
+    private final Map<Path, WatchKey> watchKeys;
+    private       WatchService        watchService;
+    private       WatchEvent.Modifier[] watchEventModifiers;
+
+    public JdkFileWatcherBackend() {
+        watchKeys = new ConcurrentHashMap<>();
+        watchEventModifiers = new WatchEvent.Modifier[0];
+    }
+
+    @Override
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        if (isPollingWatchService(watchService)) {
+            WatchEvent.Modifier sensitivity = createSensitivityWatchEventModifier();
+            if (sensitivity != null) {
+                watchEventModifiers = new WatchEvent.Modifier[]{sensitivity};
+            }
+        }
+    }
+
+    private boolean isPollingWatchService(WatchService watchService) {
+        return "sun.nio.fs.PollingWatchService".equals(watchService.getClass().getName());
+    }
+
+    private WatchEvent.Modifier createSensitivityWatchEventModifier() {
+        try {
+            Class<?> aModifierEnum = Class.forName("com.sun.nio.file.SensitivityWatchEventModifier");
+            Object[] sensitivityEnumConstants = aModifierEnum.getEnumConstants();
+            return (WatchEvent.Modifier)sensitivityEnumConstants[0];
+        } catch (Exception e) {
+            LOG.warn("Can't create 'com.sun.nio.file.SensitivityWatchEventModifier'", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void register(Path directory) throws IOException {
+        if (!watchKeys.containsKey(directory)) {
+            WatchKey watchKey = directory.register(watchService,
+                                                   new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY, OVERFLOW},
+                                                   watchEventModifiers);
+            watchKeys.put(directory, watchKey);
+        }
+    }
+
+    @Override
+    public void cancel(Path directory) {
+        WatchKey watchKey = watchKeys.remove(directory);
+        if (watchKey != null) {
+            watchKey.cancel();
+        }
+    }
+
+    @Override
+    public DirectoryChange take() throws InterruptedException {
+        return toDirectoryChange(watchService.take());
+    }
+
+    @Override
+    public DirectoryChange poll(long timeout, TimeUnit unit) throws InterruptedException {
+        WatchKey watchKey = watchService.poll(timeout, unit);
+        return watchKey == null ? null : toDirectoryChange(watchKey);
+    }
+
+    private DirectoryChange toDirectoryChange(WatchKey watchKey) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                overflow = true;
+            }
+        }
+        watchKey.reset();
+        return new DirectoryChange((Path)watchKey.watchable(), overflow);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchKeys.clear();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyMap;
+
+/**
+ * Keeps metadata of all items of file system in one append-only journal with in-memory index. Each change of metadata is appended to
+ * the journal as one record, copying and deleting of folder is one record regardless of number of its descendants. The journal is read
+ * once when store is opened, and it is rewritten with the current state of index when it contains too many outdated records.
+ * <p/>
+ * When store is opened first time, metadata that is kept in {@code .vfs} folders by {@link FilesMetadataStore} is moved to the journal.
+ */
+class JournalMetadataStore implements FileMetadataStore {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalMetadataStore.class);
+
+    /** Location of journal relative to root folder of file system. */
+    static final String JOURNAL_FILE           = LocalVirtualFileSystem.VFS_SERVICE_DIR + File.separatorChar + "metadata.journal";
+    /** Journal isn't compacted until it has this number of records. */
+    static final int    MIN_COMPACTION_RECORDS = 10_000;
+
+    private static final int  MAGIC             = 0x76667331; // vfs1
+    private static final byte PUT_LOCK          = 1;
+    private static final byte REMOVE_LOCK       = 2;
+    private static final byte PUT_PROPERTIES    = 3;
+    private static final byte REMOVE_PROPERTIES = 4;
+    private static final byte COPY              = 5;
+    private static final byte DELETE            = 6;
+
+    private final File                                               ioRoot;
+    private final File                                               journal;
+    private final FileLockSerializer                                 locksSerializer;
+    private final FileMetadataSerializer                             metadataSerializer;
+    private final ConcurrentSkipListMap<String, FileLock>            locks;
+    private final ConcurrentSkipListMap<String, Map<String, String>> properties;
+
+    private DataOutputStream output;
+    private int              records;
+
+    JournalMetadataStore(File ioRoot) throws IOException {
+        this(ioRoot, new File(ioRoot, JOURNAL_FILE));
+    }
+
+    /**
+     * @param ioRoot
+     *         root folder of file system
+     * @param journal
+     *         journal file, it is created and filled with metadata from {@code .vfs} folders if it doesn't exist
+     */
+    JournalMetadataStore(File ioRoot, File journal) throws IOException {
+        this.ioRoot = ioRoot;
+        this.journal = journal;
+        locksSerializer = new FileLockSerializer();
+        metadataSerializer = new FileMetadataSerializer();
+        locks = new ConcurrentSkipListMap<>();
+        properties = new ConcurrentSkipListMap<>();
+        if (journal.exists()) {
+            replay();
+        } else {
+            migrate();
+        }
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journal, true)));
+    }
+
+    @Override
+    public FileLock getLock(Path path) {
+        return locks.get(path.toString());
+    }
+
+    @Override
+    public synchronized void putLock(Path path, FileLock lock) throws IOException {
+        append(PUT_LOCK, path.toString(), null, lock, null);
+        locks.put(path.toString(), lock);
+    }
+
+    @Override
+    public synchronized void removeLock(Path path) throws IOException {
+        if (locks.containsKey(path.toString())) {
+            append(REMOVE_LOCK, path.toString(), null, null, null);
+            locks.remove(path.toString());
+        }
+    }
+
+    @Override
+    public Map<String, String> getProperties(Path path) {
+        final Map<String, String> itemProperties = properties.get(path.toString());
+        return itemProperties == null ? emptyMap() : itemProperties;
+    }
+
+    @Override
+    public synchronized void putProperties(Path path, Map<String, String> newProperties) throws IOException {
+        if (newProperties.isEmpty()) {
+            if (properties.containsKey(path.toString())) {
+                append(REMOVE_PROPERTIES, path.toString(), null, null, null);
+                properties.remove(path.toString());
+            }
+        } else {
+            final Map<String, String> copy = ImmutableMap.copyOf(newProperties);
+            append(PUT_PROPERTIES, path.toString(), null, null, copy);
+            properties.put(path.toString(), copy);
+        }
+    }
+
+    @Override
+    public synchronized void copy(Path source, Path destination) throws IOException {
+        append(COPY, source.toString(), destination.toString(), null, null);
+        applyCopy(source.toString(), destination.toString());
+    }
+
+    @Override
+    public synchronized void delete(Path path) throws IOException {
+        append(DELETE, path.toString(), null, null, null);
+        applyDelete(path.toString());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+    }
+
+    private void applyCopy(String source, String destination) {
+        applyDelete(destination);
+        final Map<String, String> sourceProperties = properties.get(source);
+        if (sourceProperties != null) {
+            properties.put(destination, sourceProperties);
+        }
+        for (Map.Entry<String, Map<String, String>> descendant : descendants(properties, source).entrySet()) {
+            properties.put(destination + descendant.getKey().substring(source.length()), descendant.getValue());
+        }
+    }
+
+    private void applyDelete(String path) {
+        locks.remove(path);
+        properties.remove(path);
+        descendants(locks, path).clear();
+        descendants(properties, path).clear();
+    }
+
+    /** Gets view of entries of map which keys are paths of descendants of {@code path}. */
+    private static <V> NavigableMap<String, V> descendants(ConcurrentSkipListMap<String, V> map, String path) {
+        if ("/".equals(path)) {
+            return map;
+        }
+        // all keys that start with "path/", '0' follows '/' in ASCII
+        return map.subMap(path + '/', true, path + '0', false);
+    }
+
+    private void append(byte type, String path, String destination, FileLock lock, Map<String, String> itemProperties)
+            throws IOException {
+        if (output == null) {
+            throw new IOException("Metadata store is closed");
+        }
+        writeRecord(output, type, path, destination, lock, itemProperties);
+        output.flush();
+        if (++records >= MIN_COMPACTION_RECORDS && records > 2 * (locks.size() + properties.size())) {
+            compact();
+        }
+    }
+
+    private void writeRecord(DataOutputStream out, byte type, String path, String destination, FileLock lock,
+                             Map<String, String> itemProperties) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DataOutputStream record = new DataOutputStream(buffer);
+        record.writeByte(type);
+        record.writeUTF(path);
+        if (destination != null) {
+            record.writeUTF(destination);
+        }
+        if (lock != null) {
+            locksSerializer.write(record, lock);
+        }
+        if (itemProperties != null) {
+            metadataSerializer.write(record, itemProperties);
+        }
+        final byte[] bytes = buffer.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.writeInt((int)crc.getValue());
+        out.write(bytes);
+    }
+
+    /** Rewrites journal with the current state of index. */
+    private void compact() throws IOException {
+        output.close();
+        output = null;
+        writeSnapshot();
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journal, true)));
+    }
+
+    private void writeSnapshot() throws IOException {
+        final File parent = journal.getParentFile();
+        if (!(parent.exists() || parent.mkdirs())) {
+            throw new IOException(String.format("Unable create directory %s", parent));
+        }
+        final File tmp = new File(parent, journal.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            for (Map.Entry<String, FileLock> entry : locks.entrySet()) {
+                writeRecord(out, PUT_LOCK, entry.getKey(), null, entry.getValue(), null);
+            }
+            for (Map.Entry<String, Map<String, String>> entry : properties.entrySet()) {
+                writeRecord(out, PUT_PROPERTIES, entry.getKey(), null, null, entry.getValue());
+            }
+        }
+        Files.move(tmp.toPath(), journal.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        records = locks.size() + properties.size();
+    }
+
+    private void replay() throws IOException {
+        final long journalLength = journal.length();
+        long validLength = 4;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(String.format("Unsupported format of metadata journal %s", journal));
+            }
+            for (; ; ) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                final int checksum;
+                final byte[] bytes;
+                try {
+                    if (length < 0 || validLength + 8 + length > journalLength) {
+                        throw new EOFException();
+                    }
+                    checksum = in.readInt();
+                    bytes = new byte[length];
+                    in.readFully(bytes);
+                } catch (EOFException incomplete) {
+                    LOG.warn("Metadata journal {} ends with incomplete record, it is truncated", journal);
+                    break;
+                }
+                final CRC32 crc = new CRC32();
+                crc.update(bytes);
+                if ((int)crc.getValue() != checksum) {
+                    LOG.warn("Metadata journal {} contains broken record, it is truncated", journal);
+                    break;
+                }
+                applyRecord(new DataInputStream(new ByteArrayInputStream(bytes)));
+                validLength += 8 + length;
+                records++;
+            }
+        }
+        if (validLength < journalLength) {
+            try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+                file.setLength(validLength);
+            }
+        }
+    }
+
+    private void applyRecord(DataInputStream record) throws IOException {
+        final byte type = record.readByte();
+        final String path = record.readUTF();
+        switch (type) {
+            case PUT_LOCK:
+                locks.put(path, locksSerializer.read(record));
+                break;
+            case REMOVE_LOCK:
+                locks.remove(path);
+                break;
+            case PUT_PROPERTIES:
+                properties.put(path, ImmutableMap.copyOf(metadataSerializer.read(record)));
+                break;
+            case REMOVE_PROPERTIES:
+                properties.remove(path);
+                break;
+            case COPY:
+                applyCopy(path, record.readUTF());
+                break;
+            case DELETE:
+                applyDelete(path);
+                break;
+            default:
+                throw new IOException(String.format("Unknown type of record %d in metadata journal %s", type, journal));
+        }
+    }
+
+    /** Moves metadata from lock and properties files in {@code .vfs} folders to the journal. */
+    private void migrate() throws IOException {
+        final List<File> migrated = new ArrayList<>();
+        if (ioRoot.isDirectory()) {
+            Files.walkFileTree(ioRoot.toPath(), new SimpleFileVisitor<java.nio.file.Path>() {
+                @Override
+                public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) throws IOException {
+                    final java.nio.file.Path serviceDir = file.getParent();
+                    final java.nio.file.Path dotVfs = serviceDir.getParent();
+                    if (dotVfs == null || !LocalVirtualFileSystem.VFS_SERVICE_DIR.equals(dotVfs.getFileName().toString())) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    final String fileName = file.getFileName().toString();
+                    final String serviceDirName = serviceDir.getFileName().toString();
+                    if ("locks".equals(serviceDirName) && fileName.endsWith(FilesMetadataStore.LOCK_FILE_SUFFIX)) {
+                        final String itemName = fileName.substring(0, fileName.length() - FilesMetadataStore.LOCK_FILE_SUFFIX.length());
+                        final FileLock lock = read(file.toFile(), locksSerializer);
+                        if (lock.getExpired() >= System.currentTimeMillis()) {
+                            locks.put(toItemPath(dotVfs.getParent(), itemName), lock);
+                        }
+                        migrated.add(serviceDir.toFile());
+                    } else if ("props".equals(serviceDirName) && fileName.endsWith(FilesMetadataStore.PROPERTIES_FILE_SUFFIX)) {
+                        final String itemName =
+                                fileName.substring(0, fileName.length() - FilesMetadataStore.PROPERTIES_FILE_SUFFIX.length());
+                        final Map<String, String> itemProperties = read(file.toFile(), metadataSerializer);
+                        if (!itemProperties.isEmpty()) {
+                            properties.put(toItemPath(dotVfs.getParent(), itemName), ImmutableMap.copyOf(itemProperties));
+                        }
+                        migrated.add(serviceDir.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        writeSnapshot();
+        for (File serviceDir : migrated) {
+            if (serviceDir.exists() && !IoUtil.deleteRecursive(serviceDir)) {
+                LOG.warn("Unable delete migrated metadata {}", serviceDir);
+            }
+        }
+        if (!migrated.isEmpty()) {
+            LOG.info("Metadata of {} locks and {} items moved to {}", locks.size(), properties.size(), journal);
+        }
+    }
+
+    private String toItemPath(java.nio.file.Path ioFolder, String itemName) {
+        final Path folder = Path.of(ioRoot.toPath().relativize(ioFolder).toString().replace(File.separatorChar, '/'));
+        return (itemName.isEmpty() ? Path.ROOT.newPath(folder) : Path.ROOT.newPath(folder).newPath(itemName)).toString();
+    }
+
+    private static <T> T read(File file, DataSerializer<T> serializer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return serializer.read(in);
+        }
+    }
+}
@@ -10,10 +10,6 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.impl.file;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
@@ -25,6 +21,7 @@ import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.Archiver;
 import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.HashSumsCache;
 import org.eclipse.che.api.vfs.HashSumsCounter;
 import org.eclipse.che.api.vfs.LockedFileFinder;
 import org.eclipse.che.api.vfs.Path;
@@ -41,13 +38,8 @@ import org.eclipse.che.commons.lang.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
@@ -56,16 +48,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Lists.newArrayListWithCapacity;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
-import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.eclipse.che.api.vfs.VirtualFileFilters.dotGitFilter;
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
 
@@ -82,43 +72,19 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     private static final long WAIT_FOR_FILE_LOCK_TIMEOUT = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS      = 1024;
 
-    private static final String   VFS_SERVICE_DIR        = ".vfs";
-    private static final String   FILE_LOCKS_DIR         = VFS_SERVICE_DIR + File.separatorChar + "locks";
-    private static final String   LOCK_FILE_SUFFIX       = "_lock";
-    private static final FileLock NO_LOCK                = new FileLock("no_lock", 0);
-    private static final String   FILE_PROPERTIES_DIR    = VFS_SERVICE_DIR + File.separatorChar + "props";
-    private static final String   PROPERTIES_FILE_SUFFIX = "_props";
+    /** Pool that hashes content of files for all file systems. */
+    private static final ForkJoinPool HASH_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    static final String VFS_SERVICE_DIR = ".vfs";
+
+    private static final FileLock NO_LOCK       = new FileLock("no_lock", 0);
+    private static final String   HASH_SUMS_DIR = VFS_SERVICE_DIR + File.separatorChar + "hashsums";
 
     private static final FilenameFilter DOT_VFS_DIR_FILTER = (dir, name) -> !(VFS_SERVICE_DIR.equals(name));
 
     private static final FilenameFilter VFS_LOCK_FILTER =
-            (dir, name) -> !(dir.getAbsolutePath().endsWith(FILE_LOCKS_DIR) || name.endsWith(LOCK_FILE_SUFFIX));
-
-    private class LockTokenCacheLoader extends CacheLoader<Path, FileLock> {
-        @Override
-        public FileLock load(Path path) throws Exception {
-            final File lockIoFile = getFileLockIoFile(path);
-            if (lockIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)))) {
-                    return locksSerializer.read(dis);
-                }
-            }
-            return NO_LOCK;
-        }
-    }
-
-    private class FilePropertiesCacheLoader extends CacheLoader<Path, Map<String, String>> {
-        @Override
-        public Map<String, String> load(Path path) throws Exception {
-            final File metadataIoFile = getMetadataIoFile(path);
-            if (metadataIoFile.exists()) {
-                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)))) {
-                    return ImmutableMap.copyOf(metadataSerializer.read(dis));
-                }
-            }
-            return emptyMap();
-        }
-    }
+            (dir, name) -> !(dir.getAbsolutePath().endsWith(FilesMetadataStore.FILE_LOCKS_DIR)
+                             || name.endsWith(FilesMetadataStore.LOCK_FILE_SUFFIX));
 
     private final File                                            ioRoot;
     private final ArchiverFactory                                 archiverFactory;
@@ -130,38 +96,33 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private final LocalVirtualFile root;
 
-    private final FileLockSerializer           locksSerializer;
-    private final LoadingCache<Path, FileLock> lockTokensCache;
+    private final FileMetadataStore metadataStore;
 
-    private final FileMetadataSerializer                  metadataSerializer;
-    private final LoadingCache<Path, Map<String, String>> metadataCache;
+    private final HashSumsCache md5SumsCache;
 
-    @SuppressWarnings("unchecked")
+    /** Creates file system that keeps locks and properties of items in {@code .vfs} folders next to items. */
     public LocalVirtualFileSystem(File ioRoot,
                                   ArchiverFactory archiverFactory,
                                   SearcherProvider searcherProvider,
                                   AbstractVirtualFileSystemProvider.CloseCallback closeCallback) {
+        this(ioRoot, archiverFactory, searcherProvider, closeCallback, new FilesMetadataStore(ioRoot));
+    }
+
+    LocalVirtualFileSystem(File ioRoot,
+                           ArchiverFactory archiverFactory,
+                           SearcherProvider searcherProvider,
+                           AbstractVirtualFileSystemProvider.CloseCallback closeCallback,
+                           FileMetadataStore metadataStore) {
         this.ioRoot = ioRoot;
         this.archiverFactory = archiverFactory;
         this.searcherProvider = searcherProvider;
         this.closeCallback = closeCallback;
+        this.metadataStore = metadataStore;
 
         root = new LocalVirtualFile(ioRoot, Path.ROOT, this);
         pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
 
-        locksSerializer = new FileLockSerializer();
-        lockTokensCache = CacheBuilder.newBuilder()
-                                      .concurrencyLevel(8)
-                                      .maximumSize(256)
-                                      .expireAfterAccess(10, MINUTES)
-                                      .build(new LockTokenCacheLoader());
-
-        metadataSerializer = new FileMetadataSerializer();
-        metadataCache = CacheBuilder.newBuilder()
-                                    .concurrencyLevel(8)
-                                    .maximumSize(256)
-                                    .expireAfterAccess(10, MINUTES)
-                                    .build(new FilePropertiesCacheLoader());
+        md5SumsCache = new HashSumsCache(new File(ioRoot, HASH_SUMS_DIR + File.separatorChar + "md5"));
     }
 
     @Override
@@ -176,7 +137,12 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     @Override
     public void close() throws ServerException {
-        cleanUpCaches();
+        md5SumsCache.flush();
+        try {
+            metadataStore.close();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
         if (searcherProvider != null) {
             Searcher searcher = searcherProvider.getSearcher(this, false);
             if (searcher != null) {
@@ -205,13 +171,8 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         return Objects.hashCode(ioRoot);
     }
 
-    private void cleanUpCaches() {
-        lockTokensCache.invalidateAll();
-        metadataCache.invalidateAll();
-    }
-
-    /** Used in tests. Need this to check state of PathLockFactory. All locks MUST be released at the end of request lifecycle. */
-    PathLockFactory getPathLockFactory() {
+    @Override
+    public PathLockFactory getPathLockFactory() {
         return pathLockFactory;
     }
 
@@ -375,11 +336,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             // will see error and may try to copy again. But if we successfully copy tree (or single file) and then fail to copy
             // metadata client may not try to copy again because copy destination already exists.
 
-            final File fromMetadataFile = getMetadataIoFile(from.getPath());
-            final File toMetadataFile = getMetadataIoFile(to.getPath());
-            if (fromMetadataFile.exists()) {
-                IoUtil.copy(fromMetadataFile, toMetadataFile, null);
-            }
+            metadataStore.copy(from.getPath(), to.getPath());
 
             IoUtil.copy(from.toIoFile(), to.toIoFile(), VFS_LOCK_FILTER);
         } catch (IOException e) {
@@ -571,22 +528,11 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
             throw new ForbiddenException(String.format("Unable delete file '%s'. File is locked", virtualFile.getPath()));
         }
 
-        cleanUpCaches();
-
-        final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-        if (fileLockIoFile.delete()) {
-            if (fileLockIoFile.exists()) {
-                LOG.error("Unable delete lock file {}", fileLockIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
-        }
-
-        final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-        if (metadataIoFile.delete()) {
-            if (metadataIoFile.exists()) {
-                LOG.error("Unable delete metadata file {}", metadataIoFile);
-                throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
-            }
+        try {
+            metadataStore.delete(virtualFile.getPath());
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+            throw new ServerException(String.format("Unable delete item '%s'", virtualFile.getPath()));
         }
 
         if (!deleteRecursive(virtualFile.toIoFile())) {
@@ -686,24 +632,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private String doLock(LocalVirtualFile virtualFile, long timeout) throws ConflictException, ServerException {
         try {
-            if (NO_LOCK == lockTokensCache.get(virtualFile.getPath())) {
+            if (metadataStore.getLock(virtualFile.getPath()) == null) {
                 final FileLock lock = createLock(timeout);
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                fileLockIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileLockIoFile)))) {
-                    locksSerializer.write(dos, lock);
-                }
-                lockTokensCache.put(virtualFile.getPath(), lock);
+                metadataStore.putLock(virtualFile.getPath(), lock);
                 return lock.getLockToken();
             }
             throw new ConflictException(String.format("Unable lock file '%s'. File already locked", virtualFile.getPath()));
-        } catch (IOException | ExecutionException e) {
+        } catch (IOException e) {
             String errorMessage = String.format("Unable lock file '%s'", virtualFile.getPath());
-            if (e instanceof ExecutionException) {
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
-            } else {
-                LOG.error(errorMessage + "\n" + e.getMessage(), e);
-            }
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         }
     }
@@ -743,13 +680,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
 
     private void doUnlock(LocalVirtualFile virtualFile) throws ForbiddenException, ServerException {
         try {
-            final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-            if (!fileLockIoFile.delete()) {
-                if (fileLockIoFile.exists()) {
-                    throw new IOException(String.format("Unable delete lock file %s", fileLockIoFile));
-                }
-            }
-            lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
+            metadataStore.removeLock(virtualFile.getPath());
         } catch (IOException e) {
             String errorMessage = String.format("Unable unlock file '%s'", virtualFile.getPath());
             LOG.error(errorMessage + "\n" + e.getMessage(), e);
@@ -775,24 +706,21 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         try {
             final FileLock lock;
             try {
-                lock = lockTokensCache.get(virtualFile.getPath());
-            } catch (ExecutionException e) {
+                lock = metadataStore.getLock(virtualFile.getPath());
+            } catch (IOException e) {
                 String errorMessage = String.format("Unable get lock of file '%s'", virtualFile.getPath());
-                LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
+                LOG.error(errorMessage + "\n" + e.getMessage(), e);
                 throw new ServerException(errorMessage);
             }
-            if (NO_LOCK == lock) {
-                return lock;
+            if (lock == null) {
+                return NO_LOCK;
             }
             if (lock.getExpired() < System.currentTimeMillis()) {
-                final File fileLockIoFile = getFileLockIoFile(virtualFile.getPath());
-                if (!fileLockIoFile.delete()) {
-                    if (fileLockIoFile.exists()) {
-                        FileCleaner.addFile(fileLockIoFile);
-                        LOG.warn("Unable delete lock file %s", fileLockIoFile);
-                    }
+                try {
+                    metadataStore.removeLock(virtualFile.getPath());
+                } catch (IOException e) {
+                    LOG.warn("Unable remove expired lock of file {}. {}", virtualFile.getPath(), e.getMessage());
                 }
-                lockTokensCache.put(virtualFile.getPath(), NO_LOCK);
                 return NO_LOCK;
             }
             return lock;
@@ -801,26 +729,14 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
         }
     }
 
-    private File getFileLockIoFile(Path virtualFilePath) {
-        final String fileLockFileName = virtualFilePath.getName() + LOCK_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_LOCKS_DIR, fileLockFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_LOCKS_DIR, fileLockFileName);
-        }
-        return new File(ioRoot, toIoPath(metadataFilePath));
-    }
-
-
     Map<String, String> getProperties(LocalVirtualFile virtualFile) throws ServerException {
         final PathLockFactory.PathLock metadataFilePathLock =
                 pathLockFactory.getLock(virtualFile.getPath(), false).acquire(WAIT_FOR_FILE_LOCK_TIMEOUT);
         try {
-            return newLinkedHashMap(metadataCache.get(virtualFile.getPath()));
-        } catch (ExecutionException e) {
+            return newLinkedHashMap(metadataStore.getProperties(virtualFile.getPath()));
+        } catch (IOException e) {
             String errorMessage = String.format("Unable read properties of file '%s'", virtualFile.getPath());
-            LOG.error(errorMessage + "\n" + e.getCause().getMessage(), e.getCause());
+            LOG.error(errorMessage + "\n" + e.getMessage(), e);
             throw new ServerException(errorMessage);
         } finally {
             metadataFilePathLock.release();
@@ -858,22 +774,7 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
                 }
             }
 
-            final File metadataIoFile = getMetadataIoFile(virtualFile.getPath());
-            if (properties.isEmpty()) {
-                if (!metadataIoFile.delete()) {
-                    if (metadataIoFile.exists()) {
-                        LOG.error("Unable delete metadata file {}", metadataIoFile);
-                        throw new IOException(String.format("Unable update properties of item '%s'", virtualFile.getPath()));
-                    }
-                }
-            } else {
-                metadataIoFile.getParentFile().mkdirs();
-                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataIoFile)))) {
-                    metadataSerializer.write(dos, properties);
-                }
-            }
-
-            metadataCache.put(virtualFile.getPath(), properties);
+            metadataStore.putProperties(virtualFile.getPath(), properties);
 
             if (!virtualFile.toIoFile().setLastModified(System.currentTimeMillis())) {
                 LOG.warn("Unable to set timestamp to '{}'", virtualFile.toIoFile());
@@ -892,23 +793,15 @@ public class LocalVirtualFileSystem implements VirtualFileSystem {
     }
 
 
-    private File getMetadataIoFile(Path virtualFilePath) {
-        final String metadataFileName = virtualFilePath.getName() + PROPERTIES_FILE_SUFFIX;
-        final Path metadataFilePath;
-        if (virtualFilePath.isRoot()) {
-            metadataFilePath = virtualFilePath.newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        } else {
-            metadataFilePath = virtualFilePath.getParent().newPath(FILE_PROPERTIES_DIR, metadataFileName);
-        }
-        return new File(ioRoot, toIoPath(metadataFilePath));
-    }
-
-
     List<Pair<String, String>> countMd5Sums(LocalVirtualFile virtualFile) throws ServerException {
         if (virtualFile.isFile()) {
             return emptyList();
         }
-        return new HashSumsCounter(virtualFile, Hashing.md5()).countHashSums();
+        try {
+            return new HashSumsCounter(virtualFile, Hashing.md5(), HASH_POOL, md5SumsCache).countHashSums();
+        } finally {
+            md5SumsCache.flush();
+        }
     }
 
 
@@ -27,17 +27,43 @@ import java.nio.file.Files;
 public class LocalVirtualFileSystemProvider extends AbstractVirtualFileSystemProvider {
     private final File             rootDirectory;
     private final SearcherProvider searcherProvider;
+    private final String           metadataBackend;
 
+    public LocalVirtualFileSystemProvider(File rootDirectory, SearcherProvider searcherProvider) throws IOException {
+        this(rootDirectory, searcherProvider, "files");
+    }
+
+    /**
+     * @param metadataBackend
+     *         storage of locks and properties of files: {@code files} keeps them in {@code .vfs} folders next to each item,
+     *         {@code journal} keeps metadata of all items in one journal and moves existed {@code .vfs} metadata to it on first start
+     */
     @Inject
     public LocalVirtualFileSystemProvider(@Named("che.user.workspaces.storage") File rootDirectory,
-                                          SearcherProvider searcherProvider) throws IOException {
+                                          SearcherProvider searcherProvider,
+                                          @Named("vfs.metadata.backend") String metadataBackend) throws IOException {
+        if (!("files".equals(metadataBackend) || "journal".equals(metadataBackend))) {
+            throw new IllegalArgumentException("Unsupported metadata backend '" + metadataBackend
+                                               + "'. Must be either 'files' or 'journal'.");
+        }
         this.rootDirectory = rootDirectory;
         this.searcherProvider = searcherProvider;
+        this.metadataBackend = metadataBackend;
         Files.createDirectories(rootDirectory.toPath());
     }
 
     @Override
     protected VirtualFileSystem createVirtualFileSystem(CloseCallback closeCallback) throws ServerException {
-        return new LocalVirtualFileSystem(rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback);
+        final FileMetadataStore metadataStore;
+        if ("journal".equals(metadataBackend)) {
+            try {
+                metadataStore = new JournalMetadataStore(rootDirectory);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        } else {
+            metadataStore = new FilesMetadataStore(rootDirectory);
+        }
+        return new LocalVirtualFileSystem(rootDirectory, new ArchiverFactory(), searcherProvider, closeCallback, metadataStore);
     }
 }
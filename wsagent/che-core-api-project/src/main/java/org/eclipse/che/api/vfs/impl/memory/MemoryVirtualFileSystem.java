@@ -13,6 +13,7 @@ package org.eclipse.che.api.vfs.impl.memory;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.AbstractVirtualFileSystemProvider;
 import org.eclipse.che.api.vfs.ArchiverFactory;
+import org.eclipse.che.api.vfs.PathLockFactory;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.search.Searcher;
@@ -28,11 +29,13 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author andrew00x
  */
 public class MemoryVirtualFileSystem implements VirtualFileSystem {
-    private static final AtomicInteger ID = new AtomicInteger();
+    private static final AtomicInteger ID                    = new AtomicInteger();
+    private static final int           FILE_LOCK_MAX_THREADS = 1024;
 
     private final ArchiverFactory                                 archiverFactory;
     private final SearcherProvider                                searcherProvider;
     private final AbstractVirtualFileSystemProvider.CloseCallback closeCallback;
+    private final PathLockFactory                                 pathLockFactory;
     private final int id = ID.incrementAndGet();
 
     private VirtualFile root;
@@ -45,6 +48,7 @@ public class MemoryVirtualFileSystem implements VirtualFileSystem {
         this.archiverFactory = archiverFactory;
         this.searcherProvider = searcherProvider;
         this.closeCallback = closeCallback;
+        pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
         root = new MemoryVirtualFile(this);
     }
 
@@ -72,6 +76,11 @@ public class MemoryVirtualFileSystem implements VirtualFileSystem {
         return searcherProvider;
     }
 
+    @Override
+    public PathLockFactory getPathLockFactory() {
+        return pathLockFactory;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
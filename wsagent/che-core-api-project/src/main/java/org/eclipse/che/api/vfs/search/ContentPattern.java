@@ -0,0 +1,391 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.VirtualFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Pattern for searching in content of files, either literal substring or regular expression. Besides matching of content pattern
+ * provides set of trigrams that must be present in any matched content. Trigrams are used for selecting candidate files from the
+ * trigram index, after that content of candidates is checked with {@link #find(CharSequence)}.
+ * <p/>
+ * Trigrams are in lower case, so they may be used for selecting candidates for case-insensitive search as well.
+ */
+public class ContentPattern {
+    /** Length of n-gram used in index. */
+    public static final int GRAM_SIZE = 3;
+
+    /** Max length of file which content is checked with pattern. Content of file is decoded in memory as whole. */
+    public static final long MAX_CONTENT_LENGTH = 10 * 1024 * 1024;
+
+    /**
+     * Max time of matching content of single file with pattern. Regular expression comes with query and may take exponential time
+     * to match, e.g. {@code (a+)+$}, so matching is aborted with {@link MatchTimeoutException} when time is out.
+     */
+    public static final long MAX_MATCH_TIME_MILLIS = 3000;
+
+    private static final int MAX_MATCHES_PER_FILE = 1000;
+
+    /**
+     * Creates pattern for searching literal substring.
+     *
+     * @throws IllegalArgumentException
+     *         if substring is empty
+     */
+    public static ContentPattern literal(String substring) {
+        if (substring == null || substring.isEmpty()) {
+            throw new IllegalArgumentException("Search pattern may not be empty");
+        }
+        return new ContentPattern(Pattern.compile(Pattern.quote(substring)), trigrams(substring));
+    }
+
+    /**
+     * Creates pattern for searching with regular expression.
+     *
+     * @throws IllegalArgumentException
+     *         if regular expression is empty or invalid
+     */
+    public static ContentPattern regex(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            throw new IllegalArgumentException("Search pattern may not be empty");
+        }
+        final Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex, Pattern.MULTILINE);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (String literal : requiredLiterals(regex)) {
+            trigrams.addAll(trigrams(literal));
+        }
+        return new ContentPattern(pattern, trigrams);
+    }
+
+    private final Pattern     pattern;
+    private final Set<String> trigrams;
+
+    private ContentPattern(Pattern pattern, Set<String> trigrams) {
+        this.pattern = pattern;
+        this.trigrams = trigrams;
+    }
+
+    /**
+     * Returns trigrams that must be present in any content matched to this pattern. Empty set means that there is no way to
+     * select candidates, e.g. pattern is too short, and all files must be checked.
+     */
+    public Set<String> getTrigrams() {
+        return trigrams;
+    }
+
+    /**
+     * Finds all matches of this pattern in the content. Empty matches are skipped.
+     *
+     * @throws MatchTimeoutException
+     *         if matching takes longer than {@link #MAX_MATCH_TIME_MILLIS}
+     */
+    public List<SearchResultEntry.Match> find(CharSequence content) {
+        return find(content, MAX_MATCH_TIME_MILLIS);
+    }
+
+    List<SearchResultEntry.Match> find(CharSequence content, long timeoutMillis) {
+        final List<SearchResultEntry.Match> matches = new ArrayList<>();
+        final Matcher matcher = pattern.matcher(new DeadlineCharSequence(content, System.nanoTime() + MILLISECONDS.toNanos(timeoutMillis)));
+        int lineNumber = 1;
+        int position = 0;
+        while (matches.size() < MAX_MATCHES_PER_FILE && matcher.find()) {
+            if (matcher.start() == matcher.end()) {
+                continue;
+            }
+            for (; position < matcher.start(); position++) {
+                if (content.charAt(position) == '\n') {
+                    lineNumber++;
+                }
+            }
+            matches.add(new SearchResultEntry.Match(lineNumber, matcher.start(), matcher.end()));
+        }
+        return matches;
+    }
+
+    /**
+     * Reads content of file. If virtual file is backed by the local file then content is read through memory mapped buffer. Bytes
+     * of file are decoded as UTF-8, malformed bytes are replaced.
+     *
+     * @throws ServerException
+     *         if content can't be read or file is larger than {@link #MAX_CONTENT_LENGTH}
+     */
+    public static CharSequence readContent(VirtualFile virtualFile) throws ServerException {
+        try {
+            final File ioFile = virtualFile.toIoFile();
+            final ByteBuffer bytes;
+            if (ioFile != null) {
+                try (FileChannel channel = FileChannel.open(ioFile.toPath(), READ)) {
+                    final long size = channel.size();
+                    if (size > MAX_CONTENT_LENGTH) {
+                        throw new ServerException(String.format("File %s is too large for searching in its content", virtualFile.getPath()));
+                    }
+                    bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+            } else {
+                if (virtualFile.getLength() > MAX_CONTENT_LENGTH) {
+                    throw new ServerException(String.format("File %s is too large for searching in its content", virtualFile.getPath()));
+                }
+                bytes = ByteBuffer.wrap(virtualFile.getContentAsBytes());
+            }
+            return UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                        .decode(bytes);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } catch (ForbiddenException e) {
+            throw new ServerException(e.getServiceError());
+        }
+    }
+
+    /** Splits text to lower case trigrams, the same way as content of file is split when it is added in the index. */
+    static Set<String> trigrams(String text) {
+        final int[] codePoints = text.codePoints().map(Character::toLowerCase).toArray();
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= codePoints.length; i++) {
+            trigrams.add(new String(codePoints, i, GRAM_SIZE));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Extracts literal parts of regular expression that must be present in every matched string. Extraction is conservative:
+     * literals inside of groups and character classes are not considered, character followed by optional quantifier is dropped
+     * and nothing is extracted if expression contains alternation at the top level.
+     */
+    static List<String> requiredLiterals(String regex) {
+        final List<String> literals = new ArrayList<>();
+        if (hasTopLevelAlternation(regex)) {
+            return literals;
+        }
+        final StringBuilder run = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length()) {
+                final char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        end = regex.length();
+                    }
+                    if (depth == 0) {
+                        run.append(regex, i + 2, end);
+                    }
+                    i = Math.min(end + 2, regex.length());
+                } else if (Character.isLetterOrDigit(next)) {
+                    flush(run, literals);
+                    i = skipEscape(regex, i + 1);
+                } else {
+                    if (depth == 0) {
+                        run.append(next);
+                    } else {
+                        flush(run, literals);
+                    }
+                    i += 2;
+                }
+            } else if (c == '[') {
+                flush(run, literals);
+                i = skipCharacterClass(regex, i);
+            } else if (c == '(') {
+                flush(run, literals);
+                depth++;
+                i++;
+            } else if (c == ')') {
+                flush(run, literals);
+                depth = Math.max(0, depth - 1);
+                i++;
+            } else if (c == '?' || c == '*' || c == '{') {
+                // Previous character is optional.
+                if (run.length() > 0) {
+                    run.setLength(run.length() - 1);
+                }
+                flush(run, literals);
+                i = c == '{' ? skipTo(regex, i, '}') : i + 1;
+                i = skipQuantifierModifier(regex, i);
+            } else if (c == '+') {
+                flush(run, literals);
+                i = skipQuantifierModifier(regex, i + 1);
+            } else if (c == '.' || c == '^' || c == '$' || c == '|' || depth > 0) {
+                flush(run, literals);
+                i++;
+            } else {
+                run.append(c);
+                i++;
+            }
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() >= GRAM_SIZE) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else {
+                    i++;
+                }
+            } else if (c == '[') {
+                i = skipCharacterClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns index of the first character after escape sequence, {@code i} is index of the character after backslash. */
+    private static int skipEscape(String regex, int i) {
+        final char c = regex.charAt(i);
+        i++;
+        switch (c) {
+            case 'x':
+                return i < regex.length() && regex.charAt(i) == '{' ? skipTo(regex, i, '}') : Math.min(i + 2, regex.length());
+            case 'u':
+                return Math.min(i + 4, regex.length());
+            case 'c':
+                return Math.min(i + 1, regex.length());
+            case 'p':
+            case 'P':
+            case 'N':
+                return i < regex.length() && regex.charAt(i) == '{' ? skipTo(regex, i, '}') : Math.min(i + 1, regex.length());
+            case 'k':
+                return skipTo(regex, i, '>');
+            default:
+                while (Character.isDigit(c) && i < regex.length() && Character.isDigit(regex.charAt(i))) {
+                    i++;
+                }
+                return i;
+        }
+    }
+
+    /** Returns index of the first character after character class, {@code i} is index of opening bracket. */
+    private static int skipCharacterClass(String regex, int i) {
+        int depth = 0;
+        for (; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+                // Closing bracket at the beginning of class is literal.
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']') {
+                if (--depth == 0) {
+                    return i + 1;
+                }
+            }
+        }
+        return regex.length();
+    }
+
+    private static int skipTo(String regex, int i, char c) {
+        final int end = regex.indexOf(c, i);
+        return end < 0 ? regex.length() : end + 1;
+    }
+
+    private static int skipQuantifierModifier(String regex, int i) {
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            return i + 1;
+        }
+        return i;
+    }
+
+    /**
+     * Content which is passed to {@link Matcher}. Matcher reads content only with {@link #charAt(int)}, so it checks time of
+     * matching there. Time is checked once per {@link #CHECK_INTERVAL} reads to keep reading cheap.
+     */
+    private class DeadlineCharSequence implements CharSequence {
+        private static final int CHECK_INTERVAL = 4096;
+
+        private final CharSequence delegate;
+        private final long         deadline;
+
+        private int reads;
+
+        DeadlineCharSequence(CharSequence delegate, long deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads == CHECK_INTERVAL) {
+                reads = 0;
+                if (System.nanoTime() - deadline > 0) {
+                    throw new MatchTimeoutException(String.format("Search pattern '%s' takes too long to match content of file",
+                                                                  pattern.pattern()));
+                }
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return delegate.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
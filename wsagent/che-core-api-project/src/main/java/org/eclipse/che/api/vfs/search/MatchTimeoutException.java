@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+/**
+ * Thrown when matching of content with {@link ContentPattern} takes too long. Such pattern is considered as an invalid query,
+ * so the exception is {@link IllegalArgumentException} like other errors of query.
+ */
+public class MatchTimeoutException extends IllegalArgumentException {
+    public MatchTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -12,11 +12,14 @@ package org.eclipse.che.api.vfs.search;
 
 /** Container for parameters of query that executed by Searcher.*/
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String text;
-    private int    skipCount;
-    private int    maxItems;
+    private String  name;
+    private String  path;
+    private String  text;
+    private int     skipCount;
+    private int     maxItems;
+    private String  cursor;
+    private String  pattern;
+    private boolean regex;
 
     /** Optional file path parameter. Only file with the specified path or children are included in result. */
     public String getPath() {
@@ -48,6 +51,30 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * Optional pattern for searching in content of files. Unlike to {@link #getText()} pattern is not split to words, it is either
+     * literal substring or regular expression, see {@link #isRegex()}. Positions of matches are available with
+     * {@link SearchResultEntry#getMatches()}.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    public QueryExpression setPattern(String pattern) {
+        this.pattern = pattern;
+        return this;
+    }
+
+    /** If {@code true} then {@link #getPattern()} is regular expression, otherwise it is literal substring. */
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public QueryExpression setRegex(boolean regex) {
+        this.regex = regex;
+        return this;
+    }
+
     /** Number of items in search result that should be skipped. This parameter used for paging through large set of search result. */
     public int getSkipCount() {
         return skipCount;
@@ -68,6 +95,19 @@ public class QueryExpression {
         return this;
     }
 
+    /**
+     * Opaque position in search result returned by previous search, see {@link SearchResult#getNextPageCursor()}. If cursor is set
+     * then search is continued right after the last item of previous page and {@link #getSkipCount()} is ignored.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public QueryExpression setCursor(String cursor) {
+        this.cursor = cursor;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
@@ -76,6 +116,9 @@ public class QueryExpression {
                ", path='" + path + '\'' +
                ", skipCount=" + skipCount +
                ", maxItems=" + maxItems +
+               ", cursor='" + cursor + '\'' +
+               ", pattern='" + pattern + '\'' +
+               ", regex=" + regex +
                '}';
     }
 }
@@ -75,6 +75,18 @@ public class SearchResult {
         return nextPageQueryExpression;
     }
 
+    /**
+     * Optional opaque cursor for retrieving next page. Next page is retrieved with the same query expression with this cursor, see
+     * {@link QueryExpression#setCursor(String)}. Query expression returned by {@link #getNextPageQueryExpression()} already
+     * contains this cursor.
+     */
+    public Optional<String> getNextPageCursor() {
+        if (nextPageQueryExpression.isPresent()) {
+            return Optional.fromNullable(nextPageQueryExpression.get().getCursor());
+        }
+        return Optional.absent();
+    }
+
     public static class SearchResultBuilder {
         private QueryExpression         nextPageQueryExpression;
         private List<SearchResultEntry> results;
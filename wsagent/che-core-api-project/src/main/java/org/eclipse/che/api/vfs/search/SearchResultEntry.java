@@ -10,18 +10,69 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Single item in {@code SearchResult}.
  */
 public class SearchResultEntry {
-    private final String filePath;
+    private final String      filePath;
+    private final List<Match> matches;
 
     public SearchResultEntry(String filePath) {
+        this(filePath, Collections.emptyList());
+    }
+
+    public SearchResultEntry(String filePath, List<Match> matches) {
         this.filePath = filePath;
+        this.matches = matches;
     }
 
     /** Path of file that matches the search criteria. */
     public String getFilePath() {
         return filePath;
     }
+
+    /** Matches of {@link ContentPattern} in content of file. Empty list if query doesn't contain content pattern. */
+    public List<Match> getMatches() {
+        return matches;
+    }
+
+    /** Single match of {@link ContentPattern} in content of file. */
+    public static class Match {
+        private final int lineNumber;
+        private final int startOffset;
+        private final int endOffset;
+
+        public Match(int lineNumber, int startOffset, int endOffset) {
+            this.lineNumber = lineNumber;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        /** Number of line, starting from 1, where match begins. */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /** Offset, in characters from the beginning of file, of the first character of match. */
+        public int getStartOffset() {
+            return startOffset;
+        }
+
+        /** Offset, in characters from the beginning of file, of the character after the last character of match. */
+        public int getEndOffset() {
+            return endOffset;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" +
+                   "lineNumber=" + lineNumber +
+                   ", startOffset=" + startOffset +
+                   ", endOffset=" + endOffset +
+                   '}';
+        }
+    }
 }
@@ -14,6 +14,8 @@ import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 
+import java.util.function.Consumer;
+
 public interface Searcher {
     /**
      * Return paths of matched items on virtual filesystem.
@@ -21,11 +23,29 @@ public interface Searcher {
      * @param query
      *         query expression
      * @return results of search
+     * @throws IllegalArgumentException
+     *         if query is invalid, e.g. content pattern is invalid regular expression or cursor isn't returned by previous search,
+     *         {@link MatchTimeoutException} if content pattern takes too long to match content of file
      * @throws ServerException
      *         if an error occurs
      */
     SearchResult search(QueryExpression query) throws ServerException;
 
+    /**
+     * Passes matched items on virtual filesystem to consumer as soon as they are found. Unlike to {@link #search(QueryExpression)}
+     * number of items is limited only with {@link QueryExpression#getMaxItems()}.
+     *
+     * @param query
+     *         query expression
+     * @param consumer
+     *         consumer of search results
+     * @throws IllegalArgumentException
+     *         if query is invalid
+     * @throws ServerException
+     *         if an error occurs
+     */
+    void search(QueryExpression query, Consumer<SearchResultEntry> consumer) throws ServerException;
+
     /**
      * Add VirtualFile to index.
      *
@@ -26,8 +26,16 @@ import static com.google.common.collect.Sets.newHashSet;
 
 @Singleton
 public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
+    private static final int  INDEXING_QUEUE_CAPACITY  = 10000;
+    private static final int  INDEXING_BATCH_SIZE      = 500;
+    private static final long INDEX_REFRESH_PERIOD_MS  = 1000;
+
     private final File indexRootDirectory;
 
+    private boolean asynchronousIndexing;
+    private boolean persistentIndex;
+    private boolean codeIndex;
+
     /**
      * @param indexRootDirectory
      *         root directory for creation index
@@ -43,8 +51,41 @@ public class FSLuceneSearcherProvider extends AbstractLuceneSearcherProvider {
         Files.createDirectories(indexRootDirectory.toPath());
     }
 
+    /**
+     * Sets whether changes of files are indexed in background, they are indexed synchronously by default.
+     */
+    @com.google.inject.Inject(optional = true)
+    public void setAsynchronousIndexing(@Named("vfs.local.fs_index_async") boolean asynchronousIndexing) {
+        this.asynchronousIndexing = asynchronousIndexing;
+    }
+
+    /**
+     * Sets whether index is kept after searcher is closed and reused, so only changed files are reindexed.
+     * Index is recreated each time by default.
+     */
+    @com.google.inject.Inject(optional = true)
+    public void setPersistentIndex(@Named("vfs.local.fs_index_persistent") boolean persistentIndex) {
+        this.persistentIndex = persistentIndex;
+    }
+
+    /**
+     * Sets whether trigrams of content of files are indexed for fast searching of substrings and regular expressions.
+     * Trigrams are not indexed by default.
+     */
+    @com.google.inject.Inject(optional = true)
+    public void setCodeIndex(@Named("vfs.local.fs_index_code") boolean codeIndex) {
+        this.codeIndex = codeIndex;
+    }
+
     @Override
     protected LuceneSearcher createLuceneSearcher(CloseCallback closeCallback) {
-        return new FSLuceneSearcher(indexRootDirectory, fileIndexFilter, closeCallback);
+        final FSLuceneSearcher searcher = new FSLuceneSearcher(indexRootDirectory, fileIndexFilter, closeCallback, persistentIndex);
+        if (asynchronousIndexing) {
+            searcher.enableAsynchronousIndexing(INDEXING_QUEUE_CAPACITY, INDEXING_BATCH_SIZE, INDEX_REFRESH_PERIOD_MS);
+        }
+        if (codeIndex) {
+            searcher.enableCodeIndex();
+        }
+        return searcher;
     }
 }
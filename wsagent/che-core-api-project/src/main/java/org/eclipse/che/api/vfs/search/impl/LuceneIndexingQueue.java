@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.ServerException;
+import org.apache.lucene.index.Term;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Asynchronous indexing pipeline of {@link LuceneSearcher}. Changes of virtual filesystem are collected in bounded queue,
+ * deduplicated by path and applied to the index by background thread in batches, each batch is finished with one commit.
+ * Searcher is refreshed by schedule, so changes become visible for search with a small delay. Thread that adds change
+ * is blocked while queue is full.
+ */
+class LuceneIndexingQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(LuceneIndexingQueue.class);
+
+    /** Period of logging of size and lag of queue, see {@link LuceneSearcher#logIndexingStatistics()}. */
+    static final long STATS_LOG_PERIOD_MILLIS = 60000;
+
+    enum ChangeType {
+        ADD_FILE, UPDATE_FILE, ADD_FOLDER, DELETE_FILE, DELETE_FOLDER
+    }
+
+    static class Change {
+        final ChangeType  type;
+        final String      path;
+        final VirtualFile virtualFile;
+        final long        time;
+        /* folder is re-added after it was deleted, so documents of its old files must be removed before adding */
+        final boolean     replacesTree;
+
+        Change(ChangeType type, String path, VirtualFile virtualFile) {
+            this(type, path, virtualFile, false);
+        }
+
+        private Change(ChangeType type, String path, VirtualFile virtualFile, boolean replacesTree) {
+            this.type = type;
+            this.path = path;
+            this.virtualFile = virtualFile;
+            this.time = System.currentTimeMillis();
+            this.replacesTree = replacesTree;
+        }
+
+        String key() {
+            return type == ChangeType.ADD_FOLDER || type == ChangeType.DELETE_FOLDER ? path + '/' : path;
+        }
+
+        /** Merges this change with not processed previous change of the same path. */
+        Change mergeWith(Change previous) {
+            if (type == ChangeType.ADD_FOLDER && (previous.type == ChangeType.DELETE_FOLDER || previous.replacesTree)) {
+                return new Change(type, path, virtualFile, true);
+            }
+            if (type == ChangeType.ADD_FILE && previous.type == ChangeType.UPDATE_FILE) {
+                // Updated content may have the same modification date and size, don't let it be skipped.
+                return new Change(ChangeType.UPDATE_FILE, path, virtualFile);
+            }
+            return this;
+        }
+    }
+
+    private final LuceneSearcher           searcher;
+    private final int                      capacity;
+    private final int                      maxBatchSize;
+    private final long                     refreshPeriodMillis;
+    private final Map<String, Change>      pending;
+    private final ReentrantLock            lock;
+    private final Condition                notEmpty;
+    private final Condition                notFull;
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean running;
+    private volatile long    processingSince;
+
+    /**
+     * @param capacity
+     *         max number of not processed changes
+     * @param maxBatchSize
+     *         max number of changes applied to the index with one commit
+     * @param refreshPeriodMillis
+     *         period of refreshing of searcher
+     */
+    LuceneIndexingQueue(LuceneSearcher searcher, int capacity, int maxBatchSize, long refreshPeriodMillis) {
+        if (capacity < 1 || maxBatchSize < 1 || refreshPeriodMillis < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.searcher = searcher;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.refreshPeriodMillis = refreshPeriodMillis;
+        pending = new LinkedHashMap<>();
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+        notFull = lock.newCondition();
+        executor = Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder().setDaemon(true)
+                                                                                  .setNameFormat("LuceneIndexer-%d")
+                                                                                  .build());
+    }
+
+    void start() {
+        running = true;
+        executor.execute(this::processChanges);
+        executor.scheduleWithFixedDelay(searcher::refresh, refreshPeriodMillis, refreshPeriodMillis, MILLISECONDS);
+        executor.scheduleWithFixedDelay(searcher::logIndexingStatistics, STATS_LOG_PERIOD_MILLIS, STATS_LOG_PERIOD_MILLIS, MILLISECONDS);
+    }
+
+    void stop() {
+        lock.lock();
+        try {
+            running = false;
+            pending.clear();
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        // Indexing thread is not interrupted, interruption of thread that writes index closes channels of index files.
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, SECONDS)) {
+                LOG.warn("Unable terminate indexer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void add(Change change) throws ServerException {
+        lock.lock();
+        try {
+            if (change.type == ChangeType.DELETE_FOLDER) {
+                // Not processed changes inside of deleted folder are not needed any more.
+                final String prefix = change.path + '/';
+                for (Iterator<String> iterator = pending.keySet().iterator(); iterator.hasNext(); ) {
+                    if (iterator.next().startsWith(prefix)) {
+                        iterator.remove();
+                    }
+                }
+                notFull.signalAll();
+            }
+            final String key = change.key();
+            final Change previous = pending.remove(key);
+            if (previous == null) {
+                while (running && pending.size() >= capacity) {
+                    notFull.await();
+                }
+            } else {
+                change = change.mergeWith(previous);
+            }
+            // Always move the latest change of path to the end of queue to keep order of changes.
+            pending.put(key, change);
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerException("Interrupted while waiting for free space in indexing queue");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns number of changes that are not applied to the index yet. */
+    int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns age, in milliseconds, of the oldest change that is not applied to the index yet. */
+    long getLag() {
+        long oldest = processingSince;
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                final long firstPending = pending.values().iterator().next().time;
+                oldest = oldest == 0 ? firstPending : Math.min(oldest, firstPending);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    private List<Change> takeBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && pending.isEmpty()) {
+                notEmpty.await();
+            }
+            if (!running) {
+                return Collections.emptyList();
+            }
+            final List<Change> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size()));
+            for (Iterator<Change> iterator = pending.values().iterator(); iterator.hasNext() && batch.size() < maxBatchSize; ) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            processingSince = batch.get(0).time;
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void processChanges() {
+        while (running) {
+            final List<Change> batch;
+            try {
+                batch = takeBatch();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                for (Change change : batch) {
+                    // Failure of one change must not prevent the rest of batch from being applied and committed.
+                    try {
+                        apply(change);
+                    } catch (ServerException | RuntimeException e) {
+                        LOG.error(String.format("Unable apply change %s of %s to the index. %s", change.type, change.path, e.getMessage()), e);
+                    }
+                }
+                searcher.commit();
+            } catch (ServerException | RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            } finally {
+                processingSince = 0;
+            }
+        }
+    }
+
+    private void apply(Change change) throws ServerException {
+        switch (change.type) {
+            case ADD_FILE:
+                searcher.addFile(change.virtualFile);
+                break;
+            case UPDATE_FILE:
+                if (change.virtualFile.exists()) {
+                    searcher.doUpdate(new Term("path", change.path), change.virtualFile);
+                }
+                break;
+            case ADD_FOLDER:
+                if (change.replacesTree) {
+                    searcher.deleteFromIndex(change.path, false);
+                }
+                searcher.addTree(change.virtualFile);
+                break;
+            case DELETE_FILE:
+                searcher.deleteFromIndex(change.path, true);
+                break;
+            case DELETE_FOLDER:
+                searcher.deleteFromIndex(change.path, false);
+                break;
+        }
+    }
+}
@@ -10,38 +10,57 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.search.impl;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.IOUtils;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.Path;
 import org.eclipse.che.api.vfs.VirtualFile;
 import org.eclipse.che.api.vfs.VirtualFileFilter;
 import org.eclipse.che.api.vfs.VirtualFileFilters;
 import org.eclipse.che.api.vfs.VirtualFileSystem;
+import org.eclipse.che.api.vfs.search.ContentPattern;
+import org.eclipse.che.api.vfs.search.MatchTimeoutException;
 import org.eclipse.che.api.vfs.search.MediaTypeFilter;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
@@ -51,33 +70,68 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.hash.Funnels.asOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Lucene based searcher.
+ * <p/>
+ * By default changes are applied to the index in the caller's thread. After call of {@link #enableAsynchronousIndexing(int, int, long)}
+ * changes are queued and applied in background, see {@link LuceneIndexingQueue}. For each indexed file modification date, size and
+ * hash of content are stored in the index, so unchanged files are not reindexed when the whole tree is added again, e.g. when
+ * persisted index is opened.
+ * <p/>
+ * Optional code index, see {@link #enableCodeIndex()}, keeps trigrams of content of files. It is used for selecting candidate files
+ * for searching with {@link QueryExpression#getPattern()}, content of candidates is checked with {@link ContentPattern}.
  *
  * @author andrew00x
  */
 public abstract class LuceneSearcher implements Searcher {
     private static final Logger LOG = LoggerFactory.getLogger(LuceneSearcher.class);
 
-    private static final int RESULT_LIMIT = 1000;
+    private static final int          RESULT_LIMIT         = 1000;
+    private static final int          MAX_BUFFERED_CONTENT = 200 * 1024;
+    private static final HashFunction CONTENT_HASH         = Hashing.murmur3_128();
+    private static final Set<String>  PATH_FIELD           = Collections.singleton("path");
+    private static final String       TRIGRAMS_FIELD       = "trigrams";
+    private static final int          MAX_QUERY_TRIGRAMS   = 64;
+    private static final FieldType    TRIGRAMS_FIELD_TYPE  = new FieldType();
+
+    static {
+        // Only presence of trigram in file is needed, neither frequencies nor positions.
+        TRIGRAMS_FIELD_TYPE.setTokenized(true);
+        TRIGRAMS_FIELD_TYPE.setIndexOptions(IndexOptions.DOCS);
+        TRIGRAMS_FIELD_TYPE.setOmitNorms(true);
+        TRIGRAMS_FIELD_TYPE.freeze();
+    }
 
     private final List<VirtualFileFilter>                      indexFilters;
     private final AbstractLuceneSearcherProvider.CloseCallback closeCallback;
 
-    private IndexWriter     luceneIndexWriter;
-    private SearcherManager searcherManager;
+    private IndexWriter         luceneIndexWriter;
+    private SearcherManager     searcherManager;
+    private LuceneIndexingQueue indexingQueue;
+    private boolean             codeIndex;
+    private VirtualFileSystem   virtualFileSystem;
 
-    private boolean closed = true;
+    private boolean      closed      = true;
+    private volatile int resultLimit = RESULT_LIMIT;
 
     protected LuceneSearcher() {
         this(new MediaTypeFilter(), null);
@@ -119,6 +173,18 @@ public abstract class LuceneSearcher implements Searcher {
         };
     }
 
+    /** Creates analyzer that splits content of file to lower case trigrams for code index. */
+    protected Analyzer makeTrigramAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(ContentPattern.GRAM_SIZE, ContentPattern.GRAM_SIZE);
+                TokenStream filter = new LowerCaseFilter(tokenizer);
+                return new TokenStreamComponents(tokenizer, filter);
+            }
+        };
+    }
+
     protected abstract Directory makeDirectory() throws ServerException;
 
     /**
@@ -130,11 +196,64 @@ public abstract class LuceneSearcher implements Searcher {
      *         if any virtual filesystem error occurs
      */
     public void init(VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
-        addTree(virtualFileSystem.getRoot());
+        if (indexingQueue == null) {
+            addTree(virtualFileSystem.getRoot());
+        } else {
+            indexingQueue.start();
+            indexingQueue.add(new LuceneIndexingQueue.Change(LuceneIndexingQueue.ChangeType.ADD_FOLDER, "/", virtualFileSystem.getRoot()));
+        }
+    }
+
+    /**
+     * Switches this searcher to asynchronous indexing. Must be called before initialization of searcher.
+     *
+     * @param queueCapacity
+     *         max number of changes that are not applied to the index yet, thread that adds new change is blocked if queue is full
+     * @param maxBatchSize
+     *         max number of changes applied to the index with one commit
+     * @param refreshPeriodMillis
+     *         period of refreshing of the searcher, changes become visible for search after refresh
+     */
+    public synchronized void enableAsynchronousIndexing(int queueCapacity, int maxBatchSize, long refreshPeriodMillis) {
+        if (!closed) {
+            throw new IllegalStateException("Searcher is already initialized");
+        }
+        indexingQueue = new LuceneIndexingQueue(this, queueCapacity, maxBatchSize, refreshPeriodMillis);
+    }
+
+    /**
+     * Enables code index. Must be called before initialization of searcher. If persistent index was created without code index
+     * then all files are reindexed.
+     */
+    public synchronized void enableCodeIndex() {
+        if (!closed) {
+            throw new IllegalStateException("Searcher is already initialized");
+        }
+        codeIndex = true;
+    }
+
+    /** Returns number of changes that are not applied to the index yet. Always returns 0 if indexing is synchronous. */
+    public int getIndexingQueueSize() {
+        return indexingQueue == null ? 0 : indexingQueue.size();
+    }
+
+    /** Returns age, in milliseconds, of the oldest change that is not applied to the index yet. Always returns 0 if indexing is synchronous. */
+    public long getIndexingLag() {
+        return indexingQueue == null ? 0 : indexingQueue.getLag();
+    }
+
+    /** Logs size and lag of indexing queue if there are changes that are not applied to the index yet. */
+    void logIndexingStatistics() {
+        final int queueSize = getIndexingQueueSize();
+        if (queueSize > 0) {
+            LOG.info("{} changes are waiting for indexing, the oldest one is waiting {} ms", queueSize, getIndexingLag());
+        }
     }
 
     public void initAsynchronously(ExecutorService executor, VirtualFileSystem virtualFileSystem) throws ServerException {
+        this.virtualFileSystem = virtualFileSystem;
         doInit();
         if (!executor.isShutdown()) {
             executor.execute(() -> {
@@ -149,7 +268,11 @@ public abstract class LuceneSearcher implements Searcher {
 
     protected final synchronized void doInit() throws ServerException {
         try {
-            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(makeAnalyzer()));
+            final Analyzer analyzer = codeIndex ? new PerFieldAnalyzerWrapper(makeAnalyzer(),
+                                                                              Collections.singletonMap(TRIGRAMS_FIELD,
+                                                                                                       makeTrigramAnalyzer()))
+                                                : makeAnalyzer();
+            luceneIndexWriter = new IndexWriter(makeDirectory(), new IndexWriterConfig(analyzer));
             searcherManager = new SearcherManager(luceneIndexWriter, true, new SearcherFactory());
             closed = false;
         } catch (IOException e) {
@@ -159,6 +282,9 @@ public abstract class LuceneSearcher implements Searcher {
 
     public final synchronized void close() {
         if (!closed) {
+            if (indexingQueue != null) {
+                indexingQueue.stop();
+            }
             try {
                 IOUtils.close(getIndexWriter(), getIndexWriter().getDirectory(), searcherManager);
                 afterClose();
@@ -186,37 +312,57 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public SearchResult search(QueryExpression query) throws ServerException {
+        if (query.getPattern() != null) {
+            return searchContent(query);
+        }
         IndexSearcher luceneSearcher = null;
         try {
             final long startTime = System.currentTimeMillis();
-            searcherManager.maybeRefresh();
+            if (indexingQueue == null) {
+                searcherManager.maybeRefresh();
+            }
             luceneSearcher = searcherManager.acquire();
 
-            Query luceneQuery = createLuceneQuery(query);
+            Query luceneQuery = createLuceneQuery(query, null);
 
+            final long readerVersion = ((DirectoryReader)luceneSearcher.getIndexReader()).getVersion();
             ScoreDoc after = null;
-            final int numSkipDocs = Math.max(0, query.getSkipCount());
-            if (numSkipDocs > 0) {
-                after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
+            final int numSkipDocs;
+            if (query.getCursor() != null) {
+                final SearchCursor cursor = SearchCursor.parse(query.getCursor());
+                numSkipDocs = cursor.offset;
+                if (cursor.readerVersion == readerVersion) {
+                    // Index is not changed since previous page was retrieved, continue right after its last document.
+                    after = cursor.lastScoreDoc;
+                } else if (numSkipDocs > 0) {
+                    after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
+                }
+            } else {
+                numSkipDocs = Math.max(0, query.getSkipCount());
+                if (numSkipDocs > 0) {
+                    after = skipScoreDocs(luceneSearcher, luceneQuery, numSkipDocs);
+                }
             }
 
-            final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), RESULT_LIMIT) : RESULT_LIMIT;
+            final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), resultLimit) : resultLimit;
             TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numDocs);
             final int totalHitsNum = topDocs.totalHits;
 
             List<SearchResultEntry> results = newArrayList();
             for (int i = 0; i < topDocs.scoreDocs.length; i++) {
                 ScoreDoc scoreDoc = topDocs.scoreDocs[i];
-                String filePath = luceneSearcher.doc(scoreDoc.doc).getField("path").stringValue();
-                results.add(new SearchResultEntry(filePath));
+                results.add(new SearchResultEntry(getPath(luceneSearcher, scoreDoc)));
             }
 
             final long elapsedTimeMillis = System.currentTimeMillis() - startTime;
 
-            boolean hasMoreToRetrieve = numSkipDocs + topDocs.scoreDocs.length + 1 < totalHitsNum;
+            final int retrievedDocs = numSkipDocs + topDocs.scoreDocs.length;
+            boolean hasMoreToRetrieve = topDocs.scoreDocs.length > 0 && retrievedDocs < totalHitsNum;
             QueryExpression nextPageQueryExpression = null;
             if (hasMoreToRetrieve) {
-                nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + topDocs.scoreDocs.length);
+                final ScoreDoc last = topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+                nextPageQueryExpression = createNextPageQuery(query, retrievedDocs)
+                        .setCursor(new SearchCursor(readerVersion, last, retrievedDocs).toString());
             }
 
             return SearchResult.aSearchResult()
@@ -236,7 +382,141 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
-    private Query createLuceneQuery(QueryExpression query) throws ServerException {
+    @Override
+    public void search(QueryExpression query, Consumer<SearchResultEntry> consumer) throws ServerException {
+        doSearch(query, Math.max(0, query.getSkipCount()), query.getMaxItems() > 0 ? query.getMaxItems() : Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Searches with content pattern. Exact number of matched files is not known without checking content of all candidates, so
+     * total hits of result is number of files found so far. If there are more matched files then next page query is provided.
+     */
+    private SearchResult searchContent(QueryExpression query) throws ServerException {
+        final long startTime = System.currentTimeMillis();
+        final int numSkipDocs = Math.max(0, query.getSkipCount());
+        final int numDocs = query.getMaxItems() > 0 ? Math.min(query.getMaxItems(), resultLimit) : resultLimit;
+        final List<SearchResultEntry> results = newArrayList();
+        // Request one more item to find out whether there is next page.
+        doSearch(query, numSkipDocs, numDocs + 1, results::add);
+
+        QueryExpression nextPageQueryExpression = null;
+        if (results.size() > numDocs) {
+            results.remove(numDocs);
+            nextPageQueryExpression = createNextPageQuery(query, numSkipDocs + numDocs);
+        }
+
+        return SearchResult.aSearchResult()
+                           .withResults(results)
+                           .withTotalHits(numSkipDocs + results.size())
+                           .withNextPageQueryExpression(nextPageQueryExpression)
+                           .withElapsedTimeMillis(System.currentTimeMillis() - startTime)
+                           .build();
+    }
+
+    private void doSearch(QueryExpression query, int numSkipDocs, int maxItems, Consumer<SearchResultEntry> consumer)
+            throws ServerException {
+        final ContentPattern contentPattern = createContentPattern(query);
+        IndexSearcher luceneSearcher = null;
+        try {
+            if (indexingQueue == null) {
+                searcherManager.maybeRefresh();
+            }
+            luceneSearcher = searcherManager.acquire();
+
+            Query luceneQuery = createLuceneQuery(query, contentPattern);
+
+            ScoreDoc after = null;
+            int skip = numSkipDocs;
+            if (contentPattern == null && skip > 0) {
+                after = skipScoreDocs(luceneSearcher, luceneQuery, skip);
+                skip = 0;
+            }
+
+            int remaining = maxItems;
+            TopDocs topDocs;
+            do {
+                // Read hits by frames to avoid collecting all of them in memory. Not each candidate matches to content pattern,
+                // so read full frames in this case.
+                final int frameSize = contentPattern == null ? Math.min(remaining, resultLimit) : resultLimit;
+                topDocs = luceneSearcher.searchAfter(after, luceneQuery, frameSize);
+                for (int i = 0; i < topDocs.scoreDocs.length && remaining > 0; i++) {
+                    final String path = getPath(luceneSearcher, topDocs.scoreDocs[i]);
+                    final SearchResultEntry entry = contentPattern == null ? new SearchResultEntry(path)
+                                                                           : matchContent(path, contentPattern);
+                    if (entry == null) {
+                        continue;
+                    }
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        consumer.accept(entry);
+                        remaining--;
+                    }
+                }
+                if (topDocs.scoreDocs.length > 0) {
+                    after = topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+                }
+            } while (remaining > 0 && topDocs.scoreDocs.length == frameSize);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+        }
+    }
+
+    private ContentPattern createContentPattern(QueryExpression query) throws ServerException {
+        if (query.getPattern() == null) {
+            return null;
+        }
+        if (virtualFileSystem == null) {
+            throw new ServerException("Searcher is not initialized");
+        }
+        // IllegalArgumentException is thrown as is for invalid pattern, it's an error of query.
+        return query.isRegex() ? ContentPattern.regex(query.getPattern()) : ContentPattern.literal(query.getPattern());
+    }
+
+    /** Checks content of candidate file. Returns {@code null} if file doesn't match to the pattern. */
+    private SearchResultEntry matchContent(String path, ContentPattern contentPattern) {
+        try {
+            final VirtualFile virtualFile = virtualFileSystem.getRoot().getChild(Path.of(path));
+            if (virtualFile == null
+                || !virtualFile.isFile()
+                || virtualFile.getLength() > ContentPattern.MAX_CONTENT_LENGTH
+                || !shouldIndexContent(virtualFile)) {
+                return null;
+            }
+            final List<SearchResultEntry.Match> matches = contentPattern.find(ContentPattern.readContent(virtualFile));
+            return matches.isEmpty() ? null : new SearchResultEntry(path, matches);
+        } catch (MatchTimeoutException e) {
+            // Pattern is too expensive, the same happens with other files, so the whole search is aborted.
+            throw e;
+        } catch (ServerException | RuntimeException e) {
+            LOG.warn("Unable check content of file {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private String getPath(IndexSearcher luceneSearcher, ScoreDoc scoreDoc) throws IOException {
+        return luceneSearcher.doc(scoreDoc.doc, PATH_FIELD).get("path");
+    }
+
+    /** Max number of items returned by {@link #search(QueryExpression)} at once. */
+    public int getResultLimit() {
+        return resultLimit;
+    }
+
+    public void setResultLimit(int resultLimit) {
+        if (resultLimit < 1) {
+            throw new IllegalArgumentException("Result limit must be greater than 0");
+        }
+        this.resultLimit = resultLimit;
+    }
+
+    private Query createLuceneQuery(QueryExpression query, ContentPattern contentPattern) throws ServerException {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
         final String path = query.getPath();
@@ -255,11 +535,25 @@ public abstract class LuceneSearcher implements Searcher {
                 throw new ServerException(e.getMessage());
             }
         }
+        if (contentPattern != null) {
+            if (codeIndex) {
+                // Few trigrams are enough for selecting candidates, don't exceed max number of clauses for long patterns.
+                int numTrigrams = 0;
+                for (Iterator<String> trigrams = contentPattern.getTrigrams().iterator();
+                     trigrams.hasNext() && numTrigrams < MAX_QUERY_TRIGRAMS; numTrigrams++) {
+                    luceneQuery.add(new TermQuery(new Term(TRIGRAMS_FIELD, trigrams.next())), BooleanClause.Occur.MUST);
+                }
+            }
+            if (luceneQuery.clauses().isEmpty()) {
+                // No way to select candidates, content of all files is checked.
+                luceneQuery.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+            }
+        }
         return luceneQuery;
     }
 
     private ScoreDoc skipScoreDocs(IndexSearcher luceneSearcher, Query luceneQuery, int numSkipDocs) throws IOException {
-        final int readFrameSize = Math.min(numSkipDocs, RESULT_LIMIT);
+        final int readFrameSize = Math.min(numSkipDocs, resultLimit);
         ScoreDoc scoreDoc = null;
         int retrievedDocs = 0;
         TopDocs topDocs;
@@ -272,7 +566,7 @@ public abstract class LuceneSearcher implements Searcher {
         } while (retrievedDocs < numSkipDocs && topDocs.scoreDocs.length > 0);
 
         if (retrievedDocs > numSkipDocs) {
-            int lastScoreDocIndex = topDocs.scoreDocs.length - (retrievedDocs - numSkipDocs);
+            int lastScoreDocIndex = topDocs.scoreDocs.length - (retrievedDocs - numSkipDocs) - 1;
             scoreDoc = topDocs.scoreDocs[lastScoreDocIndex];
         }
 
@@ -283,13 +577,21 @@ public abstract class LuceneSearcher implements Searcher {
         return new QueryExpression().setText(originalQuery.getText())
                                     .setName(originalQuery.getName())
                                     .setPath(originalQuery.getPath())
+                                    .setPattern(originalQuery.getPattern())
+                                    .setRegex(originalQuery.isRegex())
                                     .setSkipCount(newSkipCount)
                                     .setMaxItems(originalQuery.getMaxItems());
     }
 
     @Override
     public final void add(VirtualFile virtualFile) throws ServerException {
-        doAdd(virtualFile);
+        if (indexingQueue == null) {
+            doAdd(virtualFile);
+        } else {
+            final LuceneIndexingQueue.ChangeType type = virtualFile.isFolder() ? LuceneIndexingQueue.ChangeType.ADD_FOLDER
+                                                                               : LuceneIndexingQueue.ChangeType.ADD_FILE;
+            indexingQueue.add(new LuceneIndexingQueue.Change(type, virtualFile.getPath().toString(), virtualFile));
+        }
     }
 
     protected void doAdd(VirtualFile virtualFile) throws ServerException {
@@ -300,8 +602,13 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    /**
+     * Adds all files of the tree in index. Files that are not changed since they were indexed are skipped. If whole filesystem is
+     * added then documents of files that don't exist anymore are removed from the index.
+     */
     protected void addTree(VirtualFile tree) throws ServerException {
         final long start = System.currentTimeMillis();
+        final Set<String> notVisitedPaths = tree.isRoot() ? getIndexedPaths() : Collections.emptySet();
         final LinkedList<VirtualFile> q = new LinkedList<>();
         q.add(tree);
         int indexedFiles = 0;
@@ -312,36 +619,44 @@ public abstract class LuceneSearcher implements Searcher {
                     if (child.isFolder()) {
                         q.push(child);
                     } else {
-                        addFile(child);
-                        indexedFiles++;
+                        if (!notVisitedPaths.isEmpty()) {
+                            notVisitedPaths.remove(child.getPath().toString());
+                        }
+                        if (addFile(child)) {
+                            indexedFiles++;
+                        }
                     }
                 }
             }
         }
-        final long end = System.currentTimeMillis();
-        LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
-    }
-
-    protected void addFile(VirtualFile virtualFile) throws ServerException {
-        if (virtualFile.exists()) {
-            try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                         ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-                                         : null) {
-                getIndexWriter()
-                        .updateDocument(new Term("path", virtualFile.getPath().toString()), createDocument(virtualFile, fContentReader));
-            } catch (OutOfMemoryError oome) {
-                close();
-                throw oome;
-            } catch (IOException e) {
-                throw new ServerException(e.getMessage(), e);
-            } catch (ForbiddenException e) {
-                throw new ServerException(e.getServiceError());
-            }
+        for (String path : notVisitedPaths) {
+            deleteFromIndex(path, true);
         }
+        final long end = System.currentTimeMillis();
+        LOG.debug("Indexed {} files from {}, removed {} files, time: {} ms", indexedFiles, tree.getPath(), notVisitedPaths.size(), (end - start));
+    }
+
+    /**
+     * Adds file in index if it is not indexed yet or changed since it was indexed.
+     *
+     * @return {@code true} if file is added in index and {@code false} if file is skipped
+     */
+    protected boolean addFile(VirtualFile virtualFile) throws ServerException {
+        return virtualFile.exists() && writeDocument(new Term("path", virtualFile.getPath().toString()), virtualFile, true);
     }
 
     @Override
     public final void delete(String path, boolean isFile) throws ServerException {
+        if (indexingQueue == null) {
+            deleteFromIndex(path, isFile);
+        } else {
+            final LuceneIndexingQueue.ChangeType type = isFile ? LuceneIndexingQueue.ChangeType.DELETE_FILE
+                                                               : LuceneIndexingQueue.ChangeType.DELETE_FOLDER;
+            indexingQueue.add(new LuceneIndexingQueue.Change(type, path, null));
+        }
+    }
+
+    void deleteFromIndex(String path, boolean isFile) throws ServerException {
         try {
             if (isFile) {
                 Term term = new Term("path", path);
@@ -360,14 +675,85 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void update(VirtualFile virtualFile) throws ServerException {
-        doUpdate(new Term("path", virtualFile.getPath().toString()), virtualFile);
+        if (indexingQueue == null) {
+            doUpdate(new Term("path", virtualFile.getPath().toString()), virtualFile);
+        } else {
+            indexingQueue.add(new LuceneIndexingQueue.Change(LuceneIndexingQueue.ChangeType.UPDATE_FILE,
+                                                             virtualFile.getPath().toString(),
+                                                             virtualFile));
+        }
     }
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
-        try (Reader fContentReader = shouldIndexContent(virtualFile)
-                                     ? new BufferedReader(new InputStreamReader(virtualFile.getContent()))
-                                     : null) {
-            getIndexWriter().updateDocument(deleteTerm, createDocument(virtualFile, fContentReader));
+        // Modification date and size of file may be the same after update, so file is always reindexed.
+        writeDocument(deleteTerm, virtualFile, false);
+    }
+
+    /** Commits all pending changes of the index. */
+    void commit() throws ServerException {
+        try {
+            getIndexWriter().commit();
+        } catch (OutOfMemoryError oome) {
+            close();
+            throw oome;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    /** Makes changes of the index visible for search. */
+    void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    private boolean writeDocument(Term deleteTerm, VirtualFile virtualFile, boolean skipUnchanged) throws ServerException {
+        final String path = virtualFile.getPath().toString();
+        try {
+            final String stamp = virtualFile.getLastModificationDate() + ":" + virtualFile.getLength();
+            final String[] indexed = skipUnchanged ? getIndexedStampAndHash(path) : null;
+            if (indexed != null && stamp.equals(indexed[0])) {
+                return false;
+            }
+            final boolean indexContent = shouldIndexContent(virtualFile);
+            byte[] content = null;
+            String hash = null;
+            if (indexContent) {
+                if (virtualFile.getLength() <= MAX_BUFFERED_CONTENT) {
+                    try (InputStream contentStream = virtualFile.getContent()) {
+                        content = ByteStreams.toByteArray(contentStream);
+                    }
+                    hash = CONTENT_HASH.hashBytes(content).toString();
+                } else {
+                    final Hasher hasher = CONTENT_HASH.newHasher();
+                    try (InputStream contentStream = virtualFile.getContent()) {
+                        ByteStreams.copy(contentStream, asOutputStream(hasher));
+                    }
+                    hash = hasher.hash().toString();
+                }
+                if (indexed != null && hash.equals(indexed[1])) {
+                    return false;
+                }
+            }
+            try (Reader fContentReader = indexContent ? openContentReader(virtualFile, content) : null;
+                 Reader trigramsReader = indexContent && codeIndex ? openContentReader(virtualFile, content) : null) {
+                final Document document = createDocument(virtualFile, fContentReader);
+                document.add(new StoredField("stamp", stamp));
+                if (hash != null) {
+                    document.add(new StoredField("hash", hash));
+                }
+                if (codeIndex) {
+                    document.add(new StoredField("code", "true"));
+                    if (trigramsReader != null) {
+                        document.add(new Field(TRIGRAMS_FIELD, trigramsReader, TRIGRAMS_FIELD_TYPE));
+                    }
+                }
+                getIndexWriter().updateDocument(deleteTerm, document);
+            }
+            return true;
         } catch (OutOfMemoryError oome) {
             close();
             throw oome;
@@ -378,6 +764,56 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
+    private Reader openContentReader(VirtualFile virtualFile, byte[] content) throws ForbiddenException, ServerException {
+        return new BufferedReader(new InputStreamReader(content == null ? virtualFile.getContent() : new ByteArrayInputStream(content),
+                                                        UTF_8));
+    }
+
+    /**
+     * Returns stamp (modification date and size) and content hash of indexed file or {@code null} if file is not indexed or is
+     * indexed without code index while code index is enabled.
+     */
+    private String[] getIndexedStampAndHash(String path) throws IOException {
+        final IndexSearcher luceneSearcher = searcherManager.acquire();
+        try {
+            final TopDocs topDocs = luceneSearcher.search(new TermQuery(new Term("path", path)), 1);
+            if (topDocs.scoreDocs.length == 0) {
+                return null;
+            }
+            final Document document = luceneSearcher.doc(topDocs.scoreDocs[0].doc);
+            if (codeIndex && document.get("code") == null) {
+                return null;
+            }
+            return new String[]{document.get("stamp"), document.get("hash")};
+        } finally {
+            searcherManager.release(luceneSearcher);
+        }
+    }
+
+    /** Returns paths of all files that are present in the index. */
+    private Set<String> getIndexedPaths() throws ServerException {
+        final Set<String> paths = new HashSet<>();
+        try {
+            final IndexSearcher luceneSearcher = searcherManager.acquire();
+            try {
+                for (LeafReaderContext context : luceneSearcher.getIndexReader().leaves()) {
+                    final LeafReader reader = context.reader();
+                    final Bits liveDocs = reader.getLiveDocs();
+                    for (int i = 0; i < reader.maxDoc(); i++) {
+                        if (liveDocs == null || liveDocs.get(i)) {
+                            paths.add(reader.document(i, PATH_FIELD).get("path"));
+                        }
+                    }
+                }
+            } finally {
+                searcherManager.release(luceneSearcher);
+            }
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+        return paths;
+    }
+
     protected Document createDocument(VirtualFile virtualFile, Reader reader) throws ServerException {
         final Document doc = new Document();
         doc.add(new StringField("path", virtualFile.getPath().toString(), Field.Store.YES));
@@ -396,4 +832,53 @@ public abstract class LuceneSearcher implements Searcher {
         }
         return true;
     }
+
+    /**
+     * Position in search result. Contains version of index reader and last retrieved document. If index is not changed between
+     * requests then next page is retrieved directly after the last document, otherwise {@code offset} is used to skip documents.
+     */
+    static class SearchCursor {
+        final long     readerVersion;
+        final ScoreDoc lastScoreDoc;
+        final int      offset;
+
+        SearchCursor(long readerVersion, ScoreDoc lastScoreDoc, int offset) {
+            this.readerVersion = readerVersion;
+            this.lastScoreDoc = lastScoreDoc;
+            this.offset = offset;
+        }
+
+        /**
+         * Parses cursor created with {@link #toString()}.
+         *
+         * @throws IllegalArgumentException
+         *         if cursor is invalid
+         */
+        static SearchCursor parse(String cursor) {
+            final String[] parts = cursor.split("-");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(String.format("Invalid search cursor '%s'", cursor));
+            }
+            try {
+                final long readerVersion = Long.parseLong(parts[0], 36);
+                final int doc = Integer.parseInt(parts[1], 36);
+                final float score = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[2], 36));
+                final int offset = Integer.parseInt(parts[3], 36);
+                if (offset < 0) {
+                    throw new IllegalArgumentException(String.format("Invalid search cursor '%s'", cursor));
+                }
+                return new SearchCursor(readerVersion, new ScoreDoc(doc, score), offset);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("Invalid search cursor '%s'", cursor));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(readerVersion, 36) + '-' +
+                   Integer.toString(lastScoreDoc.doc, 36) + '-' +
+                   Integer.toUnsignedString(Float.floatToIntBits(lastScoreDoc.score), 36) + '-' +
+                   Integer.toString(offset, 36);
+        }
+    }
 }
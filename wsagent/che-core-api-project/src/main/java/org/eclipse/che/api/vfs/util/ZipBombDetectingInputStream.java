@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.util;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Wraps uncompressed content of {@link ZipInputStream} and checks compression ratio while content is read. Unlike {@link ZipContent}
+ * it doesn't need to read the whole zip stream before it is extracted, so zip content may be extracted directly from the network.
+ * <p/>
+ * Bytes are counted over all entries of zip stream. Reading fails with {@code IOException} as soon as number of uncompressed bytes is
+ * over threshold and exceeds number of compressed bytes more than allowed ratio.
+ */
+public final class ZipBombDetectingInputStream extends FilterInputStream {
+    /** The threshold after that checking of ZIP ratio started. */
+    private static final long ZIP_THRESHOLD = 1000000;
+    /** Max compression ratio. */
+    private static final int  ZIP_RATIO     = 100;
+
+    private final CountingInputStream compressedDataCounter;
+    private       long                uncompressedBytes;
+
+    /**
+     * @param zip
+     *         zip stream
+     * @param compressedDataCounter
+     *         counter of bytes that are read from the stream wrapped by {@code zip}
+     */
+    public ZipBombDetectingInputStream(ZipInputStream zip, CountingInputStream compressedDataCounter) {
+        super(zip);
+        this.compressedDataCounter = compressedDataCounter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long bytes) throws IOException {
+        uncompressedBytes += bytes;
+        if (uncompressedBytes > ZIP_THRESHOLD && uncompressedBytes > ZIP_RATIO * compressedDataCounter.getByteCount()) {
+            throw new IOException("Zip bomb detected");
+        }
+    }
+}
@@ -34,7 +34,10 @@ import org.eclipse.che.api.project.server.type.ProjectTypeRegistry;
 import org.eclipse.che.api.project.server.type.ReadonlyValueProvider;
 import org.eclipse.che.api.project.server.type.ValueProviderFactory;
 import org.eclipse.che.api.project.server.type.ValueStorageException;
+import org.eclipse.che.api.project.shared.dto.ChildrenPage;
 import org.eclipse.che.api.project.shared.dto.CopyOptions;
+import org.eclipse.che.api.project.shared.dto.FileOperation;
+import org.eclipse.che.api.project.shared.dto.FileOperationResult;
 import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.MoveOptions;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
@@ -205,14 +208,15 @@ public class ProjectServiceTest {
 
         importerRegistry = new ProjectImporterRegistry(Collections.<ProjectImporter>emptySet());
 
-        projectRegistry = new ProjectRegistry(workspaceHolder, vfsProvider, ptRegistry, phRegistry);
+        FolderChildrenCache childrenCache = new FolderChildrenCache();
+        projectRegistry = new ProjectRegistry(workspaceHolder, vfsProvider, ptRegistry, phRegistry, childrenCache);
         projectRegistry.initProjects();
 
         FileWatcherNotificationHandler fileWatcherNotificationHandler = new DefaultFileWatcherNotificationHandler(vfsProvider);
         FileTreeWatcher fileTreeWatcher = new FileTreeWatcher(root, new HashSet<>(), fileWatcherNotificationHandler);
 
         pm = new ProjectManager(vfsProvider, null, ptRegistry, projectRegistry, phRegistry,
-                                importerRegistry, fileWatcherNotificationHandler, fileTreeWatcher);
+                                importerRegistry, fileWatcherNotificationHandler, fileTreeWatcher, childrenCache);
         pm.initWatcher();
 
         HttpJsonRequest httpJsonRequest = mock(HttpJsonRequest.class, new SelfReturningAnswer());
@@ -983,6 +987,47 @@ public class ProjectServiceTest {
         assertEquals(new String(writer.getBody()), myContent);
     }
 
+    @Test
+    public void testGetFileContentRange() throws Exception {
+        String myContent = "to be or not to be";
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", myContent.getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=3-7"));
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/file/my_project/test.txt",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", headers, null, writer, null);
+        assertEquals(response.getStatus(), 206, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes 3-7/" + myContent.length());
+        assertEquals(new String(writer.getBody()), "be or");
+    }
+
+    @Test
+    public void testGetFileContentRangeNotSatisfiable() throws Exception {
+        pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", singletonList("bytes=100-"));
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/file/my_project/test.txt",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 416, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst("Content-Range"), "bytes */18");
+    }
+
+    @Test
+    public void testGetFileContentNotModified() throws Exception {
+        FileEntry file = pm.getProject("my_project").getBaseFolder().createFile("test.txt", "to be or not to be".getBytes());
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", singletonList(FileContentResponse.entityTag(file.getVirtualFile()).toString()));
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/file/my_project/test.txt",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", headers, null, null);
+        assertEquals(response.getStatus(), 304, "Error: " + response.getEntity());
+    }
+
     @Test
     public void testUpdateFileContent() throws Exception {
         String myContent = "<test>hello</test>";
@@ -1618,6 +1663,155 @@ public class ProjectServiceTest {
         Assert.assertTrue(names.contains("test.txt"));
     }
 
+    @Test
+    public void testGetChildrenPage() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("d");
+        a.createFolder("c");
+        a.createFile("z.txt", "test".getBytes());
+        a.createFile("y.txt", "test".getBytes());
+        a.createFile("x.txt", "test".getBytes());
+
+        List<String> names = new ArrayList<>();
+        String token = null;
+        do {
+            String url = String.format("http://localhost:8080/api/project/%s/children-page/my_project/a?maxItems=2", workspace);
+            ContainerResponse response = launcher.service(GET,
+                                                          token == null ? url : url + "&token=" + token,
+                                                          "http://localhost:8080/api", null, null, null);
+            assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+            ChildrenPage page = (ChildrenPage)response.getEntity();
+            Assert.assertTrue(page.getItems().size() <= 2);
+            names.addAll(page.getItems().stream().map(ItemReference::getName).collect(Collectors.toList()));
+            token = page.getContinuationToken();
+        } while (token != null);
+
+        assertEquals(names, Arrays.asList("c", "d", "x.txt", "y.txt", "z.txt"));
+    }
+
+    @Test
+    public void testGetBriefChildrenPage() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFolder("b");
+        a.createFile("test.txt", "test".getBytes());
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/children-page/my_project/a?brief=true",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        ChildrenPage page = (ChildrenPage)response.getEntity();
+        Assert.assertNull(page.getContinuationToken());
+        assertEquals(page.getItems().size(), 2);
+        assertEquals(page.getItems().get(0).getName(), "b");
+        assertEquals(page.getItems().get(0).getType(), "folder");
+        assertEquals(page.getItems().get(1).getName(), "test.txt");
+        assertEquals(page.getItems().get(1).getType(), "file");
+        Assert.assertTrue(page.getItems().get(1).getLinks().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testApplyBatch() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFile("update.txt", "to be".getBytes());
+        a.createFile("move.txt", "or not".getBytes());
+        a.createFile("delete.txt", "to be".getBytes());
+        myProject.getBaseFolder().createFolder("b");
+
+        List<FileOperation> operations = Arrays.asList(
+                newFileOperation(FileOperation.Type.CREATE, "/my_project/a/c/new.txt").withContent("that is"),
+                newFileOperation(FileOperation.Type.UPDATE, "/my_project/a/update.txt").withContent("the question"),
+                newFileOperation(FileOperation.Type.MOVE, "/my_project/a/move.txt").withTo("/my_project/b").withName("moved.txt"),
+                newFileOperation(FileOperation.Type.DELETE, "/my_project/a/delete.txt"));
+        ContainerResponse response = applyBatch(operations);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+
+        List<FileOperationResult> results = (List<FileOperationResult>)response.getEntity();
+        assertEquals(results.size(), 4);
+        for (FileOperationResult result : results) {
+            assertEquals(result.getStatus(), FileOperationResult.Status.DONE, "Error: " + result.getMessage());
+        }
+        VirtualFile newFile = pm.getProjectsRoot().getChild("my_project/a/c/new.txt").getVirtualFile();
+        assertEquals(newFile.getContentAsString(), "that is");
+        assertEquals(a.getChild("update.txt").getVirtualFile().getContentAsString(), "the question");
+        Assert.assertNull(a.getChild("move.txt"));
+        assertEquals(pm.getProjectsRoot().getChild("my_project/b/moved.txt").getVirtualFile().getContentAsString(), "or not");
+        Assert.assertNull(a.getChild("delete.txt"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testApplyBatchChangesNothingIfAnyOperationIsInvalid() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFile("test.txt", "to be".getBytes());
+
+        List<FileOperation> operations = Arrays.asList(
+                newFileOperation(FileOperation.Type.UPDATE, "/my_project/a/test.txt").withContent("or not"),
+                newFileOperation(FileOperation.Type.UPDATE, "/my_project/a/missing.txt").withContent("to be"),
+                newFileOperation(FileOperation.Type.DELETE, "/my_project/a/test.txt"));
+        ContainerResponse response = applyBatch(operations);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+
+        List<FileOperationResult> results = (List<FileOperationResult>)response.getEntity();
+        assertEquals(results.stream().map(FileOperationResult::getStatus).collect(Collectors.toList()),
+                     Arrays.asList(FileOperationResult.Status.SKIPPED, FileOperationResult.Status.FAILED, FileOperationResult.Status.SKIPPED));
+        assertNotNull(results.get(1).getMessage());
+        assertEquals(a.getChild("test.txt").getVirtualFile().getContentAsString(), "to be");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testApplyBatchChecksOperationsAgainstChangesOfPrecedingOperations() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        FolderEntry a = myProject.getBaseFolder().createFolder("a");
+        a.createFile("test.txt", "to be".getBytes());
+
+        List<FileOperation> operations = Arrays.asList(
+                newFileOperation(FileOperation.Type.CREATE, "/my_project/b/new.txt").withContent("to be"),
+                newFileOperation(FileOperation.Type.UPDATE, "/my_project/b/new.txt").withContent("or not"),
+                newFileOperation(FileOperation.Type.MOVE, "/my_project/b").withTo("/my_project/a"),
+                newFileOperation(FileOperation.Type.UPDATE, "/my_project/a/b/new.txt").withContent("to be"));
+        ContainerResponse response = applyBatch(operations);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        for (FileOperationResult result : (List<FileOperationResult>)response.getEntity()) {
+            assertEquals(result.getStatus(), FileOperationResult.Status.DONE, "Error: " + result.getMessage());
+        }
+        assertEquals(a.getChild("b/new.txt").getVirtualFile().getContentAsString(), "to be");
+
+        operations = Arrays.asList(
+                newFileOperation(FileOperation.Type.DELETE, "/my_project/a"),
+                newFileOperation(FileOperation.Type.UPDATE, "/my_project/a/test.txt").withContent("or not"));
+        response = applyBatch(operations);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<FileOperationResult> results = (List<FileOperationResult>)response.getEntity();
+        assertEquals(results.stream().map(FileOperationResult::getStatus).collect(Collectors.toList()),
+                     Arrays.asList(FileOperationResult.Status.SKIPPED, FileOperationResult.Status.FAILED));
+        assertNotNull(pm.getProjectsRoot().getChild("my_project/a/test.txt"));
+    }
+
+    @Test
+    public void testApplyBatchRejectsInvalidOperation() throws Exception {
+        ContainerResponse response = applyBatch(singletonList(newFileOperation(FileOperation.Type.MOVE, "/my_project/a")));
+        assertEquals(response.getStatus(), 400, "Error: " + response.getEntity());
+    }
+
+    private FileOperation newFileOperation(FileOperation.Type type, String path) {
+        return DtoFactory.getInstance().createDto(FileOperation.class).withType(type).withPath(path);
+    }
+
+    private ContainerResponse applyBatch(List<FileOperation> operations) throws Exception {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(CONTENT_TYPE, singletonList(APPLICATION_JSON));
+        String json = operations.stream().map(DtoFactory.getInstance()::toJson).collect(Collectors.joining(",", "[", "]"));
+        return launcher.service(POST,
+                                String.format("http://localhost:8080/api/project/%s/batch", workspace),
+                                "http://localhost:8080/api", headers, json.getBytes(), null);
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testGetItem() throws Exception {
@@ -1931,6 +2125,105 @@ public class ProjectServiceTest {
         Assert.assertTrue(result.get(0).getPath().equals("/my_project/c/test.txt"));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSearchWithCursor() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b").createFile("test.txt", "hello".getBytes());
+        myProject.getBaseFolder().createFolder("x/y").createFile("test.txt", "test".getBytes());
+
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/search/my_project?name=test.txt&maxItems=1",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), 1);
+        Set<String> paths = new LinkedHashSet<>(2);
+        paths.add(result.get(0).getPath());
+        String cursor = (String)response.getHttpHeaders().getFirst(ProjectService.NEXT_PAGE_CURSOR_HEADER);
+        Assert.assertNotNull(cursor);
+
+        response = launcher.service(GET,
+                                    String.format("http://localhost:8080/api/project/%s/search/my_project?name=test.txt&maxItems=1&cursor=%s",
+                                                  workspace, cursor),
+                                    "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), 1);
+        paths.add(result.get(0).getPath());
+        Assert.assertTrue(paths.contains("/my_project/a/b/test.txt"));
+        Assert.assertTrue(paths.contains("/my_project/x/y/test.txt"));
+        Assert.assertNull(response.getHttpHeaders().getFirst(ProjectService.NEXT_PAGE_CURSOR_HEADER));
+    }
+
+    @Test
+    public void testSearchWithInvalidCursor() throws Exception {
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/search/my_project?name=test.txt&cursor=xxx",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 400, "Error: " + response.getEntity());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSearchByPatternReturnsMatches() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b").createFile("test.txt", "hello\nsearchhit".getBytes());
+
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/search/my_project?pattern=searchhit",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getMatches().size(), 1);
+        assertEquals(result.get(0).getMatches().get(0).getLineNumber(), 2);
+        assertEquals(result.get(0).getMatches().get(0).getStartOffset(), 6);
+        assertEquals(result.get(0).getMatches().get(0).getEndOffset(), 15);
+    }
+
+    @Test
+    public void testSearchWithInvalidRegex() throws Exception {
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/search/my_project?pattern=(foo&regex=true",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 400, "Error: " + response.getEntity());
+
+        response = launcher.service(GET,
+                                    String.format("http://localhost:8080/api/project/%s/search-stream/my_project?pattern=(foo&regex=true",
+                                                  workspace),
+                                    "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 400, "Error: " + response.getEntity());
+    }
+
+    @Test
+    public void testSearchStream() throws Exception {
+        RegisteredProject myProject = pm.getProject("my_project");
+        myProject.getBaseFolder().createFolder("a/b").createFile("test.txt", "hello".getBytes());
+        myProject.getBaseFolder().createFolder("x/y").createFile("test.txt", "test".getBytes());
+        myProject.getBaseFolder().createFolder("c").createFile("exclude", "test".getBytes());
+
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(GET,
+                                                      String.format("http://localhost:8080/api/project/%s/search-stream/my_project?name=test.txt",
+                                                                    workspace),
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> result = DtoFactory.getInstance().createListDtoFromJson(new String(writer.getBody()), ItemReference.class);
+        assertEquals(result.size(), 2);
+        Set<String> paths = new LinkedHashSet<>(2);
+        for (ItemReference itemReference : result) {
+            paths.add(itemReference.getPath());
+        }
+        Assert.assertTrue(paths.contains("/my_project/a/b/test.txt"));
+        Assert.assertTrue(paths.contains("/my_project/x/y/test.txt"));
+    }
+
 
 
 /* ---- To think --- */
@@ -19,7 +19,10 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
@@ -27,6 +30,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class HashSumsCounterTest {
@@ -45,6 +50,57 @@ public class HashSumsCounterTest {
         assertEquals(expected, hashSums);
     }
 
+    @Test
+    public void countsHashSumsInParallel() throws Exception {
+        VirtualFile fileAB = mockFile("/a/file", "file1".getBytes());
+        VirtualFile fileBA = mockFile("/a/b/file", "file2".getBytes());
+        VirtualFile folderB = mockFolder("/a/b", fileBA);
+        VirtualFile folderA = mockFolder("/a", folderB, fileAB);
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            assertEquals(newArrayList(Pair.of(countMd5Sum("file2".getBytes()), "b/file"),
+                                      Pair.of(countMd5Sum("file1".getBytes()), "file")),
+                         new HashSumsCounter(folderA, Hashing.md5(), pool, null).countHashSums());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void takesHashSumsOfNotModifiedFilesFromCache() throws Exception {
+        File storage = new File(Files.createTempDirectory("hash-sums").toFile(), "md5");
+        VirtualFile file = mockFile("/a/file", "file1".getBytes());
+        VirtualFile folder = mockFolder("/a", file);
+        HashSumsCache cache = new HashSumsCache(storage);
+        Set<Pair<String, String>> expected = newHashSet(Pair.of(countMd5Sum("file1".getBytes()), "file"));
+
+        try {
+            assertEquals(expected, newHashSet(new HashSumsCounter(folder, Hashing.md5(), null, cache).countHashSums()));
+            cache.flush();
+            assertEquals(expected, newHashSet(new HashSumsCounter(folder, Hashing.md5(), null, new HashSumsCache(storage)).countHashSums()));
+
+            verify(file, times(1)).getContent();
+        } finally {
+            storage.delete();
+            storage.getParentFile().delete();
+        }
+    }
+
+    @Test
+    public void rehashesModifiedFiles() throws Exception {
+        VirtualFile file = mockFile("/a/file", "file1".getBytes());
+        VirtualFile folder = mockFolder("/a", file);
+        HashSumsCache cache = new HashSumsCache(new File(Files.createTempDirectory("hash-sums").toFile(), "md5"));
+        new HashSumsCounter(folder, Hashing.md5(), null, cache).countHashSums();
+
+        when(file.getLength()).thenReturn(5L);
+        when(file.getContent()).thenReturn(new ByteArrayInputStream("file2".getBytes()));
+
+        assertEquals(newArrayList(Pair.of(countMd5Sum("file2".getBytes()), "file")),
+                     new HashSumsCounter(folder, Hashing.md5(), null, cache).countHashSums());
+    }
+
     private String countMd5Sum(byte[] bytes) throws Exception {
         return ByteSource.wrap(bytes).hash(Hashing.md5()).toString();
     }
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParallelZipArchiverTest {
+    private File         testDirectory;
+    private VirtualFile  vfsRoot;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+        assertTrue(testDirectory.mkdir());
+
+        SearcherProvider searcherProvider = mock(SearcherProvider.class);
+        Searcher searcher = mock(Searcher.class);
+        VirtualFileSystem virtualFileSystem = new LocalVirtualFileSystem(testDirectory,
+                                                                         mock(ArchiverFactory.class),
+                                                                         searcherProvider,
+                                                                         mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+        when(searcherProvider.getSearcher(eq(virtualFileSystem), eq(true))).thenReturn(searcher);
+        when(searcherProvider.getSearcher(eq(virtualFileSystem))).thenReturn(searcher);
+        vfsRoot = virtualFileSystem.getRoot();
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdownNow();
+        IoUtil.deleteRecursive(testDirectory);
+        FileCleaner.stop();
+    }
+
+    @Test
+    public void writesSameEntriesInSameOrderAsZipArchiver() throws Exception {
+        VirtualFile folder = createFileTreeForArchiving();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+        new ZipArchiver(folder).compress(expected);
+        new ParallelZipArchiver(folder, pool).compress(compressedFolder);
+
+        assertEquals(readArchiveEntries(new ByteArrayInputStream(expected.toByteArray())),
+                     readArchiveEntries(new ByteArrayInputStream(compressedFolder.toByteArray())));
+    }
+
+    @Test
+    public void writesBigFilesAndLimitsPendingEntries() throws Exception {
+        VirtualFile folder = createFileTreeForArchiving();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+        new ZipArchiver(folder).compress(expected);
+        new ParallelZipArchiver(folder, pool, 100, 500).compress(compressedFolder);
+
+        assertEquals(readArchiveEntries(new ByteArrayInputStream(expected.toByteArray())),
+                     readArchiveEntries(new ByteArrayInputStream(compressedFolder.toByteArray())));
+    }
+
+    @Test
+    public void compressesFolderToArchiveWithFilter() throws Exception {
+        VirtualFile folder = createFileTreeForArchiving();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressedFolder = new ByteArrayOutputStream();
+
+        new ZipArchiver(folder).compress(expected, f -> f.isFolder() || f.getName().startsWith("_1"));
+        new ParallelZipArchiver(folder, pool).compress(compressedFolder, f -> f.isFolder() || f.getName().startsWith("_1"));
+
+        assertEquals(readArchiveEntries(new ByteArrayInputStream(expected.toByteArray())),
+                     readArchiveEntries(new ByteArrayInputStream(compressedFolder.toByteArray())));
+    }
+
+    private List<String> readArchiveEntries(InputStream archive) throws Exception {
+        List<String> entries = newArrayList();
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zip.getNextEntry()) != null) {
+                String content = zipEntry.isDirectory() ? "<none>" : new String(ByteStreams.toByteArray(zip));
+                zip.closeEntry();
+                entries.add(zipEntry.getName() + ':' + content);
+            }
+        }
+        return entries;
+    }
+
+    private VirtualFile createFileTreeForArchiving() throws Exception {
+        VirtualFile arc = vfsRoot.createFolder("arc");
+        for (String folderName : new String[]{"a", "b", "c"}) {
+            VirtualFile folder = arc.createFolder(folderName);
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 50; i++) {
+                content.append(folderName).append(i).append('\n');
+                folder.createFile("_" + i + ".txt", content.toString());
+            }
+            folder.createFolder("empty");
+        }
+        return arc;
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares throughput of {@link PathLockFactory} and {@link BaselinePathLockFactory} on 1 - 64 threads,
+ * which lock random files and folders of the same tree, most of locks are shared.
+ *
+ * <p>Benchmark isn't run by default build, run it with:
+ * <pre>
+ * mvn test -Dtest=PathLockFactoryBenchmark -Dpathlock.benchmark=true [-Dpathlock.benchmark.millis=2000]
+ * </pre>
+ */
+public class PathLockFactoryBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(PathLockFactoryBenchmark.class);
+
+    private static final int   MAX_THREADS        = 64;
+    private static final int   FOLDERS            = 20;
+    private static final int   FILES_PER_FOLDER   = 50;
+    /* percent of locks which are exclusive */
+    private static final int   EXCLUSIVE_PERCENT  = 10;
+    /* percent of exclusive locks which are locks of folders */
+    private static final int   FOLDER_PERCENT     = 5;
+
+    private Path[] folders;
+    private Path[] files;
+    private long   millis;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(Boolean.getBoolean("pathlock.benchmark"));
+        millis = Long.getLong("pathlock.benchmark.millis", 2000);
+        folders = new Path[FOLDERS];
+        files = new Path[FOLDERS * FILES_PER_FOLDER];
+        for (int i = 0; i < FOLDERS; i++) {
+            folders[i] = Path.of("/project/src/folder" + i);
+            for (int j = 0; j < FILES_PER_FOLDER; j++) {
+                files[i * FILES_PER_FOLDER + j] = folders[i].newPath("file" + j);
+            }
+        }
+    }
+
+    @Test
+    public void lockThroughput() throws Exception {
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            final PathLockFactory striped = new PathLockFactory(MAX_THREADS + 1);
+            final BaselinePathLockFactory baseline = new BaselinePathLockFactory(MAX_THREADS + 1);
+            // first runs warm up JIT
+            run(threads, (path, exclusive) -> striped.getLock(path, exclusive).acquire().release());
+            run(threads, (path, exclusive) -> baseline.getLock(path, exclusive).acquire().release());
+
+            final long stripedOps = run(threads, (path, exclusive) -> striped.getLock(path, exclusive).acquire().release());
+            final long baselineOps = run(threads, (path, exclusive) -> baseline.getLock(path, exclusive).acquire().release());
+            LOG.info("{} threads: striped {} locks/s, baseline {} locks/s",
+                     threads, stripedOps * 1000 / millis, baselineOps * 1000 / millis);
+            striped.checkClean();
+            baseline.checkClean();
+        }
+    }
+
+    /** Runs locking on given number of threads for configured time, returns number of acquired locks. */
+    private long run(int threads, LockAction action) throws Exception {
+        final AtomicLong operations = new AtomicLong();
+        final CountDownLatch starter = new CountDownLatch(1);
+        final long[] endTime = new long[1];
+        final List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            final Thread worker = new Thread(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    starter.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.currentTimeMillis() < endTime[0]) {
+                    final boolean exclusive = random.nextInt(100) < EXCLUSIVE_PERCENT;
+                    final Path path = exclusive && random.nextInt(100) < FOLDER_PERCENT
+                                      ? folders[random.nextInt(folders.length)]
+                                      : files[random.nextInt(files.length)];
+                    action.lock(path, exclusive);
+                    count++;
+                }
+                operations.addAndGet(count);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        endTime[0] = System.currentTimeMillis() + millis;
+        starter.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.get();
+    }
+
+    private interface LockAction {
+        void lock(Path path, boolean exclusive);
+    }
+}
@@ -236,4 +236,153 @@ public class PathLockFactoryTest extends TestCase {
         waiter.await();
         assertEquals(2, acquired.get());
     }
+
+    public void testChildLockPreventsExclusiveParentLock() throws Exception {
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch releaser = new CountDownLatch(1);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path, false);
+                lock.acquire();
+                starter.countDown();
+                try {
+                    releaser.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        t.start();
+        starter.await();
+        try {
+            pathLockFactory.getLock(Path.ROOT, true).acquire(100);
+            fail();
+        } catch (RuntimeException e) {
+            // OK
+        }
+        // Not exclusive lock of parent does not conflict with not exclusive lock of child.
+        PathLockFactory.PathLock parentLock = pathLockFactory.getLock(path.getParent(), false).acquire(100);
+        parentLock.release();
+        releaser.countDown();
+        t.join();
+
+        PathLockFactory.PathLock rootLock = pathLockFactory.getLock(Path.ROOT, true).acquire(1000);
+        rootLock.release();
+        pathLockFactory.checkClean();
+    }
+
+    public void testSiblingExclusiveLocks() throws Exception {
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch releaser = new CountDownLatch(1);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true);
+                lock.acquire();
+                starter.countDown();
+                try {
+                    releaser.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        t.start();
+        starter.await();
+        // Exclusive lock of sibling must not be blocked.
+        PathLockFactory.PathLock siblingLock = pathLockFactory.getLock(path.getParent().newPath("d"), true).acquire(100);
+        siblingLock.release();
+        releaser.countDown();
+        t.join();
+        pathLockFactory.checkClean();
+    }
+
+    public void testMaxThreadsForNotExclusiveLock() throws Exception {
+        // one permit is kept, so maxThreads - 1 threads may share lock
+        final int holders = maxThreads - 1;
+        final CountDownLatch starter = new CountDownLatch(holders);
+        final CountDownLatch releaser = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>(holders);
+        for (int i = 0; i < holders; i++) {
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    PathLockFactory.PathLock lock = pathLockFactory.getLock(path, false);
+                    lock.acquire();
+                    starter.countDown();
+                    try {
+                        releaser.await();
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        lock.release();
+                    }
+                }
+            };
+            threads.add(t);
+            t.start();
+        }
+        starter.await();
+        try {
+            pathLockFactory.getLock(path, false).acquire(100);
+            fail();
+        } catch (RuntimeException e) {
+            // OK
+        }
+        releaser.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        pathLockFactory.getLock(path, false).acquire(1000).release();
+        pathLockFactory.checkClean();
+    }
+
+    public void testNegativeTimeout() throws Exception {
+        // lock which is available at once is acquired regardless of timeout
+        PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true).acquire(-1);
+        final AtomicBoolean rejected = new AtomicBoolean(false);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    pathLockFactory.getLock(path, true).acquire(-1);
+                } catch (IllegalArgumentException e) {
+                    rejected.set(true);
+                }
+            }
+        };
+        t.start();
+        t.join();
+        lock.release();
+        assertTrue(rejected.get());
+        pathLockFactory.checkClean();
+    }
+
+    public void testWaiterIsWokenUpWhenBlockingLockReleased() throws Exception {
+        PathLockFactory.PathLock parentLock = pathLockFactory.getLock(path.getParent(), true).acquire();
+        final AtomicBoolean acquired = new AtomicBoolean(false);
+        final CountDownLatch waiter = new CountDownLatch(1);
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path, true);
+                try {
+                    lock.acquire(5000);
+                    acquired.set(true);
+                    lock.release();
+                } finally {
+                    waiter.countDown();
+                }
+            }
+        };
+        t.start();
+        Thread.sleep(100);
+        assertFalse(acquired.get());
+        parentLock.release();
+        waiter.await();
+        assertTrue(acquired.get());
+        pathLockFactory.checkClean();
+    }
 }
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.util.FileCleaner;
+import org.eclipse.che.api.vfs.impl.file.LocalVirtualFileSystem;
+import org.eclipse.che.api.vfs.search.Searcher;
+import org.eclipse.che.api.vfs.search.SearcherProvider;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares time of compressing and extracting of generated tree with {@link ZipArchiver} and {@link ParallelZipArchiver}.
+ *
+ * <p>Benchmark isn't run by default build, run it with:
+ * <pre>
+ * mvn test -Dtest=ZipArchiverBenchmark -Darchiver.benchmark=true [-Darchiver.benchmark.files=50000]
+ * </pre>
+ */
+public class ZipArchiverBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(ZipArchiverBenchmark.class);
+
+    private static final int FILES_PER_FOLDER = 100;
+
+    private File         testDirectory;
+    private VirtualFile  vfsRoot;
+    private VirtualFile  tree;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(Boolean.getBoolean("archiver.benchmark"));
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+        assertTrue(testDirectory.mkdir());
+        generateTree(new File(testDirectory, "tree"), Integer.getInteger("archiver.benchmark.files", 50000));
+
+        SearcherProvider searcherProvider = mock(SearcherProvider.class);
+        Searcher searcher = mock(Searcher.class);
+        VirtualFileSystem virtualFileSystem = new LocalVirtualFileSystem(testDirectory,
+                                                                         mock(ArchiverFactory.class),
+                                                                         searcherProvider,
+                                                                         mock(AbstractVirtualFileSystemProvider.CloseCallback.class));
+        when(searcherProvider.getSearcher(eq(virtualFileSystem), eq(true))).thenReturn(searcher);
+        when(searcherProvider.getSearcher(eq(virtualFileSystem))).thenReturn(searcher);
+        vfsRoot = virtualFileSystem.getRoot();
+        tree = vfsRoot.getChild(Path.of("tree"));
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        if (testDirectory != null) {
+            IoUtil.deleteRecursive(testDirectory);
+        }
+        FileCleaner.stop();
+    }
+
+    @Test
+    public void compress() throws Exception {
+        final long serial = time(() -> new ZipArchiver(tree).compress(ByteStreams.nullOutputStream()));
+        final long parallel = time(() -> new ParallelZipArchiver(tree, pool).compress(ByteStreams.nullOutputStream()));
+        LOG.info("compress: serial {} ms, parallel {} ms on {} threads", serial, parallel, pool.getParallelism());
+    }
+
+    @Test
+    public void extract() throws Exception {
+        final File archive = new File(testDirectory, "tree.zip");
+        try (FileOutputStream out = new FileOutputStream(archive)) {
+            new ParallelZipArchiver(tree, pool).compress(out);
+        }
+        final byte[] content = Files.readAllBytes(archive.toPath());
+        final VirtualFile target = vfsRoot.createFolder("extracted");
+        final long extract = time(() -> new ZipArchiver(target).extract(new ByteArrayInputStream(content), true, 0));
+        LOG.info("extract: {} ms, archive size {} bytes", extract, content.length);
+    }
+
+    private long time(Action action) throws Exception {
+        // first run warms up file system cache and JIT
+        action.run();
+        final long start = System.currentTimeMillis();
+        action.run();
+        return System.currentTimeMillis() - start;
+    }
+
+    private void generateTree(File root, int files) throws Exception {
+        final Random random = new Random(0);
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < files; i++) {
+            final File folder = new File(root, "folder" + i / FILES_PER_FOLDER);
+            if (i % FILES_PER_FOLDER == 0) {
+                assertTrue(folder.mkdirs());
+            }
+            content.setLength(0);
+            final int lines = 10 + random.nextInt(200);
+            for (int line = 0; line < lines; line++) {
+                content.append("line ").append(line).append(" of file ").append(i).append(' ').append(random.nextLong()).append('\n');
+            }
+            Files.write(new File(folder, "file" + i + ".txt").toPath(), content.toString().getBytes(UTF_8));
+        }
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+}
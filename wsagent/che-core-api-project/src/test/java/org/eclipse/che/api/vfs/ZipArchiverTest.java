@@ -185,6 +185,20 @@ public class ZipArchiverTest {
         }
     }
 
+    @Test
+    public void failsExtractArchiveWhenZipBombDetected() throws Exception {
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOut = new ZipOutputStream(byteOut)) {
+            zipOut.putNextEntry(new ZipEntry("bomb.txt"));
+            zipOut.write(new byte[20 * 1024 * 1024]);
+        }
+        VirtualFile folder = vfsRoot.createFolder("arc");
+
+        thrown.expect(ServerException.class);
+
+        new ZipArchiver(folder).extract(new ByteArrayInputStream(byteOut.toByteArray()), false, 0);
+    }
+
     private Map<String, String> readArchiveEntries(InputStream archive) throws Exception {
         Map<String, String> entries = newHashMap();
         try (ZipInputStream zip = new ZipInputStream(archive)) {
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.CREATED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.DELETED;
+import static org.eclipse.che.api.project.shared.dto.event.FileWatcherEventType.MODIFIED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileTreeWatcherBatchTest {
+    private File testDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("watcher-", 4));
+        assertTrue(testDirectory.mkdir());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(testDirectory);
+    }
+
+    @Test
+    public void createdAndDeletedItemProducesNoEvents() throws Exception {
+        FileTreeWatcher.EventBatch batch = new FileTreeWatcher.EventBatch();
+        batch.add(CREATED, Paths.get("/a/file"), false);
+        batch.add(MODIFIED, Paths.get("/a/file"), false);
+        batch.add(DELETED, Paths.get("/a/file"), false);
+
+        assertTrue(batch.events.isEmpty());
+    }
+
+    @Test
+    public void coalescesEventsOfTheSameItem() throws Exception {
+        FileTreeWatcher.EventBatch batch = new FileTreeWatcher.EventBatch();
+        batch.add(CREATED, Paths.get("/a/file1"), false);
+        batch.add(MODIFIED, Paths.get("/a/file1"), false);
+        batch.add(DELETED, Paths.get("/a/file2"), false);
+        batch.add(CREATED, Paths.get("/a/file2"), false);
+        batch.add(MODIFIED, Paths.get("/a/file3"), false);
+        batch.add(DELETED, Paths.get("/a/file3"), false);
+
+        assertEquals(asList("CREATED /a/file1", "MODIFIED /a/file2", "DELETED /a/file3"), toStrings(batch));
+    }
+
+    @Test
+    public void keepsBothEventsWhenFileIsReplacedWithDirectory() throws Exception {
+        FileTreeWatcher.EventBatch batch = new FileTreeWatcher.EventBatch();
+        batch.add(DELETED, Paths.get("/a/item"), false);
+        batch.add(CREATED, Paths.get("/a/item"), true);
+
+        assertEquals(asList("DELETED /a/item", "CREATED /a/item"), toStrings(batch));
+    }
+
+    @Test
+    public void createsSortedDirectorySnapshot() throws Exception {
+        assertTrue(new File(testDirectory, "c").mkdir());
+        Files.write(new File(testDirectory, "b").toPath(), "b".getBytes());
+        Files.write(new File(testDirectory, "a").toPath(), "a".getBytes());
+
+        FileTreeWatcher.DirectorySnapshot snapshot = FileTreeWatcher.DirectorySnapshot.of(testDirectory.toPath());
+
+        assertEquals(3, snapshot.size());
+        assertEquals("a", snapshot.getName(0));
+        assertEquals("b", snapshot.getName(1));
+        assertEquals("c", snapshot.getName(2));
+        assertFalse(snapshot.isDirectory(0));
+        assertFalse(snapshot.isDirectory(1));
+        assertTrue(snapshot.isDirectory(2));
+        assertTrue(snapshot.sameAs(FileTreeWatcher.DirectorySnapshot.of(testDirectory.toPath())));
+    }
+
+    @Test
+    public void detectsChangesOfDirectorySnapshot() throws Exception {
+        Path file = new File(testDirectory, "a").toPath();
+        Files.write(file, "a".getBytes());
+        FileTreeWatcher.DirectorySnapshot snapshot = FileTreeWatcher.DirectorySnapshot.of(testDirectory.toPath());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(snapshot.getLastModified(0) + 5000));
+
+        assertFalse(snapshot.sameAs(FileTreeWatcher.DirectorySnapshot.of(testDirectory.toPath())));
+    }
+
+    @Test
+    public void detectsChangesOfDirectorySnapshotWithSameHash() throws Exception {
+        // "Aa" and "BB" have the same hash code
+        FileTreeWatcher.DirectorySnapshot snapshot = new FileTreeWatcher.DirectorySnapshot(new String[]{"Aa"}, new long[]{1}, new BitSet());
+        FileTreeWatcher.DirectorySnapshot changed = new FileTreeWatcher.DirectorySnapshot(new String[]{"BB"}, new long[]{1}, new BitSet());
+
+        assertFalse(snapshot.sameAs(changed));
+    }
+
+    private List<String> toStrings(FileTreeWatcher.EventBatch batch) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<FileTreeWatcher.EventBatch.Item, FileWatcherEventType> entry : batch.events.entrySet()) {
+            result.add(entry.getValue() + " " + entry.getKey().path);
+        }
+        return result;
+    }
+}
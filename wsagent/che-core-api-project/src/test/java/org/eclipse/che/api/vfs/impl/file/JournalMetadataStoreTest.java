@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.impl.file;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.che.api.vfs.Path;
+import org.eclipse.che.api.vfs.VirtualFile;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.NameGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JournalMetadataStoreTest {
+    private File testDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        File targetDir = new File(Thread.currentThread().getContextClassLoader().getResource(".").getPath()).getParentFile();
+        testDirectory = new File(targetDir, NameGenerator.generate("fs-", 4));
+        assertTrue(testDirectory.mkdirs());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(testDirectory);
+    }
+
+    @Test
+    public void restoresLocksAndPropertiesFromJournal() throws Exception {
+        JournalMetadataStore store = new JournalMetadataStore(testDirectory);
+        store.putProperties(Path.of("/a/b"), ImmutableMap.of("k", "v"));
+        store.putLock(Path.of("/a/b"), new FileLock("token", Long.MAX_VALUE));
+        store.putLock(Path.of("/a/c"), new FileLock("other", Long.MAX_VALUE));
+        store.removeLock(Path.of("/a/c"));
+        store.close();
+
+        store = new JournalMetadataStore(testDirectory);
+        assertEquals(ImmutableMap.of("k", "v"), store.getProperties(Path.of("/a/b")));
+        assertEquals("token", store.getLock(Path.of("/a/b")).getLockToken());
+        assertNull(store.getLock(Path.of("/a/c")));
+        store.close();
+    }
+
+    @Test
+    public void removesPropertiesWhenEmptyMapPut() throws Exception {
+        JournalMetadataStore store = new JournalMetadataStore(testDirectory);
+        store.putProperties(Path.of("/a"), ImmutableMap.of("k", "v"));
+        store.putProperties(Path.of("/a"), Collections.emptyMap());
+        store.close();
+
+        store = new JournalMetadataStore(testDirectory);
+        assertTrue(store.getProperties(Path.of("/a")).isEmpty());
+        store.close();
+    }
+
+    @Test
+    public void copiesAndDeletesMetadataOfDescendants() throws Exception {
+        JournalMetadataStore store = new JournalMetadataStore(testDirectory);
+        store.putProperties(Path.of("/a"), ImmutableMap.of("k", "a"));
+        store.putProperties(Path.of("/a/b/c"), ImmutableMap.of("k", "c"));
+        store.putProperties(Path.of("/a-b"), ImmutableMap.of("k", "a-b"));
+
+        store.copy(Path.of("/a"), Path.of("/x"));
+        store.delete(Path.of("/a"));
+        store.close();
+
+        store = new JournalMetadataStore(testDirectory);
+        assertEquals(ImmutableMap.of("k", "a"), store.getProperties(Path.of("/x")));
+        assertEquals(ImmutableMap.of("k", "c"), store.getProperties(Path.of("/x/b/c")));
+        assertTrue(store.getProperties(Path.of("/a")).isEmpty());
+        assertTrue(store.getProperties(Path.of("/a/b/c")).isEmpty());
+        assertEquals(ImmutableMap.of("k", "a-b"), store.getProperties(Path.of("/a-b")));
+        store.close();
+    }
+
+    @Test
+    public void ignoresTornTailOfJournal() throws Exception {
+        JournalMetadataStore store = new JournalMetadataStore(testDirectory);
+        store.putProperties(Path.of("/a"), ImmutableMap.of("k", "v"));
+        store.close();
+        File journal = new File(testDirectory, JournalMetadataStore.JOURNAL_FILE);
+        long length = journal.length();
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            file.seek(length);
+            file.write(new byte[]{0, 0, 0, 50, 1, 2});
+        }
+
+        store = new JournalMetadataStore(testDirectory);
+        assertEquals(ImmutableMap.of("k", "v"), store.getProperties(Path.of("/a")));
+        assertEquals(length, journal.length());
+        store.close();
+    }
+
+    @Test
+    public void compactsJournal() throws Exception {
+        JournalMetadataStore store = new JournalMetadataStore(testDirectory);
+        for (int i = 0; i < JournalMetadataStore.MIN_COMPACTION_RECORDS * 2; i++) {
+            store.putProperties(Path.of("/a"), ImmutableMap.of("i", String.valueOf(i)));
+        }
+        store.close();
+        File journal = new File(testDirectory, JournalMetadataStore.JOURNAL_FILE);
+        assertTrue(journal.length() < JournalMetadataStore.MIN_COMPACTION_RECORDS * 20);
+
+        store = new JournalMetadataStore(testDirectory);
+        assertEquals(String.valueOf(JournalMetadataStore.MIN_COMPACTION_RECORDS * 2 - 1), store.getProperties(Path.of("/a")).get("i"));
+        store.close();
+    }
+
+    @Test
+    public void movesMetadataFromVfsFilesToJournal() throws Exception {
+        LocalVirtualFileSystem fileSystem = new LocalVirtualFileSystem(testDirectory, null, null, null);
+        VirtualFile file = fileSystem.getRoot().createFolder("a").createFile("file.txt", "content");
+        file.updateProperties(ImmutableMap.of("k", "v"));
+        String lockToken = file.lock(0);
+        fileSystem.close();
+
+        fileSystem = new LocalVirtualFileSystem(testDirectory, null, null, null, new JournalMetadataStore(testDirectory));
+        file = fileSystem.getRoot().getChild(Path.of("a/file.txt"));
+        assertEquals("v", file.getProperty("k"));
+        assertTrue(file.isLocked());
+        assertFalse(new File(new File(testDirectory, "a"), FilesMetadataStore.FILE_PROPERTIES_DIR).exists());
+        file.unlock(lockToken);
+        assertFalse(file.isLocked());
+        fileSystem.close();
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.search;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.google.common.collect.Sets.newHashSet;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ContentPatternTest {
+    @Test
+    public void splitsLiteralToLowerCaseTrigrams() throws Exception {
+        ContentPattern pattern = ContentPattern.literal("Foo.bar(");
+
+        assertEquals(newHashSet("foo", "oo.", "o.b", ".ba", "bar", "ar("), pattern.getTrigrams());
+    }
+
+    @Test
+    public void hasNoTrigramsWhenLiteralIsTooShort() throws Exception {
+        assertTrue(ContentPattern.literal("ab").getTrigrams().isEmpty());
+    }
+
+    @Test
+    public void extractsRequiredLiteralsFromRegex() throws Exception {
+        assertEquals(asList("foo.bar("), ContentPattern.requiredLiterals("foo\\.bar\\("));
+        assertEquals(asList("foo", "bar"), ContentPattern.requiredLiterals("foo.bar"));
+        assertEquals(asList("abc", "efg"), ContentPattern.requiredLiterals("abcd?efg"));
+        assertEquals(asList("defg", "hij"), ContentPattern.requiredLiterals("[abc]defg\\d+hij"));
+        assertEquals(asList("ghij"), ContentPattern.requiredLiterals("(abc|def)ghij"));
+        assertEquals(asList("foo.bar("), ContentPattern.requiredLiterals("\\Qfoo.bar(\\E"));
+        assertEquals(asList("bcdefg"), ContentPattern.requiredLiterals("\\x41bcdefg"));
+    }
+
+    @Test
+    public void extractsNothingFromRegexWithTopLevelAlternation() throws Exception {
+        assertEquals(emptyList(), ContentPattern.requiredLiterals("abcdef|ghijkl"));
+    }
+
+    @Test
+    public void findsLiteralMatchesWithLineNumbers() throws Exception {
+        List<SearchResultEntry.Match> matches = ContentPattern.literal("foo.bar(").find("x\nfoo.bar(1)\n\n  foo.bar(2)");
+
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.get(0).getLineNumber());
+        assertEquals(2, matches.get(0).getStartOffset());
+        assertEquals(10, matches.get(0).getEndOffset());
+        assertEquals(4, matches.get(1).getLineNumber());
+        assertEquals(16, matches.get(1).getStartOffset());
+    }
+
+    @Test
+    public void findsRegexMatchesAtBeginningOfLines() throws Exception {
+        List<SearchResultEntry.Match> matches = ContentPattern.regex("^\\s+foo").find("foo\n  foo\n");
+
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getLineNumber());
+        assertEquals(4, matches.get(0).getStartOffset());
+        assertEquals(9, matches.get(0).getEndOffset());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsWhenRegexIsInvalid() throws Exception {
+        ContentPattern.regex("foo(");
+    }
+
+    @Test(expected = MatchTimeoutException.class)
+    public void abortsMatchingWhenRegexTakesTooLong() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            content.append('a');
+        }
+        content.append('b');
+
+        // backtracking of repeated group takes polynomial time of high degree when there is no match
+        ContentPattern.regex("(.*a){12}$").find(content, 100);
+    }
+}
@@ -19,6 +19,7 @@ import org.eclipse.che.api.vfs.VirtualFileSystem;
 import org.eclipse.che.api.vfs.impl.memory.MemoryVirtualFileSystem;
 import org.eclipse.che.api.vfs.search.QueryExpression;
 import org.eclipse.che.api.vfs.search.SearchResult;
+import org.eclipse.che.api.vfs.search.SearchResultEntry;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.junit.After;
@@ -27,8 +28,11 @@ import org.junit.Test;
 import org.mockito.ArgumentMatcher;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static org.junit.Assert.assertEquals;
@@ -294,6 +298,185 @@ public class FSLuceneSearcherTest {
         assertTrue(Collections.disjoint(firstPage.getFilePaths(), lastPage.getFilePaths()));
     }
 
+    @Test
+    public void retrievesAllPagesWithCursor() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        Set<String> paths = new HashSet<>();
+        QueryExpression query = new QueryExpression().setText("spaceflight").setMaxItems(4);
+        int pages = 0;
+        while (query != null) {
+            SearchResult page = searcher.search(query);
+            paths.addAll(page.getFilePaths());
+            pages++;
+            query = page.getNextPageQueryExpression().orNull();
+            if (query != null) {
+                assertEquals(page.getNextPageCursor().get(), query.getCursor());
+            }
+        }
+
+        assertEquals(7, pages);
+        assertEquals(25, paths.size());
+    }
+
+    @Test
+    public void continuesWithCursorAfterIndexIsChanged() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+
+        SearchResult firstPage = searcher.search(new QueryExpression().setText("spaceflight").setMaxItems(8));
+        searcher.add(virtualFileSystem.getRoot().createFile("zzz.txt", TEST_CONTENT[0]));
+
+        QueryExpression nextPageQueryExpression = firstPage.getNextPageQueryExpression().get();
+        nextPageQueryExpression.setMaxItems(100);
+        SearchResult lastPage = searcher.search(nextPageQueryExpression);
+
+        assertEquals(26, lastPage.getTotalHits());
+        assertEquals(18, lastPage.getFilePaths().size());
+    }
+
+    @Test
+    public void streamsSearchResults() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        for (int i = 0; i < 100; i++) {
+            virtualFileSystem.getRoot().createFile(String.format("file%02d", i), TEST_CONTENT[i % TEST_CONTENT.length]);
+        }
+        searcher.init(virtualFileSystem);
+        searcher.setResultLimit(3);
+
+        List<String> paths = new ArrayList<>();
+        searcher.search(new QueryExpression().setText("spaceflight").setSkipCount(5), entry -> paths.add(entry.getFilePath()));
+
+        assertEquals(20, paths.size());
+        assertEquals(20, new HashSet<>(paths).size());
+    }
+
+    @Test
+    public void searchesSubstringWithCodeIndex() throws Exception {
+        searcher.enableCodeIndex();
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("Foo.java", "class Foo {\n    void run() {\n        foo.bar(1);\n    }\n}");
+        folder.createFile("Bar.java", "class Bar {\n    void bar() {}\n}");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setPattern("foo.bar("));
+
+        assertEquals(1, result.getResults().size());
+        SearchResultEntry entry = result.getResults().get(0);
+        assertEquals("/folder/Foo.java", entry.getFilePath());
+        assertEquals(1, entry.getMatches().size());
+        assertEquals(3, entry.getMatches().get(0).getLineNumber());
+    }
+
+    @Test
+    public void searchesRegexWithCodeIndex() throws Exception {
+        searcher.enableCodeIndex();
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("Foo.java", "class Foo {\n    void run() {}\n    void stop() {}\n}");
+        folder.createFile("Bar.java", "class Bar {\n    int run;\n}");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setPattern("void \\w+\\(\\)").setRegex(true));
+
+        assertEquals(1, result.getResults().size());
+        SearchResultEntry entry = result.getResults().get(0);
+        assertEquals("/folder/Foo.java", entry.getFilePath());
+        assertEquals(2, entry.getMatches().size());
+        assertEquals(2, entry.getMatches().get(0).getLineNumber());
+        assertEquals(3, entry.getMatches().get(1).getLineNumber());
+    }
+
+    @Test
+    public void searchesSubstringWithoutCodeIndex() throws Exception {
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("Foo.java", "foo.bar(1);");
+        folder.createFile("Bar.java", "bar(1);");
+        searcher.init(virtualFileSystem);
+
+        SearchResult result = searcher.search(new QueryExpression().setPattern("foo.bar("));
+
+        assertEquals(newArrayList("/folder/Foo.java"), result.getFilePaths());
+    }
+
+    @Test
+    public void reusesPersistentIndexAndRemovesDeletedFiles() throws Exception {
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback, true);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("folder");
+        folder.createFile("xxx.txt", TEST_CONTENT[2]);
+        VirtualFile file = folder.createFile("zzz.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+        searcher.close();
+        assertTrue(indexDirectory.exists());
+
+        file.delete();
+        searcher = new FSLuceneSearcher(indexDirectory, filter, closeCallback, true);
+        searcher.init(virtualFileSystem);
+
+        List<String> paths = searcher.search(new QueryExpression().setText("be")).getFilePaths();
+        assertEquals(newArrayList("/folder/xxx.txt"), paths);
+        paths = searcher.search(new QueryExpression().setText("should")).getFilePaths();
+        assertTrue(paths.isEmpty());
+    }
+
+    @Test
+    public void indexesChangesAsynchronously() throws Exception {
+        searcher.enableAsynchronousIndexing(100, 10, 10);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        searcher.init(virtualFileSystem);
+        VirtualFile file = virtualFileSystem.getRoot().createFolder("aaa").createFile("aaa.txt", TEST_CONTENT[1]);
+
+        searcher.add(file);
+
+        List<String> paths = waitForSearchResult(new QueryExpression().setText("should"), 1);
+        assertEquals(newArrayList(file.getPath().toString()), paths);
+
+        searcher.delete("/aaa", false);
+
+        paths = waitForSearchResult(new QueryExpression().setText("should"), 0);
+        assertTrue(paths.isEmpty());
+        assertEquals(0, searcher.getIndexingQueueSize());
+    }
+
+    @Test
+    public void removesFilesOfDeletedFolderWhenFolderIsAddedAgainAsynchronously() throws Exception {
+        searcher.enableAsynchronousIndexing(100, 10, 10);
+        VirtualFileSystem virtualFileSystem = virtualFileSystem();
+        VirtualFile folder = virtualFileSystem.getRoot().createFolder("aaa");
+        folder.createFile("aaa.txt", TEST_CONTENT[1]);
+        searcher.init(virtualFileSystem);
+        assertEquals(newArrayList("/aaa/aaa.txt"), waitForSearchResult(new QueryExpression().setText("should"), 1));
+
+        folder.delete();
+        searcher.delete("/aaa", false);
+        folder = virtualFileSystem.getRoot().createFolder("aaa");
+        folder.createFile("bbb.txt", TEST_CONTENT[2]);
+        searcher.add(folder);
+
+        assertEquals(newArrayList("/aaa/bbb.txt"), waitForSearchResult(new QueryExpression().setText("be"), 1));
+        assertTrue(searcher.search(new QueryExpression().setText("should")).getFilePaths().isEmpty());
+    }
+
+    private List<String> waitForSearchResult(QueryExpression query, int expectedSize) throws Exception {
+        final long endTime = System.currentTimeMillis() + 5000;
+        List<String> paths = searcher.search(query).getFilePaths();
+        while (paths.size() != expectedSize && System.currentTimeMillis() < endTime) {
+            Thread.sleep(20);
+            paths = searcher.search(query).getFilePaths();
+        }
+        return paths;
+    }
+
     private VirtualFileSystem virtualFileSystem() throws Exception {
         return new MemoryVirtualFileSystem(mock(ArchiverFactory.class), null);
     }
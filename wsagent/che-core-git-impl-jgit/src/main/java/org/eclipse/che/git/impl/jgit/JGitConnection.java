@@ -0,0 +1,495 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.core.ErrorCodes;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.core.util.LineConsumerFactory;
+import org.eclipse.che.api.git.Config;
+import org.eclipse.che.api.git.DiffPage;
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitException;
+import org.eclipse.che.api.git.LogPage;
+import org.eclipse.che.api.git.shared.AddRequest;
+import org.eclipse.che.api.git.shared.Branch;
+import org.eclipse.che.api.git.shared.BranchCreateRequest;
+import org.eclipse.che.api.git.shared.BranchDeleteRequest;
+import org.eclipse.che.api.git.shared.BranchListRequest;
+import org.eclipse.che.api.git.shared.CheckoutRequest;
+import org.eclipse.che.api.git.shared.CloneRequest;
+import org.eclipse.che.api.git.shared.CommitRequest;
+import org.eclipse.che.api.git.shared.DiffRequest;
+import org.eclipse.che.api.git.shared.FetchRequest;
+import org.eclipse.che.api.git.shared.GitUser;
+import org.eclipse.che.api.git.shared.InitRequest;
+import org.eclipse.che.api.git.shared.LogRequest;
+import org.eclipse.che.api.git.shared.LsFilesRequest;
+import org.eclipse.che.api.git.shared.LsRemoteRequest;
+import org.eclipse.che.api.git.shared.MergeRequest;
+import org.eclipse.che.api.git.shared.MergeResult;
+import org.eclipse.che.api.git.shared.MoveRequest;
+import org.eclipse.che.api.git.shared.PullRequest;
+import org.eclipse.che.api.git.shared.PullResponse;
+import org.eclipse.che.api.git.shared.PushRequest;
+import org.eclipse.che.api.git.shared.PushResponse;
+import org.eclipse.che.api.git.shared.RebaseRequest;
+import org.eclipse.che.api.git.shared.RebaseResponse;
+import org.eclipse.che.api.git.shared.Remote;
+import org.eclipse.che.api.git.shared.RemoteAddRequest;
+import org.eclipse.che.api.git.shared.RemoteListRequest;
+import org.eclipse.che.api.git.shared.RemoteReference;
+import org.eclipse.che.api.git.shared.RemoteUpdateRequest;
+import org.eclipse.che.api.git.shared.ResetRequest;
+import org.eclipse.che.api.git.shared.Revision;
+import org.eclipse.che.api.git.shared.RmRequest;
+import org.eclipse.che.api.git.shared.ShowFileContentRequest;
+import org.eclipse.che.api.git.shared.ShowFileContentResponse;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.api.git.shared.Tag;
+import org.eclipse.che.api.git.shared.TagCreateRequest;
+import org.eclipse.che.api.git.shared.TagDeleteRequest;
+import org.eclipse.che.api.git.shared.TagListRequest;
+import org.eclipse.che.git.impl.nativegit.NativeGitConnectionFactory;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ListBranchCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.InvalidPatternException;
+import org.eclipse.jgit.fnmatch.FileNameMatcher;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+/**
+ * Git connection that reads repository in process with JGit, so the most frequent read-only operations (status, log, diff, listing of
+ * branches, tags and remotes, file content) don't fork git process.
+ *
+ * <p>Operations that change repository or communicate with remote repositories are delegated to native git connection, so they keep
+ * using the same credentials, ssh keys and hooks as before.
+ */
+public class JGitConnection implements GitConnection {
+    private final File                       workDir;
+    private final JGitRepositoryCache        repositoryCache;
+    private final NativeGitConnectionFactory nativeGitConnectionFactory;
+
+    private LineConsumerFactory outputPublisherFactory;
+    private GitConnection       nativeGitConnection;
+    private Repository          repository;
+
+    JGitConnection(File workDir,
+                   JGitRepositoryCache repositoryCache,
+                   NativeGitConnectionFactory nativeGitConnectionFactory,
+                   LineConsumerFactory outputPublisherFactory) {
+        this.workDir = workDir;
+        this.repositoryCache = repositoryCache;
+        this.nativeGitConnectionFactory = nativeGitConnectionFactory;
+        this.outputPublisherFactory = outputPublisherFactory;
+    }
+
+    @Override
+    public File getWorkingDir() {
+        return workDir;
+    }
+
+    @Override
+    public boolean isInsideWorkTree() throws GitException {
+        return findRepository() != null;
+    }
+
+    @Override
+    public Status status(StatusFormat format) throws GitException {
+        final Repository repository = getRepository();
+        try {
+            return new JGitStatusImpl(getCurrentBranch(repository), Git.wrap(repository).status().call(), format);
+        } catch (GitAPIException | IOException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public LogPage log(LogRequest request) throws GitException {
+        return new LogPage(readLog(request.getFileFilter(), request.getSkip(), request.getMaxCount()));
+    }
+
+    @Override
+    public DiffPage diff(DiffRequest request) throws GitException {
+        final Repository repository = getRepository();
+        // page is written after connection is closed, so it holds its own reference to repository
+        repository.incrementOpen();
+        return new JGitDiffPage(request, repository);
+    }
+
+    @Override
+    public ShowFileContentResponse showFileContent(ShowFileContentRequest request) throws GitException {
+        if (request.getFile() == null) {
+            throw new GitException("No file was set.");
+        }
+        final Repository repository = getRepository();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            final ObjectId revision = repository.resolve(request.getVersion());
+            if (revision == null) {
+                throw new GitException(String.format("fatal: Invalid object name '%s'.\n", request.getVersion()));
+            }
+            try (TreeWalk treeWalk = TreeWalk.forPath(repository, request.getFile(), revWalk.parseTree(revision))) {
+                if (treeWalk == null) {
+                    throw new GitException(String.format("fatal: Path '%s' does not exist in '%s'\n",
+                                                         request.getFile(), request.getVersion()));
+                }
+                final ObjectLoader loader = repository.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB);
+                String content = new String(loader.getBytes(), UTF_8);
+                if (!content.isEmpty() && !content.endsWith("\n")) {
+                    content += "\n";
+                }
+                return newDto(ShowFileContentResponse.class).withContent(content);
+            }
+        } catch (IOException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Branch> branchList(BranchListRequest request) throws GitException {
+        final String listMode = request.getListMode();
+        if (listMode != null
+            && !(listMode.equals(BranchListRequest.LIST_ALL) || listMode.equals(BranchListRequest.LIST_REMOTE))) {
+            throw new IllegalArgumentException("Unsupported list mode '" + listMode + "'. Must be either 'a' or 'r'. ");
+        }
+        final Repository repository = getRepository();
+        final List<Branch> branches = new LinkedList<>();
+        try {
+            final String current = repository.getFullBranch();
+            if (listMode == null || listMode.equals(BranchListRequest.LIST_ALL)) {
+                for (Ref ref : Git.wrap(repository).branchList().call()) {
+                    final String name = ref.getName();
+                    branches.add(newDto(Branch.class).withName(name)
+                                                     .withActive(name.equals(current))
+                                                     .withDisplayName(Repository.shortenRefName(name))
+                                                     .withRemote(false));
+                }
+            }
+            if (listMode != null) {
+                for (Ref ref : Git.wrap(repository).branchList().setListMode(ListBranchCommand.ListMode.REMOTE).call()) {
+                    if (ref.isSymbolic()) {
+                        continue;
+                    }
+                    final String name = ref.getName();
+                    branches.add(newDto(Branch.class).withName(name)
+                                                     .withActive(false)
+                                                     .withDisplayName(name.substring(Constants.R_REMOTES.length()))
+                                                     .withRemote(true));
+                }
+            }
+        } catch (GitAPIException | IOException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+        return branches;
+    }
+
+    @Override
+    public List<Tag> tagList(TagListRequest request) throws GitException {
+        final Repository repository = getRepository();
+        final FileNameMatcher matcher;
+        try {
+            matcher = request.getPattern() == null ? null : new FileNameMatcher(request.getPattern(), null);
+        } catch (InvalidPatternException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+        final List<Tag> tags = new LinkedList<>();
+        try {
+            for (Ref ref : Git.wrap(repository).tagList().call()) {
+                final String name = Repository.shortenRefName(ref.getName());
+                if (matcher != null) {
+                    matcher.reset();
+                    matcher.append(name);
+                    if (!matcher.isMatch()) {
+                        continue;
+                    }
+                }
+                tags.add(newDto(Tag.class).withName(name));
+            }
+        } catch (GitAPIException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+        return tags;
+    }
+
+    @Override
+    public List<Remote> remoteList(RemoteListRequest request) throws GitException {
+        final StoredConfig config = getRepository().getConfig();
+        final String remoteName = request.getRemote();
+        final List<Remote> remotes = new LinkedList<>();
+        if (remoteName != null) {
+            final String url = config.getString("remote", remoteName, "url");
+            if (url == null) {
+                throw new GitException("No remote with name " + remoteName);
+            }
+            remotes.add(newDto(Remote.class).withName(remoteName).withUrl(url));
+        } else {
+            for (String name : config.getSubsections("remote")) {
+                final String url = config.getString("remote", name, "url");
+                if (url != null) {
+                    remotes.add(newDto(Remote.class).withName(name).withUrl(url));
+                }
+            }
+        }
+        return remotes;
+    }
+
+    @Override
+    public List<GitUser> getCommiters() throws GitException {
+        final List<GitUser> users = new LinkedList<>();
+        for (Revision revision : readLog(null, 0, 0)) {
+            users.add(revision.getCommitter());
+        }
+        return users;
+    }
+
+    @Override
+    public void add(AddRequest request) throws GitException {
+        getNativeConnection().add(request);
+    }
+
+    @Override
+    public void checkout(CheckoutRequest request) throws GitException {
+        getNativeConnection().checkout(request);
+    }
+
+    @Override
+    public Branch branchCreate(BranchCreateRequest request) throws GitException {
+        return getNativeConnection().branchCreate(request);
+    }
+
+    @Override
+    public void branchDelete(BranchDeleteRequest request) throws GitException, UnauthorizedException {
+        getNativeConnection().branchDelete(request);
+    }
+
+    @Override
+    public void branchRename(String oldName, String newName) throws GitException, UnauthorizedException {
+        getNativeConnection().branchRename(oldName, newName);
+    }
+
+    @Override
+    public List<String> listFiles(LsFilesRequest request) throws GitException {
+        return getNativeConnection().listFiles(request);
+    }
+
+    @Override
+    public void clone(CloneRequest request) throws URISyntaxException, ServerException, UnauthorizedException {
+        getNativeConnection().clone(request);
+    }
+
+    @Override
+    public Revision commit(CommitRequest request) throws GitException {
+        return getNativeConnection().commit(request);
+    }
+
+    @Override
+    public void fetch(FetchRequest request) throws UnauthorizedException, GitException {
+        getNativeConnection().fetch(request);
+    }
+
+    @Override
+    public void init(InitRequest request) throws GitException {
+        getNativeConnection().init(request);
+    }
+
+    @Override
+    public List<RemoteReference> lsRemote(LsRemoteRequest request) throws UnauthorizedException, GitException {
+        return getNativeConnection().lsRemote(request);
+    }
+
+    @Override
+    public MergeResult merge(MergeRequest request) throws GitException {
+        return getNativeConnection().merge(request);
+    }
+
+    @Override
+    public RebaseResponse rebase(RebaseRequest request) throws GitException {
+        return getNativeConnection().rebase(request);
+    }
+
+    @Override
+    public void mv(MoveRequest request) throws GitException {
+        getNativeConnection().mv(request);
+    }
+
+    @Override
+    public PullResponse pull(PullRequest request) throws GitException, UnauthorizedException {
+        return getNativeConnection().pull(request);
+    }
+
+    @Override
+    public PushResponse push(PushRequest request) throws GitException, UnauthorizedException {
+        return getNativeConnection().push(request);
+    }
+
+    @Override
+    public void remoteAdd(RemoteAddRequest request) throws GitException {
+        getNativeConnection().remoteAdd(request);
+    }
+
+    @Override
+    public void remoteDelete(String name) throws GitException {
+        getNativeConnection().remoteDelete(name);
+    }
+
+    @Override
+    public void remoteUpdate(RemoteUpdateRequest request) throws GitException {
+        getNativeConnection().remoteUpdate(request);
+    }
+
+    @Override
+    public void reset(ResetRequest request) throws GitException {
+        getNativeConnection().reset(request);
+    }
+
+    @Override
+    public void rm(RmRequest request) throws GitException {
+        getNativeConnection().rm(request);
+    }
+
+    @Override
+    public Tag tagCreate(TagCreateRequest request) throws GitException {
+        return getNativeConnection().tagCreate(request);
+    }
+
+    @Override
+    public void tagDelete(TagDeleteRequest request) throws GitException {
+        getNativeConnection().tagDelete(request);
+    }
+
+    @Override
+    public Config getConfig() throws GitException {
+        return getNativeConnection().getConfig();
+    }
+
+    @Override
+    public void close() {
+        // opened repository is shared between connections, release reference of this connection
+        if (repository != null) {
+            repository.close();
+            repository = null;
+        }
+        if (nativeGitConnection != null) {
+            nativeGitConnection.close();
+        }
+    }
+
+    @Override
+    public void setOutputLineConsumerFactory(LineConsumerFactory outputPublisherFactory) {
+        this.outputPublisherFactory = outputPublisherFactory;
+        if (nativeGitConnection != null) {
+            nativeGitConnection.setOutputLineConsumerFactory(outputPublisherFactory);
+        }
+    }
+
+    private GitConnection getNativeConnection() throws GitException {
+        if (nativeGitConnection == null) {
+            nativeGitConnection = nativeGitConnectionFactory.getConnection(workDir, outputPublisherFactory);
+        }
+        return nativeGitConnection;
+    }
+
+    private Repository findRepository() throws GitException {
+        if (repository == null) {
+            repository = repositoryCache.find(workDir);
+        }
+        return repository;
+    }
+
+    private Repository getRepository() throws GitException {
+        final Repository repository = findRepository();
+        if (repository == null) {
+            throw new GitException("fatal: Not a git repository (or any of the parent directories): .git\n");
+        }
+        return repository;
+    }
+
+    /**
+     * Reads history of current branch the same way as {@code git log} does, i.e. without merge commits simplification and with commits
+     * ordered by commit time. Only commits of requested page are read if {@code maxCount} is greater than 0.
+     */
+    private List<Revision> readLog(List<String> fileFilter, int skip, int maxCount) throws GitException {
+        final Repository repository = getRepository();
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            final ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null) {
+                throw new GitException(String.format("fatal: your current branch '%s' does not have any commits yet\n",
+                                                     repository.getBranch()),
+                                       ErrorCodes.INIT_COMMIT_WAS_NOT_PERFORMED);
+            }
+            revWalk.markStart(revWalk.parseCommit(head));
+            if (fileFilter != null && !fileFilter.isEmpty()) {
+                revWalk.setTreeFilter(AndTreeFilter.create(PathFilterGroup.createFromStrings(fileFilter), TreeFilter.ANY_DIFF));
+            }
+            final List<Revision> revisions = new ArrayList<>();
+            int skipped = 0;
+            for (RevCommit commit : revWalk) {
+                if (skipped < skip) {
+                    skipped++;
+                    continue;
+                }
+                if (maxCount > 0 && revisions.size() == maxCount) {
+                    break;
+                }
+                final PersonIdent committerIdent = commit.getCommitterIdent();
+                final GitUser committer = newDto(GitUser.class).withName(committerIdent.getName())
+                                                               .withEmail(committerIdent.getEmailAddress());
+                revisions.add(newDto(Revision.class).withId(commit.getName())
+                                                    .withMessage(commit.getShortMessage())
+                                                    .withCommitTime(commit.getCommitTime() * 1000L)
+                                                    .withCommitter(committer));
+            }
+            return revisions;
+        } catch (IOException e) {
+            throw new GitException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets current branch name the same way as {@code git branch} shows it.
+     *
+     * @return name of current branch or {@code null} if current branch doesn't have commits yet
+     */
+    private static String getCurrentBranch(Repository repository) throws IOException {
+        final ObjectId head = repository.resolve(Constants.HEAD);
+        if (head == null) {
+            return null;
+        }
+        final String fullBranch = repository.getFullBranch();
+        if (fullBranch != null && fullBranch.startsWith(Constants.R_HEADS)) {
+            return Repository.shortenRefName(fullBranch);
+        }
+        return "(HEAD detached at " + head.abbreviate(7).name() + ")";
+    }
+}
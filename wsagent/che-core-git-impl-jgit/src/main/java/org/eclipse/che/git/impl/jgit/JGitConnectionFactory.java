@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.core.util.LineConsumerFactory;
+import org.eclipse.che.api.git.CredentialsLoader;
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitConnectionFactory;
+import org.eclipse.che.api.git.GitException;
+import org.eclipse.che.git.impl.nativegit.NativeGitConnectionFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+
+/**
+ * JGit implementation for GitConnectionFactory. Opened repositories are cached and shared between connections.
+ *
+ * @see JGitConnection
+ */
+@Singleton
+public class JGitConnectionFactory extends GitConnectionFactory {
+    /** Max number of repositories that are kept open. */
+    static final int MAX_OPEN_REPOSITORIES = 64;
+
+    private final NativeGitConnectionFactory nativeGitConnectionFactory;
+    private final JGitRepositoryCache        repositoryCache;
+
+    @Inject
+    public JGitConnectionFactory(NativeGitConnectionFactory nativeGitConnectionFactory) {
+        this.nativeGitConnectionFactory = nativeGitConnectionFactory;
+        this.repositoryCache = new JGitRepositoryCache(MAX_OPEN_REPOSITORIES);
+    }
+
+    @Override
+    public GitConnection getConnection(File workDir, LineConsumerFactory outputPublisherFactory) throws GitException {
+        return new JGitConnection(workDir, repositoryCache, nativeGitConnectionFactory, outputPublisherFactory);
+    }
+
+    @Override
+    public CredentialsLoader getCredentialsLoader() {
+        return nativeGitConnectionFactory.getCredentialsLoader();
+    }
+
+    @PreDestroy
+    void closeRepositories() {
+        repositoryCache.close();
+    }
+}
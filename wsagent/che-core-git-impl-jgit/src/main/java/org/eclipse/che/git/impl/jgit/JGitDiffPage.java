@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.DiffPage;
+import org.eclipse.che.api.git.shared.DiffRequest;
+import org.eclipse.jgit.diff.ContentSource;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes difference in the same format as native git. Differences are computed only when page is written, so result is streamed to the
+ * client without holding the whole diff in memory. Page takes over reference to repository and closes it when it is written.
+ */
+public class JGitDiffPage extends DiffPage {
+    private final DiffRequest request;
+    private final Repository  repository;
+
+    public JGitDiffPage(DiffRequest request, Repository repository) {
+        this.request = request;
+        this.repository = repository;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        final BufferedOutputStream buffered = new BufferedOutputStream(out);
+        try (Repository repository = this.repository;
+             ObjectReader reader = repository.newObjectReader();
+             DiffFormatter formatter = new DiffFormatter(buffered)) {
+            formatter.setRepository(repository);
+            if (request.getFileFilter() != null && !request.getFileFilter().isEmpty()) {
+                formatter.setPathFilter(PathFilterGroup.createFromStrings(request.getFileFilter()));
+            }
+
+            final String commitA = request.getCommitA();
+            final String commitB = request.getCommitB();
+            final AbstractTreeIterator oldTree;
+            final AbstractTreeIterator newTree;
+            final ContentSource newContent;
+            if (commitB == null && !request.isCached()) {
+                // index or commit to working tree
+                oldTree = commitA == null ? new DirCacheIterator(repository.readDirCache()) : treeOf(commitA, reader);
+                newTree = new FileTreeIterator(repository);
+                newContent = ContentSource.create(new FileTreeIterator(repository));
+            } else if (commitB == null) {
+                // commit to index
+                oldTree = treeOf(commitA == null ? Constants.HEAD : commitA, reader);
+                newTree = new DirCacheIterator(repository.readDirCache());
+                newContent = ContentSource.create(reader);
+            } else {
+                oldTree = treeOf(commitA, reader);
+                newTree = treeOf(commitB, reader);
+                newContent = ContentSource.create(reader);
+            }
+
+            List<DiffEntry> entries = formatter.scan(oldTree, newTree);
+            if (newTree instanceof FileTreeIterator) {
+                // native git doesn't show untracked files
+                final DirCache index = repository.readDirCache();
+                final List<DiffEntry> tracked = new ArrayList<>(entries.size());
+                for (DiffEntry entry : entries) {
+                    if (entry.getChangeType() != DiffEntry.ChangeType.ADD || index.findEntry(entry.getNewPath()) >= 0) {
+                        tracked.add(entry);
+                    }
+                }
+                entries = tracked;
+            }
+            if (!request.isNoRenames()) {
+                // renames are detected here instead of formatter, since formatter can't read content of files in working tree
+                final RenameDetector renameDetector = new RenameDetector(repository);
+                if (request.getRenameLimit() > 0) {
+                    renameDetector.setRenameScore(toRenameScore(request.getRenameLimit()));
+                }
+                renameDetector.addAll(entries);
+                entries = renameDetector.compute(new ContentSource.Pair(ContentSource.create(reader), newContent),
+                                                 NullProgressMonitor.INSTANCE);
+            }
+
+            final DiffRequest.DiffType type = request.getType();
+            if (type == null || type == DiffRequest.DiffType.RAW) {
+                formatter.format(entries);
+                formatter.flush();
+            } else {
+                final PrintWriter writer = new PrintWriter(new OutputStreamWriter(buffered, UTF_8));
+                for (DiffEntry entry : entries) {
+                    if (type == DiffRequest.DiffType.NAME_ONLY) {
+                        writer.println(pathOf(entry));
+                    } else {
+                        writeNameStatus(writer, entry);
+                    }
+                }
+                writer.flush();
+            }
+        }
+    }
+
+    private AbstractTreeIterator treeOf(String revision, ObjectReader reader) throws IOException {
+        final ObjectId id = repository.resolve(revision + "^{tree}");
+        if (id == null) {
+            if (Constants.HEAD.equals(revision)) {
+                // no commits yet
+                return new EmptyTreeIterator();
+            }
+            throw new IOException(String.format("fatal: ambiguous argument '%s': unknown revision or path not in the working tree.",
+                                                revision));
+        }
+        try (RevWalk walk = new RevWalk(reader)) {
+            return new CanonicalTreeParser(null, reader, walk.parseTree(id));
+        }
+    }
+
+    /**
+     * Converts value of {@code --find-renames=<n>} option to percents, git reads it as a fraction, e.g. 5 is 50% and 90 is 90%.
+     */
+    static int toRenameScore(int value) {
+        long scale = 1;
+        while (scale <= value) {
+            scale *= 10;
+        }
+        return (int)(value * 100L / scale);
+    }
+
+    private static String pathOf(DiffEntry entry) {
+        return entry.getChangeType() == DiffEntry.ChangeType.DELETE ? entry.getOldPath() : entry.getNewPath();
+    }
+
+    private static void writeNameStatus(PrintWriter writer, DiffEntry entry) {
+        switch (entry.getChangeType()) {
+            case ADD:
+                writer.format("A\t%s\n", entry.getNewPath());
+                break;
+            case DELETE:
+                writer.format("D\t%s\n", entry.getOldPath());
+                break;
+            case MODIFY:
+                writer.format("M\t%s\n", entry.getNewPath());
+                break;
+            case RENAME:
+                writer.format("R%03d\t%s\t%s\n", entry.getScore(), entry.getOldPath(), entry.getNewPath());
+                break;
+            case COPY:
+                writer.format("C%03d\t%s\t%s\n", entry.getScore(), entry.getOldPath(), entry.getNewPath());
+                break;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.GitException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.util.FS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps opened repositories so that connections to the same project share parsed refs, pack indexes and config instead of reading them
+ * for each git operation.
+ *
+ * <p>Repository is looked up by working directory the same way as git does it, i.e. the closest parent that contains {@code .git}.
+ * Repository whose git directory is removed is opened again, at most {@code maxSize} least recently used repositories are kept open.
+ *
+ * <p>Repositories are reference counted, see {@link Repository#incrementOpen()}. Cache holds one reference to each cached repository and
+ * each call of {@link #find(File)} adds one more which must be released by caller with {@link Repository#close()}. So repository that is
+ * evicted from cache while it is used is actually closed only when the last user releases it.
+ */
+class JGitRepositoryCache {
+    private final int                   maxSize;
+    private final Map<File, Repository> repositories;
+
+    JGitRepositoryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.repositories = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns repository that contains specified directory in its working tree or {@code null} if directory is not inside working tree,
+     * e.g. it is not under git control or it is inside {@code .git} directory. Returned repository must be closed by caller when it is not
+     * needed anymore.
+     */
+    Repository find(File workDir) throws GitException {
+        final File workTree = findWorkTree(toCanonicalFile(workDir));
+        if (workTree == null) {
+            return null;
+        }
+        synchronized (this) {
+            Repository repository = repositories.get(workTree);
+            if (repository != null) {
+                if (repository.getDirectory().exists()) {
+                    repository.incrementOpen();
+                    return repository;
+                }
+                repositories.remove(workTree);
+                repository.close();
+            }
+            try {
+                repository = new FileRepositoryBuilder().setWorkTree(workTree).setMustExist(true).build();
+            } catch (IOException e) {
+                throw new GitException(e.getMessage(), e);
+            }
+            repositories.put(workTree, repository);
+            final Iterator<Repository> eldest = repositories.values().iterator();
+            while (repositories.size() > maxSize) {
+                eldest.next().close();
+                eldest.remove();
+            }
+            repository.incrementOpen();
+            return repository;
+        }
+    }
+
+    /** Releases all cached repositories, repositories which are still used are closed by their users. */
+    synchronized void close() {
+        repositories.values().forEach(Repository::close);
+        repositories.clear();
+    }
+
+    synchronized int size() {
+        return repositories.size();
+    }
+
+    /** Returns the closest parent that contains {@code .git} directory or file, {@code null} if directory is inside {@code .git}. */
+    private static File findWorkTree(File dir) {
+        for (File current = dir; current != null; current = current.getParentFile()) {
+            if (Constants.DOT_GIT.equals(current.getName())) {
+                return null;
+            }
+            final File dotGit = new File(current, Constants.DOT_GIT);
+            if (dotGit.isFile() || RepositoryCache.FileKey.isGitRepository(dotGit, FS.DETECTED)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    private static File toCanonicalFile(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
+}
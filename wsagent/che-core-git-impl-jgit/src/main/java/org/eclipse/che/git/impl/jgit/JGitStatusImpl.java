@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.InfoPage;
+import org.eclipse.che.api.git.shared.Status;
+import org.eclipse.che.api.git.shared.StatusFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * JGit implementation of {@link Status}. Lists of files have the same content and order as {@link StatusFormat#PORCELAIN porcelain}
+ * output of native git: paths are sorted, conflicting files aren't listed in other lists and files in untracked folders are represented
+ * only by folder.
+ */
+public class JGitStatusImpl implements Status, InfoPage {
+    private String       branchName;
+    private StatusFormat format;
+    private boolean      clean;
+    private List<String> added;
+    private List<String> changed;
+    private List<String> removed;
+    private List<String> missing;
+    private List<String> modified;
+    private List<String> untracked;
+    private List<String> untrackedFolders;
+    private List<String> conflicting;
+    private String       repositoryState;
+
+    /**
+     * @param branchName
+     *         current repository branch name
+     * @param status
+     *         status computed by JGit
+     * @param format
+     *         the output format for the status
+     */
+    public JGitStatusImpl(String branchName, org.eclipse.jgit.api.Status status, StatusFormat format) {
+        this.branchName = branchName;
+        this.format = format;
+        final Set<String> conflicts = new TreeSet<>(status.getConflicting());
+        this.conflicting = new ArrayList<>(conflicts);
+        this.added = sorted(status.getAdded(), conflicts);
+        this.changed = sorted(status.getChanged(), conflicts);
+        this.removed = sorted(status.getRemoved(), conflicts);
+        this.missing = sorted(status.getMissing(), conflicts);
+        this.modified = sorted(status.getModified(), conflicts);
+        this.untrackedFolders = new ArrayList<>(new TreeSet<>(status.getUntrackedFolders()));
+        this.untracked = new ArrayList<>();
+        for (String path : new TreeSet<>(status.getUntracked())) {
+            if (!isInsideOf(path, untrackedFolders)) {
+                untracked.add(path);
+            }
+        }
+        this.clean = conflicting.isEmpty() && added.isEmpty() && changed.isEmpty() && removed.isEmpty() && missing.isEmpty()
+                     && modified.isEmpty() && untracked.isEmpty() && untrackedFolders.isEmpty();
+    }
+
+    /** Writes status in short format, JGit doesn't provide human readable long format of native git. */
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, UTF_8));
+        if (format == StatusFormat.LONG) {
+            writer.println(branchName == null ? "Initial commit" : "On branch " + branchName);
+            if (clean) {
+                writer.println("nothing to commit, working directory clean");
+            }
+        }
+        writeLines(writer, conflicting, "UU");
+        writeLines(writer, added, "A ");
+        writeLines(writer, changed, "M ");
+        writeLines(writer, removed, "D ");
+        writeLines(writer, modified, " M");
+        writeLines(writer, missing, " D");
+        writeLines(writer, untracked, "??");
+        for (String folder : untrackedFolders) {
+            writer.format("?? %s/\n", folder);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public boolean isClean() {
+        return clean;
+    }
+
+    @Override
+    public void setClean(boolean clean) {
+        this.clean = clean;
+    }
+
+    @Override
+    public StatusFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public void setFormat(StatusFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public String getBranchName() {
+        return branchName;
+    }
+
+    @Override
+    public void setBranchName(String branchName) {
+        this.branchName = branchName;
+    }
+
+    @Override
+    public List<String> getAdded() {
+        return added;
+    }
+
+    @Override
+    public void setAdded(List<String> added) {
+        this.added = added;
+    }
+
+    @Override
+    public List<String> getUntracked() {
+        return untracked;
+    }
+
+    @Override
+    public void setUntracked(List<String> untracked) {
+        this.untracked = untracked;
+    }
+
+    @Override
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    @Override
+    public void setChanged(List<String> changed) {
+        this.changed = changed;
+    }
+
+    @Override
+    public List<String> getModified() {
+        return modified;
+    }
+
+    @Override
+    public void setModified(List<String> modified) {
+        this.modified = modified;
+    }
+
+    @Override
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    @Override
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+
+    @Override
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    @Override
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+
+    @Override
+    public List<String> getUntrackedFolders() {
+        return untrackedFolders;
+    }
+
+    @Override
+    public void setUntrackedFolders(List<String> untrackedFolders) {
+        this.untrackedFolders = untrackedFolders;
+    }
+
+    @Override
+    public List<String> getConflicting() {
+        return conflicting;
+    }
+
+    @Override
+    public void setConflicting(List<String> conflicting) {
+        this.conflicting = conflicting;
+    }
+
+    @Override
+    public String getRepositoryState() {
+        return repositoryState;
+    }
+
+    @Override
+    public void setRepositoryState(String repositoryState) {
+        this.repositoryState = repositoryState;
+    }
+
+    private static List<String> sorted(Collection<String> paths, Set<String> exclude) {
+        final List<String> result = new ArrayList<>(new TreeSet<>(paths));
+        result.removeAll(exclude);
+        return result;
+    }
+
+    private static boolean isInsideOf(String path, List<String> folders) {
+        for (String folder : folders) {
+            if (path.startsWith(folder + '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeLines(PrintWriter writer, List<String> paths, String code) {
+        for (String path : paths) {
+            writer.format("%s %s\n", code, path);
+        }
+    }
+}
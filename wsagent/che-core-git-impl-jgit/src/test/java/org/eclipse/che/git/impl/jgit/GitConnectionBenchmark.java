@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.jgit;
+
+import org.eclipse.che.api.git.CredentialsLoader;
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitConnectionFactory;
+import org.eclipse.che.api.git.GitUserResolver;
+import org.eclipse.che.api.git.shared.BranchListRequest;
+import org.eclipse.che.api.git.shared.DiffRequest;
+import org.eclipse.che.api.git.shared.LogRequest;
+import org.eclipse.che.api.git.shared.StatusFormat;
+import org.eclipse.che.git.impl.GitTestUtil;
+import org.eclipse.che.git.impl.nativegit.NativeGitConnectionFactory;
+import org.eclipse.che.git.impl.nativegit.ssh.GitSshScriptProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import static org.eclipse.che.api.core.util.LineConsumerFactory.NULL;
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares time of read-only operations of native and JGit connections on existing local repository.
+ *
+ * <p>Benchmark isn't run by default build, run it with:
+ * <pre>
+ * mvn test -Dtest=GitConnectionBenchmark -Dgit.benchmark.repository=/path/to/large/repository [-Dgit.benchmark.iterations=20]
+ * </pre>
+ */
+public class GitConnectionBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(GitConnectionBenchmark.class);
+
+    private File                       repository;
+    private int                        iterations;
+    private NativeGitConnectionFactory nativeFactory;
+    private JGitConnectionFactory      jgitFactory;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        final String path = System.getProperty("git.benchmark.repository");
+        if (path == null) {
+            throw new SkipException("Property git.benchmark.repository is not set");
+        }
+        repository = new File(path);
+        iterations = Integer.getInteger("git.benchmark.iterations", 10);
+        final GitUserResolver resolver = mock(GitUserResolver.class);
+        when(resolver.getUser()).thenReturn(GitTestUtil.getTestGitUser());
+        nativeFactory = new NativeGitConnectionFactory(mock(CredentialsLoader.class), new GitSshScriptProvider(host -> new byte[0]),
+                                                       resolver);
+        jgitFactory = new JGitConnectionFactory(nativeFactory);
+    }
+
+    @Test
+    public void status() throws Exception {
+        compare("status", connection -> connection.status(StatusFormat.SHORT).isClean());
+    }
+
+    @Test
+    public void log() throws Exception {
+        compare("log", connection -> connection.log(newDto(LogRequest.class)).getCommits().size());
+    }
+
+    @Test
+    public void branchList() throws Exception {
+        compare("branch list", connection -> connection.branchList(newDto(BranchListRequest.class)
+                                                                           .withListMode(BranchListRequest.LIST_ALL)).size());
+    }
+
+    @Test
+    public void diff() throws Exception {
+        compare("diff", connection -> {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            connection.diff(newDto(DiffRequest.class).withType(DiffRequest.DiffType.NAME_STATUS)
+                                                     .withCommitA("HEAD~10")
+                                                     .withCommitB("HEAD"))
+                      .writeTo(out);
+            return out.size();
+        });
+    }
+
+    private void compare(String operation, Operation action) throws Exception {
+        final long nativeTime = measure(nativeFactory, action);
+        final long jgitTime = measure(jgitFactory, action);
+        LOG.info("{}: native {} ms, jgit {} ms per operation", operation, nativeTime / iterations, jgitTime / iterations);
+    }
+
+    private long measure(GitConnectionFactory factory, Operation action) throws Exception {
+        // warm up
+        try (GitConnection connection = factory.getConnection(repository, NULL)) {
+            action.execute(connection);
+        }
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < iterations; i++) {
+            try (GitConnection connection = factory.getConnection(repository, NULL)) {
+                action.execute(connection);
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private interface Operation {
+        Object execute(GitConnection connection) throws Exception;
+    }
+}
@@ -16,6 +16,7 @@ import org.eclipse.che.api.core.util.CommandLine;
 import org.eclipse.che.api.core.util.CompositeLineConsumer;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.LineConsumerFactory;
+import org.eclipse.che.api.core.util.ListLineConsumer;
 import org.eclipse.che.api.core.util.ProcessUtil;
 import org.eclipse.che.api.core.util.Watchdog;
 import org.eclipse.che.api.git.GitException;
@@ -23,7 +24,9 @@ import org.eclipse.che.git.impl.nativegit.commands.GitCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -67,11 +70,21 @@ public class CommandProcess {
             lineConsumer = lineConsumerFactory.newLineConsumer();
         }
 
+        final ListLineConsumer errorOutput = command.getErrorOutput();
+        File errorFile = null;
         // Add an external line consumer that comes with factory. It is typically a consumer that sends message events to the client.
         try (LineConsumer consumer = new CompositeLineConsumer(lineConsumer, command)) {
             Process process;
             try {
-                process = ProcessUtil.execute(pb, consumer);
+                if (errorOutput == null) {
+                    process = ProcessUtil.execute(pb, consumer);
+                } else {
+                    // error output is kept apart in file, so git never blocks on it while standard output is read
+                    errorFile = File.createTempFile("git-", ".err");
+                    pb.redirectError(errorFile);
+                    process = pb.start();
+                    ProcessUtil.process(process, consumer);
+                }
             } catch (IOException e) {
                 LOG.error("Process creating failed", e);
                 throw new GitException("It is not possible to execute command");
@@ -89,7 +102,10 @@ public class CommandProcess {
                  * Check process exit value and search for correct error message without hint and warning messages ant throw it to user.
                  */
                 if (process.exitValue() != 0) {
-                    String message = searchErrorMessage(command.getLines());
+                    if (errorOutput != null) {
+                        readLines(errorFile, errorOutput);
+                    }
+                    String message = searchErrorMessage(errorOutput == null ? command.getLines() : errorOutput.getLines());
                     LOG.debug(String.format("Command failed!\ncommand: %s\nerror: %s", commandLine.toString(), message));
                     throw new GitException(message);
                 } else {
@@ -104,6 +120,20 @@ public class CommandProcess {
             }
         } catch (IOException e) {
             LOG.error("An error occurred while trying to close the lineConsumer", e);
+        } finally {
+            if (errorFile != null && !errorFile.delete()) {
+                LOG.warn("Unable to delete file {}", errorFile);
+            }
+        }
+    }
+
+    private static void readLines(File file, LineConsumer consumer) {
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                consumer.writeLine(line);
+            }
+        } catch (IOException e) {
+            LOG.error("Unable to read error output of command", e);
         }
     }
 
@@ -15,12 +15,17 @@ package org.eclipse.che.git.impl.nativegit;
 import org.eclipse.che.api.git.DiffPage;
 import org.eclipse.che.api.git.GitException;
 import org.eclipse.che.api.git.shared.DiffRequest;
+import org.eclipse.che.git.impl.nativegit.commands.DiffCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 
 /**
  * Contains information about difference between two commits, commit and working tree,
@@ -29,8 +34,8 @@ import java.io.PrintWriter;
  * @author <a href="maito:evoevodin@codenvy.com">Eugene Voevodin</a>
  */
 public class NativeGitDiffPage extends DiffPage {
+    private static final Logger LOG = LoggerFactory.getLogger(NativeGitDiffPage.class);
 
-    private static Logger LOG = LoggerFactory.getLogger(NativeGitDiffPage.class);
     private DiffRequest request;
     private NativeGit   nativeGit;
 
@@ -39,81 +44,68 @@ public class NativeGitDiffPage extends DiffPage {
         this.nativeGit = nativeGit;
     }
 
+    /**
+     * Writes difference while git produces it, so the whole difference isn't kept in memory.
+     *
+     * <p>If git fails after part of difference is already written to the {@code out}, the response can't be turned into error
+     * anymore, so difference is ended with line which starts with {@link DiffPage#TRUNCATED_MARKER} followed by message of failure.
+     *
+     * @throws IOException
+     *         when it is not possible to write difference or when git fails before anything is written to the {@code out},
+     *         {@link GitException} is the cause of exception in the latter case
+     */
     @Override
     public void writeTo(OutputStream out) throws IOException {
-        try (PrintWriter outWriter = new PrintWriter(out);) {
-            if (request.getCommitA() == null && request.getCommitB() == null && !request.isCached()) {
-                workingTreeToIndex(outWriter);
-            } else if (request.getCommitA() != null && request.getCommitB() == null && !request.isCached()) {
-                commitToWorkingTree(request.getCommitA(), outWriter);
-            } else if (request.getCommitB() == null && request.isCached()) {
-                commitToIndex(request.getCommitA(), outWriter);
-            } else {
-                commitToCommit(request.getCommitA(), request.getCommitB(), outWriter);
-            }
+        final DiffCommand diffCommand = nativeGit.createDiffCommand()
+                                                 .setType(request.getType().toString())
+                                                 .setFileFilter(request.getFileFilter())
+                                                 .setNoRenames(request.isNoRenames())
+                                                 .setRenamesCount(request.getRenameLimit());
+        if (request.getCommitB() != null) {
+            // difference between two commits
+            diffCommand.setCommitA(request.getCommitA()).setCommitB(request.getCommitB());
+        } else if (request.isCached()) {
+            // difference between index and commit
+            diffCommand.setCommitA(request.getCommitA()).setCached(true);
+        } else if (request.getCommitA() != null) {
+            // difference between commit and working tree
+            diffCommand.setCommitA(request.getCommitA());
+        }
+        final WrittenOutputStream writtenOut = new WrittenOutputStream(out);
+        final Writer outWriter = new BufferedWriter(new OutputStreamWriter(writtenOut));
+        try {
+            diffCommand.writeTo(outWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         } catch (GitException e) {
-            LOG.error("Diff page creating exception", e);
+            if (!writtenOut.written) {
+                throw new IOException(e.getMessage(), e);
+            }
+            LOG.warn("Git failed after part of difference is sent to client: {}", e.getMessage());
+            // lines of difference are written whole, so marker always starts a new line
+            outWriter.write(TRUNCATED_MARKER + String.valueOf(e.getMessage()).replace('\n', ' ') + '\n');
         }
+        outWriter.flush();
     }
 
-    /**
-     * @param commit commit
-     * @return difference between index and commit
-     * @throws GitException when any error occurs
-     */
-    private void commitToIndex(String commit, PrintWriter outWriter) throws GitException {
-        outWriter.print(nativeGit.createDiffCommand()
-                .setCommitA(commit)
-                .setCached(true)
-                .setType(request.getType().toString())
-                .setFileFilter(request.getFileFilter())
-                .setNoRenames(request.isNoRenames())
-                .setRenamesCount(request.getRenameLimit())
-                .execute());
-    }
+    /** Remembers whether anything is written to the wrapped stream, i.e. whether response may be already sent to client. */
+    private static class WrittenOutputStream extends FilterOutputStream {
+        boolean written;
 
-    /**
-     * @return difference between working tree and index
-     * @throws GitException when any error occurs
-     */
-    private void workingTreeToIndex(PrintWriter outWriter) throws GitException {
-        outWriter.print(nativeGit.createDiffCommand()
-                .setType(request.getType().toString())
-                .setFileFilter(request.getFileFilter())
-                .setNoRenames(request.isNoRenames())
-                .setRenamesCount(request.getRenameLimit())
-                .execute());
-    }
+        WrittenOutputStream(OutputStream out) {
+            super(out);
+        }
 
-    /**
-     * @param commitA commit
-     * @param commitB commit
-     * @return difference between two commits
-     * @throws GitException when any error occurs
-     */
-    private void commitToCommit(String commitA, String commitB, PrintWriter outWriter) throws GitException {
-        outWriter.print(nativeGit.createDiffCommand()
-                .setCommitA(commitA)
-                .setCommitB(commitB)
-                .setType(request.getType().toString())
-                .setFileFilter(request.getFileFilter())
-                .setNoRenames(request.isNoRenames())
-                .setRenamesCount(request.getRenameLimit())
-                .execute());
-    }
+        @Override
+        public void write(int b) throws IOException {
+            written = true;
+            out.write(b);
+        }
 
-    /**
-     * @param commit commit
-     * @return difference between commit and working tree
-     * @throws GitException
-     */
-    private void commitToWorkingTree(String commit, PrintWriter outWriter) throws GitException {
-         outWriter.print(nativeGit.createDiffCommand()
-                 .setCommitA(commit)
-                 .setType(request.getType().toString())
-                 .setFileFilter(request.getFileFilter())
-                 .setNoRenames(request.isNoRenames())
-                 .setRenamesCount(request.getRenameLimit())
-                 .execute());
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            written |= len > 0;
+            out.write(b, off, len);
+        }
     }
 }
@@ -10,10 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.git.impl.nativegit.commands;
 
+import org.eclipse.che.api.core.util.ListLineConsumer;
 import org.eclipse.che.api.git.GitException;
 import org.eclipse.che.api.git.shared.DiffRequest;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
@@ -30,6 +34,9 @@ public class DiffCommand extends GitCommand<String> {
     private boolean  cached;
     private boolean  noRenames;
     private int      renamesCount;
+    private Writer   output;
+
+    private final ListLineConsumer errorOutput = new ListLineConsumer();
 
     public DiffCommand(File repository) {
         super(repository);
@@ -38,7 +45,55 @@ public class DiffCommand extends GitCommand<String> {
     /** @see GitCommand#execute() */
     @Override
     public String execute() throws GitException {
+        prepareCommandLine();
+        start();
+        if (type == null || type.equals("--raw")) {
+            return getText() + "\n";
+        }
+        return getText();
+    }
+
+    /**
+     * Executes command and writes difference to the {@code output} line by line while git prints it, so the whole difference is never
+     * kept in memory. Error output of git isn't written to the {@code output}, it is reported by {@link GitException} instead.
+     *
+     * @throws GitException
+     *         when git fails, the {@code output} may contain part of difference in this case
+     * @throws UncheckedIOException
+     *         when it is not possible to write to the {@code output}, git process is stopped in this case
+     */
+    public void writeTo(Writer output) throws GitException {
+        prepareCommandLine();
+        this.output = output;
+        try {
+            start();
+        } finally {
+            this.output = null;
+        }
+    }
+
+    @Override
+    public ListLineConsumer getErrorOutput() {
+        return output == null ? null : errorOutput;
+    }
+
+    @Override
+    public void writeLine(String line) {
+        if (output == null) {
+            super.writeLine(line);
+            return;
+        }
+        try {
+            output.write(line);
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void prepareCommandLine() {
         reset();
+        errorOutput.clear();
         commandLine.add("diff");
         if (!(type == null || type.equals(DiffRequest.DiffType.RAW.toString()))) {
             commandLine.add(type);
@@ -61,11 +116,6 @@ public class DiffCommand extends GitCommand<String> {
         if (filesFilter != null) {
             commandLine.add(filesFilter);
         }
-        start();
-        if (type == null || type.equals("--raw")) {
-            return getText() + "\n";
-        }
-        return getText();
     }
 
     /**
@@ -96,6 +96,14 @@ public abstract class GitCommand<T> extends ListLineConsumer {
         commandEnvironment.put(key, value);
     }
 
+    /**
+     * Returns consumer of error output of git or {@code null} if error output is merged with standard output, which is default. Commands
+     * which stream their output elsewhere return consumer here, so error messages don't get into the streamed output.
+     */
+    public ListLineConsumer getErrorOutput() {
+        return null;
+    }
+
     /**
      * Executes git command.
      *
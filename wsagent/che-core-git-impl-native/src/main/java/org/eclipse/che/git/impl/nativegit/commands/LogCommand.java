@@ -26,9 +26,14 @@ import java.util.List;
  */
 public class LogCommand extends GitCommand<List<Revision>> {
 
-    private int          count;
-    private String       branch;
-    private List<String> fileFilter;
+    private static final String FORMAT = "%an#%ae#%cn#%ce#%cd#%H#%s";
+    private static final int    FIELDS = 7;
+
+    private int            count;
+    private int            skip;
+    private String         branch;
+    private List<String>   fileFilter;
+    private List<Revision> revisions;
 
     public LogCommand(File place) {
         super(place);
@@ -38,36 +43,56 @@ public class LogCommand extends GitCommand<List<Revision>> {
     @Override
     public List<Revision> execute() throws GitException {
         reset();
+        revisions = new LinkedList<>();
         commandLine.add("log")
-                   .add("--format=%an#%ae#%cn#%ce#%cd#%H#%s")
+                   .add("--format=" + FORMAT)
                    .add("--date=raw");
-        if (branch != null) {
-            commandLine.add(branch);
+        if (skip > 0) {
+            commandLine.add("--skip=" + skip);
         }
         if (count > 0) {
             commandLine.add("-" + count);
         }
-        commandLine.add(fileFilter);
+        if (branch != null) {
+            commandLine.add(branch);
+        }
+        if (fileFilter != null && !fileFilter.isEmpty()) {
+            commandLine.add("--").add(fileFilter);
+        }
         start();
-        List<Revision> list = new LinkedList<>();
-        final DtoFactory dtoFactory = DtoFactory.getInstance();
-        for (String oneRev : lines) {
-            String[] elements = oneRev.split("#");
-            GitUser committer = dtoFactory.createDto(GitUser.class).withName(elements[2]).withEmail(elements[3]);
-            long commitTime = Long.parseLong(elements[4].substring(0, elements[4].indexOf(" "))) * 1000L;
-            String commitId = elements[5];
-            StringBuilder commitMessage = new StringBuilder();
-            for (int i = 6; i < elements.length; i++) {
-                commitMessage.append(elements[i]);
-            }
-            Revision revision = dtoFactory.createDto(Revision.class)
-                                          .withId(commitId)
-                                          .withMessage(commitMessage.toString())
-                                          .withCommitTime(commitTime)
-                                          .withCommitter(committer);
-            list.add(revision);
+        return revisions;
+    }
+
+    /**
+     * Parses revisions while git prints them, so only parsed revisions and not whole output of git are kept in memory. Lines that
+     * aren't revisions, e.g. error messages, are kept as usual.
+     */
+    @Override
+    public void writeLine(String line) {
+        final String[] elements = line.split("#", FIELDS);
+        final int timeEnd = elements.length == FIELDS ? elements[4].indexOf(' ') : -1;
+        if (timeEnd < 0) {
+            super.writeLine(line);
+            return;
         }
-        return list;
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        final GitUser committer = dtoFactory.createDto(GitUser.class).withName(elements[2]).withEmail(elements[3]);
+        final long commitTime = Long.parseLong(elements[4].substring(0, timeEnd)) * 1000L;
+        revisions.add(dtoFactory.createDto(Revision.class)
+                                .withId(elements[5])
+                                .withMessage(elements[6])
+                                .withCommitTime(commitTime)
+                                .withCommitter(committer));
+    }
+
+    /**
+     * @param skip
+     *         number of the newest commits to skip
+     * @return LogCommand with established number of skipped commits
+     */
+    public LogCommand setSkip(int skip) {
+        this.skip = skip;
+        return this;
     }
 
     /**
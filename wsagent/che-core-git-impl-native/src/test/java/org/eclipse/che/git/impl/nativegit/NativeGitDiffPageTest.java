@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.nativegit;
+
+import org.eclipse.che.api.git.DiffPage;
+import org.eclipse.che.api.git.GitException;
+import org.eclipse.che.api.git.shared.DiffRequest;
+import org.eclipse.che.git.impl.nativegit.commands.DiffCommand;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class NativeGitDiffPageTest {
+    private static final String DIFF_LINE = "+ added line of file which is long enough to fill buffer of writer quickly";
+
+    private DiffRequest request;
+
+    @BeforeMethod
+    public void setUp() {
+        request = newDto(DiffRequest.class).withType(DiffRequest.DiffType.RAW);
+    }
+
+    @Test
+    public void endsDifferenceWithMarkerWhenGitFailsAfterPartOfLargeDifferenceIsWritten() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new NativeGitDiffPage(request, nativeGit(new FailingDiffCommand(1000, "fatal: unable to read\nobject"))).writeTo(out);
+
+        final String[] lines = out.toString().split("\n");
+        assertEquals(lines.length, 1001);
+        assertEquals(lines[999], DIFF_LINE);
+        assertEquals(lines[1000], DiffPage.TRUNCATED_MARKER + "fatal: unable to read object");
+    }
+
+    @Test
+    public void failsWhenGitFailsBeforeAnythingIsWritten() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try {
+            new NativeGitDiffPage(request, nativeGit(new FailingDiffCommand(10, "fatal: bad revision"))).writeTo(out);
+            fail("Failure of git must be reported when response may be still turned into error");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof GitException);
+            assertEquals(e.getCause().getMessage(), "fatal: bad revision");
+        }
+        assertEquals(out.size(), 0);
+    }
+
+    private static NativeGit nativeGit(DiffCommand diffCommand) {
+        return new NativeGit(new File("."), null, null, null) {
+            @Override
+            public DiffCommand createDiffCommand() {
+                return diffCommand;
+            }
+        };
+    }
+
+    /** Writes given number of lines of difference and fails like git which can't read some object of repository. */
+    private static class FailingDiffCommand extends DiffCommand {
+        private final int    lines;
+        private final String error;
+
+        FailingDiffCommand(int lines, String error) {
+            super(new File("."));
+            this.lines = lines;
+            this.error = error;
+        }
+
+        @Override
+        public void writeTo(Writer output) throws GitException {
+            try {
+                for (int i = 0; i < lines; i++) {
+                    output.write(DIFF_LINE);
+                    output.write('\n');
+                }
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            throw new GitException(error);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+import java.util.List;
+
+/**
+ * Describes range of lines of machine or process logs, lines are numbered from 0
+ */
+@DTO
+public interface MachineLogsDto {
+    /**
+     * Number of the first line in range
+     */
+    long getOffset();
+
+    void setOffset(long offset);
+
+    MachineLogsDto withOffset(long offset);
+
+    /**
+     * Lines of logs
+     */
+    List<String> getLines();
+
+    void setLines(List<String> lines);
+
+    MachineLogsDto withLines(List<String> lines);
+
+    /**
+     * Number of the line which follows range, it should be used as offset for reading of the next lines
+     */
+    long getNextOffset();
+
+    void setNextOffset(long nextOffset);
+
+    MachineLogsDto withNextOffset(long nextOffset);
+}
@@ -19,9 +19,11 @@ import org.eclipse.che.api.core.model.machine.MachineSource;
 import org.eclipse.che.api.core.model.machine.Server;
 import org.eclipse.che.api.core.model.machine.ServerConf;
 import org.eclipse.che.api.core.model.machine.Snapshot;
+import org.eclipse.che.api.machine.server.logs.LogLines;
 import org.eclipse.che.api.machine.shared.dto.LimitsDto;
 import org.eclipse.che.api.machine.shared.dto.MachineConfigDto;
 import org.eclipse.che.api.machine.shared.dto.MachineDto;
+import org.eclipse.che.api.machine.shared.dto.MachineLogsDto;
 import org.eclipse.che.api.machine.shared.dto.MachineProcessDto;
 import org.eclipse.che.api.machine.shared.dto.MachineRuntimeInfoDto;
 import org.eclipse.che.api.machine.shared.dto.MachineSourceDto;
@@ -149,6 +151,15 @@ public final class DtoConverter {
                                               .withLinks(null);
     }
 
+    /**
+     * Converts {@link LogLines} to {@link MachineLogsDto}.
+     */
+    public static MachineLogsDto asDto(LogLines logLines) {
+        return newDto(MachineLogsDto.class).withOffset(logLines.getOffset())
+                                           .withLines(logLines.getLines())
+                                           .withNextOffset(logLines.getNextOffset());
+    }
+
     private DtoConverter() {
     }
 }
@@ -25,8 +25,8 @@ import org.eclipse.che.api.core.model.machine.MachineStatus;
 import org.eclipse.che.api.core.model.machine.Recipe;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.core.util.BatchingLineConsumer;
 import org.eclipse.che.api.core.util.CompositeLineConsumer;
-import org.eclipse.che.api.core.util.FileLineConsumer;
 import org.eclipse.che.api.core.util.LineConsumer;
 import org.eclipse.che.api.core.util.WebsocketLineConsumer;
 import org.eclipse.che.api.machine.server.dao.SnapshotDao;
@@ -34,6 +34,10 @@ import org.eclipse.che.api.machine.server.event.InstanceStateEvent;
 import org.eclipse.che.api.machine.server.exception.MachineException;
 import org.eclipse.che.api.machine.server.exception.SnapshotException;
 import org.eclipse.che.api.machine.server.exception.UnsupportedRecipeException;
+import org.eclipse.che.api.machine.server.logs.LogLines;
+import org.eclipse.che.api.machine.server.logs.LogsStatistics;
+import org.eclipse.che.api.machine.server.logs.MachineLogReader;
+import org.eclipse.che.api.machine.server.logs.MachineLogWriter;
 import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineConfigImpl;
 import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
@@ -63,13 +67,16 @@ import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -90,17 +97,38 @@ public class MachineManager {
     private static final Logger  LOG                          = LoggerFactory.getLogger(MachineManager.class);
     /* machine name must contain only {a-zA-Z0-9_-} characters and it's needed for validation machine names */
     private static final Pattern MACHINE_DISPLAY_NAME_PATTERN = Pattern.compile("^/?[a-zA-Z0-9_-]+$");
-
-    private final SnapshotDao              snapshotDao;
-    private final File                     machineLogsDir;
-    private final MachineInstanceProviders machineInstanceProviders;
-    private final ExecutorService          executor;
-    private final MachineRegistry          machineRegistry;
-    private final EventService             eventService;
-    private final int                      defaultMachineMemorySizeMB;
-    private final MachineCleaner           machineCleaner;
-    private final WsAgentLauncher          wsAgentLauncher;
-    private final RecipeDownloader         recipeDownloader;
+    /* output of machines and processes is sent to clients and written to files in batches of lines */
+    private static final int     LOGS_BATCH_MAX_LINES         = 200;
+    private static final long    LOGS_BATCH_MAX_DELAY_MS      = 100;
+    private static final int     LOGS_REPLAY_LINES            = 500;
+    /* interval of reports of logs throughput */
+    private static final long    LOGS_STATS_PERIOD_MS         = 60 * 1000;
+
+    private final SnapshotDao                       snapshotDao;
+    private final File                              machineLogsDir;
+    private final MachineInstanceProviders          machineInstanceProviders;
+    private final ExecutorService                   executor;
+    private final ScheduledExecutorService          logsFlusher;
+    private final ExecutorService                   logsCompressor;
+    /* loggers of running machines and processes, key is machine id or machine id and process id */
+    private final Map<String, BatchingLineConsumer> activeLoggers;
+    /* log files of running machines and processes, clients which follow logs wait for new lines on them */
+    private final Map<String, MachineLogWriter>     activeLogWriters;
+    /* counters of loggers which are closed already */
+    private final AtomicLong                        closedLoggersLines;
+    private final AtomicLong                        closedLoggersBatches;
+    private final AtomicLong                        closedLoggersDroppedLines;
+    private final MachineRegistry                   machineRegistry;
+    private final EventService                      eventService;
+    private final int                               defaultMachineMemorySizeMB;
+    private final MachineCleaner                    machineCleaner;
+    private final WsAgentLauncher                   wsAgentLauncher;
+    private final RecipeDownloader                  recipeDownloader;
+
+    private long logsSegmentSize = 10 * 1024 * 1024;
+    private int  logsMaxSegments = 5;
+
+    private LogsStatistics lastLogsStatistics = new LogsStatistics(0, 0, 0);
 
     @Inject
     public MachineManager(SnapshotDao snapshotDao,
@@ -123,9 +151,42 @@ public class MachineManager {
         executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("MachineManager-%d")
                                                                            .setDaemon(false)
                                                                            .build());
+        logsFlusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("MachineLogsFlusher-%d")
+                                                                                           .setDaemon(true)
+                                                                                           .build());
+        logsCompressor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("MachineLogsCompressor-%d")
+                                                                                     .setDaemon(true)
+                                                                                     .build());
+        activeLoggers = new ConcurrentHashMap<>();
+        activeLogWriters = new ConcurrentHashMap<>();
+        closedLoggersLines = new AtomicLong();
+        closedLoggersBatches = new AtomicLong();
+        closedLoggersDroppedLines = new AtomicLong();
+        logsFlusher.scheduleAtFixedRate(this::reportLogsStatistics, LOGS_STATS_PERIOD_MS, LOGS_STATS_PERIOD_MS, TimeUnit.MILLISECONDS);
         this.machineCleaner = new MachineCleaner();
     }
 
+    /**
+     * Sets limits of size of machine and process logs.
+     *
+     * @param segmentSizeMB
+     *         size of log segment in megabytes after which segment is compressed and rotated
+     * @param maxSegments
+     *         max number of rotated segments which are kept for each log, older segments are removed
+     */
+    @com.google.inject.Inject(optional = true)
+    public void setLogsLimits(@Named("machine.logs.segment_size_mb") int segmentSizeMB,
+                              @Named("machine.logs.max_segments") int maxSegments) {
+        if (segmentSizeMB < 1) {
+            throw new IllegalArgumentException("Size of log segment must be at least 1 MB, but it is " + segmentSizeMB);
+        }
+        if (maxSegments < 0) {
+            throw new IllegalArgumentException("Number of rotated log segments must not be negative, but it is " + maxSegments);
+        }
+        this.logsSegmentSize = segmentSizeMB * 1024L * 1024L;
+        this.logsMaxSegments = maxSegments;
+    }
+
     /**
      * Synchronously creates and starts machine from scratch.
      *
@@ -670,6 +731,12 @@ public class MachineManager {
                     processLogger.writeLine(String.format("[ERROR] %s", error.getMessage()));
                 } catch (IOException ignored) {
                 }
+            } finally {
+                try {
+                    processLogger.close();
+                } catch (IOException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                }
             }
         }));
         return instanceProcess;
@@ -767,15 +834,12 @@ public class MachineManager {
      *         if other error occur
      */
     public Reader getMachineLogReader(String machineId) throws NotFoundException, MachineException {
-        final File machineLogsFile = getMachineLogsFile(machineId);
-        if (machineLogsFile.isFile()) {
-            try {
-                return Files.newBufferedReader(machineLogsFile.toPath(), Charset.defaultCharset());
-            } catch (IOException e) {
-                throw new MachineException(String.format("Unable read log file for machine '%s'. %s", machineId, e.getMessage()));
-            }
+        final MachineLogReader reader = getMachineLog(machineId);
+        try {
+            return reader.openReader();
+        } catch (IOException e) {
+            throw new MachineException(String.format("Unable read log file for machine '%s'. %s", machineId, e.getMessage()));
         }
-        throw new NotFoundException(String.format("Logs for machine '%s' are not available", machineId));
     }
 
     /**
@@ -792,16 +856,159 @@ public class MachineManager {
      *         if other error occur
      */
     public Reader getProcessLogReader(String machineId, int pid) throws NotFoundException, MachineException {
-        final File processLogsFile = getProcessLogsFile(machineId, pid);
-        if (processLogsFile.isFile()) {
-            try {
-                return Files.newBufferedReader(processLogsFile.toPath(), Charset.defaultCharset());
-            } catch (IOException e) {
-                throw new MachineException(
-                        String.format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
-            }
+        final MachineLogReader reader = getProcessLog(machineId, pid);
+        try {
+            return reader.openReader();
+        } catch (IOException e) {
+            throw new MachineException(
+                    String.format("Unable read log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets lines of machine logs starting from the specified line.
+     *
+     * @param machineId
+     *         machine id
+     * @param offset
+     *         number of the first line to read, the first line of logs has number 0.
+     *         If this line is removed by rotation of logs then lines are read from the first kept line
+     * @param limit
+     *         max number of lines to read
+     * @param timeoutMillis
+     *         when there are no lines after {@code offset} yet and machine is running, method waits for new lines
+     *         at most this number of milliseconds, 0 means that method doesn't wait
+     * @return range of read lines, it is empty if there are no lines after {@code offset}
+     * @throws NotFoundException
+     *         if logs of machine with specified id not found
+     * @throws MachineException
+     *         if other error occur
+     */
+    public LogLines getMachineLogs(String machineId, long offset, int limit, long timeoutMillis) throws NotFoundException,
+                                                                                                        MachineException {
+        return readLogs(machineId, getMachineLog(machineId), offset, limit, timeoutMillis);
+    }
+
+    /**
+     * Gets last lines of machine logs.
+     *
+     * @param machineId
+     *         machine id
+     * @param count
+     *         max number of lines to read
+     * @return range of last lines
+     * @throws NotFoundException
+     *         if logs of machine with specified id not found
+     * @throws MachineException
+     *         if other error occur
+     */
+    public LogLines getLastMachineLogs(String machineId, int count) throws NotFoundException, MachineException {
+        return readLastLogs(getMachineLog(machineId), count);
+    }
+
+    /**
+     * Gets lines of process logs starting from the specified line.
+     *
+     * @param machineId
+     *         machine id
+     * @param pid
+     *         process id
+     * @param offset
+     *         number of the first line to read, the first line of logs has number 0.
+     *         If this line is removed by rotation of logs then lines are read from the first kept line
+     * @param limit
+     *         max number of lines to read
+     * @param timeoutMillis
+     *         when there are no lines after {@code offset} yet and process is running, method waits for new lines
+     *         at most this number of milliseconds, 0 means that method doesn't wait
+     * @return range of read lines, it is empty if there are no lines after {@code offset}
+     * @throws NotFoundException
+     *         if logs of process with specified id not found
+     * @throws MachineException
+     *         if other error occur
+     */
+    public LogLines getProcessLogs(String machineId, int pid, long offset, int limit, long timeoutMillis) throws NotFoundException,
+                                                                                                                 MachineException {
+        return readLogs(machineId + '/' + pid, getProcessLog(machineId, pid), offset, limit, timeoutMillis);
+    }
+
+    /**
+     * Gets last lines of process logs.
+     *
+     * @param machineId
+     *         machine id
+     * @param pid
+     *         process id
+     * @param count
+     *         max number of lines to read
+     * @return range of last lines
+     * @throws NotFoundException
+     *         if logs of process with specified id not found
+     * @throws MachineException
+     *         if other error occur
+     */
+    public LogLines getLastProcessLogs(String machineId, int pid, int count) throws NotFoundException, MachineException {
+        return readLastLogs(getProcessLog(machineId, pid), count);
+    }
+
+    /**
+     * Gets last lines of output of running machine, these lines are kept in memory,
+     * so clients which started to listen output of machine later may show them without reading log file.
+     *
+     * @param machineId
+     *         machine id
+     * @return last lines of output of machine or empty list if machine doesn't write output now
+     */
+    public List<String> getRecentMachineLogs(String machineId) {
+        final BatchingLineConsumer logger = activeLoggers.get(machineId);
+        return logger == null ? Collections.emptyList() : logger.getRecentLines();
+    }
+
+    /**
+     * Gets last lines of output of running process, these lines are kept in memory,
+     * so clients which started to listen output of process later may show them without reading log file.
+     *
+     * @param machineId
+     *         machine id
+     * @param pid
+     *         process id
+     * @return last lines of output of process or empty list if process doesn't write output now
+     */
+    public List<String> getRecentProcessLogs(String machineId, int pid) {
+        final BatchingLineConsumer logger = activeLoggers.get(machineId + '/' + pid);
+        return logger == null ? Collections.emptyList() : logger.getRecentLines();
+    }
+
+    /**
+     * Gets counters of output of all machines and processes since start of the server, counters are also reported to the server log
+     * once per minute if they are changed.
+     */
+    public LogsStatistics getLogsStatistics() {
+        long lines = closedLoggersLines.get();
+        long batches = closedLoggersBatches.get();
+        long droppedLines = closedLoggersDroppedLines.get();
+        for (BatchingLineConsumer logger : activeLoggers.values()) {
+            lines += logger.getLineCount();
+            batches += logger.getBatchCount();
+            droppedLines += logger.getDroppedLineCount();
+        }
+        return new LogsStatistics(lines, batches, droppedLines);
+    }
+
+    private void reportLogsStatistics() {
+        final LogsStatistics statistics = getLogsStatistics();
+        final long lines = statistics.getLines() - lastLogsStatistics.getLines();
+        final long batches = statistics.getBatches() - lastLogsStatistics.getBatches();
+        final long droppedLines = statistics.getDroppedLines() - lastLogsStatistics.getDroppedLines();
+        lastLogsStatistics = statistics;
+        if (droppedLines > 0) {
+            LOG.warn("Output of machines: {} lines/s in {} batches/s, {} lines are dropped in last {} s, {} lines are dropped in total",
+                     lines * 1000 / LOGS_STATS_PERIOD_MS, batches * 1000 / LOGS_STATS_PERIOD_MS, droppedLines,
+                     LOGS_STATS_PERIOD_MS / 1000, statistics.getDroppedLines());
+        } else if (lines > 0) {
+            LOG.info("Output of machines: {} lines/s in {} batches/s, {} lines in total",
+                     lines * 1000 / LOGS_STATS_PERIOD_MS, batches * 1000 / LOGS_STATS_PERIOD_MS, statistics.getLines());
         }
-        throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
     }
 
     private SnapshotImpl doSaveMachine(SnapshotImpl snapshot, Instance machine) throws SnapshotException, MachineException {
@@ -873,6 +1080,14 @@ public class MachineManager {
             } catch (MachineException e) {
                 LOG.error(e.getLocalizedMessage(), e);
             }
+            final BatchingLineConsumer machineLogger = activeLoggers.remove(machine.getId());
+            if (machineLogger != null) {
+                try {
+                    machineLogger.flush();
+                } catch (IOException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                }
+            }
         }
 
         eventService.publish(newDto(MachineStatusEvent.class)
@@ -889,9 +1104,9 @@ public class MachineManager {
         }
     }
 
-    private FileLineConsumer getMachineFileLogger(String machineId) throws MachineException {
+    private MachineLogWriter getMachineFileLogger(String machineId) throws MachineException {
         try {
-            return new FileLineConsumer(getMachineLogsFile(machineId));
+            return new MachineLogWriter(getMachineLogsFile(machineId), logsSegmentSize, logsMaxSegments, logsCompressor);
         } catch (IOException e) {
             throw new MachineException(String.format("Unable create log file for machine '%s'. %s", machineId, e.getMessage()));
         }
@@ -905,32 +1120,106 @@ public class MachineManager {
         return new File(new File(machineLogsDir, machineId), Integer.toString(pid));
     }
 
-    private FileLineConsumer getProcessFileLogger(String machineId, int pid) throws MachineException {
+    private MachineLogWriter getProcessFileLogger(String machineId, int pid) throws MachineException {
         try {
-            return new FileLineConsumer(getProcessLogsFile(machineId, pid));
+            return new MachineLogWriter(getProcessLogsFile(machineId, pid), logsSegmentSize, logsMaxSegments, logsCompressor);
         } catch (IOException e) {
             throw new MachineException(
                     String.format("Unable create log file for process '%s' of machine '%s'. %s", pid, machineId, e.getMessage()));
         }
     }
 
+    private MachineLogReader getMachineLog(String machineId) throws NotFoundException {
+        final MachineLogReader reader = new MachineLogReader(getMachineLogsFile(machineId));
+        if (!reader.exists()) {
+            throw new NotFoundException(String.format("Logs for machine '%s' are not available", machineId));
+        }
+        return reader;
+    }
+
+    private MachineLogReader getProcessLog(String machineId, int pid) throws NotFoundException {
+        final MachineLogReader reader = new MachineLogReader(getProcessLogsFile(machineId, pid));
+        if (!reader.exists()) {
+            throw new NotFoundException(String.format("Logs for process '%s' of machine '%s' are not available", pid, machineId));
+        }
+        return reader;
+    }
+
+    private LogLines readLogs(String loggerKey, MachineLogReader reader, long offset, int limit, long timeoutMillis)
+            throws MachineException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            LogLines lines = reader.readLines(offset, limit);
+            long remaining = timeoutMillis;
+            // wait only while somebody writes logs, otherwise new lines never appear
+            while (lines.getLines().isEmpty() && remaining > 0) {
+                final MachineLogWriter writer = activeLogWriters.get(loggerKey);
+                if (writer == null || !writer.awaitLines(offset, remaining)) {
+                    break;
+                }
+                lines = reader.readLines(offset, limit);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new MachineException(String.format("Unable read logs '%s'. %s", loggerKey, e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MachineException(String.format("Reading of logs '%s' was interrupted", loggerKey));
+        }
+    }
+
+    private LogLines readLastLogs(MachineLogReader reader, int count) throws MachineException {
+        try {
+            return reader.readLastLines(count);
+        } catch (IOException e) {
+            throw new MachineException("Unable read logs. " + e.getMessage());
+        }
+    }
+
     String generateMachineId() {
         return NameGenerator.generate("machine", 16);
     }
 
     private LineConsumer getMachineLogger(String machineId, String outputChannel) throws MachineException {
-        return getLogger(getMachineFileLogger(machineId), outputChannel);
+        return getLogger(machineId, getMachineFileLogger(machineId), outputChannel);
     }
 
     private LineConsumer getProcessLogger(String machineId, int pid, String outputChannel) throws MachineException {
-        return getLogger(getProcessFileLogger(machineId, pid), outputChannel);
+        return getLogger(machineId + '/' + pid, getProcessFileLogger(machineId, pid), outputChannel);
     }
 
-    private LineConsumer getLogger(LineConsumer fileLogger, String outputChannel) throws MachineException {
+    private LineConsumer getLogger(String key, MachineLogWriter fileLogger, String outputChannel) throws MachineException {
+        final LineConsumer logger;
         if (outputChannel != null) {
-            return new CompositeLineConsumer(fileLogger, new WebsocketLineConsumer(outputChannel));
+            logger = new CompositeLineConsumer(fileLogger, new WebsocketLineConsumer(outputChannel));
+        } else {
+            logger = fileLogger;
         }
-        return fileLogger;
+        final BatchingLineConsumer batchingLogger = new BatchingLineConsumer(logger,
+                                                                             LOGS_BATCH_MAX_LINES,
+                                                                             LOGS_BATCH_MAX_DELAY_MS,
+                                                                             LOGS_REPLAY_LINES,
+                                                                             logsFlusher) {
+            @Override
+            public void close() throws IOException {
+                if (activeLoggers.remove(key, this)) {
+                    try {
+                        super.close();
+                    } finally {
+                        activeLogWriters.remove(key, fileLogger);
+                        closedLoggersLines.addAndGet(getLineCount());
+                        closedLoggersBatches.addAndGet(getBatchCount());
+                        closedLoggersDroppedLines.addAndGet(getDroppedLineCount());
+                    }
+                } else {
+                    super.close();
+                }
+            }
+        };
+        activeLogWriters.put(key, fileLogger);
+        activeLoggers.put(key, batchingLogger);
+        return batchingLogger;
     }
 
     static ChannelsImpl getMachineChannels(String machineName, String workspaceId, String envName) {
@@ -1037,6 +1326,23 @@ public class MachineManager {
             executor.shutdownNow();
         }
 
+        for (BatchingLineConsumer logger : activeLoggers.values()) {
+            try {
+                logger.close();
+            } catch (IOException e) {
+                LOG.warn(e.getMessage());
+            }
+        }
+        logsFlusher.shutdown();
+        logsCompressor.shutdown();
+        try {
+            if (!logsCompressor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.warn("Unable terminate logs compressor");
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
         final java.io.File[] files = machineLogsDir.listFiles();
         if (files != null && files.length > 0) {
             for (java.io.File f : files) {
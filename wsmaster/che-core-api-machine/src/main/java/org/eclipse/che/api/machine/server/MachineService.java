@@ -35,6 +35,7 @@ import org.eclipse.che.api.machine.shared.Constants;
 import org.eclipse.che.api.machine.shared.dto.CommandDto;
 import org.eclipse.che.api.machine.shared.dto.MachineConfigDto;
 import org.eclipse.che.api.machine.shared.dto.MachineDto;
+import org.eclipse.che.api.machine.shared.dto.MachineLogsDto;
 import org.eclipse.che.api.machine.shared.dto.MachineProcessDto;
 import org.eclipse.che.api.machine.shared.dto.NewSnapshotDescriptor;
 import org.eclipse.che.api.machine.shared.dto.SnapshotDto;
@@ -80,6 +81,11 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
 @Api(value = "/machine", description = "Machine REST API")
 @Path("/machine")
 public class MachineService extends Service {
+    /* max number of log lines returned in one response */
+    private static final int  MAX_LOG_LINES     = 10000;
+    /* max time for which follow requests wait for new log lines */
+    private static final long MAX_LOG_FOLLOW_MS = 60000;
+
     private MachineManager machineManager;
 
     @Inject
@@ -335,6 +341,240 @@ public class MachineService extends Service {
         addLogsToResponse(machineManager.getProcessLogReader(machineId, pid), httpServletResponse);
     }
 
+    @GET
+    @Path("/{machineId}/logs/tail")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get last lines of logs of machine")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains last lines of logs"),
+                   @ApiResponse(code = 400, message = "Number of lines is not valid"),
+                   @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public MachineLogsDto getLastMachineLogs(@ApiParam(value = "Machine ID")
+                                             @PathParam("machineId")
+                                             String machineId,
+                                             @ApiParam(value = "Number of lines, max " + MAX_LOG_LINES)
+                                             @QueryParam("lines")
+                                             @DefaultValue("100")
+                                             int lines)
+            throws NotFoundException,
+                   ForbiddenException,
+                   ServerException,
+                   BadRequestException {
+
+        checkLogLimit(lines);
+        return DtoConverter.asDto(machineManager.getLastMachineLogs(machineId, lines));
+    }
+
+    @GET
+    @Path("/{machineId}/logs/lines")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get lines of logs of machine starting from specified line")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains lines of logs"),
+                   @ApiResponse(code = 400, message = "Offset or number of lines is not valid"),
+                   @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public MachineLogsDto getMachineLogLines(@ApiParam(value = "Machine ID")
+                                             @PathParam("machineId")
+                                             String machineId,
+                                             @ApiParam(value = "Number of the first line, lines are numbered from 0")
+                                             @QueryParam("offset")
+                                             @DefaultValue("0")
+                                             long offset,
+                                             @ApiParam(value = "Max number of lines, max " + MAX_LOG_LINES)
+                                             @QueryParam("limit")
+                                             @DefaultValue("1000")
+                                             int limit)
+            throws NotFoundException,
+                   ForbiddenException,
+                   ServerException,
+                   BadRequestException {
+
+        checkLogOffset(offset);
+        checkLogLimit(limit);
+        return DtoConverter.asDto(machineManager.getMachineLogs(machineId, offset, limit, 0));
+    }
+
+    @GET
+    @Path("/{machineId}/logs/follow")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get lines of logs of machine starting from specified line, wait for them if they are not written yet",
+                  notes = "Use next offset from response as offset of the following request to get logs as they are written")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains lines of logs, which are empty if timeout is reached"),
+                   @ApiResponse(code = 400, message = "Offset, number of lines or timeout is not valid"),
+                   @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public MachineLogsDto followMachineLogs(@ApiParam(value = "Machine ID")
+                                            @PathParam("machineId")
+                                            String machineId,
+                                            @ApiParam(value = "Number of the first line, lines are numbered from 0")
+                                            @QueryParam("offset")
+                                            @DefaultValue("0")
+                                            long offset,
+                                            @ApiParam(value = "Max number of lines, max " + MAX_LOG_LINES)
+                                            @QueryParam("limit")
+                                            @DefaultValue("1000")
+                                            int limit,
+                                            @ApiParam(value = "Max time in milliseconds to wait for lines, max " + MAX_LOG_FOLLOW_MS)
+                                            @QueryParam("timeout")
+                                            @DefaultValue("30000")
+                                            long timeout)
+            throws NotFoundException,
+                   ForbiddenException,
+                   ServerException,
+                   BadRequestException {
+
+        checkLogOffset(offset);
+        checkLogLimit(limit);
+        checkLogTimeout(timeout);
+        return DtoConverter.asDto(machineManager.getMachineLogs(machineId, offset, limit, timeout));
+    }
+
+    @GET
+    @Path("/{machineId}/logs/recent")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get last lines of output of running machine",
+                  notes = "Lines are kept in memory while machine writes output, so client which starts to listen output of machine " +
+                          "later may show them without reading logs. List is empty if machine doesn't write output now")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains last lines of output"),
+                   @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public List<String> getRecentMachineLogs(@ApiParam(value = "Machine ID")
+                                             @PathParam("machineId")
+                                             String machineId)
+            throws NotFoundException,
+                   ServerException {
+
+        machineManager.getMachine(machineId);
+        return machineManager.getRecentMachineLogs(machineId);
+    }
+
+    @GET
+    @Path("/{machineId}/process/{pid}/logs/tail")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get last lines of logs of machine process")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains last lines of logs"),
+                   @ApiResponse(code = 400, message = "Number of lines is not valid"),
+                   @ApiResponse(code = 404, message = "Machine or process with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public MachineLogsDto getLastProcessLogs(@ApiParam(value = "Machine ID")
+                                             @PathParam("machineId")
+                                             String machineId,
+                                             @ApiParam(value = "Process ID")
+                                             @PathParam("pid")
+                                             int pid,
+                                             @ApiParam(value = "Number of lines, max " + MAX_LOG_LINES)
+                                             @QueryParam("lines")
+                                             @DefaultValue("100")
+                                             int lines)
+            throws NotFoundException,
+                   ForbiddenException,
+                   ServerException,
+                   BadRequestException {
+
+        checkLogLimit(lines);
+        return DtoConverter.asDto(machineManager.getLastProcessLogs(machineId, pid, lines));
+    }
+
+    @GET
+    @Path("/{machineId}/process/{pid}/logs/lines")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get lines of logs of machine process starting from specified line")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains lines of logs"),
+                   @ApiResponse(code = 400, message = "Offset or number of lines is not valid"),
+                   @ApiResponse(code = 404, message = "Machine or process with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public MachineLogsDto getProcessLogLines(@ApiParam(value = "Machine ID")
+                                             @PathParam("machineId")
+                                             String machineId,
+                                             @ApiParam(value = "Process ID")
+                                             @PathParam("pid")
+                                             int pid,
+                                             @ApiParam(value = "Number of the first line, lines are numbered from 0")
+                                             @QueryParam("offset")
+                                             @DefaultValue("0")
+                                             long offset,
+                                             @ApiParam(value = "Max number of lines, max " + MAX_LOG_LINES)
+                                             @QueryParam("limit")
+                                             @DefaultValue("1000")
+                                             int limit)
+            throws NotFoundException,
+                   ForbiddenException,
+                   ServerException,
+                   BadRequestException {
+
+        checkLogOffset(offset);
+        checkLogLimit(limit);
+        return DtoConverter.asDto(machineManager.getProcessLogs(machineId, pid, offset, limit, 0));
+    }
+
+    @GET
+    @Path("/{machineId}/process/{pid}/logs/follow")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get lines of logs of machine process starting from specified line, wait for them if they are not written yet",
+                  notes = "Use next offset from response as offset of the following request to get logs as they are written")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains lines of logs, which are empty if timeout is reached"),
+                   @ApiResponse(code = 400, message = "Offset, number of lines or timeout is not valid"),
+                   @ApiResponse(code = 404, message = "Machine or process with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public MachineLogsDto followProcessLogs(@ApiParam(value = "Machine ID")
+                                            @PathParam("machineId")
+                                            String machineId,
+                                            @ApiParam(value = "Process ID")
+                                            @PathParam("pid")
+                                            int pid,
+                                            @ApiParam(value = "Number of the first line, lines are numbered from 0")
+                                            @QueryParam("offset")
+                                            @DefaultValue("0")
+                                            long offset,
+                                            @ApiParam(value = "Max number of lines, max " + MAX_LOG_LINES)
+                                            @QueryParam("limit")
+                                            @DefaultValue("1000")
+                                            int limit,
+                                            @ApiParam(value = "Max time in milliseconds to wait for lines, max " + MAX_LOG_FOLLOW_MS)
+                                            @QueryParam("timeout")
+                                            @DefaultValue("30000")
+                                            long timeout)
+            throws NotFoundException,
+                   ForbiddenException,
+                   ServerException,
+                   BadRequestException {
+
+        checkLogOffset(offset);
+        checkLogLimit(limit);
+        checkLogTimeout(timeout);
+        return DtoConverter.asDto(machineManager.getProcessLogs(machineId, pid, offset, limit, timeout));
+    }
+
+    @GET
+    @Path("/{machineId}/process/{pid}/logs/recent")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RolesAllowed("user")
+    @ApiOperation(value = "Get last lines of output of running machine process",
+                  notes = "Lines are kept in memory while process writes output, so client which starts to listen output of process " +
+                          "later may show them without reading logs. List is empty if process doesn't write output now")
+    @ApiResponses({@ApiResponse(code = 200, message = "The response contains last lines of output"),
+                   @ApiResponse(code = 404, message = "Machine with specified ID does not exist"),
+                   @ApiResponse(code = 500, message = "Internal server error occurred")})
+    public List<String> getRecentProcessLogs(@ApiParam(value = "Machine ID")
+                                             @PathParam("machineId")
+                                             String machineId,
+                                             @ApiParam(value = "Process ID")
+                                             @PathParam("pid")
+                                             int pid)
+            throws NotFoundException,
+                   ServerException {
+
+        machineManager.getMachine(machineId);
+        return machineManager.getRecentProcessLogs(machineId, pid);
+    }
+
     /**
      * Reads file content by specified file path.
      *
@@ -589,6 +829,24 @@ public class MachineService extends Service {
                                                            Constants.LINK_REL_REMOVE_SNAPSHOT)));
     }
 
+    private static void checkLogOffset(long offset) throws BadRequestException {
+        if (offset < 0) {
+            throw new BadRequestException("Offset of log lines must not be negative");
+        }
+    }
+
+    private static void checkLogLimit(int limit) throws BadRequestException {
+        if (limit < 1 || limit > MAX_LOG_LINES) {
+            throw new BadRequestException("Number of log lines must be between 1 and " + MAX_LOG_LINES);
+        }
+    }
+
+    private static void checkLogTimeout(long timeout) throws BadRequestException {
+        if (timeout < 0 || timeout > MAX_LOG_FOLLOW_MS) {
+            throw new BadRequestException("Timeout of waiting for log lines must be between 0 and " + MAX_LOG_FOLLOW_MS + " ms");
+        }
+    }
+
     private void addLogsToResponse(Reader logsReader, HttpServletResponse httpServletResponse) throws IOException {
         // Response is written directly to the servlet request stream
         httpServletResponse.setContentType("text/plain");
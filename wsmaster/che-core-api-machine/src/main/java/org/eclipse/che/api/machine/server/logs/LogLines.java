@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.logs;
+
+import java.util.List;
+
+/**
+ * Continuous range of lines read from log.
+ */
+public class LogLines {
+    private final long         offset;
+    private final List<String> lines;
+
+    public LogLines(long offset, List<String> lines) {
+        this.offset = offset;
+        this.lines = lines;
+    }
+
+    /** Returns number of the first line of range. */
+    public long getOffset() {
+        return offset;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /** Returns number of the line which follows this range. */
+    public long getNextOffset() {
+        return offset + lines.size();
+    }
+}
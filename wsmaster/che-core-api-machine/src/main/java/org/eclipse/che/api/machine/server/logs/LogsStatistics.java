@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.logs;
+
+/**
+ * Counters of output of machines and processes.
+ */
+public class LogsStatistics {
+    private final long lines;
+    private final long batches;
+    private final long droppedLines;
+
+    public LogsStatistics(long lines, long batches, long droppedLines) {
+        this.lines = lines;
+        this.batches = batches;
+        this.droppedLines = droppedLines;
+    }
+
+    /** Returns number of written lines. */
+    public long getLines() {
+        return lines;
+    }
+
+    /** Returns number of batches in which lines are sent to clients and log files. */
+    public long getBatches() {
+        return batches;
+    }
+
+    /** Returns number of lines which are lost because they could not be sent or written to log files. */
+    public long getDroppedLines() {
+        return droppedLines;
+    }
+}
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.logs;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.che.api.machine.server.logs.MachineLogWriter.INDEX_INTERVAL;
+
+/**
+ * Reads log written by {@link MachineLogWriter}, may be used while log is written.
+ *
+ * <p>Lines of active segment are found with its index, so reading of lines costs proportionally
+ * to number of requested lines rather than to size of log. Lines of rotated segments are found by
+ * reading of one segment which contains them.
+ */
+public class MachineLogReader {
+    /* read is repeated when segments are rotated during it */
+    private static final int MAX_ATTEMPTS = 5;
+    /* size of index header, which contains number of the first line of active segment */
+    private static final int HEADER_SIZE  = 8;
+
+    private final File file;
+    private final File indexFile;
+
+    public MachineLogReader(File file) {
+        this.file = file;
+        this.indexFile = MachineLogWriter.indexFile(file);
+    }
+
+    /** Checks whether log exists. */
+    public boolean exists() {
+        // active segment is missing for a moment while it is rotated, index always exists
+        return indexFile.isFile();
+    }
+
+    /**
+     * Returns number of lines written to log, including removed ones, which is the number of the next line.
+     *
+     * @throws IOException
+     *         if log can't be read
+     */
+    public long getLineCount() throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final long firstLine = readFirstLine();
+                final long count = firstLine + countActiveLines();
+                if (firstLine == readFirstLine()) {
+                    return count;
+                }
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+            checkAttempts(attempt);
+        }
+    }
+
+    /**
+     * Reads lines of log.
+     *
+     * @param from
+     *         number of the first line to read, if this line is removed with old segments
+     *         then reading starts from the first available line
+     * @param limit
+     *         max number of lines to read
+     * @return read lines, range is empty when there are no lines after {@code from} yet
+     * @throws IOException
+     *         if log can't be read
+     */
+    public LogLines readLines(long from, int limit) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final long firstLine = readFirstLine();
+                final LogLines lines = doReadLines(Math.max(from, 0), limit, firstLine);
+                if (firstLine == readFirstLine()) {
+                    return lines;
+                }
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+            checkAttempts(attempt);
+        }
+    }
+
+    /**
+     * Reads last lines of log.
+     *
+     * @param count
+     *         max number of lines to read
+     * @throws IOException
+     *         if log can't be read
+     */
+    public LogLines readLastLines(int count) throws IOException {
+        return readLines(Math.max(getLineCount() - count, 0), count);
+    }
+
+    /**
+     * Opens reader of all available lines of log.
+     *
+     * @throws IOException
+     *         if log can't be read
+     */
+    public Reader openReader() throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            final List<InputStream> streams = new ArrayList<>();
+            try {
+                // files are opened at once, so rotation doesn't break reading
+                for (File segment : MachineLogWriter.segments(file).values()) {
+                    streams.add(openSegment(segment));
+                }
+                streams.add(new FileInputStream(file));
+                return new InputStreamReader(new SequenceInputStream(Collections.enumeration(streams)), UTF_8);
+            } catch (IOException e) {
+                for (InputStream stream : streams) {
+                    stream.close();
+                }
+                if (attempt >= MAX_ATTEMPTS || !(e instanceof FileNotFoundException)) {
+                    throw e;
+                }
+            }
+            checkAttempts(attempt);
+        }
+    }
+
+    private LogLines doReadLines(long from, int limit, long activeFirstLine) throws IOException {
+        final List<String> lines = new ArrayList<>(Math.min(limit, 1024));
+        final NavigableMap<Long, File> segments = MachineLogWriter.segments(file).headMap(activeFirstLine, false);
+        final long offset = segments.isEmpty() ? Math.max(from, activeFirstLine) : Math.max(from, segments.firstKey());
+        long line = offset;
+        if (line < activeFirstLine) {
+            for (Map.Entry<Long, File> segment : segments.tailMap(segments.floorKey(line), true).entrySet()) {
+                try (InputStream in = new BufferedInputStream(openSegment(segment.getValue()))) {
+                    skipLines(in, line - segment.getKey());
+                    line += readLines(in, lines, limit - lines.size());
+                }
+                if (lines.size() >= limit) {
+                    return new LogLines(offset, lines);
+                }
+            }
+        }
+        readActiveLines(line - activeFirstLine, lines, limit - lines.size());
+        return new LogLines(offset, lines);
+    }
+
+    /** Opens rotated segment, segment which is not compressed yet may be replaced with compressed one at any moment. */
+    private static InputStream openSegment(File segment) throws IOException {
+        if (!MachineLogWriter.isCompressed(segment)) {
+            try {
+                return new FileInputStream(segment);
+            } catch (FileNotFoundException e) {
+                segment = MachineLogWriter.compressedSegment(segment);
+            }
+        }
+        return new GZIPInputStream(new FileInputStream(segment));
+    }
+
+    private void readActiveLines(long from, List<String> lines, int limit) throws IOException {
+        if (limit <= 0) {
+            return;
+        }
+        final long position;
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "r")) {
+            final long entry = from / INDEX_INTERVAL;
+            if (entry >= (index.length() - HEADER_SIZE) / 8) {
+                return;
+            }
+            index.seek(HEADER_SIZE + entry * 8);
+            position = index.readLong();
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(position);
+            final InputStream buffered = new BufferedInputStream(in);
+            final long skip = from % INDEX_INTERVAL;
+            if (skipLines(buffered, skip) == skip) {
+                readLines(buffered, lines, limit);
+            }
+        }
+    }
+
+    private long countActiveLines() throws IOException {
+        final long entries;
+        final long position;
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "r")) {
+            entries = (index.length() - HEADER_SIZE) / 8;
+            if (entries <= 0) {
+                return 0;
+            }
+            index.seek(HEADER_SIZE + (entries - 1) * 8);
+            position = index.readLong();
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(position);
+            return (entries - 1) * INDEX_INTERVAL + skipLines(new BufferedInputStream(in), Long.MAX_VALUE);
+        }
+    }
+
+    private long readFirstLine() throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(indexFile))) {
+            return in.readLong();
+        }
+    }
+
+    private void checkAttempts(int attempt) throws IOException {
+        if (attempt >= MAX_ATTEMPTS) {
+            throw new IOException("Log " + file + " is rotated too often to be read");
+        }
+    }
+
+    /** Skips complete lines, returns number of skipped lines. */
+    private static long skipLines(InputStream in, long count) throws IOException {
+        long skipped = 0;
+        int b;
+        while (skipped < count && (b = in.read()) != -1) {
+            if (b == '\n') {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    /** Reads complete lines, incomplete line at the end of stream is ignored, returns number of read lines. */
+    private static int readLines(InputStream in, List<String> lines, int limit) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int read = 0;
+        int b;
+        while (read < limit && (b = in.read()) != -1) {
+            if (b == '\n') {
+                lines.add(new String(line.toByteArray(), UTF_8));
+                line.reset();
+                read++;
+            } else {
+                line.write(b);
+            }
+        }
+        return read;
+    }
+}
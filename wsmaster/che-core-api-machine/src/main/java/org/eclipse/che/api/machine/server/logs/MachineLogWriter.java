@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.logs;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.api.core.util.LineConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Writes log of machine or process to segments with line offset index, which is built while lines are written,
+ * so {@link MachineLogReader} finds any line without reading of whole log.
+ *
+ * <p>Log consists of the following files:
+ * <ul>
+ * <li>{@code <file>} - active segment, lines are appended to it in UTF-8</li>
+ * <li>{@code <file>.idx} - index of active segment, number of its first line followed by
+ * offsets of each {@value #INDEX_INTERVAL}th line of segment</li>
+ * <li>{@code <file>.<first line>.gz} - compressed rotated segments</li>
+ * <li>{@code <file>.<first line>} - rotated segment which is not compressed yet</li>
+ * </ul>
+ * Active segment is rotated when its size reaches {@code maxSegmentSize}, rotated segment is compressed
+ * by {@code compressor} so writing of lines isn't stopped while it is done. The oldest rotated segments
+ * are removed when there are more than {@code maxSegments} of them.
+ * Line numbers are not changed by rotation, the first written line has number 0.
+ *
+ * <p>Readers which wait for new lines may be woken by writer, see {@link #awaitLines(long, long)}.
+ */
+public class MachineLogWriter implements LineConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(MachineLogWriter.class);
+
+    /** Index contains offset of each line which number in segment is divisible by this interval. */
+    static final int    INDEX_INTERVAL = 128;
+    static final String INDEX_SUFFIX   = ".idx";
+    static final String SEGMENT_SUFFIX = ".gz";
+
+    private final File     file;
+    private final File     indexFile;
+    private final long     maxSegmentSize;
+    private final int      maxSegments;
+    private final Executor compressor;
+
+    private OutputStream     output;
+    private DataOutputStream index;
+    private long             firstLine;
+    private long             segmentLines;
+    private long             segmentSize;
+    private boolean          closed;
+
+    /**
+     * Creates new log which compresses rotated segments in the thread that writes lines,
+     * existing log in the same file is removed.
+     *
+     * @see #MachineLogWriter(File, long, int, Executor)
+     */
+    public MachineLogWriter(File file, long maxSegmentSize, int maxSegments) throws IOException {
+        this(file, maxSegmentSize, maxSegments, Runnable::run);
+    }
+
+    /**
+     * Creates new log, existing log in the same file is removed.
+     *
+     * @param file
+     *         file of active segment
+     * @param maxSegmentSize
+     *         size of active segment in bytes after which it is rotated
+     * @param maxSegments
+     *         max number of rotated segments which are kept
+     * @param compressor
+     *         executor which compresses rotated segments, it should run tasks one by one
+     * @throws IOException
+     *         if log files can't be created
+     */
+    public MachineLogWriter(File file, long maxSegmentSize, int maxSegments, Executor compressor) throws IOException {
+        this.file = file;
+        this.indexFile = indexFile(file);
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSegments = maxSegments;
+        this.compressor = compressor;
+        for (File segment : segments(file).values()) {
+            deleteSegment(segment);
+        }
+        openSegment(0);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Writes line to active segment, line may contain line separators,
+     * in this case each of its lines is indexed separately.
+     */
+    @Override
+    public synchronized void writeLine(String line) throws IOException {
+        if (closed) {
+            throw new IOException("Log " + file + " is closed");
+        }
+        final byte[] bytes = ((line == null ? "" : line) + '\n').getBytes(UTF_8);
+        final List<Long> offsets = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                if (segmentLines % INDEX_INTERVAL == 0) {
+                    offsets.add(segmentSize + lineStart);
+                }
+                segmentLines++;
+                lineStart = i + 1;
+            }
+        }
+        // lines are written before their offsets, so readers never see index entries which point to unwritten lines
+        output.write(bytes);
+        output.flush();
+        for (long offset : offsets) {
+            index.writeLong(offset);
+        }
+        index.flush();
+        segmentSize += bytes.length;
+        if (segmentSize >= maxSegmentSize) {
+            rotate();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Waits until log contains more than {@code lineCount} lines, i.e. until line with number {@code lineCount} is written.
+     *
+     * @param lineCount
+     *         number of lines which reader has already got
+     * @param timeoutMillis
+     *         max time to wait in milliseconds
+     * @return {@code true} if the line is written, {@code false} if timeout is reached or log is closed before the line is written
+     * @throws InterruptedException
+     *         if waiting thread is interrupted
+     */
+    public synchronized boolean awaitLines(long lineCount, long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (firstLine + segmentLines <= lineCount && !closed && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return firstLine + segmentLines > lineCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            notifyAll();
+            closeSegment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file.toString();
+    }
+
+    /** Returns index file of log. */
+    static File indexFile(File file) {
+        return new File(file.getPath() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Finds rotated segments of log. If segment is being compressed, its compressed file is preferred when it is complete.
+     *
+     * @return map of the first line number of segment to segment file, ordered by line numbers
+     */
+    static NavigableMap<Long, File> segments(File file) {
+        final NavigableMap<Long, File> segments = new TreeMap<>();
+        final File[] files = file.getParentFile().listFiles();
+        if (files != null) {
+            final Pattern pattern = Pattern.compile(Pattern.quote(file.getName() + '.') + "(\\d+)(" + Pattern.quote(SEGMENT_SUFFIX) + ")?");
+            for (File candidate : files) {
+                final Matcher matcher = pattern.matcher(candidate.getName());
+                if (matcher.matches()) {
+                    final long firstLine = Long.parseLong(matcher.group(1));
+                    if (matcher.group(2) != null || !segments.containsKey(firstLine)) {
+                        segments.put(firstLine, candidate);
+                    }
+                }
+            }
+        }
+        return segments;
+    }
+
+    /** Checks whether rotated segment is compressed. */
+    static boolean isCompressed(File segment) {
+        return segment.getName().endsWith(SEGMENT_SUFFIX);
+    }
+
+    /** Returns compressed file of rotated segment. */
+    static File compressedSegment(File segment) {
+        return isCompressed(segment) ? segment : new File(segment.getPath() + SEGMENT_SUFFIX);
+    }
+
+    /** Removes both compressed and not compressed files of rotated segment. */
+    private static void deleteSegment(File segment) throws IOException {
+        final File compressed = compressedSegment(segment);
+        final String path = compressed.getPath();
+        Files.deleteIfExists(new File(path.substring(0, path.length() - SEGMENT_SUFFIX.length())).toPath());
+        Files.deleteIfExists(compressed.toPath());
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        // segment is only renamed here, it is compressed later, so writing of lines doesn't wait for compression
+        final File segment = new File(file.getParentFile(), file.getName() + '.' + firstLine);
+        Files.move(file.toPath(), segment.toPath(), ATOMIC_MOVE);
+        openSegment(firstLine + segmentLines);
+        try {
+            compressor.execute(() -> compress(segment));
+        } catch (RejectedExecutionException e) {
+            compress(segment);
+        }
+    }
+
+    /** Compresses rotated segment and removes the oldest segments. */
+    private void compress(File segment) {
+        final File compressed = compressedSegment(segment);
+        final File tmp = new File(compressed.getPath() + ".tmp");
+        try {
+            try (InputStream in = new FileInputStream(segment);
+                 OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp), 64 * 1024)) {
+                ByteStreams.copy(in, out);
+            }
+            Files.move(tmp.toPath(), compressed.toPath(), ATOMIC_MOVE);
+            Files.deleteIfExists(segment.toPath());
+
+            final NavigableMap<Long, File> segments = segments(file);
+            while (segments.size() > maxSegments) {
+                deleteSegment(segments.pollFirstEntry().getValue());
+            }
+        } catch (IOException e) {
+            // segment is kept uncompressed, it is still readable
+            LOG.warn("Unable compress segment {} of log. {}", segment, e.getMessage());
+            try {
+                Files.deleteIfExists(tmp.toPath());
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void openSegment(long firstLine) throws IOException {
+        // index is replaced before segment is truncated, so readers may detect rotation by number of the first line
+        final File tmp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeLong(firstLine);
+        }
+        Files.move(tmp.toPath(), indexFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+        output = new FileOutputStream(file);
+        index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+        this.firstLine = firstLine;
+        segmentLines = 0;
+        segmentSize = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        try {
+            output.close();
+        } finally {
+            index.close();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.machine.server.logs;
+
+import com.google.common.io.CharStreams;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.eclipse.che.commons.lang.NameGenerator.generate;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class MachineLogReaderTest {
+    private File logsDir;
+    private File logFile;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        assertNotNull(url);
+        logsDir = Paths.get(url.toURI()).getParent().resolve(generate("logs-", 4)).toFile();
+        assertTrue(logsDir.mkdirs());
+        logFile = new File(logsDir, "machineId.logs");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(logsDir);
+    }
+
+    @Test
+    public void readsLinesFromOffset() throws Exception {
+        final MachineLogWriter writer = new MachineLogWriter(logFile, Long.MAX_VALUE, 1);
+        final List<String> written = writeLines(writer, 1000);
+        writer.writeLine("multi\nline");
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        final LogLines lines = reader.readLines(300, 5);
+
+        assertEquals(lines.getOffset(), 300);
+        assertEquals(lines.getLines(), written.subList(300, 305));
+        assertEquals(lines.getNextOffset(), 305);
+        assertEquals(reader.readLines(999, 10).getLines(), asList("line 999", "multi", "line"));
+        assertEquals(reader.getLineCount(), 1002);
+        writer.close();
+    }
+
+    @Test
+    public void returnsEmptyRangeWhenThereAreNoLinesAfterOffset() throws Exception {
+        final MachineLogWriter writer = new MachineLogWriter(logFile, Long.MAX_VALUE, 1);
+        writeLines(writer, 10);
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        final LogLines lines = reader.readLines(10, 5);
+
+        assertEquals(lines.getLines(), emptyList());
+        assertEquals(lines.getNextOffset(), 10);
+        writer.close();
+    }
+
+    @Test
+    public void readsLastLines() throws Exception {
+        final MachineLogWriter writer = new MachineLogWriter(logFile, Long.MAX_VALUE, 1);
+        final List<String> written = writeLines(writer, 500);
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        final LogLines lines = reader.readLastLines(3);
+
+        assertEquals(lines.getOffset(), 497);
+        assertEquals(lines.getLines(), written.subList(497, 500));
+        assertEquals(reader.readLastLines(1000).getLines(), written);
+        writer.close();
+    }
+
+    @Test
+    public void readsLinesAcrossRotatedSegments() throws Exception {
+        final MachineLogWriter writer = new MachineLogWriter(logFile, 1024, 100);
+        final List<String> written = writeLines(writer, 1000);
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        assertTrue(MachineLogWriter.segments(logFile).size() > 5);
+        assertEquals(reader.getLineCount(), 1000);
+        assertEquals(reader.readLines(0, 1000).getLines(), written);
+        assertEquals(reader.readLines(250, 500).getLines(), written.subList(250, 750));
+        try (Reader all = reader.openReader()) {
+            assertEquals(CharStreams.toString(all), String.join("\n", written) + '\n');
+        }
+        writer.close();
+    }
+
+    @Test
+    public void removesOldestSegments() throws Exception {
+        final MachineLogWriter writer = new MachineLogWriter(logFile, 1024, 2);
+        final List<String> written = writeLines(writer, 1000);
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        assertEquals(MachineLogWriter.segments(logFile).size(), 2);
+        final LogLines lines = reader.readLines(0, 1000);
+        assertTrue(lines.getOffset() > 0);
+        assertEquals(lines.getLines(), written.subList((int)lines.getOffset(), 1000));
+        writer.close();
+    }
+
+    @Test
+    public void compressesRotatedSegmentsWithCompressor() throws Exception {
+        final List<Runnable> compressions = new ArrayList<>();
+        final MachineLogWriter writer = new MachineLogWriter(logFile, 1024, 100, compressions::add);
+        final List<String> written = writeLines(writer, 1000);
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        // segments which aren't compressed yet are readable
+        assertFalse(compressions.isEmpty());
+        assertEquals(MachineLogWriter.segments(logFile).size(), compressions.size());
+        assertFalse(MachineLogWriter.segments(logFile).values().stream().anyMatch(MachineLogWriter::isCompressed));
+        assertEquals(reader.readLines(0, 1000).getLines(), written);
+
+        compressions.forEach(Runnable::run);
+
+        assertTrue(MachineLogWriter.segments(logFile).values().stream().allMatch(MachineLogWriter::isCompressed));
+        assertEquals(reader.readLines(0, 1000).getLines(), written);
+        try (Reader all = reader.openReader()) {
+            assertEquals(CharStreams.toString(all), String.join("\n", written) + '\n');
+        }
+        writer.close();
+    }
+
+    @Test
+    public void wakesReaderWhichWaitsForLines() throws Exception {
+        final MachineLogWriter writer = new MachineLogWriter(logFile, Long.MAX_VALUE, 1);
+        writeLines(writer, 10);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(writer.awaitLines(9, 0));
+            assertFalse(writer.awaitLines(10, 10));
+
+            final Future<Boolean> waiting = executor.submit(() -> writer.awaitLines(10, 60_000));
+            writer.writeLine("line 10");
+
+            assertTrue(waiting.get(10, TimeUnit.SECONDS));
+            assertEquals(new MachineLogReader(logFile).readLines(10, 10).getLines(), asList("line 10"));
+
+            final Future<Boolean> closing = executor.submit(() -> writer.awaitLines(11, 60_000));
+            writer.close();
+
+            assertFalse(closing.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void removesPreviousLogWhenNewOneIsCreated() throws Exception {
+        MachineLogWriter writer = new MachineLogWriter(logFile, 1024, 100);
+        writeLines(writer, 1000);
+        writer.close();
+
+        writer = new MachineLogWriter(logFile, 1024, 100);
+        writer.writeLine("new");
+        final MachineLogReader reader = new MachineLogReader(logFile);
+
+        assertTrue(MachineLogWriter.segments(logFile).isEmpty());
+        assertEquals(reader.readLines(0, 10).getLines(), asList("new"));
+        writer.close();
+        assertEquals(reader.readLines(0, 10).getLines(), asList("new"));
+    }
+
+    private static List<String> writeLines(MachineLogWriter writer, int count) throws Exception {
+        final List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("line " + i);
+            writer.writeLine("line " + i);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.workspace.shared.dto.event;
+
+import org.eclipse.che.api.core.notification.EventOrigin;
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Describes how long it took to start a machine of a workspace.
+ * Event is published when machine is started or its start failed.
+ */
+@EventOrigin("machine")
+@DTO
+public interface MachineStartTimeEvent {
+    String getWorkspaceId();
+
+    void setWorkspaceId(String workspaceId);
+
+    MachineStartTimeEvent withWorkspaceId(String workspaceId);
+
+    String getMachineName();
+
+    void setMachineName(String machineName);
+
+    MachineStartTimeEvent withMachineName(String machineName);
+
+    boolean isDev();
+
+    void setDev(boolean dev);
+
+    MachineStartTimeEvent withDev(boolean dev);
+
+    /** Time when start of machine began, in milliseconds since epoch. */
+    long getStartTime();
+
+    void setStartTime(long startTime);
+
+    MachineStartTimeEvent withStartTime(long startTime);
+
+    /** Duration of machine start in milliseconds. */
+    long getDuration();
+
+    void setDuration(long duration);
+
+    MachineStartTimeEvent withDuration(long duration);
+
+    /** Error message if machine start failed, otherwise {@code null}. */
+    String getError();
+
+    void setError(String error);
+
+    MachineStartTimeEvent withError(String error);
+}
@@ -12,7 +12,10 @@ package org.eclipse.che.api.workspace.server;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
 
+import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -29,26 +32,37 @@ import org.eclipse.che.api.machine.server.model.impl.MachineImpl;
 import org.eclipse.che.api.workspace.server.model.impl.EnvironmentImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceRuntimeImpl;
+import org.eclipse.che.api.workspace.shared.dto.event.MachineStartTimeEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PreDestroy;
-import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.eclipse.che.dto.server.DtoFactory.newDto;
 
 /**
@@ -63,12 +77,28 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
  * <p>The implementation doesn't validate parameters.
  * Parameters should be validated by caller of methods of this class.
  *
+ * <p>Non-dev machines are started one by one unless {@value #MACHINE_START_THREADS}
+ * is configured, in that case they are started concurrently after the dev-machine.
+ *
  * @author Yevhenii Voevodin
  * @author Alexander Garagatyi
  */
 @Singleton
 public class WorkspaceRuntimes {
 
+    /**
+     * Number of threads which start non-dev machines concurrently,
+     * non-dev machines are started sequentially if it is not greater than 1.
+     */
+    public static final String MACHINE_START_THREADS = "che.workspace.machine_start_threads";
+
+    /**
+     * Environment variable of machine configuration which contains comma separated
+     * names of machines that must be started before the machine when machines are
+     * started concurrently, e.g. application server machine may depend on database machine.
+     */
+    public static final String DEPENDS_ON_ENV_VARIABLE = "CHE_MACHINE_DEPENDS_ON";
+
     private static final Logger LOG = LoggerFactory.getLogger(WorkspaceRuntimes.class);
 
     private final ReadWriteLock                         rwLock;
@@ -79,6 +109,8 @@ public class WorkspaceRuntimes {
 
     private volatile boolean isPreDestroyInvoked;
 
+    private ExecutorService startExecutor;
+
     @Inject
     public WorkspaceRuntimes(MachineManager machineManager, EventService eventService) {
         this.machineManager = machineManager;
@@ -88,6 +120,29 @@ public class WorkspaceRuntimes {
         this.rwLock = new ReentrantReadWriteLock();
     }
 
+    /**
+     * Enables concurrent start of non-dev machines.
+     *
+     * @param threads
+     *         max number of machines which are started at the same time,
+     *         machines are started sequentially if it is not greater than 1
+     */
+    @Inject(optional = true)
+    public void setMachineStartThreads(@Named(MACHINE_START_THREADS) int threads) {
+        if (threads > 1) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+                                                                       threads,
+                                                                       60,
+                                                                       SECONDS,
+                                                                       new LinkedBlockingQueue<>(),
+                                                                       new ThreadFactoryBuilder().setNameFormat("MachineStarter-%d")
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+            executor.allowCoreThreadTimeOut(true);
+            startExecutor = executor;
+        }
+    }
+
     /**
      * Returns the runtime descriptor describing currently starting/running/stopping
      * workspace runtime.
@@ -123,6 +178,8 @@ public class WorkspaceRuntimes {
      * creates workspace runtime instance based on that environment.
      *
      * <p>Dev-machine always starts before the other machines.
+     * Other machines are started concurrently if {@link #setMachineStartThreads(int)}
+     * is configured, respecting {@link #DEPENDS_ON_ENV_VARIABLE} of their configurations.
      * If dev-machine start failed then method will throw appropriate
      * {@link ServerException}. During the start of the workspace its
      * runtime is visible with {@link WorkspaceStatus#STARTING} status.
@@ -133,6 +190,7 @@ public class WorkspaceRuntimes {
      *
      * <p>Note that it doesn't provide any events for
      * machines start, Machine API is responsible for it.
+     * Only {@link MachineStartTimeEvent} is published for each machine.
      *
      * @param workspace
      *         workspace which environment should be started
@@ -294,6 +352,9 @@ public class WorkspaceRuntimes {
         } finally {
             rwLock.writeLock().unlock();
         }
+        if (startExecutor != null) {
+            startExecutor.shutdownNow();
+        }
     }
 
     @VisibleForTesting
@@ -304,6 +365,16 @@ public class WorkspaceRuntimes {
                                      .withError(error));
     }
 
+    @VisibleForTesting
+    void publishMachineStartTime(String workspaceId, MachineConfig config, long startTime, String error) {
+        eventService.publish(newDto(MachineStartTimeEvent.class).withWorkspaceId(workspaceId)
+                                                                .withMachineName(config.getName())
+                                                                .withDev(config.isDev())
+                                                                .withStartTime(startTime)
+                                                                .withDuration(System.currentTimeMillis() - startTime)
+                                                                .withError(error));
+    }
+
     @VisibleForTesting
     void cleanupStartResources(String workspaceId) {
         rwLock.writeLock().lock();
@@ -364,9 +435,15 @@ public class WorkspaceRuntimes {
                                                                                  ConflictException {
         publishEvent(EventType.STARTING, wsId, null);
         MachineConfigImpl config = getPeekConfig(wsId);
-        while (config != null) {
+        if (config != null && startExecutor != null) {
+            // dev-machine is the first one in the queue
             startMachine(config, wsId, envName, recover);
-            config = getPeekConfig(wsId);
+            startConcurrently(wsId, envName, recover);
+        } else {
+            while (config != null) {
+                startMachine(config, wsId, envName, recover);
+                config = getPeekConfig(wsId);
+            }
         }
 
         // Clean up the start queue when all the machines successfully started
@@ -381,35 +458,177 @@ public class WorkspaceRuntimes {
         }
     }
 
+    /**
+     * Starts all the machines which are left in the start queue concurrently.
+     * Machine is started only after all the machines it depends on are started,
+     * if any of them is interrupted or fails to start then the machine is not
+     * started either.
+     */
+    private void startConcurrently(String wsId, String envName, boolean recover) throws ServerException,
+                                                                                        NotFoundException,
+                                                                                        ConflictException {
+        final Map<MachineConfigImpl, Set<MachineConfigImpl>> dependencies = getStartDependencies(getQueuedConfigs(wsId));
+        // each future is completed with true if the machine is started
+        final Map<MachineConfigImpl, CompletableFuture<Boolean>> starts = new HashMap<>();
+        // configs are sorted so that dependencies go before dependent machines
+        for (Map.Entry<MachineConfigImpl, Set<MachineConfigImpl>> entry : dependencies.entrySet()) {
+            final MachineConfigImpl config = entry.getKey();
+            final List<CompletableFuture<Boolean>> required = entry.getValue()
+                                                                   .stream()
+                                                                   .map(starts::get)
+                                                                   .collect(Collectors.toList());
+            final CompletableFuture<?>[] requiredArray = required.toArray(new CompletableFuture<?>[required.size()]);
+            starts.put(config, CompletableFuture.allOf(requiredArray).thenApplyAsync(ignored -> {
+                try {
+                    // fails if workspace start was interrupted while the machine was waiting
+                    getPeekConfig(wsId);
+                    if (!required.stream().allMatch(CompletableFuture::join)) {
+                        skipMachine(config, wsId, envName);
+                        return false;
+                    }
+                    return startMachine(config, wsId, envName, recover);
+                } catch (ApiException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, startExecutor));
+        }
+        try {
+            CompletableFuture.allOf(starts.values().toArray(new CompletableFuture<?>[starts.size()])).join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof ServerException) {
+                throw (ServerException)cause;
+            } else if (cause instanceof NotFoundException) {
+                throw (NotFoundException)cause;
+            } else if (cause instanceof ConflictException) {
+                throw (ConflictException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new ServerException(cause.getLocalizedMessage(), cause);
+        }
+    }
+
+    private List<MachineConfigImpl> getQueuedConfigs(String wsId) throws ConflictException, ServerException {
+        rwLock.readLock().lock();
+        try {
+            return new ArrayList<>(getStartQueue(wsId));
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns machine configs mapped to the configs of machines they depend on,
+     * the result is ordered so that each config goes after its dependencies.
+     * Dependencies on unknown machines are ignored, if dependencies are
+     * cyclic then all of them are ignored.
+     */
+    @VisibleForTesting
+    static Map<MachineConfigImpl, Set<MachineConfigImpl>> getStartDependencies(List<MachineConfigImpl> configs) {
+        final Map<String, MachineConfigImpl> byName = new HashMap<>();
+        for (MachineConfigImpl config : configs) {
+            byName.put(config.getName(), config);
+        }
+        final Map<MachineConfigImpl, Set<MachineConfigImpl>> dependencies = new LinkedHashMap<>();
+        for (MachineConfigImpl config : configs) {
+            final Set<MachineConfigImpl> required = new LinkedHashSet<>();
+            final String dependsOn = config.getEnvVariables() == null ? null : config.getEnvVariables().get(DEPENDS_ON_ENV_VARIABLE);
+            if (dependsOn != null) {
+                for (String name : dependsOn.split(",")) {
+                    final MachineConfigImpl dependency = byName.get(name.trim());
+                    if (dependency != null && dependency != config) {
+                        required.add(dependency);
+                    }
+                }
+            }
+            dependencies.put(config, required);
+        }
+        // topological sort, configs which dependencies are already sorted go next
+        final Map<MachineConfigImpl, Set<MachineConfigImpl>> sorted = new LinkedHashMap<>();
+        while (sorted.size() < dependencies.size()) {
+            boolean progress = false;
+            for (Map.Entry<MachineConfigImpl, Set<MachineConfigImpl>> entry : dependencies.entrySet()) {
+                if (!sorted.containsKey(entry.getKey()) && sorted.keySet().containsAll(entry.getValue())) {
+                    sorted.put(entry.getKey(), entry.getValue());
+                    progress = true;
+                }
+            }
+            if (!progress) {
+                LOG.warn("Dependencies between machines {} are cyclic, they are ignored", byName.keySet());
+                final Map<MachineConfigImpl, Set<MachineConfigImpl>> independent = new LinkedHashMap<>();
+                for (MachineConfigImpl config : configs) {
+                    independent.put(config, new LinkedHashSet<>());
+                }
+                return independent;
+            }
+        }
+        return sorted;
+    }
+
     private MachineConfigImpl getPeekConfig(String wsId) throws ConflictException, ServerException {
         // Trying to get machine to start. If queue doesn't exist then workspace
         // start was interrupted either by the stop method, or by the cleanup
         rwLock.readLock().lock();
         try {
-            ensurePreDestroyIsNotExecuted();
-            final Queue<MachineConfigImpl> queue = startQueues.get(wsId);
-            if (queue == null) {
-                throw new ConflictException(format("Workspace '%s' start interrupted. " +
-                                                   "Workspace was stopped before all its machines were started",
-                                                   wsId));
-            }
-            return queue.peek();
+            return getStartQueue(wsId).peek();
         } finally {
             rwLock.readLock().unlock();
         }
     }
 
-    private void startMachine(MachineConfigImpl config,
-                              String wsId,
-                              String envName,
-                              boolean recover) throws ServerException,
-                                                      NotFoundException,
-                                                      ConflictException {
+    // must be called under the lock
+    private Queue<MachineConfigImpl> getStartQueue(String wsId) throws ConflictException, ServerException {
+        ensurePreDestroyIsNotExecuted();
+        final Queue<MachineConfigImpl> queue = startQueues.get(wsId);
+        if (queue == null) {
+            throw new ConflictException(format("Workspace '%s' start interrupted. " +
+                                               "Workspace was stopped before all its machines were started",
+                                               wsId));
+        }
+        return queue;
+    }
+
+    /**
+     * Skips start of the machine because some of machines it depends on failed to start.
+     * Start of workspace fails if the machine is dev machine.
+     */
+    private void skipMachine(MachineConfigImpl config, String wsId, String envName) throws ServerException, ConflictException {
+        final String error = format("Machine '%s' is not started because machines it depends on failed to start", config.getName());
+        if (config.isDev()) {
+            publishEvent(EventType.ERROR, wsId, error);
+            cleanupStartResources(wsId);
+            throw new ServerException(error);
+        }
+        LOG.error(format("%s, workspace '%s', environment '%s'", error, wsId, envName));
+        rwLock.writeLock().lock();
+        try {
+            getStartQueue(wsId).remove(config);
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts machine and removes its config from the start queue.
+     * Failure of non-dev machine doesn't fail start of the workspace.
+     *
+     * @return true if machine is started, false if non-dev machine failed to start
+     */
+    private boolean startMachine(MachineConfigImpl config,
+                                 String wsId,
+                                 String envName,
+                                 boolean recover) throws ServerException,
+                                                         NotFoundException,
+                                                         ConflictException {
         // Trying to start machine from the given configuration
         MachineImpl machine = null;
+        final long startTime = System.currentTimeMillis();
         try {
             machine = createMachine(config, wsId, envName, recover);
+            publishMachineStartTime(wsId, config, startTime, null);
         } catch (RuntimeException | MachineException | NotFoundException | SnapshotException | ConflictException ex) {
+            publishMachineStartTime(wsId, config, startTime, ex.getLocalizedMessage());
             if (config.isDev()) {
                 publishEvent(EventType.ERROR, wsId, ex.getLocalizedMessage());
                 cleanupStartResources(wsId);
@@ -426,14 +645,15 @@ public class WorkspaceRuntimes {
         // performed outside of the lock, this section checks if
         // the workspace wasn't stopped while it is starting and sets
         // polled flag to true if the workspace wasn't stopped plus
-        // polls the proceeded machine configuration from the queue
+        // removes the proceeded machine configuration from the queue.
+        // Write lock is needed as machines may be started concurrently
         boolean queuePolled = false;
-        rwLock.readLock().lock();
+        rwLock.writeLock().lock();
         try {
             ensurePreDestroyIsNotExecuted();
             final Queue<MachineConfigImpl> queue = startQueues.get(wsId);
             if (queue != null) {
-                queue.poll();
+                queue.remove(config);
                 queuePolled = true;
                 if (machine != null) {
                     final WorkspaceRuntimeImpl runtime = descriptors.get(wsId).getRuntime();
@@ -445,7 +665,7 @@ public class WorkspaceRuntimes {
                 }
             }
         } finally {
-            rwLock.readLock().unlock();
+            rwLock.writeLock().unlock();
         }
 
         // If machine config is not polled from the queue
@@ -459,6 +679,7 @@ public class WorkspaceRuntimes {
                                                "Workspace was stopped before all its machines were started",
                                                wsId));
         }
+        return machine != null;
     }
 
     private <T> T rmFirst(List<? extends T> elements, Predicate<T> predicate) {
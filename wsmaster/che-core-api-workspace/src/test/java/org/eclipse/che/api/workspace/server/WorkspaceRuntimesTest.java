@@ -35,15 +35,26 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -55,6 +66,7 @@ import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @author Yevhenii Voevodin
@@ -407,6 +419,103 @@ public class WorkspaceRuntimesTest {
         }
     }
 
+    @Test
+    public void shouldStartNonDevMachinesConcurrentlyWhenParallelStartIsConfigured() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        final EnvironmentImpl environment = workspace.getConfig().getEnvironments().get(0);
+        environment.getMachineConfigs().add(MachineConfigImpl.builder()
+                                                             .fromConfig(environment.getMachineConfigs().get(0))
+                                                             .setName("non-dev2")
+                                                             .build());
+        final CyclicBarrier nonDevStarts = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            final MachineConfig cfg = (MachineConfig)invocation.getArguments()[0];
+            if (!cfg.isDev()) {
+                // fails with timeout if the other non-dev machine is not started at the same time
+                nonDevStarts.await(5, TimeUnit.SECONDS);
+            }
+            return createMachine(cfg);
+        }).when(machineManagerMock).createMachineSync(any(), any(), any());
+        runtimes.setMachineStartThreads(2);
+
+        final RuntimeDescriptor descriptor = runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+
+        assertEquals(descriptor.getRuntimeStatus(), RUNNING);
+        assertEquals(descriptor.getRuntime().getMachines().size(), 3);
+    }
+
+    @Test
+    public void shouldNotStartMachineWhichDependsOnFailedToStartMachine() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        final EnvironmentImpl environment = workspace.getConfig().getEnvironments().get(0);
+        environment.getMachineConfigs().add(createNonDevConfig("app", "non-dev"));
+        doAnswer(invocation -> {
+            final MachineConfig cfg = (MachineConfig)invocation.getArguments()[0];
+            if (cfg.getName().equals("non-dev")) {
+                throw new MachineException("Failed to start");
+            }
+            return createMachine(cfg);
+        }).when(machineManagerMock).createMachineSync(any(), any(), any());
+        runtimes.setMachineStartThreads(2);
+
+        final RuntimeDescriptor descriptor = runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+
+        assertEquals(descriptor.getRuntimeStatus(), RUNNING);
+        assertEquals(descriptor.getRuntime().getMachines().size(), 1);
+        verify(machineManagerMock, times(2)).createMachineSync(any(), any(), any());
+    }
+
+    @Test
+    public void shouldOrderMachinesByTheirDependencies() throws Exception {
+        final MachineConfigImpl app = createNonDevConfig("app", "db, cache");
+        final MachineConfigImpl db = createNonDevConfig("db", null);
+        final MachineConfigImpl cache = createNonDevConfig("cache", "db,unknown");
+
+        final Map<MachineConfigImpl, Set<MachineConfigImpl>> dependencies = WorkspaceRuntimes.getStartDependencies(asList(app, db, cache));
+
+        assertEquals(new ArrayList<>(dependencies.keySet()), asList(db, cache, app));
+        assertEquals(dependencies.get(app), new HashSet<>(asList(db, cache)));
+        assertEquals(dependencies.get(cache), singleton(db));
+        assertTrue(dependencies.get(db).isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreCyclicDependenciesOfMachines() throws Exception {
+        final MachineConfigImpl first = createNonDevConfig("first", "second");
+        final MachineConfigImpl second = createNonDevConfig("second", "first");
+
+        final Map<MachineConfigImpl, Set<MachineConfigImpl>> dependencies = WorkspaceRuntimes.getStartDependencies(asList(first, second));
+
+        assertEquals(new ArrayList<>(dependencies.keySet()), asList(first, second));
+        assertTrue(dependencies.get(first).isEmpty());
+        assertTrue(dependencies.get(second).isEmpty());
+    }
+
+    @Test
+    public void shouldPublishStartTimeOfEachMachine() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        runtimes = spy(new WorkspaceRuntimes(machineManagerMock, eventService));
+        doNothing().when(runtimes).publishMachineStartTime(any(), any(), anyLong(), any());
+
+        runtimes.start(workspace, workspace.getConfig().getDefaultEnv());
+
+        verify(runtimes, times(2)).publishMachineStartTime(eq(workspace.getId()), any(), anyLong(), eq(null));
+    }
+
+    private static MachineConfigImpl createNonDevConfig(String name, String dependsOn) {
+        final Map<String, String> envVariables = new HashMap<>();
+        if (dependsOn != null) {
+            envVariables.put(WorkspaceRuntimes.DEPENDS_ON_ENV_VARIABLE, dependsOn);
+        }
+        return MachineConfigImpl.builder()
+                                .setDev(false)
+                                .setType("docker")
+                                .setSource(new MachineSourceImpl("git", "location"))
+                                .setName(name)
+                                .setEnvVariables(envVariables)
+                                .build();
+    }
+
     private static MachineImpl createMachine(MachineConfig cfg) {
         return MachineImpl.builder()
                           .setId(NameGenerator.generate("machine", 10))
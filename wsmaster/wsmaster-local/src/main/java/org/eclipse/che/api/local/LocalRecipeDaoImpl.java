@@ -11,16 +11,16 @@
 package org.eclipse.che.api.local;
 
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import com.google.inject.Inject;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.local.storage.LocalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.local.storage.LocalStorageJournal;
 import org.eclipse.che.api.machine.server.recipe.adapters.GroupAdapter;
 import org.eclipse.che.api.machine.server.recipe.adapters.PermissionsAdapter;
 import org.eclipse.che.api.machine.server.dao.RecipeDao;
@@ -28,101 +28,161 @@ import org.eclipse.che.api.machine.server.recipe.RecipeImpl;
 import org.eclipse.che.api.machine.shared.Group;
 import org.eclipse.che.api.machine.shared.ManagedRecipe;
 import org.eclipse.che.api.machine.shared.Permissions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 
 import static java.lang.String.format;
 import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 /**
+ * In memory based implementation of {@link RecipeDao}.
+ *
+ * <p>Recipes are indexed by type, tags and creator, so searches check only recipes
+ * which have at least one of requested values. Each change of recipes which aren't predefined
+ * is appended to the journal of storage.
+ *
  * @author Eugene Voevodin
  * @author Anton Korneta
  */
 @Singleton
 public class LocalRecipeDaoImpl implements RecipeDao {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalRecipeDaoImpl.class);
+
+    /** Creator of predefined recipes, such recipes aren't stored. */
+    private static final String PREDEFINED_RECIPES_CREATOR = "codenvy";
 
-    private final Map<String, ManagedRecipe> recipes;
-    private final ReadWriteLock              lock;
-    private final LocalStorage               recipeStorage;
+    private final Map<String, ManagedRecipe>      recipes;
+    /** Type -> identifiers of recipes. */
+    private final Map<String, Set<String>>        types;
+    /** Tag -> identifiers of recipes. */
+    private final Map<String, Set<String>>        tags;
+    /** Creator -> identifiers of recipes. */
+    private final Map<String, Set<String>>        creators;
+    private final ReadWriteLock                   lock;
+    private final LocalStorage                    recipeStorage;
+    private final LocalStorageJournal<RecipeImpl> journal;
 
     @Inject
     public LocalRecipeDaoImpl(LocalStorageFactory storageFactory) throws IOException {
         Map<Class<?>, Object> adapters = ImmutableMap.of(Permissions.class, new PermissionsAdapter(), Group.class, new GroupAdapter());
         this.recipeStorage = storageFactory.create("recipes.json", adapters);
-        this.recipes = new HashMap<>();
+        this.journal = recipeStorage.journal(TypeToken.of(RecipeImpl.class));
+        this.recipes = new LinkedHashMap<>();
+        this.types = new HashMap<>();
+        this.tags = new HashMap<>();
+        this.creators = new HashMap<>();
         lock = new ReentrantReadWriteLock();
     }
 
     @PostConstruct
     public void start() {
-        recipes.putAll(recipeStorage.loadMap(new TypeToken<Map<String, RecipeImpl>>() {}));
+        lock.writeLock().lock();
+        try {
+            journal.load().values().forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
     public void stop() throws IOException {
-        Map<String, ManagedRecipe> recipesToStore = recipes.values()
-                                                           .stream()
-                                                           .filter(recipe -> !"codenvy".equals(recipe.getCreator()))
-                                                           .collect(toMap(ManagedRecipe::getId, identity()));
-
-        recipeStorage.store(recipesToStore);
+        lock.writeLock().lock();
+        try {
+            journal.compact(storedRecipes());
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public void create(ManagedRecipe recipe) throws ConflictException {
+    public void create(ManagedRecipe recipe) throws ConflictException, ServerException {
         lock.writeLock().lock();
         try {
             if (recipes.containsKey(recipe.getId())) {
                 throw new ConflictException(format("Recipe with id %s already exists", recipe.getId()));
             }
-            recipes.put(recipe.getId(), recipe);
+            journalPut(recipe);
+            index(recipe);
+            compactJournalIfNeeded();
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void update(ManagedRecipe update) throws NotFoundException {
+    public void update(ManagedRecipe update) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
             final RecipeImpl target = (RecipeImpl)recipes.get(update.getId());
             if (target == null) {
                 throw new NotFoundException(format("Recipe with id '%s' was not found", update.getId()));
             }
+            final RecipeImpl updated = copy(target);
             if (update.getType() != null) {
-                target.setType(update.getType());
+                updated.setType(update.getType());
             }
             if (update.getScript() != null) {
-                target.setScript(update.getScript());
+                updated.setScript(update.getScript());
             }
             if (update.getName() != null) {
-                target.setName(update.getName());
+                updated.setName(update.getName());
             }
             if (update.getPermissions() != null) {
-                target.setPermissions(update.getPermissions());
+                updated.setPermissions(update.getPermissions());
             }
             if (!update.getTags().isEmpty()) {
-                target.setTags(update.getTags());
+                updated.setTags(update.getTags());
             }
+            journalPut(updated);
+            unindex(target);
+            target.setType(updated.getType());
+            target.setScript(updated.getScript());
+            target.setName(updated.getName());
+            target.setPermissions(updated.getPermissions());
+            target.setTags(updated.getTags());
+            index(target);
+            compactJournalIfNeeded();
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void remove(String id) {
+    public void remove(String id) throws ServerException {
         lock.writeLock().lock();
         try {
-            recipes.remove(id);
+            final ManagedRecipe recipe = recipes.get(id);
+            if (recipe == null) {
+                return;
+            }
+            if (isStored(recipe)) {
+                try {
+                    journal.remove(id);
+                } catch (IOException x) {
+                    throw new ServerException(x.getLocalizedMessage(), x);
+                }
+            }
+            unindex(recipe);
+            compactJournalIfNeeded();
         } finally {
             lock.writeLock().unlock();
         }
@@ -146,17 +206,24 @@ public class LocalRecipeDaoImpl implements RecipeDao {
     public List<ManagedRecipe> search(final List<String> tags, final String type, int skipCount, int maxItems) {
         lock.readLock().lock();
         try {
-            return FluentIterable.from(recipes.values())
-                                 .skip(skipCount)
-                                 .filter(new Predicate<ManagedRecipe>() {
-                                     @Override
-                                     public boolean apply(ManagedRecipe recipe) {
-                                         return (tags == null || recipe.getTags().containsAll(tags))
-                                                && (type == null || type.equals(recipe.getType()));
-                                     }
-                                 })
-                                 .limit(maxItems)
-                                 .toList();
+            // start from the smallest set of candidates which is known from indexes
+            Collection<String> candidates = null;
+            if (type != null) {
+                candidates = this.types.getOrDefault(type, Collections.emptySet());
+            }
+            if (tags != null) {
+                for (String tag : tags) {
+                    final Set<String> tagged = this.tags.getOrDefault(tag, Collections.emptySet());
+                    if (candidates == null || tagged.size() < candidates.size()) {
+                        candidates = tagged;
+                    }
+                }
+            }
+            return select(candidates == null ? recipes.keySet() : candidates,
+                          recipe -> (tags == null || recipe.getTags().containsAll(tags))
+                                    && (type == null || type.equals(recipe.getType())),
+                          skipCount,
+                          maxItems);
         } finally {
             lock.readLock().unlock();
         }
@@ -166,18 +233,96 @@ public class LocalRecipeDaoImpl implements RecipeDao {
     public List<ManagedRecipe> getByCreator(final String creator, int skipCount, int maxItems) {
         lock.readLock().lock();
         try {
-            return FluentIterable.from(recipes.values())
-                                 .skip(skipCount)
-                                 .filter(new Predicate<ManagedRecipe>() {
-                                     @Override
-                                     public boolean apply(ManagedRecipe recipe) {
-                                         return recipe.getCreator().equals(creator);
-                                     }
-                                 })
-                                 .limit(maxItems)
-                                 .toList();
+            return select(creators.getOrDefault(creator, Collections.emptySet()),
+                          recipe -> recipe.getCreator().equals(creator),
+                          skipCount,
+                          maxItems);
         } finally {
             lock.readLock().unlock();
         }
     }
+
+    private List<ManagedRecipe> select(Collection<String> ids, Predicate<ManagedRecipe> filter, int skipCount, int maxItems) {
+        return ids.stream()
+                  .map(recipes::get)
+                  .filter(filter)
+                  .skip(skipCount)
+                  .limit(maxItems)
+                  .collect(toList());
+    }
+
+    private void index(ManagedRecipe recipe) {
+        recipes.put(recipe.getId(), recipe);
+        if (recipe.getType() != null) {
+            types.computeIfAbsent(recipe.getType(), type -> new LinkedHashSet<>()).add(recipe.getId());
+        }
+        for (String tag : recipe.getTags()) {
+            tags.computeIfAbsent(tag, t -> new LinkedHashSet<>()).add(recipe.getId());
+        }
+        if (recipe.getCreator() != null) {
+            creators.computeIfAbsent(recipe.getCreator(), creator -> new LinkedHashSet<>()).add(recipe.getId());
+        }
+    }
+
+    private void unindex(ManagedRecipe recipe) {
+        recipes.remove(recipe.getId());
+        removeFromIndex(types, recipe.getType(), recipe.getId());
+        for (String tag : recipe.getTags()) {
+            removeFromIndex(tags, tag, recipe.getId());
+        }
+        removeFromIndex(creators, recipe.getCreator(), recipe.getId());
+    }
+
+    private static void removeFromIndex(Map<String, Set<String>> index, String value, String id) {
+        final Set<String> ids = index.get(value);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(value);
+            }
+        }
+    }
+
+    private static boolean isStored(ManagedRecipe recipe) {
+        return !PREDEFINED_RECIPES_CREATOR.equals(recipe.getCreator());
+    }
+
+    private Map<String, ManagedRecipe> storedRecipes() {
+        return recipes.values()
+                      .stream()
+                      .filter(LocalRecipeDaoImpl::isStored)
+                      .collect(toMap(ManagedRecipe::getId, identity()));
+    }
+
+    private void journalPut(ManagedRecipe recipe) throws ServerException {
+        if (isStored(recipe)) {
+            try {
+                journal.put(recipe.getId(), recipe instanceof RecipeImpl ? (RecipeImpl)recipe : copy(recipe));
+            } catch (IOException x) {
+                throw new ServerException(x.getLocalizedMessage(), x);
+            }
+        }
+    }
+
+    private static RecipeImpl copy(ManagedRecipe recipe) {
+        return new RecipeImpl().withId(recipe.getId())
+                               .withName(recipe.getName())
+                               .withCreator(recipe.getCreator())
+                               .withType(recipe.getType())
+                               .withScript(recipe.getScript())
+                               .withTags(new ArrayList<>(recipe.getTags()))
+                               .withPermissions(recipe.getPermissions())
+                               .withDescription(recipe.getDescription());
+    }
+
+    private void compactJournalIfNeeded() {
+        if (journal.isCompactionNeeded(recipes.size())) {
+            try {
+                journal.compact(storedRecipes());
+            } catch (IOException x) {
+                // changes are still in journal, so next compaction stores them
+                LOG.warn("Impossible to compact journal of recipes: " + x.getMessage(), x);
+            }
+        }
+    }
 }
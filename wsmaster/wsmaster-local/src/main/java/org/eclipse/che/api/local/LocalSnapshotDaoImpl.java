@@ -15,22 +15,29 @@ import com.google.common.reflect.TypeToken;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.local.storage.LocalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.local.storage.LocalStorageJournal;
 import org.eclipse.che.api.machine.server.dao.SnapshotDao;
 import org.eclipse.che.api.machine.server.exception.SnapshotException;
 import org.eclipse.che.api.machine.server.model.impl.SnapshotImpl;
 import org.eclipse.che.api.machine.server.recipe.adapters.InstanceKeyAdapter;
 import org.eclipse.che.api.machine.server.spi.InstanceKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonMap;
@@ -39,79 +46,173 @@ import static java.util.stream.Collectors.toList;
 /**
  * In-memory implementation of {@link SnapshotDao}.
  *
+ * <p>Snapshots are indexed by workspace, each change of snapshots is appended
+ * to the journal of storage.
+ *
  * @author Yevhenii Voevodin
  */
 @Singleton
 public class LocalSnapshotDaoImpl implements SnapshotDao {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalSnapshotDaoImpl.class);
 
-    private final Map<String, SnapshotImpl> snapshots;
-    private final LocalStorage              snapshotStorage;
+    private final Map<String, SnapshotImpl>                    snapshots;
+    /** Workspace id -> [environment name, machine name] -> snapshot. */
+    private final Map<String, Map<List<String>, SnapshotImpl>> workspaces;
+    private final ReadWriteLock                                lock;
+    private final LocalStorage                                 snapshotStorage;
+    private final LocalStorageJournal<SnapshotImpl>            journal;
 
     @Inject
     public LocalSnapshotDaoImpl(LocalStorageFactory storageFactory) throws IOException {
         snapshots = new HashMap<>();
+        workspaces = new HashMap<>();
+        lock = new ReentrantReadWriteLock();
         snapshotStorage = storageFactory.create("snapshots.json", singletonMap(InstanceKey.class, new InstanceKeyAdapter()));
+        journal = snapshotStorage.journal(TypeToken.of(SnapshotImpl.class));
     }
 
     @Override
-    public synchronized SnapshotImpl getSnapshot(String workspaceId, String envName, String machineName) throws NotFoundException,
-                                                                                                                SnapshotException {
-        final Optional<SnapshotImpl> snapshotOpt = doGetSnapshot(workspaceId, envName, machineName);
-        if (!snapshotOpt.isPresent()) {
-            throw new NotFoundException(format("Snapshot with workspace id '%s', environment name '%s', machine name %s doesn't exist",
-                                               workspaceId, envName, machineName));
+    public SnapshotImpl getSnapshot(String workspaceId, String envName, String machineName) throws NotFoundException,
+                                                                                                   SnapshotException {
+        lock.readLock().lock();
+        try {
+            final SnapshotImpl snapshot = doGetSnapshot(workspaceId, envName, machineName);
+            if (snapshot == null) {
+                throw new NotFoundException(format("Snapshot with workspace id '%s', environment name '%s', machine name %s doesn't exist",
+                                                   workspaceId, envName, machineName));
+            }
+            return snapshot;
+        } finally {
+            lock.readLock().unlock();
         }
-        return snapshotOpt.get();
     }
 
     @Override
-    public synchronized SnapshotImpl getSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
-        final SnapshotImpl snapshot = snapshots.get(snapshotId);
-        if (snapshot == null) {
-            throw new NotFoundException("Snapshot with id '" + snapshotId + "' doesn't exist");
+    public SnapshotImpl getSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
+        lock.readLock().lock();
+        try {
+            final SnapshotImpl snapshot = snapshots.get(snapshotId);
+            if (snapshot == null) {
+                throw new NotFoundException("Snapshot with id '" + snapshotId + "' doesn't exist");
+            }
+            return snapshot;
+        } finally {
+            lock.readLock().unlock();
         }
-        return snapshot;
     }
 
     @Override
-    public synchronized void saveSnapshot(SnapshotImpl snapshot) throws SnapshotException {
+    public void saveSnapshot(SnapshotImpl snapshot) throws SnapshotException {
         Objects.requireNonNull(snapshot, "Required non-null snapshot");
-        final Optional<SnapshotImpl> opt = doGetSnapshot(snapshot.getWorkspaceId(), snapshot.getEnvName(), snapshot.getMachineName());
-        if (opt.isPresent()) {
-            snapshots.remove(opt.get().getId());
+        lock.writeLock().lock();
+        try {
+            final SnapshotImpl existing = doGetSnapshot(snapshot.getWorkspaceId(), snapshot.getEnvName(), snapshot.getMachineName());
+            try {
+                if (existing != null && !existing.getId().equals(snapshot.getId())) {
+                    journal.remove(existing.getId());
+                }
+                journal.put(snapshot.getId(), snapshot);
+            } catch (IOException x) {
+                throw new SnapshotException(x.getLocalizedMessage(), x);
+            }
+            if (existing != null) {
+                unindex(existing);
+            }
+            final SnapshotImpl sameId = snapshots.get(snapshot.getId());
+            if (sameId != null) {
+                unindex(sameId);
+            }
+            index(snapshot);
+            compactJournalIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
         }
-        snapshots.put(snapshot.getId(), snapshot);
     }
 
     @Override
-    public synchronized List<SnapshotImpl> findSnapshots(String namespace, String workspaceId) throws SnapshotException {
-        return snapshots.values()
-                        .stream()
-                        .filter(snapshot -> snapshot.getNamespace().equals(namespace) && snapshot.getWorkspaceId().equals(workspaceId))
-                        .collect(toList());
+    public List<SnapshotImpl> findSnapshots(String namespace, String workspaceId) throws SnapshotException {
+        lock.readLock().lock();
+        try {
+            return workspaces.getOrDefault(workspaceId, Collections.emptyMap())
+                             .values()
+                             .stream()
+                             .filter(snapshot -> snapshot.getNamespace().equals(namespace))
+                             .collect(toList());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void removeSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
-        snapshots.remove(snapshotId);
+    public void removeSnapshot(String snapshotId) throws NotFoundException, SnapshotException {
+        lock.writeLock().lock();
+        try {
+            final SnapshotImpl existing = snapshots.get(snapshotId);
+            if (existing == null) {
+                return;
+            }
+            try {
+                journal.remove(snapshotId);
+            } catch (IOException x) {
+                throw new SnapshotException(x.getLocalizedMessage(), x);
+            }
+            unindex(existing);
+            compactJournalIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PostConstruct
-    public synchronized void loadSnapshots() {
-        snapshots.putAll(snapshotStorage.loadMap(new TypeToken<Map<String, SnapshotImpl>>() {}));
+    public void loadSnapshots() {
+        lock.writeLock().lock();
+        try {
+            journal.load().values().forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
-    public synchronized void saveSnapshots() throws IOException {
-        snapshotStorage.store(snapshots);
+    public void saveSnapshots() throws IOException {
+        lock.writeLock().lock();
+        try {
+            journal.compact(snapshots);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private SnapshotImpl doGetSnapshot(String workspaceId, String envName, String machineName) {
+        final Map<List<String>, SnapshotImpl> machines = workspaces.get(workspaceId);
+        return machines == null ? null : machines.get(Arrays.asList(envName, machineName));
     }
 
-    private Optional<SnapshotImpl> doGetSnapshot(String workspaceId, String envName, String machineName) {
-        return snapshots.values()
-                        .stream()
-                        .filter(snapshot -> snapshot.getWorkspaceId().equals(workspaceId)
-                                            && snapshot.getEnvName().equals(envName)
-                                            && snapshot.getMachineName().equals(machineName))
-                        .findFirst();
+    private void index(SnapshotImpl snapshot) {
+        snapshots.put(snapshot.getId(), snapshot);
+        workspaces.computeIfAbsent(snapshot.getWorkspaceId(), workspaceId -> new LinkedHashMap<>())
+                  .put(Arrays.asList(snapshot.getEnvName(), snapshot.getMachineName()), snapshot);
+    }
+
+    private void unindex(SnapshotImpl snapshot) {
+        snapshots.remove(snapshot.getId());
+        final Map<List<String>, SnapshotImpl> machines = workspaces.get(snapshot.getWorkspaceId());
+        if (machines != null) {
+            machines.remove(Arrays.asList(snapshot.getEnvName(), snapshot.getMachineName()), snapshot);
+            if (machines.isEmpty()) {
+                workspaces.remove(snapshot.getWorkspaceId());
+            }
+        }
+    }
+
+    private void compactJournalIfNeeded() {
+        if (journal.isCompactionNeeded(snapshots.size())) {
+            try {
+                journal.compact(snapshots);
+            } catch (IOException x) {
+                // changes are still in journal, so next compaction stores them
+                LOG.warn("Impossible to compact journal of snapshots: " + x.getMessage(), x);
+            }
+        }
     }
 }
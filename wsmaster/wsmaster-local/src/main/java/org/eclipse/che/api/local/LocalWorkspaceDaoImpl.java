@@ -21,9 +21,12 @@ import org.eclipse.che.api.core.model.project.ProjectConfig;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.local.storage.LocalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.local.storage.LocalStorageJournal;
 import org.eclipse.che.api.machine.server.recipe.adapters.RecipeTypeAdapter;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.server.spi.WorkspaceDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -35,7 +38,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
@@ -44,9 +48,11 @@ import static java.util.stream.Collectors.toList;
  * In memory based implementation of {@link WorkspaceDao}.
  *
  * <p>{@link #loadWorkspaces() Loads} & {@link #saveWorkspaces() stores} in memory workspaces
- * to/from filesystem, when component starts/stops.
+ * to/from filesystem, when component starts/stops. Each change of workspaces is appended
+ * to the journal of storage as well, so changes are not lost if component isn't stopped properly.
  *
- * @implNote it is thread-safe, guarded by <i>this</i> instance
+ * @implNote it is thread-safe, guarded by read/write lock. Workspaces are indexed
+ * by namespace and name, so lookups don't scan all the workspaces.
  *
  * @author Eugene Voevodin
  * @author Dmitry Shnurenko
@@ -54,100 +60,213 @@ import static java.util.stream.Collectors.toList;
  */
 @Singleton
 public class LocalWorkspaceDaoImpl implements WorkspaceDao {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalWorkspaceDaoImpl.class);
 
-    private final Map<String, WorkspaceImpl> workspaces;
-    private final LocalStorage               localStorage;
+    private final Map<String, WorkspaceImpl>              workspaces;
+    /** Namespace -> workspace name -> workspace. */
+    private final Map<String, Map<String, WorkspaceImpl>> namespaces;
+    private final ReadWriteLock                           lock;
+    private final LocalStorage                            localStorage;
+    private final LocalStorageJournal<WorkspaceImpl>      journal;
 
     @Inject
     public LocalWorkspaceDaoImpl(LocalStorageFactory factory) throws IOException {
         final Map<Class<?>, Object> adapters = ImmutableMap.of(Recipe.class, new RecipeTypeAdapter(),
                                                                ProjectConfig.class, new ProjectConfigAdapter());
         this.localStorage = factory.create("workspaces.json", adapters);
+        this.journal = localStorage.journal(TypeToken.of(WorkspaceImpl.class));
         this.workspaces = new HashMap<>();
+        this.namespaces = new HashMap<>();
+        this.lock = new ReentrantReadWriteLock();
     }
 
     @PostConstruct
-    public synchronized void loadWorkspaces() {
-        workspaces.putAll(localStorage.loadMap(new TypeToken<Map<String, WorkspaceImpl>>() {}));
-        for (WorkspaceImpl workspace : workspaces.values()) {
-            workspace.setRuntime(null);
+    public void loadWorkspaces() {
+        lock.writeLock().lock();
+        try {
+            workspaces.clear();
+            namespaces.clear();
+            for (WorkspaceImpl workspace : journal.load().values()) {
+                workspace.setRuntime(null);
+                index(workspace);
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     @PreDestroy
-    public synchronized void saveWorkspaces() throws IOException {
-        localStorage.store(workspaces);
+    public void saveWorkspaces() throws IOException {
+        lock.writeLock().lock();
+        try {
+            journal.compact(workspaces);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized WorkspaceImpl create(WorkspaceImpl workspace) throws ConflictException, ServerException {
-        if (workspaces.containsKey(workspace.getId())) {
-            throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
-        }
-        if (find(workspace.getConfig().getName(), workspace.getNamespace()).isPresent()) {
-            throw new ConflictException(format("Workspace with name %s and owner %s already exists",
-                                               workspace.getConfig().getName(),
-                                               workspace.getNamespace()));
+    public WorkspaceImpl create(WorkspaceImpl workspace) throws ConflictException, ServerException {
+        lock.writeLock().lock();
+        try {
+            if (workspaces.containsKey(workspace.getId())) {
+                throw new ConflictException("Workspace with id " + workspace.getId() + " already exists");
+            }
+            if (find(workspace.getConfig().getName(), workspace.getNamespace()) != null) {
+                throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                                   workspace.getConfig().getName(),
+                                                   workspace.getNamespace()));
+            }
+            workspace.setRuntime(null);
+            workspace.setStatus(WorkspaceStatus.STOPPED);
+            final WorkspaceImpl stored = new WorkspaceImpl(workspace);
+            journalPut(stored);
+            index(stored);
+            compactJournalIfNeeded();
+            return workspace;
+        } finally {
+            lock.writeLock().unlock();
         }
-        workspace.setRuntime(null);
-        workspace.setStatus(WorkspaceStatus.STOPPED);
-        workspaces.put(workspace.getId(), new WorkspaceImpl(workspace));
-        return workspace;
     }
 
     @Override
-    public synchronized WorkspaceImpl update(WorkspaceImpl workspace)
+    public WorkspaceImpl update(WorkspaceImpl workspace)
             throws NotFoundException, ConflictException, ServerException {
-        if (!workspaces.containsKey(workspace.getId())) {
-            throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
+        lock.writeLock().lock();
+        try {
+            final WorkspaceImpl existing = workspaces.get(workspace.getId());
+            if (existing == null) {
+                throw new NotFoundException("Workspace with id " + workspace.getId() + " was not found");
+            }
+            final WorkspaceImpl sameName = find(workspace.getConfig().getName(), workspace.getNamespace());
+            if (sameName != null && !sameName.getId().equals(workspace.getId())) {
+                throw new ConflictException(format("Workspace with name %s and owner %s already exists",
+                                                   workspace.getConfig().getName(),
+                                                   workspace.getNamespace()));
+            }
+            workspace.setStatus(null);
+            workspace.setRuntime(null);
+            final WorkspaceImpl stored = new WorkspaceImpl(workspace);
+            journalPut(stored);
+            unindex(existing);
+            index(stored);
+            compactJournalIfNeeded();
+            return workspace;
+        } finally {
+            lock.writeLock().unlock();
         }
-        workspace.setStatus(null);
-        workspace.setRuntime(null);
-        workspaces.put(workspace.getId(), new WorkspaceImpl(workspace));
-        return workspace;
     }
 
     @Override
-    public synchronized void remove(String id) throws ConflictException, ServerException {
-        workspaces.remove(id);
+    public void remove(String id) throws ConflictException, ServerException {
+        lock.writeLock().lock();
+        try {
+            final WorkspaceImpl existing = workspaces.get(id);
+            if (existing == null) {
+                return;
+            }
+            try {
+                journal.remove(id);
+            } catch (IOException x) {
+                throw new ServerException(x.getLocalizedMessage(), x);
+            }
+            unindex(existing);
+            compactJournalIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized WorkspaceImpl get(String id) throws NotFoundException, ServerException {
-        final WorkspaceImpl workspace = workspaces.get(id);
-        if (workspace == null) {
-            throw new NotFoundException("Workspace with id " + id + " was not found");
+    public WorkspaceImpl get(String id) throws NotFoundException, ServerException {
+        lock.readLock().lock();
+        try {
+            final WorkspaceImpl workspace = workspaces.get(id);
+            if (workspace == null) {
+                throw new NotFoundException("Workspace with id " + id + " was not found");
+            }
+            return new WorkspaceImpl(workspace);
+        } finally {
+            lock.readLock().unlock();
         }
-        return new WorkspaceImpl(workspace);
     }
 
     @Override
-    public synchronized WorkspaceImpl get(String name, String namespace) throws NotFoundException, ServerException {
-        final Optional<WorkspaceImpl> wsOpt = find(name, namespace);
-        if (!wsOpt.isPresent()) {
-            throw new NotFoundException(format("Workspace with name %s and owner %s was not found", name, namespace));
+    public WorkspaceImpl get(String name, String namespace) throws NotFoundException, ServerException {
+        lock.readLock().lock();
+        try {
+            final WorkspaceImpl workspace = find(name, namespace);
+            if (workspace == null) {
+                throw new NotFoundException(format("Workspace with name %s and owner %s was not found", name, namespace));
+            }
+            return new WorkspaceImpl(workspace);
+        } finally {
+            lock.readLock().unlock();
         }
-        return new WorkspaceImpl(wsOpt.get());
     }
 
     @Override
-    public synchronized List<WorkspaceImpl> getByNamespace(String namespace) throws ServerException {
-        return workspaces.values()
-                         .stream()
-                         .filter(ws -> ws.getNamespace().equals(namespace))
-                         .map(WorkspaceImpl::new)
-                         .collect(toList());
+    public List<WorkspaceImpl> getByNamespace(String namespace) throws ServerException {
+        lock.readLock().lock();
+        try {
+            return namespaces.getOrDefault(namespace, Collections.emptyMap())
+                             .values()
+                             .stream()
+                             .map(WorkspaceImpl::new)
+                             .collect(toList());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public List<WorkspaceImpl> getWorkspaces(String username) throws ServerException {
-        return new ArrayList<>(workspaces.values());
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(workspaces.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private WorkspaceImpl find(String name, String owner) {
+        final Map<String, WorkspaceImpl> byName = namespaces.get(owner);
+        return byName == null ? null : byName.get(name);
     }
 
-    private Optional<WorkspaceImpl> find(String name, String owner) {
-        return workspaces.values()
-                         .stream()
-                         .filter(ws -> ws.getConfig().getName().equals(name) && ws.getNamespace().equals(owner))
-                         .findFirst();
+    private void index(WorkspaceImpl workspace) {
+        workspaces.put(workspace.getId(), workspace);
+        namespaces.computeIfAbsent(workspace.getNamespace(), namespace -> new HashMap<>())
+                  .put(workspace.getConfig().getName(), workspace);
+    }
+
+    private void unindex(WorkspaceImpl workspace) {
+        workspaces.remove(workspace.getId());
+        final Map<String, WorkspaceImpl> byName = namespaces.get(workspace.getNamespace());
+        if (byName != null) {
+            byName.remove(workspace.getConfig().getName(), workspace);
+            if (byName.isEmpty()) {
+                namespaces.remove(workspace.getNamespace());
+            }
+        }
+    }
+
+    private void journalPut(WorkspaceImpl workspace) throws ServerException {
+        try {
+            journal.put(workspace.getId(), workspace);
+        } catch (IOException x) {
+            throw new ServerException(x.getLocalizedMessage(), x);
+        }
+    }
+
+    private void compactJournalIfNeeded() {
+        if (journal.isCompactionNeeded(workspaces.size())) {
+            try {
+                journal.compact(workspaces);
+            } catch (IOException x) {
+                // changes are still in journal, so next compaction stores them
+                LOG.warn("Impossible to compact journal of workspaces: " + x.getMessage(), x);
+            }
+        }
     }
 }
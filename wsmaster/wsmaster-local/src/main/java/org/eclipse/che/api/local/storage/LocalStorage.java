@@ -12,6 +12,7 @@ package org.eclipse.che.api.local.storage;
 
 
 import com.google.common.io.Files;
+import com.google.common.reflect.TypeParameter;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -25,6 +26,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +45,8 @@ public class LocalStorage {
      */
     private File storedFile;
     private Gson gson;
+    /** Writes json without line breaks, so each record of journal takes one line. */
+    private Gson journalGson;
 
     public LocalStorage(String rootDirPath, String fileName) throws IOException {
         this(rootDirPath, fileName, Collections.emptyMap());
@@ -58,13 +62,36 @@ public class LocalStorage {
         for (Map.Entry<Class<?>, Object> adapter : typeAdapters.entrySet()) {
             builder.registerTypeAdapter(adapter.getKey(), adapter.getValue());
         }
+        journalGson = builder.create();
         gson = builder.setPrettyPrinting().create();
     }
 
+    /**
+     * Stores object to json file. Object is written to temporary file which then replaces stored file,
+     * so stored file is never left partially written.
+     */
     public void store(Object storedObj) throws IOException {
-        try (Writer writer = Files.newWriter(storedFile, Charset.forName("UTF-8"))) {
+        final File tmpFile = new File(storedFile.getParentFile(), storedFile.getName() + ".tmp");
+        try (Writer writer = Files.newWriter(tmpFile, Charset.forName("UTF-8"))) {
             gson.toJson(storedObj, writer);
         }
+        java.nio.file.Files.move(tmpFile.toPath(), storedFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param <T>
+     *         the type of values of stored map.
+     * @param valueToken
+     *         value type holder.
+     * @return journal of changes of map stored in this storage.
+     */
+    public <T> LocalStorageJournal<T> journal(TypeToken<T> valueToken) {
+        final TypeToken<Map<String, T>> mapToken = new TypeToken<Map<String, T>>() {}.where(new TypeParameter<T>() {}, valueToken);
+        return new LocalStorageJournal<>(this,
+                                         new File(storedFile.getParentFile(), storedFile.getName() + ".journal"),
+                                         journalGson,
+                                         valueToken,
+                                         mapToken);
     }
 
     /**
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local.storage;
+
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Append-only journal of changes of map which is stored in {@link LocalStorage}.
+ *
+ * <p>Each change is appended to journal file as one line of json, so changes survive restart or crash
+ * of the process without rewriting of whole storage file. {@link #load()} reads stored map and
+ * replays journal over it, {@link #compact(Object)} stores whole map and empties journal.
+ * Record which is written partially, e.g. when process crashed, is dropped from journal on load.
+ *
+ * @param <T>
+ *         the type of values of stored map
+ */
+public class LocalStorageJournal<T> implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalStorageJournal.class);
+
+    /** Journal isn't compacted until it contains at least that number of records. */
+    static final int MIN_COMPACTION_RECORDS = 1000;
+
+    private static final String KEY   = "key";
+    private static final String VALUE = "value";
+
+    private final LocalStorage              storage;
+    private final File                      journalFile;
+    private final Gson                      gson;
+    private final TypeToken<T>              valueToken;
+    private final TypeToken<Map<String, T>> mapToken;
+
+    private FileOutputStream output;
+    private int              records;
+
+    LocalStorageJournal(LocalStorage storage, File journalFile, Gson gson, TypeToken<T> valueToken, TypeToken<Map<String, T>> mapToken) {
+        this.storage = storage;
+        this.journalFile = journalFile;
+        this.gson = gson;
+        this.valueToken = valueToken;
+        this.mapToken = mapToken;
+    }
+
+    /**
+     * Loads stored map and applies all changes from journal to it.
+     *
+     * @return map with all changes applied, never {@code null}
+     */
+    public synchronized Map<String, T> load() {
+        final Map<String, T> entries = new LinkedHashMap<>(storage.loadMap(mapToken));
+        records = 0;
+        if (!journalFile.exists()) {
+            return entries;
+        }
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(journalFile.toPath());
+        } catch (IOException e) {
+            LOG.warn("Impossible to read from " + journalFile.getName(), e);
+            return entries;
+        }
+        final JsonParser parser = new JsonParser();
+        int start = 0;
+        for (int end = indexOfLineEnd(content, start); end != -1; end = indexOfLineEnd(content, start)) {
+            try {
+                final JsonObject record = parser.parse(new String(content, start, end - start, UTF_8)).getAsJsonObject();
+                final JsonElement key = record.get(KEY);
+                if (key == null) {
+                    throw new JsonParseException("Record doesn't have key");
+                }
+                final JsonElement value = record.get(VALUE);
+                if (value == null) {
+                    entries.remove(key.getAsString());
+                } else {
+                    entries.put(key.getAsString(), gson.fromJson(value, valueToken.getType()));
+                }
+            } catch (JsonParseException | IllegalStateException e) {
+                LOG.warn("{} contains invalid record, it and all subsequent records are skipped", journalFile.getName());
+                break;
+            }
+            records++;
+            start = end + 1;
+        }
+        if (start < content.length) {
+            truncate(start);
+        }
+        return entries;
+    }
+
+    /**
+     * Appends record about putting of value to the journal.
+     *
+     * @throws IOException
+     *         if record can't be written
+     */
+    public synchronized void put(String key, T value) throws IOException {
+        final JsonObject record = new JsonObject();
+        record.addProperty(KEY, key);
+        record.add(VALUE, gson.toJsonTree(value));
+        append(record);
+    }
+
+    /**
+     * Appends record about removing of value to the journal.
+     *
+     * @throws IOException
+     *         if record can't be written
+     */
+    public synchronized void remove(String key) throws IOException {
+        final JsonObject record = new JsonObject();
+        record.addProperty(KEY, key);
+        append(record);
+    }
+
+    /**
+     * Checks whether journal is big enough to be compacted.
+     *
+     * @param size
+     *         number of entries in the stored map
+     */
+    public synchronized boolean isCompactionNeeded(int size) {
+        return records >= MIN_COMPACTION_RECORDS && records > size;
+    }
+
+    /**
+     * Stores whole map with {@link LocalStorage#store(Object)} and empties journal.
+     * Caller must not change map until this method returns.
+     *
+     * @throws IOException
+     *         if map can't be stored or journal can't be emptied
+     */
+    public synchronized void compact(Object storedObj) throws IOException {
+        storage.store(storedObj);
+        close();
+        Files.deleteIfExists(journalFile.toPath());
+        records = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (output != null) {
+            try {
+                output.close();
+            } finally {
+                output = null;
+            }
+        }
+    }
+
+    private void append(JsonObject record) throws IOException {
+        if (output == null) {
+            output = new FileOutputStream(journalFile, true);
+        }
+        // single write of whole line, so record is either written completely or dropped on load
+        output.write((gson.toJson(record) + '\n').getBytes(UTF_8));
+        records++;
+    }
+
+    private void truncate(long length) {
+        LOG.warn("Incomplete records are removed from {}", journalFile.getName());
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.setLength(length);
+        } catch (IOException e) {
+            LOG.warn("Impossible to truncate " + journalFile.getName(), e);
+        }
+    }
+
+    private static int indexOfLineEnd(byte[] content, int start) {
+        for (int i = start; i < content.length; i++) {
+            if (content[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.machine.server.recipe.RecipeImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceConfigImpl;
+import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.commons.lang.NameGenerator.generate;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+/**
+ * Measures time of changes, lookups and restoring from storage of {@link LocalWorkspaceDaoImpl} and {@link LocalRecipeDaoImpl}.
+ *
+ * <p>Benchmark isn't run by default build, run it with:
+ * <pre>
+ * mvn test -Dtest=LocalDaoBenchmark -Dlocal.dao.benchmark=true [-Dlocal.dao.benchmark.entries=100000]
+ * </pre>
+ */
+public class LocalDaoBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalDaoBenchmark.class);
+
+    private static final int NAMESPACES = 1000;
+    private static final int TAGS       = 100;
+
+    private Path storageRoot;
+    private int  entries;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        if (!Boolean.getBoolean("local.dao.benchmark")) {
+            throw new SkipException("Property local.dao.benchmark is not set");
+        }
+        entries = Integer.getInteger("local.dao.benchmark.entries", 100000);
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
+        assertNotNull(url);
+        storageRoot = Paths.get(url.toURI()).getParent().resolve(generate("dao-benchmark-", 4));
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        if (storageRoot != null) {
+            IoUtil.deleteRecursive(storageRoot.toFile());
+        }
+    }
+
+    @Test
+    public void workspaces() throws Exception {
+        final LocalWorkspaceDaoImpl workspaceDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(storageRoot.toString()));
+        final long create = time(() -> {
+            for (int i = 0; i < entries; i++) {
+                workspaceDao.create(createWorkspace(i));
+            }
+        });
+        final long lookup = time(() -> {
+            for (int i = 0; i < entries; i++) {
+                workspaceDao.get("workspace" + i, "user" + i % NAMESPACES);
+            }
+            for (int i = 0; i < NAMESPACES; i++) {
+                workspaceDao.getByNamespace("user" + i);
+            }
+        });
+        final LocalWorkspaceDaoImpl restoredDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(storageRoot.toString()));
+        final long restore = time(restoredDao::loadWorkspaces);
+        assertEquals(restoredDao.getWorkspaces(null).size(), entries);
+        final long store = time(restoredDao::saveWorkspaces);
+        LOG.info("{} workspaces: create {} ms, lookup by name and by namespace {} ms, restore {} ms, store {} ms",
+                 entries, create, lookup, restore, store);
+    }
+
+    @Test
+    public void recipes() throws Exception {
+        final LocalRecipeDaoImpl recipeDao = new LocalRecipeDaoImpl(new LocalStorageFactory(storageRoot.toString()));
+        final long create = time(() -> {
+            for (int i = 0; i < entries; i++) {
+                recipeDao.create(new RecipeImpl().withId("recipe" + i)
+                                                 .withName("recipe" + i)
+                                                 .withCreator("user" + i % NAMESPACES)
+                                                 .withType(i % 2 == 0 ? "dockerfile" : "compose")
+                                                 .withScript("FROM codenvy/ubuntu_jdk8")
+                                                 .withTags(singletonList("tag" + i % TAGS)));
+            }
+        });
+        final long search = time(() -> {
+            for (int i = 0; i < TAGS; i++) {
+                recipeDao.search(singletonList("tag" + i), "dockerfile", 0, 30);
+                recipeDao.getByCreator("user" + i, 0, 30);
+            }
+        });
+        final LocalRecipeDaoImpl restoredDao = new LocalRecipeDaoImpl(new LocalStorageFactory(storageRoot.toString()));
+        final long restore = time(restoredDao::start);
+        assertEquals(restoredDao.search(null, null, 0, Integer.MAX_VALUE).size(), entries);
+        LOG.info("{} recipes: create {} ms, {} searches by tag, type and creator {} ms, restore {} ms",
+                 entries, create, TAGS * 2, search, restore);
+    }
+
+    private static WorkspaceImpl createWorkspace(int index) {
+        return WorkspaceImpl.builder()
+                            .setId("workspace" + index)
+                            .setConfig(new WorkspaceConfigImpl("workspace" + index,
+                                                               "benchmark workspace",
+                                                               "default",
+                                                               emptyList(),
+                                                               emptyList(),
+                                                               emptyList()))
+                            .setNamespace("user" + index % NAMESPACES)
+                            .build();
+    }
+
+    private static long time(Action action) throws Exception {
+        final long start = System.currentTimeMillis();
+        action.run();
+        return System.currentTimeMillis() - start;
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+}
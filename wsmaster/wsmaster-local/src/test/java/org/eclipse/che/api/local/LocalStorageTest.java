@@ -14,11 +14,13 @@ import com.google.common.io.Files;
 import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.local.storage.LocalStorageJournal;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -30,7 +32,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 
@@ -174,6 +178,54 @@ public class LocalStorageTest {
         assertTrue(map.isEmpty());
     }
 
+    @Test
+    public void replayJournalOverStoredMapTest() throws IOException {
+        File journalFile = new File(storageDir, "journaled.json.journal");
+        journalFile.delete();
+        storage = new LocalStorage(storageDir, "journaled.json");
+        storage.store(Collections.singletonMap("k1", "v1"));
+        LocalStorageJournal<String> journal = storage.journal(TypeToken.of(String.class));
+        journal.put("k2", "v2");
+        journal.put("k1", "v3");
+        journal.remove("k2");
+        journal.close();
+
+        Map<String, String> map = storage.journal(TypeToken.of(String.class)).load();
+
+        assertEquals(map, Collections.singletonMap("k1", "v3"));
+    }
+
+    @Test
+    public void compactJournalTest() throws IOException {
+        storage = new LocalStorage(storageDir, "compacted.json");
+        LocalStorageJournal<String> journal = storage.journal(TypeToken.of(String.class));
+        journal.put("k1", "v1");
+
+        journal.compact(Collections.singletonMap("k1", "v1"));
+
+        assertFalse(new File(storageDir, "compacted.json.journal").exists());
+        assertEquals(storage.loadMap(new TypeToken<Map<String, String>>() {}), Collections.singletonMap("k1", "v1"));
+    }
+
+    @Test
+    public void skipIncompleteJournalRecordTest() throws IOException {
+        File journalFile = new File(storageDir, "torn.json.journal");
+        journalFile.delete();
+        storage = new LocalStorage(storageDir, "torn.json");
+        LocalStorageJournal<String> journal = storage.journal(TypeToken.of(String.class));
+        journal.put("k1", "v1");
+        journal.close();
+        long length = journalFile.length();
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.seek(length);
+            file.write("{\"key\":\"k2\",\"val".getBytes(UTF_8));
+        }
+
+        Map<String, String> map = storage.journal(TypeToken.of(String.class)).load();
+
+        assertEquals(map, Collections.singletonMap("k1", "v1"));
+        assertEquals(journalFile.length(), length);
+    }
 
     private Path targetDir() throws URISyntaxException {
         final URL url = Thread.currentThread().getContextClassLoader().getResource(".");
@@ -13,6 +13,7 @@ package org.eclipse.che.api.local;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.machine.server.model.impl.CommandImpl;
 import org.eclipse.che.api.machine.server.model.impl.LimitsImpl;
@@ -45,6 +46,7 @@ import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.eclipse.che.commons.lang.NameGenerator.generate;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 
 /**
@@ -88,6 +90,35 @@ public class LocalWorkspaceDaoTest {
         assertEquals(result, workspace);
     }
 
+    @Test
+    public void testWorkspaceChangesRestoredFromJournal() throws Exception {
+        final WorkspaceImpl workspace = createWorkspace();
+        final WorkspaceImpl removed = createWorkspace();
+        removed.getConfig().setName("removed-workspace");
+        workspaceDao.create(workspace);
+        workspaceDao.create(removed);
+        workspaceDao.remove(removed.getId());
+
+        final LocalWorkspaceDaoImpl restoredDao = new LocalWorkspaceDaoImpl(new LocalStorageFactory(workspacesPath.getParent().toString()));
+        restoredDao.loadWorkspaces();
+
+        assertEquals(restoredDao.get(workspace.getId()), workspace);
+        assertFalse(restoredDao.getByNamespace(removed.getNamespace()).stream().anyMatch(ws -> ws.getId().equals(removed.getId())));
+        restoredDao.saveWorkspaces();
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void testUpdateFailsWhenWorkspaceWithSameNameExists() throws Exception {
+        final WorkspaceImpl workspace1 = createWorkspace();
+        final WorkspaceImpl workspace2 = createWorkspace();
+        workspace2.getConfig().setName("other-workspace-name");
+        workspaceDao.create(workspace1);
+        workspaceDao.create(workspace2);
+
+        workspace2.getConfig().setName(workspace1.getConfig().getName());
+        workspaceDao.update(workspace2);
+    }
+
     private static WorkspaceImpl createWorkspace() {
         // environments
         final RecipeImpl recipe = new RecipeImpl();